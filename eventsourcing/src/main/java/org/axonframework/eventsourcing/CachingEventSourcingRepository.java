@@ -99,7 +99,8 @@ protected void doDeleteWithLock(EventSourcedAggregate<T> aggregate) {
     /**
      * Perform the actual loading of an aggregate. The necessary locks have been obtained. If the aggregate is
      * available in the cache, it is returned from there. Otherwise the underlying persistence logic is called to
-     * retrieve the aggregate.
+     * retrieve the aggregate, which is stored in the cache through {@link Cache#computeIfAbsent}. Callers loading the
+     * same aggregate concurrently thus share a single retrieval, if the cache supports this.
      *
      * @param aggregateIdentifier the identifier of the aggregate to load
      * @param expectedVersion     The expected version of the aggregate
@@ -107,18 +108,16 @@ protected void doDeleteWithLock(EventSourcedAggregate<T> aggregate) {
      */
     @Override
     protected EventSourcedAggregate<T> doLoadWithLock(String aggregateIdentifier, Long expectedVersion) {
-        EventSourcedAggregate<T> aggregate = null;
-        AggregateCacheEntry<T> cacheEntry = cache.get(aggregateIdentifier);
-        if (cacheEntry != null) {
-            CurrentUnitOfWork.get().onRollback(u -> cache.remove(aggregateIdentifier));
-            aggregate = cacheEntry.recreateAggregate(aggregateModel(),
-                                                     eventStore,
-                                                     repositoryProvider,
-                                                     snapshotTriggerDefinition);
-        }
-        if (aggregate == null) {
-            aggregate = super.doLoadWithLock(aggregateIdentifier, expectedVersion);
-        } else if (aggregate.isDeleted()) {
+        AggregateCacheEntry<T> cacheEntry = cache.computeIfAbsent(
+                aggregateIdentifier,
+                () -> new AggregateCacheEntry<>(super.doLoadWithLock(aggregateIdentifier, expectedVersion))
+        );
+        CurrentUnitOfWork.get().onRollback(u -> cache.remove(aggregateIdentifier));
+        EventSourcedAggregate<T> aggregate = cacheEntry.recreateAggregate(aggregateModel(),
+                                                                          eventStore,
+                                                                          repositoryProvider,
+                                                                          snapshotTriggerDefinition);
+        if (aggregate.isDeleted()) {
             throw new AggregateDeletedException(aggregateIdentifier);
         }
         return aggregate;
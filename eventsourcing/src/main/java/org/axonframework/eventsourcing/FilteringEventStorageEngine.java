@@ -27,6 +27,7 @@
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -95,6 +96,14 @@ public Optional<DomainEventMessage<?>> readSnapshot(@Nonnull String aggregateIde
         return delegate.readSnapshot(aggregateIdentifier);
     }
 
+    @Override
+    public DomainEventStream readSnapshotAndEvents(
+            @Nonnull String aggregateIdentifier,
+            @Nonnull Function<Throwable, Optional<DomainEventMessage<?>>> snapshotErrorHandler
+    ) {
+        return delegate.readSnapshotAndEvents(aggregateIdentifier, snapshotErrorHandler);
+    }
+
     @Override
     public Optional<Long> lastSequenceNumberFor(@Nonnull String aggregateIdentifier) {
         return delegate.lastSequenceNumberFor(aggregateIdentifier);
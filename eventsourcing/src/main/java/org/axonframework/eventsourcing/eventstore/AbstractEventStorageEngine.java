@@ -21,6 +21,7 @@
 import org.axonframework.eventhandling.DomainEventData;
 import org.axonframework.eventhandling.DomainEventMessage;
 import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.Segment;
 import org.axonframework.eventhandling.TrackedEventData;
 import org.axonframework.eventhandling.TrackedEventMessage;
 import org.axonframework.eventhandling.TrackingToken;
@@ -37,12 +38,14 @@
 import java.lang.invoke.MethodHandles;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 
 import static java.lang.String.format;
+import static java.util.stream.Collectors.toSet;
 import static org.axonframework.common.BuilderUtils.assertNonNull;
 import static org.axonframework.eventhandling.EventUtils.upcastAndDeserializeTrackedEvents;
 import static org.axonframework.eventsourcing.EventStreamUtils.upcastAndDeserializeDomainEvents;
@@ -86,6 +89,46 @@ public Stream<? extends TrackedEventMessage<?>> readEvents(TrackingToken trackin
         return upcastAndDeserializeTrackedEvents(input, getEventSerializer(), upcasterChain);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The given {@code skippedPayloadTypes} are translated to their serialized type names, which are passed to {@link
+     * #readEventData(TrackingToken, boolean, Set)}. This only happens when no upcasters are configured, as upcasters
+     * may change the payload type of events, making the stored payload type an unreliable criterion for skipping them.
+     */
+    @Override
+    public Stream<? extends TrackedEventMessage<?>> readEvents(TrackingToken trackingToken,
+                                                               boolean mayBlock,
+                                                               @Nonnull Set<Class<?>> skippedPayloadTypes) {
+        return readEvents(trackingToken, mayBlock, skippedPayloadTypes, Segment.ROOT_SEGMENT);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The given {@code skippedPayloadTypes} are translated to their serialized type names, which are passed to {@link
+     * #readEventData(TrackingToken, boolean, Set, Segment)} together with the {@code segment}. This only happens when
+     * no upcasters are configured, as upcasters may change the payload type of events and expect their payload to be
+     * present.
+     */
+    @Override
+    public Stream<? extends TrackedEventMessage<?>> readEvents(TrackingToken trackingToken,
+                                                               boolean mayBlock,
+                                                               @Nonnull Set<Class<?>> skippedPayloadTypes,
+                                                               @Nonnull Segment segment) {
+        boolean filtered = !skippedPayloadTypes.isEmpty() || segment.getMask() != 0;
+        if (!filtered || upcasterChain != NoOpEventUpcaster.INSTANCE) {
+            return readEvents(trackingToken, mayBlock);
+        }
+        Serializer serializer = getEventSerializer();
+        Set<String> skippedTypeNames = skippedPayloadTypes.stream()
+                                                          .map(type -> serializer.typeForClass(type).getName())
+                                                          .collect(toSet());
+        Stream<? extends TrackedEventData<?>> input =
+                readEventData(trackingToken, mayBlock, skippedTypeNames, segment);
+        return upcastAndDeserializeTrackedEvents(input, serializer, upcasterChain);
+    }
+
     @Override
     public DomainEventStream readEvents(@Nonnull String aggregateIdentifier, long firstSequenceNumber) {
         Stream<? extends DomainEventData<?>> input = readEventData(aggregateIdentifier, firstSequenceNumber);
@@ -94,7 +137,21 @@ public DomainEventStream readEvents(@Nonnull String aggregateIdentifier, long fi
 
     @Override
     public Optional<DomainEventMessage<?>> readSnapshot(@Nonnull String aggregateIdentifier) {
-        return readSnapshotData(aggregateIdentifier)
+        return upcastAndDeserializeSnapshot(readSnapshotData(aggregateIdentifier));
+    }
+
+    /**
+     * Returns the first of the given serialized {@code snapshots} allowed by the configured {@link SnapshotFilter},
+     * upcast and deserialized. The snapshots are expected to be ordered from the most recent to the oldest, like the
+     * result of {@link #readSnapshotData(String)}.
+     *
+     * @param snapshots Stream of serialized snapshots, ordered from the most recent to the oldest
+     * @return An optional with the deserialized snapshot to use, or an empty Optional if none is allowed
+     */
+    protected Optional<DomainEventMessage<?>> upcastAndDeserializeSnapshot(
+            Stream<? extends DomainEventData<?>> snapshots
+    ) {
+        return snapshots
                 .filter(snapshotFilter::allow)
                 .map(snapshot -> upcastAndDeserializeDomainEvents(Stream.of(snapshot),
                                                                   getSnapshotSerializer(),
@@ -218,6 +275,54 @@ private String buildExceptionMessage(EventMessage<?> failedEvent) {
     protected abstract Stream<? extends TrackedEventData<?>> readEventData(TrackingToken trackingToken,
                                                                            boolean mayBlock);
 
+    /**
+     * Returns a global {@link Stream} containing all serialized event data entries in the event storage that have a
+     * {@link TrackingToken} greater than the given {@code trackingToken}, like {@link #readEventData(TrackingToken,
+     * boolean)}. Entries with a payload type name in the given {@code skippedPayloadTypes} may be returned with an
+     * empty payload and meta data, as the caller will ignore them. They should still be part of the stream, so that
+     * the tracking tokens of subsequent entries are not affected by skipping them.
+     * <p>
+     * By default this method ignores the {@code skippedPayloadTypes} and returns the result of {@link
+     * #readEventData(TrackingToken, boolean)}.
+     *
+     * @param trackingToken       Object describing the global index of the last processed event or {@code null} to
+     *                            create a stream of all events in the store
+     * @param mayBlock            If {@code true} the storage engine may optionally choose to block to wait for new
+     *                            event messages if the end of the stream is reached.
+     * @param skippedPayloadTypes The serialized payload type names of entries the caller will ignore
+     * @return A stream containing all tracked event messages stored since the given tracking token
+     */
+    protected Stream<? extends TrackedEventData<?>> readEventData(TrackingToken trackingToken,
+                                                                  boolean mayBlock,
+                                                                  Set<String> skippedPayloadTypes) {
+        return readEventData(trackingToken, mayBlock);
+    }
+
+    /**
+     * Returns a global {@link Stream} containing all serialized event data entries in the event storage that have a
+     * {@link TrackingToken} greater than the given {@code trackingToken}, like {@link #readEventData(TrackingToken,
+     * boolean, Set)}. Entries that do not belong to the given {@code segment} may be returned with an empty payload and
+     * meta data, like entries with a skipped payload type. An entry belongs to a segment if the hash code of its
+     * aggregate identifier, or of its event identifier if it has no aggregate identifier, matches the segment.
+     * <p>
+     * By default this method ignores the {@code segment} and returns the result of {@link
+     * #readEventData(TrackingToken, boolean, Set)}.
+     *
+     * @param trackingToken       Object describing the global index of the last processed event or {@code null} to
+     *                            create a stream of all events in the store
+     * @param mayBlock            If {@code true} the storage engine may optionally choose to block to wait for new
+     *                            event messages if the end of the stream is reached.
+     * @param skippedPayloadTypes The serialized payload type names of entries the caller will ignore
+     * @param segment             The segment of the entries the caller handles
+     * @return A stream containing all tracked event messages stored since the given tracking token
+     */
+    protected Stream<? extends TrackedEventData<?>> readEventData(TrackingToken trackingToken,
+                                                                  boolean mayBlock,
+                                                                  Set<String> skippedPayloadTypes,
+                                                                  Segment segment) {
+        return readEventData(trackingToken, mayBlock, skippedPayloadTypes);
+    }
+
     /**
      * Returns a stream of serialized event entries for given {@code aggregateIdentifier} if the backing database
      * contains a snapshot of the aggregate.
@@ -75,21 +75,9 @@ protected void prepareCommit(List<? extends EventMessage<?>> events) {
      */
     @Override
     public DomainEventStream readEvents(@Nonnull String aggregateIdentifier) {
-        Optional<DomainEventMessage<?>> optionalSnapshot;
-        try {
-            optionalSnapshot = storageEngine.readSnapshot(aggregateIdentifier);
-        } catch (Exception | LinkageError e) {
-            optionalSnapshot = handleSnapshotReadingError(aggregateIdentifier, e);
-        }
-        DomainEventStream eventStream;
-        if (optionalSnapshot.isPresent()) {
-            DomainEventMessage<?> snapshot = optionalSnapshot.get();
-            eventStream = DomainEventStream.concat(DomainEventStream.of(snapshot),
-                                                   storageEngine.readEvents(aggregateIdentifier,
-                                                                            snapshot.getSequenceNumber() + 1));
-        } else {
-            eventStream = storageEngine.readEvents(aggregateIdentifier);
-        }
+        DomainEventStream eventStream = storageEngine.readSnapshotAndEvents(
+                aggregateIdentifier, e -> handleSnapshotReadingError(aggregateIdentifier, e)
+        );
 
         Stream<? extends DomainEventMessage<?>> domainEventMessages = stagedDomainEventMessages(aggregateIdentifier);
         return DomainEventStream.concat(eventStream, DomainEventStream.of(domainEventMessages));
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2010-2021. Axon Framework
+ * Copyright (c) 2010-2022. Axon Framework
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,36 +17,58 @@
 package org.axonframework.eventsourcing.eventstore;
 
 import org.axonframework.common.AxonConfigurationException;
+import org.axonframework.common.AxonThreadFactory;
 import org.axonframework.common.BuilderUtils;
 import org.axonframework.common.jdbc.PersistenceExceptionResolver;
 import org.axonframework.eventhandling.DomainEventData;
+import org.axonframework.eventhandling.Segment;
 import org.axonframework.eventhandling.TrackedEventData;
 import org.axonframework.eventhandling.TrackingToken;
 import org.axonframework.eventsourcing.snapshotting.SnapshotFilter;
+import org.axonframework.lifecycle.Lifecycle;
+import org.axonframework.lifecycle.Phase;
 import org.axonframework.serialization.Serializer;
 import org.axonframework.serialization.upcasting.event.EventUpcaster;
 import org.axonframework.serialization.upcasting.event.NoOpEventUpcaster;
 
+import java.util.Collections;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
+import javax.annotation.Nonnull;
 
 import static org.axonframework.common.BuilderUtils.assertThat;
 import static org.axonframework.common.ObjectUtils.getOrDefault;
 
 /**
  * {@link AbstractEventStorageEngine} implementation that fetches events in batches from the backing database.
+ * <p>
+ * When {@link Builder#readAheadBatches(int) read-ahead} is enabled without a {@link Builder#readAheadExecutor(Executor)
+ * read-ahead Executor}, the engine creates a bounded thread pool of its own. This pool is shut down in the {@link
+ * Phase#OUTBOUND_EVENT_CONNECTORS} phase, or when {@link #shutDown()} is invoked.
  *
  * @author Rene de Waele
  * @since 3.0
  */
-public abstract class BatchingEventStorageEngine extends AbstractEventStorageEngine {
+public abstract class BatchingEventStorageEngine extends AbstractEventStorageEngine implements Lifecycle {
 
     private static final int DEFAULT_BATCH_SIZE = 100;
     /**
@@ -56,9 +78,13 @@ public abstract class BatchingEventStorageEngine extends AbstractEventStorageEng
      * will block further event retrieval.
      */
     private static final boolean BATCH_OPTIMIZATION_DISABLED = false;
+    private static final int DEFAULT_READ_AHEAD_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
 
     private final int batchSize;
     private final Predicate<List<? extends DomainEventData<?>>> finalAggregateBatchPredicate;
+    private final int readAheadBatches;
+    private final Executor readAheadExecutor;
+    private final ExecutorService ownedReadAheadExecutor;
 
     /**
      * Instantiate a {@link BatchingEventStorageEngine} based on the fields contained in the {@link Builder}.
@@ -72,6 +98,42 @@ protected BatchingEventStorageEngine(Builder builder) {
         super(builder);
         this.batchSize = builder.batchSize;
         this.finalAggregateBatchPredicate = getOrDefault(builder.finalAggregateBatchPredicate, this::defaultFinalAggregateBatchPredicate);
+        this.readAheadBatches = builder.readAheadBatches;
+        this.ownedReadAheadExecutor = readAheadBatches == 0 || builder.readAheadExecutor != null
+                ? null
+                : defaultReadAheadExecutor();
+        this.readAheadExecutor = getOrDefault(builder.readAheadExecutor, ownedReadAheadExecutor);
+    }
+
+    private static ExecutorService defaultReadAheadExecutor() {
+        ThreadFactory threadFactory = new AxonThreadFactory("BatchingEventStorageEngine-ReadAhead");
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                DEFAULT_READ_AHEAD_THREADS, DEFAULT_READ_AHEAD_THREADS, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = threadFactory.newThread(runnable);
+                    thread.setDaemon(true);
+                    return thread;
+                }
+        );
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    @Override
+    public void registerLifecycleHandlers(@Nonnull LifecycleRegistry lifecycle) {
+        lifecycle.onShutdown(Phase.OUTBOUND_EVENT_CONNECTORS, this::shutDown);
+    }
+
+    /**
+     * Shuts down the read-ahead thread pool created by this engine, if any. Batches that are already being read ahead
+     * are still fetched. Afterwards, open event streams fetch their batches on the consuming thread. A {@link
+     * Builder#readAheadExecutor(Executor) read-ahead Executor} provided by the user is left untouched.
+     */
+    public void shutDown() {
+        if (ownedReadAheadExecutor != null) {
+            ownedReadAheadExecutor.shutdown();
+        }
     }
 
     /**
@@ -90,6 +152,52 @@ protected BatchingEventStorageEngine(Builder builder) {
      */
     protected abstract List<? extends TrackedEventData<?>> fetchTrackedEvents(TrackingToken lastToken, int batchSize);
 
+    /**
+     * Returns a batch of serialized event data entries in the event storage that have a {@link TrackingToken} greater
+     * than the given {@code lastToken}, like {@link #fetchTrackedEvents(TrackingToken, int)}. Entries with a payload
+     * type name in the given {@code skippedPayloadTypes} may be returned with an empty payload and meta data, as these
+     * entries will be ignored. They should still be part of the batch, so that the tracking tokens of subsequent
+     * entries account for them.
+     * <p>
+     * By default this method ignores the {@code skippedPayloadTypes} and returns the result of {@link
+     * #fetchTrackedEvents(TrackingToken, int)}.
+     *
+     * @param lastToken           Object describing the global index of the last processed event or {@code null} to
+     *                            create a stream of all events in the store
+     * @param batchSize           The maximum number of events that should be returned
+     * @param skippedPayloadTypes The serialized payload type names of entries that will be ignored
+     * @return A batch of tracked event messages stored since the given tracking token
+     */
+    protected List<? extends TrackedEventData<?>> fetchTrackedEvents(TrackingToken lastToken,
+                                                                     int batchSize,
+                                                                     Set<String> skippedPayloadTypes) {
+        return fetchTrackedEvents(lastToken, batchSize);
+    }
+
+    /**
+     * Returns a batch of serialized event data entries in the event storage that have a {@link TrackingToken} greater
+     * than the given {@code lastToken}, like {@link #fetchTrackedEvents(TrackingToken, int, Set)}. Entries that do not
+     * belong to the given {@code segment} may be returned with an empty payload and meta data, like entries with a
+     * skipped payload type. An entry belongs to a segment if the hash code of its aggregate identifier, or of its event
+     * identifier if it has no aggregate identifier, matches the segment.
+     * <p>
+     * By default this method ignores the {@code segment} and returns the result of {@link
+     * #fetchTrackedEvents(TrackingToken, int, Set)}.
+     *
+     * @param lastToken           Object describing the global index of the last processed event or {@code null} to
+     *                            create a stream of all events in the store
+     * @param batchSize           The maximum number of events that should be returned
+     * @param skippedPayloadTypes The serialized payload type names of entries that will be ignored
+     * @param segment             The segment of the entries that will be handled
+     * @return A batch of tracked event messages stored since the given tracking token
+     */
+    protected List<? extends TrackedEventData<?>> fetchTrackedEvents(TrackingToken lastToken,
+                                                                     int batchSize,
+                                                                     Set<String> skippedPayloadTypes,
+                                                                     Segment segment) {
+        return fetchTrackedEvents(lastToken, batchSize, skippedPayloadTypes);
+    }
+
     /**
      * Returns a batch of events published by an aggregate with given {@code aggregateIdentifier}.
      * <p/>
@@ -130,11 +238,30 @@ private boolean defaultFinalAggregateBatchPredicate(List<? extends DomainEventDa
 
     @Override
     protected Stream<? extends DomainEventData<?>> readEventData(String identifier, long firstSequenceNumber) {
-        EventStreamSpliterator<? extends DomainEventData<?>> spliterator = new EventStreamSpliterator<>(
+        return newStream(
                 lastItem -> fetchDomainEvents(identifier,
                                               lastItem == null ? firstSequenceNumber : lastItem.getSequenceNumber() + 1,
                                               batchSize), finalAggregateBatchPredicate);
-        return StreamSupport.stream(spliterator, false);
+    }
+
+    /**
+     * Returns a stream of the serialized event entries of the aggregate with given {@code identifier}, starting with
+     * the given {@code firstBatch}. This batch should have been fetched like {@link #fetchDomainEvents(String, long,
+     * int)} does, for example by a query that also returned other data. Subsequent batches are fetched like {@link
+     * #readEventData(String, long)} does.
+     *
+     * @param identifier The identifier of the aggregate to open a stream for
+     * @param firstBatch The first batch of serialized event entries of the aggregate
+     * @return a stream of serialized event entries for the given aggregate, starting with the given batch
+     */
+    protected Stream<? extends DomainEventData<?>> readEventData(String identifier,
+                                                                 List<? extends DomainEventData<?>> firstBatch) {
+        return newStream(
+                lastItem -> lastItem == null
+                        ? firstBatch
+                        : fetchDomainEvents(identifier, lastItem.getSequenceNumber() + 1, batchSize),
+                finalAggregateBatchPredicate
+        );
     }
 
     /**
@@ -144,11 +271,65 @@ protected Stream<? extends DomainEventData<?>> readEventData(String identifier,
      */
     @Override
     protected Stream<? extends TrackedEventData<?>> readEventData(TrackingToken trackingToken, boolean mayBlock) {
-        EventStreamSpliterator<? extends TrackedEventData<?>> spliterator = new EventStreamSpliterator<>(
+        return newStream(
                 lastItem -> fetchTrackedEvents(lastItem == null ? trackingToken : lastItem.trackingToken(), batchSize),
                 batch -> BATCH_OPTIMIZATION_DISABLED
         );
-        return StreamSupport.stream(spliterator, false);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation produces non-blocking event streams, fetching batches through {@link
+     * #fetchTrackedEvents(TrackingToken, int, Set)}.
+     */
+    @Override
+    protected Stream<? extends TrackedEventData<?>> readEventData(TrackingToken trackingToken,
+                                                                  boolean mayBlock,
+                                                                  Set<String> skippedPayloadTypes) {
+        if (skippedPayloadTypes.isEmpty()) {
+            return readEventData(trackingToken, mayBlock);
+        }
+        return newStream(
+                lastItem -> fetchTrackedEvents(lastItem == null ? trackingToken : lastItem.trackingToken(),
+                                               batchSize,
+                                               skippedPayloadTypes),
+                batch -> BATCH_OPTIMIZATION_DISABLED
+        );
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation produces non-blocking event streams, fetching batches through {@link
+     * #fetchTrackedEvents(TrackingToken, int, Set, Segment)}.
+     */
+    @Override
+    protected Stream<? extends TrackedEventData<?>> readEventData(TrackingToken trackingToken,
+                                                                  boolean mayBlock,
+                                                                  Set<String> skippedPayloadTypes,
+                                                                  Segment segment) {
+        if (segment.getMask() == 0) {
+            return readEventData(trackingToken, mayBlock, skippedPayloadTypes);
+        }
+        return newStream(
+                lastItem -> fetchTrackedEvents(lastItem == null ? trackingToken : lastItem.trackingToken(),
+                                               batchSize,
+                                               skippedPayloadTypes,
+                                               segment),
+                batch -> BATCH_OPTIMIZATION_DISABLED
+        );
+    }
+
+    private <T> Stream<T> newStream(Function<T, List<? extends T>> fetchFunction,
+                                    Predicate<List<? extends T>> finalBatchPredicate) {
+        if (readAheadBatches == 0) {
+            return StreamSupport.stream(new EventStreamSpliterator<>(fetchFunction, finalBatchPredicate), false);
+        }
+        ReadAheadEventStreamSpliterator<T> spliterator = new ReadAheadEventStreamSpliterator<>(
+                fetchFunction, finalBatchPredicate, readAheadBatches, readAheadExecutor
+        );
+        return StreamSupport.stream(spliterator, false).onClose(spliterator::close);
     }
 
     /**
@@ -160,12 +341,22 @@ public int batchSize() {
         return batchSize;
     }
 
+    /**
+     * Returns the maximum number of batches fetched ahead of the batch that is being consumed. A value of {@code 0}
+     * means batches are only fetched once the previous batch has been consumed.
+     *
+     * @return the number of batches fetched ahead of consumption
+     */
+    public int readAheadBatches() {
+        return readAheadBatches;
+    }
+
     /**
      * Abstract Builder class to instantiate a {@link BatchingEventStorageEngine}.
      * <p>
      * The {@link EventUpcaster} defaults to a {@link NoOpEventUpcaster}, the {@code snapshotFilter} defaults to a
-     * {@link SnapshotFilter#allowAll()} instance and the {@code batchSize} is defaulted to an integer of size {@code
-     * 100}.
+     * {@link SnapshotFilter#allowAll()} instance, the {@code batchSize} is defaulted to an integer of size {@code
+     * 100} and the {@code readAheadBatches} defaults to {@code 0}, disabling read-ahead.
      * <p>
      * The event and snapshot {@link Serializer} are <b>hard requirements</b> and as such should be provided.
      */
@@ -173,6 +364,8 @@ public abstract static class Builder extends AbstractEventStorageEngine.Builder
 
         private int batchSize = DEFAULT_BATCH_SIZE;
         private Predicate<List<? extends DomainEventData<?>>> finalAggregateBatchPredicate;
+        private int readAheadBatches = 0;
+        private Executor readAheadExecutor;
 
         @Override
         public BatchingEventStorageEngine.Builder snapshotSerializer(Serializer snapshotSerializer) {
@@ -251,6 +444,44 @@ public Builder batchSize(int batchSize) {
             return this;
         }
 
+        /**
+         * Sets the number of batches that should be fetched ahead of the batch that is being consumed. When positive,
+         * the next batch of an event stream is fetched on the {@link #readAheadExecutor(Executor) read-ahead Executor}
+         * while the current batch is being processed, so that database round trips overlap with event handling. The
+         * given number bounds the batches that are fetched but not yet consumed, per stream. Defaults to {@code 0},
+         * which fetches the next batch only once the current one has been consumed.
+         * <p>
+         * Note that read-ahead batches are fetched in a transaction of their own, on a different thread than the one
+         * consuming the stream. Hence the engine's resources, like its {@code EntityManager}, should be safe to use
+         * from several threads at once. This rules out a single shared {@code EntityManager}, as provided by a
+         * {@code SimpleEntityManagerProvider}. Once a stream has caught up with the head of the event store, the next
+         * fetch is performed on the consuming thread, after which read-ahead resumes. Closing a stream cancels its
+         * pending read-ahead fetches.
+         *
+         * @param readAheadBatches an {@code int} specifying the number of batches to fetch ahead of consumption
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder readAheadBatches(int readAheadBatches) {
+            assertThat(readAheadBatches, number -> number >= 0, "The readAheadBatches must not be negative");
+            this.readAheadBatches = readAheadBatches;
+            return this;
+        }
+
+        /**
+         * Sets the {@link Executor} used to fetch batches ahead of consumption, when {@link #readAheadBatches(int)} is
+         * positive. Defaults to a pool of daemon threads, bounded by the number of available processors (and at least
+         * two), which is shut down together with the engine. The lifecycle of a given {@code Executor} remains the
+         * responsibility of the caller.
+         *
+         * @param readAheadExecutor the {@link Executor} used to fetch batches ahead of consumption
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder readAheadExecutor(Executor readAheadExecutor) {
+            BuilderUtils.assertNonNull(readAheadExecutor, "The readAheadExecutor must not be null");
+            this.readAheadExecutor = readAheadExecutor;
+            return this;
+        }
+
         /**
          * Validates whether the fields contained in this Builder are set accordingly.
          *
@@ -298,4 +529,112 @@ public boolean tryAdvance(Consumer<? super T> action) {
             return true;
         }
     }
+
+    private static class ReadAheadEventStreamSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+
+        private final Function<T, List<? extends T>> fetchFunction;
+        private final Predicate<List<? extends T>> finalBatchPredicate;
+        private final int readAheadBatches;
+        private final Executor executor;
+        private final Deque<CompletableFuture<List<? extends T>>> batches = new ConcurrentLinkedDeque<>();
+
+        private Iterator<? extends T> iterator;
+        private T lastItem;
+        private boolean lastBatchFound;
+        private volatile boolean closed;
+
+        private ReadAheadEventStreamSpliterator(Function<T, List<? extends T>> fetchFunction,
+                                                Predicate<List<? extends T>> finalBatchPredicate,
+                                                int readAheadBatches,
+                                                Executor executor) {
+            super(Long.MAX_VALUE, NONNULL | ORDERED | DISTINCT | CONCURRENT);
+            this.fetchFunction = fetchFunction;
+            this.finalBatchPredicate = finalBatchPredicate;
+            this.readAheadBatches = readAheadBatches;
+            this.executor = executor;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            Objects.requireNonNull(action);
+            if (iterator == null || !iterator.hasNext()) {
+                List<? extends T> items = batches.isEmpty() ? null : awaitBatch(batches.poll());
+                if (items == null) {
+                    if (lastBatchFound || closed) {
+                        return false;
+                    }
+                    // nothing was read ahead, so fetch on the consuming thread, like the regular spliterator does
+                    items = fetchFunction.apply(lastItem);
+                }
+                lastBatchFound = finalBatchPredicate.test(items);
+                iterator = items.iterator();
+                if (items.isEmpty() || lastBatchFound) {
+                    // batches read ahead of an empty or final batch are empty, the next fetch starts from lastItem
+                    cancel();
+                } else {
+                    scheduleReadAhead(items);
+                }
+            }
+            if (!iterator.hasNext()) {
+                return false;
+            }
+
+            action.accept(lastItem = iterator.next());
+            return true;
+        }
+
+        private void scheduleReadAhead(List<? extends T> consumedBatch) {
+            while (!closed && !isShutDown(executor) && batches.size() < readAheadBatches) {
+                CompletableFuture<List<? extends T>> previous = batches.isEmpty()
+                        ? CompletableFuture.<List<? extends T>>completedFuture(consumedBatch)
+                        : batches.peekLast();
+                if (previous.isDone() && !previous.isCompletedExceptionally() && isLastBatch(previous.join())) {
+                    return;
+                }
+                batches.add(previous.thenApplyAsync(this::fetchNextBatch, executor));
+            }
+        }
+
+        private List<? extends T> fetchNextBatch(List<? extends T> previousBatch) {
+            return closed || isLastBatch(previousBatch)
+                    ? Collections.emptyList()
+                    : fetchFunction.apply(previousBatch.get(previousBatch.size() - 1));
+        }
+
+        private boolean isLastBatch(List<? extends T> batch) {
+            return batch.isEmpty() || finalBatchPredicate.test(batch);
+        }
+
+        private List<? extends T> awaitBatch(CompletableFuture<List<? extends T>> batch) {
+            try {
+                return batch.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RejectedExecutionException) {
+                    // the executor no longer accepts read-ahead fetches, so drop the batches read ahead of this one
+                    cancel();
+                    return null;
+                }
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+
+        private static boolean isShutDown(Executor executor) {
+            return executor instanceof ExecutorService && ((ExecutorService) executor).isShutdown();
+        }
+
+        private void cancel() {
+            CompletableFuture<List<? extends T>> batch;
+            while ((batch = batches.poll()) != null) {
+                batch.cancel(false);
+            }
+        }
+
+        private void close() {
+            closed = true;
+            cancel();
+        }
+    }
 }
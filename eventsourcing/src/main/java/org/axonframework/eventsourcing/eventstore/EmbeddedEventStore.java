@@ -19,7 +19,9 @@
 import org.axonframework.common.AxonConfigurationException;
 import org.axonframework.common.AxonThreadFactory;
 import org.axonframework.common.io.IOUtils;
+import org.axonframework.eventhandling.DomainEventMessage;
 import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.Segment;
 import org.axonframework.eventhandling.TrackedEventMessage;
 import org.axonframework.eventhandling.TrackingEventStream;
 import org.axonframework.eventhandling.TrackingToken;
@@ -29,26 +31,32 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 import javax.annotation.PreDestroy;
 
 import static java.util.stream.Collectors.toList;
 import static org.axonframework.common.BuilderUtils.assertNonNull;
+import static org.axonframework.common.BuilderUtils.assertStrictPositive;
 
 /**
  * Implementation of an {@link EventStore} that stores and fetches events using an {@link EventStorageEngine}. If
@@ -64,6 +72,12 @@
  * creation. Additionally, this can also be turned off by providing a system property with key {@code
  * optimize-event-consumption}.
  * <p>
+ * By default the cache is a linked list of events, and tailing consumers are notified of new events through a shared
+ * lock. When many event processors tail the store simultaneously, this lock may become a point of contention. In that
+ * case the cache can be switched to a preallocated ring buffer through {@link Builder#ringBufferTailCache(boolean)}.
+ * Consumers read the ring buffer without locking, each keeping track of its own position in it. Consumers that are
+ * overtaken by the producer automatically fall back to a private stream on the storage engine.
+ * <p>
  * The embedded event store automatically fetches new events from the store if there is at least one registered tracking
  * event processor present. It will do so after new events are committed to the store, as well as periodically as events
  * may have been committed by other nodes or applications. This periodic fetch delay is configurable.
@@ -80,13 +94,15 @@ public class EmbeddedEventStore extends AbstractEventStore {
 
     private final Lock consumerLock = new ReentrantLock();
     private final Condition consumableEventsCondition = consumerLock.newCondition();
-    private final Set<EventConsumer> tailingConsumers = new CopyOnWriteArraySet<>();
+    private final Set<TailingConsumer> tailingConsumers = new CopyOnWriteArraySet<>();
+    private final Set<Thread> parkedConsumers = ConcurrentHashMap.newKeySet();
     private final EventProducer producer;
     private final long cleanupDelayMillis;
     private final ThreadFactory threadFactory;
     private final boolean optimizeEventConsumption;
     private final ScheduledExecutorService cleanupService;
     private final AtomicBoolean producerStarted = new AtomicBoolean();
+    private final EventRingBuffer ringBuffer;
     private volatile Node oldest;
 
     /**
@@ -105,6 +121,9 @@ protected EmbeddedEventStore(Builder builder) {
         TimeUnit timeUnit = builder.timeUnit;
         producer = new EventProducer(timeUnit.toNanos(builder.fetchDelay), builder.cachedEvents);
         cleanupDelayMillis = timeUnit.toMillis(builder.cleanupDelay);
+        ringBuffer = builder.ringBufferTailCache && optimizeEventConsumption
+                ? new EventRingBuffer(builder.cachedEvents)
+                : null;
     }
 
     /**
@@ -121,6 +140,7 @@ protected EmbeddedEventStore(Builder builder) {
      * <li>The {@link ThreadFactory} is defaulted to {@link AxonThreadFactory} with {@link ThreadGroup} {@link
      * EmbeddedEventStore#THREAD_GROUP}.</li>
      * <li>The {@code optimizeEventConsumption} is defaulted to {@code true}.</li>
+     * <li>The {@code ringBufferTailCache} is defaulted to {@code false}.</li>
      * </ul>
      * The {@link EventStorageEngine} is a <b>hard requirement</b> and as such should be provided.
      *
@@ -137,6 +157,7 @@ public static Builder builder() {
     public void shutDown() {
         tailingConsumers.forEach(IOUtils::closeQuietly);
         IOUtils.closeQuietly(producer);
+        parkedConsumers.forEach(LockSupport::unpark);
         cleanupService.shutdownNow();
     }
 
@@ -162,13 +183,38 @@ protected void afterCommit(List<? extends EventMessage<?>> events) {
 
     @Override
     public TrackingEventStream openStream(TrackingToken trackingToken) {
+        return openConsumer(trackingToken, Segment.ROOT_SEGMENT);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Events of other segments are left out of the stream while it reads from the storage engine, which is asked to
+     * avoid loading those events in full. Once the stream has caught up and tails the events cached by this event
+     * store, all events are returned.
+     */
+    @Override
+    public TrackingEventStream openStream(TrackingToken trackingToken, @Nonnull Segment segment) {
+        return openConsumer(trackingToken, segment);
+    }
+
+    private TrackingEventStream openConsumer(TrackingToken trackingToken, Segment segment) {
+        if (ringBuffer != null) {
+            long sequence = ringBuffer.sequenceAfter(trackingToken);
+            RingBufferEventConsumer ringBufferEventConsumer =
+                    new RingBufferEventConsumer(trackingToken, sequence, segment);
+            if (sequence >= 0) {
+                tailingConsumers.add(ringBufferEventConsumer);
+            }
+            return ringBufferEventConsumer;
+        }
         Node node = findNode(trackingToken);
         EventConsumer eventConsumer;
         if (node != null && optimizeEventConsumption) {
-            eventConsumer = new EventConsumer(node);
+            eventConsumer = new EventConsumer(node, segment);
             tailingConsumers.add(eventConsumer);
         } else {
-            eventConsumer = new EventConsumer(trackingToken);
+            eventConsumer = new EventConsumer(trackingToken, segment);
         }
         return eventConsumer;
     }
@@ -195,6 +241,124 @@ private Node(long index, TrackingToken previousToken, TrackedEventMessage<?> eve
         }
     }
 
+    /**
+     * Describes an event stream that can read from the cache of tailing events shared by all consumers.
+     */
+    private interface TailingConsumer extends TrackingEventStream {
+
+        TrackingToken lastToken();
+
+        boolean behindGlobalCache();
+
+        void stopTailingGlobalStream();
+    }
+
+    /**
+     * Preallocated, sequence-indexed ring buffer containing the most recent events. There is a single writer, being
+     * the {@link EventProducer}. Readers do not lock, but instead validate the sequence of the entry they read to
+     * detect whether it has been overwritten in the meantime.
+     */
+    private static class EventRingBuffer {
+
+        private final AtomicReferenceArray<Entry> entries;
+        private final int capacity;
+        private volatile long newestSequence = -1;
+        private volatile TrackingToken newestToken;
+
+        private EventRingBuffer(int capacity) {
+            this.capacity = capacity;
+            this.entries = new AtomicReferenceArray<>(capacity);
+        }
+
+        private void publish(TrackingToken previousToken, TrackedEventMessage<?> event) {
+            long sequence = newestSequence + 1;
+            entries.set((int) (sequence % capacity), new Entry(sequence, previousToken, event));
+            newestToken = event.trackingToken();
+            newestSequence = sequence;
+        }
+
+        private Entry get(long sequence) {
+            Entry entry = entries.get((int) (sequence % capacity));
+            return entry != null && entry.sequence == sequence ? entry : null;
+        }
+
+        private long newestSequence() {
+            return newestSequence;
+        }
+
+        private long oldestSequence() {
+            return Math.max(0, newestSequence - capacity + 1);
+        }
+
+        private boolean isEmpty() {
+            return newestSequence < 0;
+        }
+
+        private TrackingToken newestToken() {
+            return newestToken;
+        }
+
+        private boolean coversStreamStart() {
+            Entry oldest = isEmpty() ? null : get(oldestSequence());
+            return oldest != null && oldest.previousToken == null;
+        }
+
+        /**
+         * Returns the sequence of the event following the given {@code trackingToken}, or {@code -1} if the token can
+         * not be found in the buffer.
+         */
+        private long sequenceAfter(TrackingToken trackingToken) {
+            long newest = newestSequence;
+            for (long sequence = oldestSequence(); sequence <= newest; sequence++) {
+                Entry entry = get(sequence);
+                if (entry == null) {
+                    continue;
+                }
+                if (Objects.equals(entry.previousToken, trackingToken)) {
+                    return sequence;
+                }
+                if (entry.event.trackingToken().equals(trackingToken)) {
+                    return sequence + 1;
+                }
+            }
+            return -1;
+        }
+
+        private static class Entry {
+
+            private final long sequence;
+            private final TrackingToken previousToken;
+            private final TrackedEventMessage<?> event;
+
+            private Entry(long sequence, TrackingToken previousToken, TrackedEventMessage<?> event) {
+                this.sequence = sequence;
+                this.previousToken = previousToken;
+                this.event = event;
+            }
+        }
+    }
+
+    /**
+     * Parks the current thread until the ring buffer contains the event with given {@code sequence}, or until the
+     * given {@code timeout} expires.
+     */
+    private void awaitRingBufferSequence(long sequence, int timeout, TimeUnit timeUnit) throws InterruptedException {
+        Thread current = Thread.currentThread();
+        long deadline = System.nanoTime() + timeUnit.toNanos(timeout);
+        parkedConsumers.add(current);
+        try {
+            long remaining;
+            while (ringBuffer.newestSequence() < sequence && (remaining = deadline - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(this, remaining);
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+        } finally {
+            parkedConsumers.remove(current);
+        }
+    }
+
     private class EventProducer implements AutoCloseable {
 
         private final Lock lock = new ReentrantLock();
@@ -247,6 +411,9 @@ private void fetchIfWaiting() {
         }
 
         private boolean fetchData() {
+            if (ringBuffer != null) {
+                return fetchDataIntoRingBuffer();
+            }
             Node currentNewest = newest;
             if (!tailingConsumers.isEmpty()) {
                 try {
@@ -270,12 +437,32 @@ private boolean fetchData() {
             return !Objects.equals(newest, currentNewest);
         }
 
+        private boolean fetchDataIntoRingBuffer() {
+            long currentNewest = ringBuffer.newestSequence();
+            if (!tailingConsumers.isEmpty()) {
+                try {
+                    eventStream = storageEngine().readEvents(lastToken(), true);
+                    eventStream.forEach(event -> {
+                        ringBuffer.publish(lastToken(), event);
+                        parkedConsumers.forEach(LockSupport::unpark);
+                    });
+                } catch (Exception e) {
+                    logger.error("Failed to read events from the underlying event storage", e);
+                }
+            }
+            return ringBuffer.newestSequence() != currentNewest;
+        }
+
         private TrackingToken lastToken() {
-            if (newest == null) {
-                List<TrackingToken> tokens = tailingConsumers.stream().map(EventConsumer::lastToken).collect(toList());
-                return tokens.isEmpty() || tokens.contains(null) ? null : tokens.get(0);
-            } else {
+            if (ringBuffer != null && ringBuffer.newestSequence() >= 0) {
+                return ringBuffer.newestToken();
+            } else if (ringBuffer == null && newest != null) {
                 return newest.event.trackingToken();
+            } else {
+                List<TrackingToken> tokens = tailingConsumers.stream()
+                                                             .map(TailingConsumer::lastToken)
+                                                             .collect(toList());
+                return tokens.isEmpty() || tokens.contains(null) ? null : tokens.get(0);
             }
         }
 
@@ -309,21 +496,21 @@ public void close() {
         }
     }
 
-    private class EventConsumer implements TrackingEventStream {
+    private class EventConsumer implements TailingConsumer {
 
-        private Stream<? extends TrackedEventMessage<?>> privateStream;
-        private Iterator<? extends TrackedEventMessage<?>> privateIterator;
+        private final PrivateEventStream privateStream;
         private volatile TrackingToken lastToken;
         private volatile Node lastNode;
         private TrackedEventMessage<?> peekedEvent;
 
-        private EventConsumer(Node lastNode) {
-            this(lastNode.event.trackingToken());
+        private EventConsumer(Node lastNode, Segment segment) {
+            this(lastNode.event.trackingToken(), segment);
             this.lastNode = lastNode;
         }
 
-        private EventConsumer(TrackingToken startToken) {
+        private EventConsumer(TrackingToken startToken, Segment segment) {
             this.lastToken = startToken;
+            this.privateStream = new PrivateEventStream(segment);
         }
 
         @Override
@@ -359,11 +546,13 @@ private TrackedEventMessage<?> peek(int timeout, TimeUnit timeUnit) throws Inter
             return peekPrivateStream(allowSwitchToTailingConsumer, timeout, timeUnit);
         }
 
-        private boolean behindGlobalCache() {
+        @Override
+        public boolean behindGlobalCache() {
             return oldest != null && (this.lastNode != null ? this.lastNode.index < oldest.index : nextNode() == null);
         }
 
-        private void stopTailingGlobalStream() {
+        @Override
+        public void stopTailingGlobalStream() {
             tailingConsumers.remove(this);
             this.lastNode = null; //makes old nodes garbage collectible
         }
@@ -394,16 +583,11 @@ private TrackedEventMessage<?> peekGlobalStream(int timeout, TimeUnit timeUnit)
         private TrackedEventMessage<?> peekPrivateStream(boolean allowSwitchToTailingConsumer,
                                                          int timeout,
                                                          TimeUnit timeUnit) throws InterruptedException {
-            if (privateIterator == null) {
-                privateStream = storageEngine().readEvents(lastToken, false);
-                privateIterator = privateStream.iterator();
-            }
-            if (privateIterator.hasNext()) {
-                TrackedEventMessage<?> nextEvent = privateIterator.next();
-                lastToken = nextEvent.trackingToken();
+            TrackedEventMessage<?> nextEvent = privateStream.next(lastToken, token -> lastToken = token);
+            if (nextEvent != null) {
                 return nextEvent;
             } else if (allowSwitchToTailingConsumer) {
-                closePrivateStream();
+                privateStream.close();
                 lastNode = findNode(lastToken);
                 tailingConsumers.add(this);
                 ensureProducerStarted();
@@ -411,10 +595,8 @@ private TrackedEventMessage<?> peekPrivateStream(boolean allowSwitchToTailingCon
             } else {
                 consumerLock.lock();
                 try {
-                    if (consumableEventsCondition.await(timeout, timeUnit) && privateIterator.hasNext()) {
-                        TrackedEventMessage<?> nextEvent = privateIterator.next();
-                        lastToken = nextEvent.trackingToken();
-                        return nextEvent;
+                    if (consumableEventsCondition.await(timeout, timeUnit)) {
+                        return privateStream.next(lastToken, token -> lastToken = token);
                     }
                     return null;
                 } finally {
@@ -435,21 +617,226 @@ private Node nextNode() {
             return node;
         }
 
-        private TrackingToken lastToken() {
+        @Override
+        public TrackingToken lastToken() {
             return lastToken;
         }
 
+        @Override
+        public void skipMessagesWithPayloadTypeOf(TrackedEventMessage<?> ignoredMessage) {
+            privateStream.skip(ignoredMessage.getPayloadType());
+        }
+
         @Override
         public void close() {
-            closePrivateStream();
+            privateStream.close();
             stopTailingGlobalStream();
         }
+    }
+
+    /**
+     * Event consumer reading from the {@link EventRingBuffer} while tailing. Each consumer keeps its own cursor, being
+     * the sequence of the next event to read from the buffer, which is resolved lazily from the last token read.
+     */
+    private class RingBufferEventConsumer implements TailingConsumer {
+
+        private final PrivateEventStream privateStream;
+        private volatile TrackingToken lastToken;
+        private volatile long nextSequence;
+        private TrackedEventMessage<?> peekedEvent;
 
-        private void closePrivateStream() {
-            Optional.ofNullable(privateStream).ifPresent(stream -> {
-                privateStream = null;
-                privateIterator = null;
-                stream.close();
+        private RingBufferEventConsumer(TrackingToken startToken, long nextSequence, Segment segment) {
+            this.lastToken = startToken;
+            this.nextSequence = nextSequence;
+            this.privateStream = new PrivateEventStream(segment);
+        }
+
+        @Override
+        public Optional<TrackedEventMessage<?>> peek() {
+            return Optional.ofNullable(peekedEvent == null && !hasNextAvailable() ? null : peekedEvent);
+        }
+
+        @Override
+        public boolean hasNextAvailable(int timeout, TimeUnit unit) throws InterruptedException {
+            return peekedEvent != null || (peekedEvent = peek(timeout, unit)) != null;
+        }
+
+        @Override
+        public TrackedEventMessage<?> nextAvailable() throws InterruptedException {
+            while (peekedEvent == null) {
+                peekedEvent = peek(Integer.MAX_VALUE, TimeUnit.MILLISECONDS);
+            }
+            TrackedEventMessage<?> result = peekedEvent;
+            peekedEvent = null;
+            return result;
+        }
+
+        private TrackedEventMessage<?> peek(int timeout, TimeUnit timeUnit) throws InterruptedException {
+            boolean allowSwitchToTailingConsumer = optimizeEventConsumption;
+            if (tailingConsumers.contains(this)) {
+                if (!behindGlobalCache()) {
+                    return peekGlobalStream(timeout, timeUnit);
+                }
+                stopTailingGlobalStream();
+                // we want to prevent switching back immediately, as it may produce a StackOverflowException
+                allowSwitchToTailingConsumer = false;
+            }
+            return peekPrivateStream(allowSwitchToTailingConsumer, timeout, timeUnit);
+        }
+
+        @Override
+        public boolean behindGlobalCache() {
+            if (ringBuffer.isEmpty()) {
+                return false;
+            }
+            long sequence = resolveNextSequence();
+            return sequence < 0 || sequence < ringBuffer.oldestSequence();
+        }
+
+        @Override
+        public void stopTailingGlobalStream() {
+            tailingConsumers.remove(this);
+            this.nextSequence = -1;
+        }
+
+        private TrackedEventMessage<?> peekGlobalStream(int timeout, TimeUnit timeUnit) throws InterruptedException {
+            long newestSequence = ringBuffer.newestSequence();
+            EventRingBuffer.Entry entry = nextEntry();
+            if (entry == null && timeout > 0) {
+                long awaitedSequence = nextSequence >= 0 ? nextSequence : newestSequence + 1;
+                awaitRingBufferSequence(awaitedSequence, timeout, timeUnit);
+                entry = nextEntry();
+            }
+            if (entry != null) {
+                nextSequence = entry.sequence + 1;
+                lastToken = entry.event.trackingToken();
+                return entry.event;
+            } else {
+                return null;
+            }
+        }
+
+        private TrackedEventMessage<?> peekPrivateStream(boolean allowSwitchToTailingConsumer,
+                                                         int timeout,
+                                                         TimeUnit timeUnit) throws InterruptedException {
+            TrackedEventMessage<?> nextEvent = privateStream.next(lastToken, token -> lastToken = token);
+            if (nextEvent != null) {
+                return nextEvent;
+            } else if (allowSwitchToTailingConsumer) {
+                privateStream.close();
+                nextSequence = ringBuffer.sequenceAfter(lastToken);
+                tailingConsumers.add(this);
+                ensureProducerStarted();
+                return timeout > 0 ? peek(timeout, timeUnit) : null;
+            } else {
+                awaitRingBufferSequence(ringBuffer.newestSequence() + 1, timeout, timeUnit);
+                return privateStream.next(lastToken, token -> lastToken = token);
+            }
+        }
+
+        private EventRingBuffer.Entry nextEntry() {
+            long sequence = resolveNextSequence();
+            return sequence < 0 ? null : ringBuffer.get(sequence);
+        }
+
+        private long resolveNextSequence() {
+            long sequence = nextSequence;
+            if (sequence < 0) {
+                sequence = ringBuffer.sequenceAfter(lastToken);
+                nextSequence = sequence;
+            }
+            return sequence;
+        }
+
+        @Override
+        public TrackingToken lastToken() {
+            return lastToken;
+        }
+
+        @Override
+        public void skipMessagesWithPayloadTypeOf(TrackedEventMessage<?> ignoredMessage) {
+            privateStream.skip(ignoredMessage.getPayloadType());
+        }
+
+        @Override
+        public void close() {
+            privateStream.close();
+            stopTailingGlobalStream();
+        }
+    }
+
+    /**
+     * Stream of events read directly from the storage engine by a consumer that is not tailing the cache. Events with
+     * a payload type the consumer has reported to skip, or of another segment than the consumer's, are left out, while
+     * the consumer's token still advances past them. The skipped payload types and the segment are passed on to the
+     * storage engine, so that it may avoid loading these events in full.
+     */
+    private class PrivateEventStream {
+
+        private final Segment segment;
+        private final Set<Class<?>> skippedPayloadTypes = new CopyOnWriteArraySet<>();
+        private volatile boolean skippedPayloadTypesChanged;
+        private Stream<? extends TrackedEventMessage<?>> stream;
+        private Iterator<? extends TrackedEventMessage<?>> iterator;
+
+        private PrivateEventStream(Segment segment) {
+            this.segment = segment;
+        }
+
+        private void skip(Class<?> payloadType) {
+            if (skippedPayloadTypes.add(payloadType)) {
+                skippedPayloadTypesChanged = true;
+            }
+        }
+
+        /**
+         * Returns the next event after given {@code lastToken} that does not have a skipped payload type and belongs to
+         * the segment, or {@code null} if no such event is currently available. The token of every event read from
+         * storage, including the skipped ones, is reported to the given {@code tokenListener}.
+         */
+        private TrackedEventMessage<?> next(TrackingToken lastToken, Consumer<TrackingToken> tokenListener) {
+            if (iterator == null) {
+                open(lastToken);
+            }
+            while (iterator.hasNext()) {
+                TrackedEventMessage<?> event = iterator.next();
+                if (skippedPayloadTypesChanged && !event.trackingToken().equals(lastToken)) {
+                    // reopen to let the storage engine account for the new skipped types, unless the event is one of
+                    // several (upcasted) events sharing the last token, which a new stream would not return
+                    close();
+                    open(lastToken);
+                    continue;
+                }
+                lastToken = event.trackingToken();
+                tokenListener.accept(lastToken);
+                if (!skippedPayloadTypes.contains(event.getPayloadType()) && matchesSegment(event)) {
+                    return event;
+                }
+            }
+            return null;
+        }
+
+        private void open(TrackingToken lastToken) {
+            skippedPayloadTypesChanged = false;
+            stream = storageEngine().readEvents(lastToken, false, new HashSet<>(skippedPayloadTypes), segment);
+            iterator = stream.iterator();
+        }
+
+        private boolean matchesSegment(TrackedEventMessage<?> event) {
+            if (segment.getMask() == 0) {
+                return true;
+            }
+            String aggregateIdentifier = event instanceof DomainEventMessage
+                    ? ((DomainEventMessage<?>) event).getAggregateIdentifier()
+                    : null;
+            return segment.matches(aggregateIdentifier == null ? event.getIdentifier() : aggregateIdentifier);
+        }
+
+        private void close() {
+            Optional.ofNullable(stream).ifPresent(s -> {
+                stream = null;
+                iterator = null;
+                s.close();
             });
         }
     }
@@ -458,11 +845,17 @@ private class Cleaner implements Runnable {
 
         @Override
         public void run() {
-            Node oldestCachedNode = oldest;
-            if (oldestCachedNode == null || oldestCachedNode.previousToken == null) {
-                return;
+            if (ringBuffer != null) {
+                if (ringBuffer.isEmpty() || ringBuffer.coversStreamStart()) {
+                    return;
+                }
+            } else {
+                Node oldestCachedNode = oldest;
+                if (oldestCachedNode == null || oldestCachedNode.previousToken == null) {
+                    return;
+                }
             }
-            tailingConsumers.stream().filter(EventConsumer::behindGlobalCache).forEach(consumer -> {
+            tailingConsumers.stream().filter(TailingConsumer::behindGlobalCache).forEach(consumer -> {
                 logger.debug("An event stream cannot read from the local cache. It either runs behind, or its " +
                                      "current token cannot be found in the cache. Opening a dedicated stream.");
                 consumer.stopTailingGlobalStream();
@@ -484,6 +877,7 @@ public void run() {
      * <li>The {@link ThreadFactory} is defaulted to {@link AxonThreadFactory} with {@link ThreadGroup} {@link
      * EmbeddedEventStore#THREAD_GROUP}.</li>
      * <li>The {@code optimizeEventConsumption} is defaulted to {@code true}.</li>
+     * <li>The {@code ringBufferTailCache} is defaulted to {@code false}.</li>
      * </ul>
      * The {@link EventStorageEngine} is a <b>hard requirement</b> and as such should be provided.
      */
@@ -495,6 +889,7 @@ public static class Builder extends AbstractEventStore.Builder {
         private TimeUnit timeUnit = TimeUnit.MILLISECONDS;
         private ThreadFactory threadFactory = new AxonThreadFactory(THREAD_GROUP);
         private boolean optimizeEventConsumption = fetchEventConsumptionSystemPropertyOrDefault();
+        private boolean ringBufferTailCache = false;
 
         // Default to optimize event consumption of no property has been set
         private static boolean fetchEventConsumptionSystemPropertyOrDefault() {
@@ -618,6 +1013,24 @@ public Builder optimizeEventConsumption(boolean optimizeEventConsumption) {
             return this;
         }
 
+        /**
+         * Sets whether the cache of tailing events should be stored in a preallocated ring buffer, instead of in a
+         * linked list guarded by a lock. If set to {@code true}, tailing consumers read from the ring buffer without
+         * locking, each keeping its own cursor into the buffer. Consumers that are overtaken by the producer
+         * automatically switch to a private stream on the {@link EventStorageEngine}. The capacity of the ring buffer
+         * equals the configured {@link #cachedEvents(int)}, which should be strictly positive when this setting is
+         * enabled. This setting has no effect when {@link #optimizeEventConsumption(boolean)} is switched off, in
+         * which case every stream reads from the {@link EventStorageEngine} directly. Defaults to {@code false}.
+         *
+         * @param ringBufferTailCache a {@code boolean} defining whether to store the cache of tailing events in a
+         *                            lock-free ring buffer
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder ringBufferTailCache(boolean ringBufferTailCache) {
+            this.ringBufferTailCache = ringBufferTailCache;
+            return this;
+        }
+
         /**
          * Initializes a {@link EmbeddedEventStore} as specified through this Builder.
          *
@@ -636,6 +1049,9 @@ public EmbeddedEventStore build() {
         @Override
         protected void validate() throws AxonConfigurationException {
             super.validate();
+            if (ringBufferTailCache && optimizeEventConsumption) {
+                assertStrictPositive(cachedEvents, "The cachedEvents should be strictly positive for a ring buffer");
+            }
         }
     }
 }
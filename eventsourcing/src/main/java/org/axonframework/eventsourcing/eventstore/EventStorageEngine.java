@@ -18,12 +18,15 @@
 
 import org.axonframework.eventhandling.DomainEventMessage;
 import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.Segment;
 import org.axonframework.eventhandling.TrackedEventMessage;
 import org.axonframework.eventhandling.TrackingToken;
 
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -86,6 +89,63 @@ default void appendEvents(@Nonnull EventMessage<?>... events) {
      */
     Stream<? extends TrackedEventMessage<?>> readEvents(@Nullable TrackingToken trackingToken, boolean mayBlock);
 
+    /**
+     * Open an event stream containing all events stored since given tracking token, indicating that the caller is not
+     * interested in events with a payload of any of the given {@code skippedPayloadTypes}. Storage engines may use this
+     * information to avoid loading the payload and meta data of those events.
+     * <p>
+     * Events with a skipped payload type may either be left out of the returned stream entirely, or be included with
+     * their payload and meta data omitted. In the latter case, their payload type and tracking token are still
+     * accurate, but their payload and meta data should not be accessed. Callers should therefore ignore any events of
+     * the skipped payload types in the returned stream. Tracking tokens of events in the stream always account for any
+     * skipped events before them.
+     * <p>
+     * By default this method ignores the given {@code skippedPayloadTypes} and returns the result of {@link
+     * #readEvents(TrackingToken, boolean)}.
+     *
+     * @param trackingToken       Object describing the global index of the last processed event or {@code null} to
+     *                            create a stream of all events in the store
+     * @param mayBlock            If {@code true} the storage engine may optionally choose to block to wait for new
+     *                            event messages if the end of the stream is reached.
+     * @param skippedPayloadTypes The payload types of events the caller will ignore
+     * @return A stream containing all tracked event messages stored since the given tracking token, of which those with
+     * a skipped payload type may be left out or lack their payload and meta data
+     */
+    default Stream<? extends TrackedEventMessage<?>> readEvents(@Nullable TrackingToken trackingToken,
+                                                                boolean mayBlock,
+                                                                @Nonnull Set<Class<?>> skippedPayloadTypes) {
+        return readEvents(trackingToken, mayBlock);
+    }
+
+    /**
+     * Open an event stream containing all events stored since given tracking token, like {@link
+     * #readEvents(TrackingToken, boolean, Set)}, for a caller that only handles the events of the given {@code
+     * segment}. An event belongs to a segment if the hash code of its aggregate identifier, or of its event identifier
+     * if it was not published by an aggregate, {@link Segment#matches(Object) matches} the segment.
+     * <p>
+     * Events of other segments are treated like events with a skipped payload type. They may either be left out of the
+     * returned stream entirely, or be included with their payload and meta data omitted. Callers should therefore
+     * ignore any events of other segments in the returned stream.
+     * <p>
+     * By default this method ignores the given {@code segment} and returns the result of {@link
+     * #readEvents(TrackingToken, boolean, Set)}.
+     *
+     * @param trackingToken       Object describing the global index of the last processed event or {@code null} to
+     *                            create a stream of all events in the store
+     * @param mayBlock            If {@code true} the storage engine may optionally choose to block to wait for new
+     *                            event messages if the end of the stream is reached.
+     * @param skippedPayloadTypes The payload types of events the caller will ignore
+     * @param segment             The segment of the events the caller handles
+     * @return A stream containing all tracked event messages stored since the given tracking token, of which those with
+     * a skipped payload type or of another segment may be left out or lack their payload and meta data
+     */
+    default Stream<? extends TrackedEventMessage<?>> readEvents(@Nullable TrackingToken trackingToken,
+                                                                boolean mayBlock,
+                                                                @Nonnull Set<Class<?>> skippedPayloadTypes,
+                                                                @Nonnull Segment segment) {
+        return readEvents(trackingToken, mayBlock, skippedPayloadTypes);
+    }
+
     /**
      * Get a {@link DomainEventStream} containing all events published by the aggregate with given {@code
      * aggregateIdentifier}. By default calling this method is shorthand for an invocation of
@@ -124,6 +184,40 @@ default DomainEventStream readEvents(@Nonnull String aggregateIdentifier) {
      */
     Optional<DomainEventMessage<?>> readSnapshot(@Nonnull String aggregateIdentifier);
 
+    /**
+     * Get a {@link DomainEventStream} containing the snapshot of the aggregate with given {@code aggregateIdentifier},
+     * followed by the events published after that snapshot. If the storage engine has no snapshot of the aggregate, the
+     * stream contains all events of the aggregate.
+     * <p>
+     * A failure to read the snapshot is passed to the given {@code snapshotErrorHandler}. It either returns the
+     * snapshot to continue with, where an empty Optional results in the entire event stream of the aggregate, or throws
+     * an exception to fail the read.
+     * <p>
+     * By default this method invokes {@link #readSnapshot(String)} followed by {@link #readEvents(String, long)}.
+     * Storage engines able to read the snapshot and the events following it in a single round trip may override it.
+     *
+     * @param aggregateIdentifier  The identifier of the aggregate
+     * @param snapshotErrorHandler Function returning the snapshot to use when reading the snapshot failed
+     * @return A non-blocking DomainEventStream of the given aggregate, starting with its snapshot if there is one
+     */
+    default DomainEventStream readSnapshotAndEvents(
+            @Nonnull String aggregateIdentifier,
+            @Nonnull Function<Throwable, Optional<DomainEventMessage<?>>> snapshotErrorHandler
+    ) {
+        Optional<DomainEventMessage<?>> optionalSnapshot;
+        try {
+            optionalSnapshot = readSnapshot(aggregateIdentifier);
+        } catch (Exception | LinkageError e) {
+            optionalSnapshot = snapshotErrorHandler.apply(e);
+        }
+        if (optionalSnapshot.isPresent()) {
+            DomainEventMessage<?> snapshot = optionalSnapshot.get();
+            return DomainEventStream.concat(DomainEventStream.of(snapshot),
+                                            readEvents(aggregateIdentifier, snapshot.getSequenceNumber() + 1));
+        }
+        return readEvents(aggregateIdentifier);
+    }
+
     /**
      * Returns the last known sequence number for the given {@code aggregateIdentifier}.
      * <p>
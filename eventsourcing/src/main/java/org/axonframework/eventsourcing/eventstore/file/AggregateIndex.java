@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2010-2022. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventsourcing.eventstore.file;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * In-memory index from aggregate identifier to the offsets of the records of that aggregate's events, ordered by
+ * sequence number. The index entries of sealed segments can be persisted in a sidecar file next to the segment, so that
+ * the index can be restored without scanning the segment itself.
+ * <p>
+ * Entries are expected to be added by a single thread at a time, in ascending sequence number per aggregate. Reading
+ * from the index is thread safe.
+ */
+class AggregateIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(AggregateIndex.class);
+
+    private static final int SIDECAR_MAGIC = 0x41584958;
+    private static final int INITIAL_CAPACITY = 8;
+
+    private final Map<String, Entries> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Adds an entry for the event with given {@code sequenceNumber} of the aggregate with given {@code
+     * aggregateIdentifier}, stored at the given {@code offset}.
+     *
+     * @param aggregateIdentifier the identifier of the aggregate that published the event
+     * @param sequenceNumber      the sequence number of the event
+     * @param offset              the offset of the record containing the event
+     */
+    void add(String aggregateIdentifier, long sequenceNumber, long offset) {
+        entries.computeIfAbsent(aggregateIdentifier, id -> new Entries()).add(sequenceNumber, offset);
+    }
+
+    /**
+     * Adds the given {@code indexEntry} to this index.
+     *
+     * @param indexEntry the entry to add
+     */
+    void add(IndexEntry indexEntry) {
+        add(indexEntry.aggregateIdentifier, indexEntry.sequenceNumber, indexEntry.offset);
+    }
+
+    /**
+     * Returns the highest sequence number of the aggregate with given {@code aggregateIdentifier}, or {@code null} if
+     * the index contains no events for the aggregate.
+     *
+     * @param aggregateIdentifier the identifier of the aggregate
+     * @return the highest sequence number of the aggregate, or {@code null} if it has no events
+     */
+    Long lastSequenceNumber(String aggregateIdentifier) {
+        Entries aggregateEntries = entries.get(aggregateIdentifier);
+        return aggregateEntries == null ? null : aggregateEntries.lastSequenceNumber();
+    }
+
+    /**
+     * Returns the offsets of the records of the events of the aggregate with given {@code aggregateIdentifier}, with a
+     * sequence number equal to or larger than the given {@code firstSequenceNumber}, in order of sequence number.
+     *
+     * @param aggregateIdentifier the identifier of the aggregate
+     * @param firstSequenceNumber the sequence number of the first event to return the offset for
+     * @return the offsets of the records of the matching events
+     */
+    long[] offsets(String aggregateIdentifier, long firstSequenceNumber) {
+        Entries aggregateEntries = entries.get(aggregateIdentifier);
+        return aggregateEntries == null ? new long[0] : aggregateEntries.offsetsFrom(firstSequenceNumber);
+    }
+
+    /**
+     * Writes the given {@code indexEntries} to the sidecar {@code file}. The file is written atomically, by first
+     * writing a temporary file and then moving it into place.
+     *
+     * @param file         the sidecar file to write
+     * @param indexEntries the entries to write to the sidecar file
+     * @throws IOException when writing the sidecar file fails
+     */
+    static void writeSidecar(Path file, List<IndexEntry> indexEntries) throws IOException {
+        Path temporaryFile = file.resolveSibling(file.getFileName() + ".tmp");
+        CRC32 checksum = new CRC32();
+        try (DataOutputStream output =
+                     new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile)))) {
+            DataOutputStream checkedOutput = new DataOutputStream(new CheckedOutputStream(output, checksum));
+            checkedOutput.writeInt(SIDECAR_MAGIC);
+            checkedOutput.writeInt(indexEntries.size());
+            for (IndexEntry indexEntry : indexEntries) {
+                checkedOutput.writeUTF(indexEntry.aggregateIdentifier);
+                checkedOutput.writeLong(indexEntry.sequenceNumber);
+                checkedOutput.writeLong(indexEntry.offset);
+            }
+            checkedOutput.flush();
+            output.writeLong(checksum.getValue());
+        }
+        Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads the entries from the given sidecar {@code file}. Returns {@code null} if the file does not exist or is
+     * corrupt, in which case the index entries should be rebuilt from the segment itself.
+     *
+     * @param file the sidecar file to read
+     * @return the entries contained in the sidecar file, or {@code null} if the file does not exist or is corrupt
+     */
+    static List<IndexEntry> readSidecar(Path file) {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        CRC32 checksum = new CRC32();
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            DataInputStream checkedInput = new DataInputStream(new CheckedInputStream(input, checksum));
+            if (checkedInput.readInt() != SIDECAR_MAGIC) {
+                logger.warn("Ignoring index file [{}], as it is not a valid index file.", file);
+                return null;
+            }
+            int count = checkedInput.readInt();
+            List<IndexEntry> indexEntries = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String aggregateIdentifier = checkedInput.readUTF();
+                long sequenceNumber = checkedInput.readLong();
+                indexEntries.add(new IndexEntry(aggregateIdentifier, sequenceNumber, checkedInput.readLong()));
+            }
+            long expectedChecksum = checksum.getValue();
+            if (input.readLong() != expectedChecksum) {
+                logger.warn("Ignoring index file [{}], as its checksum does not match its contents.", file);
+                return null;
+            }
+            return indexEntries;
+        } catch (IOException e) {
+            logger.warn("Ignoring index file [{}], as it could not be read.", file, e);
+            return null;
+        }
+    }
+
+    /**
+     * Entry in the index, describing the offset of the record of a single event of an aggregate.
+     */
+    static class IndexEntry {
+
+        private final String aggregateIdentifier;
+        private final long sequenceNumber;
+        private final long offset;
+
+        IndexEntry(String aggregateIdentifier, long sequenceNumber, long offset) {
+            this.aggregateIdentifier = aggregateIdentifier;
+            this.sequenceNumber = sequenceNumber;
+            this.offset = offset;
+        }
+    }
+
+    /**
+     * Entries of a single aggregate, stored in primitive arrays that are replaced when they need to grow. The size is
+     * published after the arrays and their contents, allowing readers to read without locking.
+     */
+    private static class Entries {
+
+        private volatile long[] sequenceNumbers = new long[INITIAL_CAPACITY];
+        private volatile long[] offsets = new long[INITIAL_CAPACITY];
+        private volatile int size;
+
+        private void add(long sequenceNumber, long offset) {
+            int currentSize = size;
+            if (currentSize == sequenceNumbers.length) {
+                int newCapacity = currentSize * 2;
+                sequenceNumbers = Arrays.copyOf(sequenceNumbers, newCapacity);
+                offsets = Arrays.copyOf(offsets, newCapacity);
+            }
+            sequenceNumbers[currentSize] = sequenceNumber;
+            offsets[currentSize] = offset;
+            size = currentSize + 1;
+        }
+
+        private Long lastSequenceNumber() {
+            int currentSize = size;
+            return currentSize == 0 ? null : sequenceNumbers[currentSize - 1];
+        }
+
+        private long[] offsetsFrom(long firstSequenceNumber) {
+            int currentSize = size;
+            long[] currentSequenceNumbers = sequenceNumbers;
+            long[] currentOffsets = offsets;
+            int index = Arrays.binarySearch(currentSequenceNumbers, 0, currentSize, firstSequenceNumber);
+            int from = index >= 0 ? index : -index - 1;
+            return Arrays.copyOfRange(currentOffsets, from, currentSize);
+        }
+    }
+}
@@ -0,0 +1,293 @@
+/*
+ * Copyright (c) 2010-2022. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventsourcing.eventstore.file;
+
+import org.axonframework.eventhandling.DomainEventData;
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.TrackedEventData;
+import org.axonframework.eventhandling.TrackingToken;
+import org.axonframework.serialization.SerializedMetaData;
+import org.axonframework.serialization.SerializedObject;
+import org.axonframework.serialization.Serializer;
+import org.axonframework.serialization.SimpleSerializedObject;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.zip.CRC32;
+
+/**
+ * Utility describing the binary format of a single record in the log files of the {@link FileEventStorageEngine}.
+ * <p>
+ * Every record starts with a header containing the length of the record body and a CRC32 checksum of the body. The
+ * body contains a flags byte, the timestamp, the sequence number, the event identifier, the aggregate type and
+ * identifier, the payload type and revision, followed by the serialized payload and metadata. Strings and byte arrays
+ * are prefixed with their length, where a length of {@code -1} represents {@code null}.
+ */
+final class EventRecord {
+
+    /**
+     * The size of the header preceding the body of every record.
+     */
+    static final int HEADER_SIZE = 8;
+
+    private static final byte END_OF_BATCH = 1;
+    private static final byte DOMAIN_EVENT = 2;
+
+    private EventRecord() {
+        // Utility class
+    }
+
+    /**
+     * Encodes the given {@code event} into a record, including its header. The payload and metadata of the event are
+     * serialized using the given {@code serializer}.
+     *
+     * @param event      the event to encode
+     * @param endOfBatch whether the event is the last one of the batch it is appended in
+     * @param serializer the serializer to serialize the payload and metadata with
+     * @return the encoded record
+     */
+    static byte[] encode(EventMessage<?> event, boolean endOfBatch, Serializer serializer) {
+        SerializedObject<byte[]> payload = event.serializePayload(serializer, byte[].class);
+        SerializedObject<byte[]> metaData = event.serializeMetaData(serializer, byte[].class);
+        byte flags = endOfBatch ? END_OF_BATCH : 0;
+        String aggregateType = null;
+        String aggregateIdentifier = null;
+        long sequenceNumber = 0L;
+        if (event instanceof DomainEventMessage<?>) {
+            DomainEventMessage<?> domainEvent = (DomainEventMessage<?>) event;
+            flags |= DOMAIN_EVENT;
+            aggregateType = domainEvent.getType();
+            aggregateIdentifier = domainEvent.getAggregateIdentifier();
+            sequenceNumber = domainEvent.getSequenceNumber();
+        }
+        byte[][] fields = new byte[][]{
+                utf8(event.getIdentifier()),
+                utf8(aggregateType),
+                utf8(aggregateIdentifier),
+                utf8(payload.getType().getName()),
+                utf8(payload.getType().getRevision()),
+                payload.getData(),
+                metaData.getData()
+        };
+        int bodyLength = 1 + Long.BYTES + Integer.BYTES + Long.BYTES;
+        for (byte[] field : fields) {
+            bodyLength += Integer.BYTES + (field == null ? 0 : field.length);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + bodyLength);
+        buffer.putInt(bodyLength).putInt(0).put(flags);
+        Instant timestamp = event.getTimestamp();
+        buffer.putLong(timestamp.getEpochSecond()).putInt(timestamp.getNano()).putLong(sequenceNumber);
+        for (byte[] field : fields) {
+            if (field == null) {
+                buffer.putInt(-1);
+            } else {
+                buffer.putInt(field.length).put(field);
+            }
+        }
+        byte[] record = buffer.array();
+        buffer.putInt(Integer.BYTES, checksum(record, HEADER_SIZE, bodyLength));
+        return record;
+    }
+
+    /**
+     * Calculates the CRC32 checksum of the given range of bytes, as stored in the header of a record.
+     *
+     * @param bytes  the bytes to calculate the checksum for
+     * @param offset the offset of the first byte to take into account
+     * @param length the number of bytes to take into account
+     * @return the checksum of the given range of bytes
+     */
+    static int checksum(byte[] bytes, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, offset, length);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Indicates whether the given record {@code body} is the last record of the batch it was appended in.
+     *
+     * @param body the body of a record
+     * @return {@code true} if the record is the last record of its batch, {@code false} otherwise
+     */
+    static boolean isEndOfBatch(ByteBuffer body) {
+        return (body.get(0) & END_OF_BATCH) != 0;
+    }
+
+    /**
+     * Reads the timestamp from the given record {@code body}.
+     *
+     * @param body the body of a record
+     * @return the timestamp of the event contained in the record
+     */
+    static Instant readTimestamp(ByteBuffer body) {
+        return Instant.ofEpochSecond(body.getLong(1), body.getInt(1 + Long.BYTES));
+    }
+
+    /**
+     * Decodes the given record {@code body} into serialized event data, using the given {@code trackingToken} as the
+     * position of the event. The token may be {@code null} when the position of the event is irrelevant.
+     *
+     * @param body          the body of a record
+     * @param trackingToken the token representing the position of the record in the log
+     * @return the serialized event data contained in the record
+     */
+    static Entry decode(ByteBuffer body, TrackingToken trackingToken) {
+        ByteBuffer buffer = body.duplicate();
+        byte flags = buffer.get();
+        Instant timestamp = Instant.ofEpochSecond(buffer.getLong(), buffer.getInt());
+        long sequenceNumber = buffer.getLong();
+        String eventIdentifier = readString(buffer);
+        String aggregateType = readString(buffer);
+        String aggregateIdentifier = readString(buffer);
+        String payloadType = readString(buffer);
+        String payloadRevision = readString(buffer);
+        byte[] payload = readBytes(buffer);
+        byte[] metaData = readBytes(buffer);
+        return new Entry(trackingToken, eventIdentifier, timestamp,
+                         (flags & DOMAIN_EVENT) != 0 ? aggregateType : null,
+                         (flags & DOMAIN_EVENT) != 0 ? aggregateIdentifier : null,
+                         sequenceNumber, payloadType, payloadRevision, payload, metaData);
+    }
+
+    /**
+     * Reads the aggregate identifier from the given record {@code body}.
+     *
+     * @param body the body of a record
+     * @return the aggregate identifier of the event contained in the record, or {@code null} if it is not a domain
+     * event
+     */
+    static String readAggregateIdentifier(ByteBuffer body) {
+        if ((body.get(0) & DOMAIN_EVENT) == 0) {
+            return null;
+        }
+        ByteBuffer buffer = body.duplicate();
+        buffer.position(1 + Long.BYTES + Integer.BYTES + Long.BYTES);
+        skip(buffer);
+        skip(buffer);
+        return readString(buffer);
+    }
+
+    /**
+     * Reads the aggregate sequence number from the given record {@code body}.
+     *
+     * @param body the body of a record
+     * @return the aggregate sequence number of the event contained in the record
+     */
+    static long readSequenceNumber(ByteBuffer body) {
+        return body.getLong(1 + Long.BYTES + Integer.BYTES);
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = readBytes(buffer);
+        return bytes == null ? null : new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] readBytes(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private static void skip(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length > 0) {
+            buffer.position(buffer.position() + length);
+        }
+    }
+
+    /**
+     * Serialized event data read from a record.
+     */
+    static class Entry implements TrackedEventData<byte[]>, DomainEventData<byte[]> {
+
+        private final TrackingToken trackingToken;
+        private final String eventIdentifier;
+        private final Instant timestamp;
+        private final String type;
+        private final String aggregateIdentifier;
+        private final long sequenceNumber;
+        private final String payloadType;
+        private final String payloadRevision;
+        private final byte[] payload;
+        private final byte[] metaData;
+
+        private Entry(TrackingToken trackingToken, String eventIdentifier, Instant timestamp, String type,
+                      String aggregateIdentifier, long sequenceNumber, String payloadType, String payloadRevision,
+                      byte[] payload, byte[] metaData) {
+            this.trackingToken = trackingToken;
+            this.eventIdentifier = eventIdentifier;
+            this.timestamp = timestamp;
+            this.type = type;
+            this.aggregateIdentifier = aggregateIdentifier;
+            this.sequenceNumber = sequenceNumber;
+            this.payloadType = payloadType;
+            this.payloadRevision = payloadRevision;
+            this.payload = payload;
+            this.metaData = metaData;
+        }
+
+        @Override
+        public TrackingToken trackingToken() {
+            return trackingToken;
+        }
+
+        @Override
+        public String getEventIdentifier() {
+            return eventIdentifier;
+        }
+
+        @Override
+        public Instant getTimestamp() {
+            return timestamp;
+        }
+
+        @Override
+        public SerializedObject<byte[]> getMetaData() {
+            return new SerializedMetaData<>(metaData, byte[].class);
+        }
+
+        @Override
+        public SerializedObject<byte[]> getPayload() {
+            return new SimpleSerializedObject<>(payload, byte[].class, payloadType, payloadRevision);
+        }
+
+        @Override
+        public String getType() {
+            return type;
+        }
+
+        @Override
+        public String getAggregateIdentifier() {
+            return aggregateIdentifier;
+        }
+
+        @Override
+        public long getSequenceNumber() {
+            return sequenceNumber;
+        }
+    }
+}
@@ -0,0 +1,514 @@
+/*
+ * Copyright (c) 2010-2022. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventsourcing.eventstore.file;
+
+import org.axonframework.common.Assert;
+import org.axonframework.common.AxonConfigurationException;
+import org.axonframework.common.jdbc.PersistenceExceptionResolver;
+import org.axonframework.eventhandling.DomainEventData;
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.GlobalSequenceTrackingToken;
+import org.axonframework.eventhandling.TrackedEventData;
+import org.axonframework.eventhandling.TrackingToken;
+import org.axonframework.eventsourcing.eventstore.AbstractEventStorageEngine;
+import org.axonframework.eventsourcing.eventstore.EventStoreException;
+import org.axonframework.eventsourcing.eventstore.file.AggregateIndex.IndexEntry;
+import org.axonframework.eventsourcing.snapshotting.SnapshotFilter;
+import org.axonframework.serialization.Serializer;
+import org.axonframework.serialization.upcasting.event.EventUpcaster;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import javax.annotation.Nonnull;
+import javax.annotation.PreDestroy;
+
+import static java.lang.String.format;
+import static org.axonframework.common.BuilderUtils.assertNonNull;
+import static org.axonframework.common.BuilderUtils.assertStrictPositive;
+
+/**
+ * EventStorageEngine implementation that stores events and snapshots in segmented, memory-mapped log files in a local
+ * directory, providing a durable event store for a single node without the need for an external database.
+ * <p>
+ * Events are appended to fixed size segment files in a compact binary format. The {@link
+ * GlobalSequenceTrackingToken} of an event is derived from the byte offset of its record in the log, allowing an event
+ * stream to be opened at any token without additional lookups. An index from aggregate identifier to record offsets is
+ * kept in memory, so that loading an aggregate only touches the records of that aggregate. When a segment is full, the
+ * index entries for that segment are written to a sidecar file, so that the index can be restored upon startup by only
+ * scanning the last segment.
+ * <p>
+ * All events appended in a single invocation are stored as one batch, which never spans multiple segments. Upon
+ * startup, any records following the last complete batch are considered a torn write and are truncated. Hence, the
+ * size of a single batch of events is limited to the configured {@code segmentSize}.
+ * <p>
+ * This storage engine does not enforce uniqueness of event identifiers, but does validate that the sequence numbers of
+ * appended domain events are higher than those of the events already stored for the aggregate. Snapshots are stored in
+ * a separate log in the same directory.
+ *
+ * @since 4.7.0
+ */
+public class FileEventStorageEngine extends AbstractEventStorageEngine {
+
+    private static final String EVENTS_PREFIX = "events";
+    private static final String SNAPSHOTS_PREFIX = "snapshots";
+    private static final String SIDECAR_SUFFIX = ".idx";
+    private static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    private final Path storageDirectory;
+    private final SegmentedLog eventLog;
+    private final SegmentedLog snapshotLog;
+    private final AggregateIndex aggregateIndex = new AggregateIndex();
+    private final Map<String, NavigableMap<Long, Long>> snapshotIndex = new ConcurrentHashMap<>();
+    private final Map<Long, List<IndexEntry>> unsealedIndexEntries = new HashMap<>();
+    // Not a monitor, as appending blocks on I/O, which pins a virtual thread to its carrier while holding a monitor
+    private final ReentrantLock appendLock = new ReentrantLock();
+
+    /**
+     * Instantiate a {@link FileEventStorageEngine} based on the fields contained in the {@link Builder}. Opens the log
+     * files in the configured storage directory, truncating any torn write, and restores the aggregate index.
+     * <p>
+     * Will assert that the event and snapshot {@link Serializer} and the {@code storageDirectory} are not {@code
+     * null}, and will throw an {@link AxonConfigurationException} if any of them is {@code null}.
+     *
+     * @param builder the {@link Builder} used to instantiate a {@link FileEventStorageEngine} instance
+     */
+    protected FileEventStorageEngine(Builder builder) {
+        super(builder);
+        this.storageDirectory = builder.storageDirectory;
+        this.eventLog = new SegmentedLog(storageDirectory, EVENTS_PREFIX, builder.segmentSize, builder.forceOnAppend);
+        this.snapshotLog = new SegmentedLog(storageDirectory, SNAPSHOTS_PREFIX,
+                                            builder.segmentSize, builder.forceOnAppend);
+        try {
+            eventLog.open();
+            snapshotLog.open();
+        } catch (IOException e) {
+            throw new EventStoreException(format("Failed to open the event store in [%s]", storageDirectory), e);
+        }
+        restoreAggregateIndex();
+        restoreSnapshotIndex();
+    }
+
+    /**
+     * Instantiate a Builder to be able to create a {@link FileEventStorageEngine}.
+     * <p>
+     * The following configurable fields have defaults:
+     * <ul>
+     * <li>The {@link EventUpcaster} defaults to an {@link org.axonframework.serialization.upcasting.event.NoOpEventUpcaster}.</li>
+     * <li>The {@link PersistenceExceptionResolver} defaults to a resolver marking out of order sequence numbers as
+     * duplicate key violations.</li>
+     * <li>The {@code snapshotFilter} defaults to a {@link SnapshotFilter#allowAll()} instance.</li>
+     * <li>The {@code segmentSize} defaults to {@code 64} MiB.</li>
+     * <li>The {@code forceOnAppend} defaults to {@code true}.</li>
+     * </ul>
+     * <p>
+     * The event and snapshot {@link Serializer} and the {@code storageDirectory} are <b>hard requirements</b> and as
+     * such should be provided.
+     *
+     * @return a Builder to be able to create a {@link FileEventStorageEngine}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Forces all pending changes to the log files to the storage device. Invoke when the application shuts down.
+     */
+    @PreDestroy
+    public void shutDown() {
+        eventLog.flush();
+        snapshotLog.flush();
+    }
+
+    private void restoreAggregateIndex() {
+        List<Long> segmentOffsets = eventLog.segmentOffsets();
+        long lastSegmentOffset = segmentOffsets.get(segmentOffsets.size() - 1);
+        for (Long segmentOffset : segmentOffsets) {
+            if (segmentOffset != lastSegmentOffset) {
+                List<IndexEntry> indexEntries = AggregateIndex.readSidecar(sidecarFile(segmentOffset));
+                if (indexEntries == null) {
+                    indexEntries = scanIndexEntries(segmentOffset);
+                    writeSidecar(segmentOffset, indexEntries);
+                }
+                indexEntries.forEach(aggregateIndex::add);
+            } else {
+                List<IndexEntry> indexEntries = scanIndexEntries(segmentOffset);
+                indexEntries.forEach(aggregateIndex::add);
+                unsealedIndexEntries.put(segmentOffset, indexEntries);
+            }
+        }
+    }
+
+    private List<IndexEntry> scanIndexEntries(long segmentOffset) {
+        List<IndexEntry> indexEntries = new ArrayList<>();
+        eventLog.scan(segmentOffset, segmentOffset + eventLog.segmentSize(), (offset, body) -> {
+            String aggregateIdentifier = EventRecord.readAggregateIdentifier(body);
+            if (aggregateIdentifier != null) {
+                indexEntries.add(new IndexEntry(aggregateIdentifier, EventRecord.readSequenceNumber(body), offset));
+            }
+        });
+        return indexEntries;
+    }
+
+    private void restoreSnapshotIndex() {
+        snapshotLog.scan(snapshotLog.firstOffset(), Long.MAX_VALUE, (offset, body) -> snapshotIndex.computeIfAbsent(
+                EventRecord.readAggregateIdentifier(body), id -> new ConcurrentSkipListMap<>()
+        ).put(EventRecord.readSequenceNumber(body), offset));
+    }
+
+    private Path sidecarFile(long segmentOffset) {
+        return storageDirectory.resolve(format("%s-%020d%s", EVENTS_PREFIX, segmentOffset, SIDECAR_SUFFIX));
+    }
+
+    private void writeSidecar(long segmentOffset, List<IndexEntry> indexEntries) {
+        try {
+            AggregateIndex.writeSidecar(sidecarFile(segmentOffset), indexEntries);
+        } catch (IOException e) {
+            throw new EventStoreException(
+                    format("Failed to write the index file for segment with offset [%d]", segmentOffset), e
+            );
+        }
+    }
+
+    @Override
+    protected void appendEvents(List<? extends EventMessage<?>> events, Serializer serializer) {
+        if (events.isEmpty()) {
+            return;
+        }
+        appendLock.lock();
+        try {
+            validateSequenceNumbers(events);
+            List<byte[]> records = new ArrayList<>(events.size());
+            for (int i = 0; i < events.size(); i++) {
+                records.add(EventRecord.encode(events.get(i), i == events.size() - 1, serializer));
+            }
+            long[] offsets;
+            try {
+                offsets = eventLog.append(records);
+            } catch (IOException e) {
+                handlePersistenceException(e, events.get(0));
+                return;
+            }
+            for (int i = 0; i < events.size(); i++) {
+                EventMessage<?> event = events.get(i);
+                if (event instanceof DomainEventMessage<?>) {
+                    DomainEventMessage<?> domainEvent = (DomainEventMessage<?>) event;
+                    IndexEntry indexEntry = new IndexEntry(domainEvent.getAggregateIdentifier(),
+                                                           domainEvent.getSequenceNumber(),
+                                                           offsets[i]);
+                    aggregateIndex.add(indexEntry);
+                    long segmentOffset = offsets[i] - offsets[i] % eventLog.segmentSize();
+                    unsealedIndexEntries.computeIfAbsent(segmentOffset, o -> new ArrayList<>()).add(indexEntry);
+                }
+            }
+            writeSealedSidecars(offsets[0] - offsets[0] % eventLog.segmentSize());
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private void validateSequenceNumbers(List<? extends EventMessage<?>> events) {
+        Map<String, Long> lastSequenceNumbers = new HashMap<>();
+        for (EventMessage<?> event : events) {
+            if (event instanceof DomainEventMessage<?>) {
+                DomainEventMessage<?> domainEvent = (DomainEventMessage<?>) event;
+                String aggregateIdentifier = domainEvent.getAggregateIdentifier();
+                Long lastSequenceNumber = lastSequenceNumbers.containsKey(aggregateIdentifier)
+                        ? lastSequenceNumbers.get(aggregateIdentifier)
+                        : aggregateIndex.lastSequenceNumber(aggregateIdentifier);
+                if (lastSequenceNumber != null && domainEvent.getSequenceNumber() <= lastSequenceNumber) {
+                    handlePersistenceException(new OutOfOrderSequenceNumberException(format(
+                            "Sequence number [%d] of aggregate [%s] does not follow stored sequence number [%d]",
+                            domainEvent.getSequenceNumber(), aggregateIdentifier, lastSequenceNumber
+                    )), event);
+                }
+                lastSequenceNumbers.put(aggregateIdentifier, domainEvent.getSequenceNumber());
+            }
+        }
+    }
+
+    private void writeSealedSidecars(long activeSegmentOffset) {
+        unsealedIndexEntries.keySet().removeIf(segmentOffset -> {
+            if (segmentOffset < activeSegmentOffset) {
+                writeSidecar(segmentOffset, unsealedIndexEntries.get(segmentOffset));
+                return true;
+            }
+            return false;
+        });
+    }
+
+    @Override
+    protected void storeSnapshot(DomainEventMessage<?> snapshot, Serializer serializer) {
+        appendLock.lock();
+        try {
+            long offset;
+            try {
+                offset = snapshotLog.append(
+                        Collections.singletonList(EventRecord.encode(snapshot, true, serializer))
+                )[0];
+            } catch (IOException e) {
+                handlePersistenceException(e, snapshot);
+                return;
+            }
+            snapshotIndex.computeIfAbsent(snapshot.getAggregateIdentifier(), id -> new ConcurrentSkipListMap<>())
+                         .put(snapshot.getSequenceNumber(), offset);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    @Override
+    protected Stream<? extends DomainEventData<?>> readEventData(String identifier, long firstSequenceNumber) {
+        return Arrays.stream(aggregateIndex.offsets(identifier, firstSequenceNumber))
+                     .mapToObj(offset -> EventRecord.decode(eventLog.read(offset), null));
+    }
+
+    @Override
+    protected Stream<? extends TrackedEventData<?>> readEventData(TrackingToken trackingToken, boolean mayBlock) {
+        Assert.isTrue(trackingToken == null || trackingToken instanceof GlobalSequenceTrackingToken,
+                      () -> format("Token [%s] is of the wrong type. Expected [%s]",
+                                   trackingToken, GlobalSequenceTrackingToken.class.getSimpleName()));
+        long startOffset = trackingToken == null
+                ? eventLog.firstOffset()
+                : ((GlobalSequenceTrackingToken) trackingToken).getGlobalIndex() + 1;
+        return StreamSupport.stream(new EventLogSpliterator(startOffset), false);
+    }
+
+    @Override
+    protected Stream<? extends DomainEventData<?>> readSnapshotData(String aggregateIdentifier) {
+        NavigableMap<Long, Long> snapshots = snapshotIndex.get(aggregateIdentifier);
+        if (snapshots == null) {
+            return Stream.empty();
+        }
+        return snapshots.descendingMap()
+                        .values()
+                        .stream()
+                        .map(offset -> EventRecord.decode(snapshotLog.read(offset), null));
+    }
+
+    @Override
+    public Optional<Long> lastSequenceNumberFor(@Nonnull String aggregateIdentifier) {
+        return Optional.ofNullable(aggregateIndex.lastSequenceNumber(aggregateIdentifier));
+    }
+
+    @Override
+    public TrackingToken createTailToken() {
+        return new GlobalSequenceTrackingToken(eventLog.firstOffset() - 1);
+    }
+
+    @Override
+    public TrackingToken createHeadToken() {
+        return new GlobalSequenceTrackingToken(eventLog.committedEnd() - 1);
+    }
+
+    @Override
+    public TrackingToken createTokenAt(@Nonnull Instant dateTime) {
+        long[] firstMatch = new long[]{-1};
+        eventLog.scan(eventLog.firstOffset(), eventLog.committedEnd(), (offset, body) -> {
+            if (firstMatch[0] < 0 && !EventRecord.readTimestamp(body).isBefore(dateTime)) {
+                firstMatch[0] = offset;
+            }
+        });
+        return firstMatch[0] < 0 ? createHeadToken() : new GlobalSequenceTrackingToken(firstMatch[0] - 1);
+    }
+
+    /**
+     * Spliterator reading the records of the event log, starting at a given offset. The token of every event is the
+     * offset of the last byte of its record, so that the stream of events following a token starts at the next byte.
+     */
+    private class EventLogSpliterator extends Spliterators.AbstractSpliterator<TrackedEventData<?>> {
+
+        private long offset;
+
+        private EventLogSpliterator(long offset) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.offset = offset;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super TrackedEventData<?>> action) {
+            long recordOffset = eventLog.nextRecordOffset(offset);
+            if (recordOffset >= eventLog.committedEnd()) {
+                return false;
+            }
+            ByteBuffer body = eventLog.read(recordOffset);
+            offset = recordOffset + EventRecord.HEADER_SIZE + body.remaining();
+            action.accept(EventRecord.decode(body, new GlobalSequenceTrackingToken(offset - 1)));
+            return true;
+        }
+    }
+
+    /**
+     * Exception indicating an attempt to append a domain event with a sequence number that does not follow the
+     * sequence numbers already stored for its aggregate. Resolved as a duplicate key violation by default.
+     */
+    private static class OutOfOrderSequenceNumberException extends RuntimeException {
+
+        private OutOfOrderSequenceNumberException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Builder class to instantiate a {@link FileEventStorageEngine}.
+     * <p>
+     * The following configurable fields have defaults:
+     * <ul>
+     * <li>The {@link EventUpcaster} defaults to an {@link org.axonframework.serialization.upcasting.event.NoOpEventUpcaster}.</li>
+     * <li>The {@link PersistenceExceptionResolver} defaults to a resolver marking out of order sequence numbers as
+     * duplicate key violations.</li>
+     * <li>The {@code snapshotFilter} defaults to a {@link SnapshotFilter#allowAll()} instance.</li>
+     * <li>The {@code segmentSize} defaults to {@code 64} MiB.</li>
+     * <li>The {@code forceOnAppend} defaults to {@code true}.</li>
+     * </ul>
+     * <p>
+     * The event and snapshot {@link Serializer} and the {@code storageDirectory} are <b>hard requirements</b> and as
+     * such should be provided.
+     */
+    public static class Builder extends AbstractEventStorageEngine.Builder {
+
+        private Path storageDirectory;
+        private int segmentSize = DEFAULT_SEGMENT_SIZE;
+        private boolean forceOnAppend = true;
+
+        private Builder() {
+            persistenceExceptionResolver(exception -> exception instanceof OutOfOrderSequenceNumberException);
+        }
+
+        @Override
+        public Builder snapshotSerializer(Serializer snapshotSerializer) {
+            super.snapshotSerializer(snapshotSerializer);
+            return this;
+        }
+
+        @Override
+        public Builder upcasterChain(EventUpcaster upcasterChain) {
+            super.upcasterChain(upcasterChain);
+            return this;
+        }
+
+        @Override
+        public Builder persistenceExceptionResolver(PersistenceExceptionResolver persistenceExceptionResolver) {
+            super.persistenceExceptionResolver(persistenceExceptionResolver);
+            return this;
+        }
+
+        @Override
+        public Builder eventSerializer(Serializer eventSerializer) {
+            super.eventSerializer(eventSerializer);
+            return this;
+        }
+
+        /**
+         * {@inheritDoc}
+         *
+         * @deprecated in favor of {@link #snapshotFilter(SnapshotFilter)}
+         */
+        @Override
+        @Deprecated
+        public Builder snapshotFilter(Predicate<? super DomainEventData<?>> snapshotFilter) {
+            super.snapshotFilter(snapshotFilter);
+            return this;
+        }
+
+        @Override
+        public Builder snapshotFilter(SnapshotFilter snapshotFilter) {
+            super.snapshotFilter(snapshotFilter);
+            return this;
+        }
+
+        /**
+         * Sets the directory to store the log files of the event and snapshot logs in. The directory is created if it
+         * does not exist yet.
+         *
+         * @param storageDirectory the directory to store the log files in
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder storageDirectory(Path storageDirectory) {
+            assertNonNull(storageDirectory, "The storage directory may not be null");
+            this.storageDirectory = storageDirectory;
+            return this;
+        }
+
+        /**
+         * Sets the size in bytes of each segment file of the logs. The size limits the number of bytes appended in a
+         * single batch of events. Note that the segment size of an existing store can not be changed. Defaults to
+         * {@code 64} MiB.
+         *
+         * @param segmentSize the size in bytes of each segment file of the logs
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder segmentSize(int segmentSize) {
+            assertStrictPositive(segmentSize, "The segment size should be a positive number");
+            this.segmentSize = segmentSize;
+            return this;
+        }
+
+        /**
+         * Sets whether appended events should be forced to the storage device before the append returns. Disabling
+         * this increases the append throughput, at the risk of losing the most recently appended events when the
+         * operating system crashes. Defaults to {@code true}.
+         *
+         * @param forceOnAppend whether to force appended events to the storage device before returning
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder forceOnAppend(boolean forceOnAppend) {
+            this.forceOnAppend = forceOnAppend;
+            return this;
+        }
+
+        /**
+         * Initializes a {@link FileEventStorageEngine} as specified through this Builder.
+         *
+         * @return a {@link FileEventStorageEngine} as specified through this Builder
+         */
+        public FileEventStorageEngine build() {
+            return new FileEventStorageEngine(this);
+        }
+
+        /**
+         * Validates whether the fields contained in this Builder are set accordingly.
+         *
+         * @throws AxonConfigurationException if one field is asserted to be incorrect according to the Builder's
+         *                                    specifications
+         */
+        @Override
+        protected void validate() throws AxonConfigurationException {
+            super.validate();
+            assertNonNull(storageDirectory, "The storage directory is a hard requirement and should be provided");
+        }
+    }
+}
@@ -0,0 +1,348 @@
+/*
+ * Copyright (c) 2010-2022. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventsourcing.eventstore.file;
+
+import org.axonframework.eventsourcing.eventstore.EventStoreException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static java.lang.String.format;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Append-only log of records, stored in fixed size, memory-mapped segment files. Every record is addressed by its
+ * global byte offset, which is the base offset of the segment containing it plus the position of the record within that
+ * segment.
+ * <p>
+ * Records are appended in batches. A batch never spans multiple segments, and the last record of each batch is marked
+ * as such. Upon opening the log, any records following the last complete batch in the last segment are considered a
+ * torn write and are truncated.
+ * <p>
+ * Appending is expected to be done by a single thread at a time. Reading is thread safe and does not block appends, as
+ * readers will only read records up to the {@link #committedEnd()} of the log.
+ */
+class SegmentedLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(SegmentedLog.class);
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private final Path directory;
+    private final String prefix;
+    private final int segmentSize;
+    private final boolean forceOnAppend;
+    private final Pattern segmentPattern;
+    private final NavigableMap<Long, MappedByteBuffer> segments = new ConcurrentSkipListMap<>();
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private volatile long committedEnd;
+
+    /**
+     * Initialize a log storing its segments in the given {@code directory}, using file names starting with the given
+     * {@code prefix}. The log should be {@link #open() opened} before use.
+     *
+     * @param directory     the directory to store segment files in
+     * @param prefix        the prefix of the names of the segment files
+     * @param segmentSize   the size of each segment in bytes
+     * @param forceOnAppend whether to force appended records to the storage device before returning
+     */
+    SegmentedLog(Path directory, String prefix, int segmentSize, boolean forceOnAppend) {
+        this.directory = directory;
+        this.prefix = prefix;
+        this.segmentSize = segmentSize;
+        this.forceOnAppend = forceOnAppend;
+        this.segmentPattern = Pattern.compile(Pattern.quote(prefix) + "-(\\d+)" + Pattern.quote(SEGMENT_SUFFIX));
+    }
+
+    /**
+     * Opens the log, mapping existing segment files and truncating any torn write at the end of the last segment.
+     *
+     * @throws IOException when the segment files could not be read or written
+     */
+    void open() throws IOException {
+        Files.createDirectories(directory);
+        List<Long> baseOffsets = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                Matcher matcher = segmentPattern.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    baseOffsets.add(Long.parseLong(matcher.group(1)));
+                }
+            });
+        }
+        for (Long baseOffset : baseOffsets) {
+            segments.put(baseOffset, map(baseOffset));
+        }
+        if (segments.isEmpty()) {
+            segments.put(0L, map(0L));
+        }
+        recoverLastSegment();
+    }
+
+    private MappedByteBuffer map(long baseOffset) throws IOException {
+        if (baseOffset % segmentSize != 0) {
+            throw new EventStoreException(format(
+                    "Segment [%s] does not match the configured segment size of [%d] bytes",
+                    segmentFile(baseOffset), segmentSize
+            ));
+        }
+        Path file = segmentFile(baseOffset);
+        try (FileChannel channel = FileChannel.open(file, CREATE, READ, WRITE)) {
+            long size = channel.size();
+            if (size != 0 && size != segmentSize) {
+                throw new EventStoreException(format(
+                        "Segment [%s] has a size of [%d] bytes, whereas segments of [%d] bytes are expected",
+                        file, size, segmentSize
+                ));
+            }
+            // the mapping remains valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+    }
+
+    private Path segmentFile(long baseOffset) {
+        return directory.resolve(format("%s-%020d%s", prefix, baseOffset, SEGMENT_SUFFIX));
+    }
+
+    private void recoverLastSegment() {
+        long baseOffset = segments.lastKey();
+        MappedByteBuffer segment = segments.get(baseOffset);
+        int position = 0;
+        int endOfLastBatch = 0;
+        while (position + EventRecord.HEADER_SIZE <= segmentSize) {
+            int length = segment.getInt(position);
+            if (length <= 0 || position + EventRecord.HEADER_SIZE + length > segmentSize) {
+                break;
+            }
+            byte[] body = new byte[length];
+            ByteBuffer source = segment.duplicate();
+            source.position(position + EventRecord.HEADER_SIZE);
+            source.get(body);
+            if (EventRecord.checksum(body, 0, length) != segment.getInt(position + Integer.BYTES)) {
+                break;
+            }
+            position += EventRecord.HEADER_SIZE + length;
+            if (EventRecord.isEndOfBatch(ByteBuffer.wrap(body))) {
+                endOfLastBatch = position;
+            }
+        }
+        if (!isZeroFrom(segment, endOfLastBatch)) {
+            logger.warn("Truncating torn write in segment [{}] at position [{}].",
+                        segmentFile(baseOffset), endOfLastBatch);
+            for (int i = endOfLastBatch; i < segmentSize; i++) {
+                segment.put(i, (byte) 0);
+            }
+            segment.force();
+        }
+        committedEnd = baseOffset + endOfLastBatch;
+    }
+
+    private boolean isZeroFrom(ByteBuffer segment, int position) {
+        int i = position;
+        for (; i + Long.BYTES <= segmentSize; i += Long.BYTES) {
+            if (segment.getLong(i) != 0) {
+                return false;
+            }
+        }
+        for (; i < segmentSize; i++) {
+            if (segment.get(i) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Appends the given {@code records} as a single batch. The records are expected to contain their header. If the
+     * batch does not fit in the remainder of the current segment, a new segment is started.
+     *
+     * @param records the records to append
+     * @return the offsets at which the records have been appended
+     * @throws IOException when a new segment could not be created
+     */
+    long[] append(List<byte[]> records) throws IOException {
+        appendLock.lock();
+        try {
+            int batchSize = 0;
+            for (byte[] record : records) {
+                batchSize += record.length;
+            }
+            if (batchSize > segmentSize) {
+                throw new EventStoreException(format(
+                        "A batch of [%d] bytes does not fit in a segment of [%d] bytes", batchSize, segmentSize
+                ));
+            }
+            long offset = committedEnd;
+            long baseOffset = segments.lastKey();
+            if (offset - baseOffset + batchSize > segmentSize) {
+                baseOffset += segmentSize;
+                segments.put(baseOffset, map(baseOffset));
+                offset = baseOffset;
+            }
+            MappedByteBuffer segment = segments.get(baseOffset);
+            ByteBuffer target = segment.duplicate();
+            target.position((int) (offset - baseOffset));
+            long[] offsets = new long[records.size()];
+            for (int i = 0; i < records.size(); i++) {
+                offsets[i] = baseOffset + target.position();
+                target.put(records.get(i));
+            }
+            if (forceOnAppend) {
+                segment.force();
+            }
+            committedEnd = baseOffset + target.position();
+            return offsets;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the offset directly after the last record of the last completely appended batch. Records before this
+     * offset are safe to read.
+     *
+     * @return the offset directly after the last readable record
+     */
+    long committedEnd() {
+        return committedEnd;
+    }
+
+    /**
+     * Returns the offset of the first segment in this log.
+     *
+     * @return the offset of the first segment in this log
+     */
+    long firstOffset() {
+        return segments.firstKey();
+    }
+
+    /**
+     * Returns the base offsets of all segments in this log, in ascending order.
+     *
+     * @return the base offsets of all segments in this log
+     */
+    List<Long> segmentOffsets() {
+        return new ArrayList<>(segments.keySet());
+    }
+
+    /**
+     * Returns the size of the segments in this log, in bytes.
+     *
+     * @return the size of the segments in this log
+     */
+    int segmentSize() {
+        return segmentSize;
+    }
+
+    /**
+     * Returns the offset of the first record at or after the given {@code offset}. If the given offset points to the
+     * unused remainder of a segment, the base offset of the next segment is returned.
+     *
+     * @param offset the offset to find the first record for
+     * @return the offset of the first record at or after the given offset, or a value equal to or larger than the
+     * {@link #committedEnd()} if there is no such record
+     */
+    long nextRecordOffset(long offset) {
+        long end = committedEnd;
+        if (offset >= end) {
+            return end;
+        }
+        if (offset < segments.firstKey()) {
+            return segments.firstKey();
+        }
+        long baseOffset = offset - offset % segmentSize;
+        int position = (int) (offset - baseOffset);
+        if (position + EventRecord.HEADER_SIZE > segmentSize || segments.get(baseOffset).getInt(position) == 0) {
+            return baseOffset + segmentSize;
+        }
+        return offset;
+    }
+
+    /**
+     * Returns the body of the record at given {@code offset}. The returned buffer is positioned at the start of the
+     * body, with its limit set to the end of the body.
+     *
+     * @param offset the offset of the record to read, as returned by {@link #nextRecordOffset(long)}
+     * @return the body of the record at the given offset
+     */
+    ByteBuffer read(long offset) {
+        long baseOffset = offset - offset % segmentSize;
+        int position = (int) (offset - baseOffset);
+        MappedByteBuffer segment = segments.get(baseOffset);
+        int length = segment.getInt(position);
+        ByteBuffer body = segment.duplicate();
+        body.position(position + EventRecord.HEADER_SIZE);
+        body.limit(position + EventRecord.HEADER_SIZE + length);
+        return body.slice();
+    }
+
+    /**
+     * Visits all records starting at or after offset {@code from} and before offset {@code to}, in order.
+     *
+     * @param from    the offset to start visiting records from
+     * @param to      the offset to stop visiting records at
+     * @param visitor the visitor to invoke for every record
+     */
+    void scan(long from, long to, RecordVisitor visitor) {
+        long offset = from;
+        long end = Math.min(to, committedEnd);
+        while ((offset = nextRecordOffset(offset)) < end) {
+            ByteBuffer body = read(offset);
+            int length = body.remaining();
+            visitor.visit(offset, body);
+            offset += EventRecord.HEADER_SIZE + length;
+        }
+    }
+
+    /**
+     * Forces any changes to the segments of this log to the storage device.
+     */
+    void flush() {
+        segments.values().forEach(MappedByteBuffer::force);
+    }
+
+    /**
+     * Visitor of records in the log.
+     */
+    @FunctionalInterface
+    interface RecordVisitor {
+
+        /**
+         * Visit the record at given {@code offset} with given {@code body}.
+         *
+         * @param offset the offset of the record
+         * @param body   the body of the record
+         */
+        void visit(long offset, ByteBuffer body);
+    }
+}
@@ -16,6 +16,7 @@
 
 package org.axonframework.eventsourcing.eventstore.inmemory;
 
+import org.axonframework.common.Assert;
 import org.axonframework.eventhandling.DomainEventMessage;
 import org.axonframework.eventhandling.EventMessage;
 import org.axonframework.eventhandling.GlobalSequenceTrackingToken;
@@ -24,14 +25,19 @@
 import org.axonframework.eventsourcing.eventstore.DomainEventStream;
 import org.axonframework.eventsourcing.eventstore.EventStorageEngine;
 import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
+import org.axonframework.modelling.command.AggregateStreamCreationException;
+import org.axonframework.modelling.command.ConcurrencyException;
 
 import java.time.Instant;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.NavigableMap;
 import java.util.Optional;
+import java.util.Set;
 import java.util.Spliterator;
 import java.util.Spliterators;
 import java.util.concurrent.ConcurrentHashMap;
@@ -46,10 +52,18 @@
 import java.util.stream.StreamSupport;
 import javax.annotation.Nonnull;
 
+import static java.lang.String.format;
 import static org.axonframework.eventhandling.EventUtils.asTrackedEventMessage;
 
 /**
  * Thread-safe event storage engine that stores events and snapshots in memory.
+ * <p>
+ * Next to the global log of events, this engine maintains an index of the domain events per aggregate, ordered by
+ * sequence number. Reading the events of a single aggregate thus only touches the events of that aggregate. Like the
+ * JDBC and JPA engines, appending a domain event with an aggregate identifier and sequence number that is already
+ * stored is rejected as a duplicate key violation, before any of the given events are appended. Optionally,
+ * the number of retained events can be bounded, in which case the oldest events are evicted once the bound is
+ * exceeded.
  *
  * @author Rene de Waele
  * @since 3.0
@@ -58,8 +72,11 @@ public class InMemoryEventStorageEngine implements EventStorageEngine {
 
     @SuppressWarnings("SortedCollectionWithNonComparableKeys")
     private final NavigableMap<TrackingToken, TrackedEventMessage<?>> events = new ConcurrentSkipListMap<>();
+    private final Map<String, NavigableMap<Long, DomainEventMessage<?>>> aggregateIndex = new ConcurrentHashMap<>();
     private final Map<String, List<DomainEventMessage<?>>> snapshots = new ConcurrentHashMap<>();
     private final long offset;
+    private final long maxRetainedEvents;
+    private long retainedEvents;
 
     /**
      * Initializes an InMemoryEventStorageEngine. The engine will be empty, and there is no offset for the first token.
@@ -74,7 +91,21 @@ public InMemoryEventStorageEngine() {
      * @param offset The value to use for the token of the first event appended
      */
     public InMemoryEventStorageEngine(long offset) {
+        this(offset, Long.MAX_VALUE);
+    }
+
+    /**
+     * Initializes an InMemoryEventStorageEngine using given {@code offset} to initialize the tokens with, retaining at
+     * most {@code maxRetainedEvents} events. Once this bound is exceeded, the oldest events are evicted from the
+     * engine. Snapshots do not count towards this bound.
+     *
+     * @param offset            The value to use for the token of the first event appended
+     * @param maxRetainedEvents The maximum number of events retained by this engine
+     */
+    public InMemoryEventStorageEngine(long offset, long maxRetainedEvents) {
+        Assert.isTrue(maxRetainedEvents > 0, () -> "The maximum number of retained events should be positive");
         this.offset = offset;
+        this.maxRetainedEvents = maxRetainedEvents;
     }
 
     @Override
@@ -88,14 +119,71 @@ public void appendEvents(@Nonnull List<? extends EventMessage<?>> events) {
 
     private void storeEvents(List<? extends EventMessage<?>> events) {
         synchronized (this.events) {
+            assertNoDuplicateDomainEvents(events);
             GlobalSequenceTrackingToken trackingToken = nextTrackingToken();
-            this.events.putAll(
+            List<? extends TrackedEventMessage<?>> trackedEvents =
                     IntStream.range(0, events.size())
                              .mapToObj(i -> asTrackedEventMessage(
                                      (EventMessage<?>) events.get(i), trackingToken.offsetBy(i)
                              ))
-                             .collect(Collectors.toMap(TrackedEventMessage::trackingToken, Function.identity()))
+                             .collect(Collectors.toList());
+            trackedEvents.forEach(this::indexEvent);
+            this.events.putAll(
+                    trackedEvents.stream()
+                                 .collect(Collectors.toMap(TrackedEventMessage::trackingToken, Function.identity()))
             );
+            retainedEvents += trackedEvents.size();
+            while (retainedEvents > maxRetainedEvents) {
+                Map.Entry<TrackingToken, TrackedEventMessage<?>> oldest = this.events.pollFirstEntry();
+                removeFromIndex(oldest.getValue());
+                retainedEvents--;
+            }
+        }
+    }
+
+    private void assertNoDuplicateDomainEvents(List<? extends EventMessage<?>> events) {
+        Map<String, Set<Long>> appendedSequenceNumbers = new HashMap<>();
+        for (EventMessage<?> event : events) {
+            if (!(event instanceof DomainEventMessage<?>)) {
+                continue;
+            }
+            DomainEventMessage<?> domainEvent = (DomainEventMessage<?>) event;
+            String aggregateIdentifier = domainEvent.getAggregateIdentifier();
+            long sequenceNumber = domainEvent.getSequenceNumber();
+            NavigableMap<Long, DomainEventMessage<?>> aggregateEvents = aggregateIndex.get(aggregateIdentifier);
+            boolean stored = aggregateEvents != null && aggregateEvents.containsKey(sequenceNumber);
+            if (stored || !appendedSequenceNumbers.computeIfAbsent(aggregateIdentifier, id -> new HashSet<>())
+                                                  .add(sequenceNumber)) {
+                if (sequenceNumber == 0L) {
+                    throw new AggregateStreamCreationException(format(
+                            "Cannot reuse aggregate identifier [%s] to create aggregate [%s] "
+                                    + "since identifiers need to be unique.",
+                            aggregateIdentifier, domainEvent.getType()
+                    ));
+                }
+                throw new ConcurrencyException(format(
+                        "An event for aggregate [%s] at sequence [%d] was already inserted",
+                        aggregateIdentifier, sequenceNumber
+                ));
+            }
+        }
+    }
+
+    private void indexEvent(TrackedEventMessage<?> event) {
+        if (event instanceof DomainEventMessage<?>) {
+            DomainEventMessage<?> domainEvent = (DomainEventMessage<?>) event;
+            aggregateIndex.computeIfAbsent(domainEvent.getAggregateIdentifier(), id -> new ConcurrentSkipListMap<>())
+                          .put(domainEvent.getSequenceNumber(), domainEvent);
+        }
+    }
+
+    private void removeFromIndex(TrackedEventMessage<?> event) {
+        if (event instanceof DomainEventMessage<?>) {
+            DomainEventMessage<?> domainEvent = (DomainEventMessage<?>) event;
+            aggregateIndex.computeIfPresent(domainEvent.getAggregateIdentifier(), (id, aggregateEvents) -> {
+                aggregateEvents.remove(domainEvent.getSequenceNumber(), domainEvent);
+                return aggregateEvents.isEmpty() ? null : aggregateEvents;
+            });
         }
     }
 
@@ -126,14 +214,23 @@ public Stream<? extends TrackedEventMessage<?>> readEvents(TrackingToken trackin
     public DomainEventStream readEvents(@Nonnull String aggregateIdentifier, long firstSequenceNumber) {
         AtomicReference<Long> sequenceNumber = new AtomicReference<>();
         Stream<? extends DomainEventMessage<?>> stream =
-                events.values().stream().filter(event -> event instanceof DomainEventMessage<?>)
-                      .map(event -> (DomainEventMessage<?>) event)
-                      .filter(event -> aggregateIdentifier.equals(event.getAggregateIdentifier())
-                              && event.getSequenceNumber() >= firstSequenceNumber)
-                      .peek(event -> sequenceNumber.set(event.getSequenceNumber()));
+                aggregateIndex.getOrDefault(aggregateIdentifier, Collections.emptyNavigableMap())
+                              .tailMap(firstSequenceNumber, true)
+                              .values()
+                              .stream()
+                              .peek(event -> sequenceNumber.set(event.getSequenceNumber()));
         return DomainEventStream.of(stream, sequenceNumber::get);
     }
 
+    @Override
+    public Optional<Long> lastSequenceNumberFor(@Nonnull String aggregateIdentifier) {
+        NavigableMap<Long, DomainEventMessage<?>> aggregateEvents = aggregateIndex.get(aggregateIdentifier);
+        if (aggregateEvents == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(aggregateEvents.lastEntry()).map(Map.Entry::getKey);
+    }
+
     @Override
     public Optional<DomainEventMessage<?>> readSnapshot(@Nonnull String aggregateIdentifier) {
         return snapshots.getOrDefault(aggregateIdentifier, Collections.emptyList())
@@ -42,6 +42,7 @@ public PreparedStatement createDomainEventTable(Connection connection,
                 schema.payloadColumn() + " " + payloadType() + " NOT NULL,\n" +
                 schema.payloadRevisionColumn() + " VARCHAR(255),\n" +
                 schema.payloadTypeColumn() + " VARCHAR(255) NOT NULL,\n" +
+                (schema.sequenceHashColumn() == null ? "" : schema.sequenceHashColumn() + " INTEGER,\n") +
                 schema.timestampColumn() + " " + timestampType() + " ,\n" +
                 "PRIMARY KEY (" + schema.globalIndexColumn() + "),\n" +
                 "UNIQUE (" + schema.aggregateIdentifierColumn() + ", " +
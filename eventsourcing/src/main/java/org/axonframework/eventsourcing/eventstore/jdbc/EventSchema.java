@@ -29,6 +29,7 @@ public class EventSchema {
     private final String domainEventTable, snapshotTable, globalIndexColumn, timestampColumn, eventIdentifierColumn,
             aggregateIdentifierColumn, sequenceNumberColumn, typeColumn, payloadTypeColumn, payloadRevisionColumn,
             payloadColumn, metaDataColumn;
+    private final String sequenceHashColumn;
 
     private final Function<EventSchema, String> domainEventFields, trackedEventFields;
 
@@ -52,6 +53,7 @@ private EventSchema(Builder builder) {
         payloadRevisionColumn = builder.payloadRevisionColumn;
         payloadColumn = builder.payloadColumn;
         metaDataColumn = builder.metaDataColumn;
+        sequenceHashColumn = builder.sequenceHashColumn;
         domainEventFields = builder.domainEventFields;
         trackedEventFields = builder.trackedEventFields;
     }
@@ -173,6 +175,17 @@ public String metaDataColumn() {
         return metaDataColumn;
     }
 
+    /**
+     * Get the name of the column containing the hash of the aggregate identifier of the event, or of the event
+     * identifier if the event was not published by an aggregate. Returns {@code null} if the domain event table does
+     * not have such a column.
+     *
+     * @return the name of the column containing the hash of the aggregate identifier, or {@code null}
+     */
+    public String sequenceHashColumn() {
+        return sequenceHashColumn;
+    }
+
     /**
      * Get a comma separated list of domain event column names to select from an event or snapshot entry.
      *
@@ -209,6 +222,7 @@ public static class Builder {
         private String payloadRevisionColumn = "payloadRevision";
         private String payloadColumn = "payload";
         private String metaDataColumn = "metaData";
+        private String sequenceHashColumn = null;
 
         private Function<EventSchema, String> domainEventFields = eventSchema ->
                 String.join(", ",
@@ -357,6 +371,23 @@ public Builder metaDataColumn(String metaDataColumn) {
             return this;
         }
 
+        /**
+         * Sets the name of the column containing the hash of the aggregate identifier of an event. Defaults to {@code
+         * null}, meaning the domain event table has no such column.
+         * <p>
+         * If set, this hash is stored with every event, and used to only read the events of a {@link
+         * org.axonframework.eventhandling.Segment} from the database when a processor reads a segment. Existing tables
+         * can be migrated using {@link EventTableFactory#addSequenceHashColumn}. Events stored before the migration have
+         * no hash, and are always read.
+         *
+         * @param sequenceHashColumn the name of the sequence hash column.
+         * @return the modified Builder instance
+         */
+        public Builder sequenceHashColumn(String sequenceHashColumn) {
+            this.sequenceHashColumn = sequenceHashColumn;
+            return this;
+        }
+
         /**
          * Set a comma separated list of domain event column names to select from an event or snapshot entry. Defaults
          * to:
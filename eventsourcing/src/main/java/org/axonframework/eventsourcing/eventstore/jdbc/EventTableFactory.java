@@ -49,4 +49,20 @@ public interface EventTableFactory {
      * @throws SQLException when an exception occurs while creating the prepared statement
      */
     PreparedStatement createSnapshotEventTable(Connection connection, EventSchema schema) throws SQLException;
+
+    /**
+     * Creates a PreparedStatement that adds the {@link EventSchema#sequenceHashColumn() sequence hash column} to an
+     * existing table to store Event entries.
+     *
+     * @param connection The connection to create the PreparedStatement for
+     * @param schema     The event schema with the name of the table and its columns
+     * @return The statement to add the column, ready to be executed
+     *
+     * @throws SQLException when an exception occurs while creating the prepared statement
+     */
+    default PreparedStatement addSequenceHashColumn(Connection connection, EventSchema schema) throws SQLException {
+        return connection.prepareStatement(
+                "ALTER TABLE " + schema.domainEventTable() + " ADD " + schema.sequenceHashColumn() + " INTEGER"
+        );
+    }
 }
@@ -28,10 +28,12 @@
 import org.axonframework.eventhandling.GapAwareTrackingToken;
 import org.axonframework.eventhandling.GenericDomainEventEntry;
 import org.axonframework.eventhandling.GenericEventMessage;
+import org.axonframework.eventhandling.Segment;
 import org.axonframework.eventhandling.TrackedDomainEventData;
 import org.axonframework.eventhandling.TrackedEventData;
 import org.axonframework.eventhandling.TrackingToken;
 import org.axonframework.eventsourcing.eventstore.BatchingEventStorageEngine;
+import org.axonframework.eventsourcing.eventstore.DomainEventStream;
 import org.axonframework.eventsourcing.eventstore.EventStoreException;
 import org.axonframework.eventsourcing.eventstore.jdbc.statements.AppendEventsStatementBuilder;
 import org.axonframework.eventsourcing.eventstore.jdbc.statements.AppendSnapshotStatementBuilder;
@@ -44,8 +46,11 @@
 import org.axonframework.eventsourcing.eventstore.jdbc.statements.JdbcEventStorageEngineStatements;
 import org.axonframework.eventsourcing.eventstore.jdbc.statements.LastSequenceNumberForStatementBuilder;
 import org.axonframework.eventsourcing.eventstore.jdbc.statements.ReadEventDataForAggregateStatementBuilder;
+import org.axonframework.eventsourcing.eventstore.jdbc.statements.ReadEventDataSkippingPayloadTypesStatementBuilder;
 import org.axonframework.eventsourcing.eventstore.jdbc.statements.ReadEventDataWithGapsStatementBuilder;
 import org.axonframework.eventsourcing.eventstore.jdbc.statements.ReadEventDataWithoutGapsStatementBuilder;
+import org.axonframework.eventsourcing.eventstore.jdbc.statements.ReadSkippedEventDataStatementBuilder;
+import org.axonframework.eventsourcing.eventstore.jdbc.statements.ReadSnapshotAndEventDataStatementBuilder;
 import org.axonframework.eventsourcing.eventstore.jdbc.statements.ReadSnapshotDataStatementBuilder;
 import org.axonframework.eventsourcing.eventstore.jdbc.statements.TimestampWriter;
 import org.axonframework.eventsourcing.snapshotting.SnapshotFilter;
@@ -66,9 +71,15 @@
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
 import java.util.SortedSet;
+import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.LongStream;
@@ -77,10 +88,13 @@
 
 import static java.lang.String.format;
 import static org.axonframework.common.Assert.isTrue;
+import static org.axonframework.common.Assert.state;
 import static org.axonframework.common.BuilderUtils.assertNonNull;
 import static org.axonframework.common.BuilderUtils.assertThat;
 import static org.axonframework.common.DateTimeUtils.formatInstant;
+import static org.axonframework.common.ObjectUtils.getOrDefault;
 import static org.axonframework.common.jdbc.JdbcUtils.*;
+import static org.axonframework.eventsourcing.EventStreamUtils.upcastAndDeserializeDomainEvents;
 
 /**
  * An {@link org.axonframework.eventsourcing.eventstore.EventStorageEngine} implementation that uses JDBC to store and
@@ -105,14 +119,18 @@ public class JdbcEventStorageEngine extends BatchingEventStorageEngine {
     private static final int DEFAULT_GAP_TIMEOUT = 60000;
     private static final int DEFAULT_GAP_CLEANING_THRESHOLD = 250;
     private static final boolean DEFAULT_EXTENDED_GAP_CHECK_ENABLED = true;
+    private static final boolean DEFAULT_SNAPSHOT_AND_EVENTS_IN_SINGLE_QUERY = false;
 
     private final ConnectionProvider connectionProvider;
+    private final ConnectionProvider trackingConnectionProvider;
+    private final int trackingReplicaLag;
     private final TransactionManager transactionManager;
     private final Class<?> dataType;
     private final EventSchema schema;
     private final int maxGapOffset;
     private final long lowestGlobalSequence;
     private final boolean extendedGapCheckEnabled;
+    private final boolean snapshotAndEventsInSingleQuery;
     private final CreateTokenAtStatementBuilder createTokenAt;
     private final AppendEventsStatementBuilder appendEvents;
     private final LastSequenceNumberForStatementBuilder lastSequenceNumberFor;
@@ -126,6 +144,9 @@ public class JdbcEventStorageEngine extends BatchingEventStorageEngine {
     private final ReadSnapshotDataStatementBuilder readSnapshotData;
     private final ReadEventDataWithoutGapsStatementBuilder readEventDataWithoutGaps;
     private final ReadEventDataWithGapsStatementBuilder readEventDataWithGaps;
+    private final ReadEventDataSkippingPayloadTypesStatementBuilder readEventDataSkippingPayloadTypes;
+    private final ReadSkippedEventDataStatementBuilder readSkippedEventData;
+    private final ReadSnapshotAndEventDataStatementBuilder readSnapshotAndEventData;
     private int gapTimeout;
     private int gapCleaningThreshold;
 
@@ -141,6 +162,8 @@ public class JdbcEventStorageEngine extends BatchingEventStorageEngine {
     protected JdbcEventStorageEngine(Builder builder) {
         super(builder);
         this.connectionProvider = builder.connectionProvider;
+        this.trackingConnectionProvider = getOrDefault(builder.trackingConnectionProvider, builder.connectionProvider);
+        this.trackingReplicaLag = builder.trackingReplicaLag;
         this.transactionManager = builder.transactionManager;
         this.dataType = builder.dataType;
         this.schema = builder.schema;
@@ -149,6 +172,7 @@ protected JdbcEventStorageEngine(Builder builder) {
         this.gapTimeout = builder.gapTimeout;
         this.gapCleaningThreshold = builder.gapCleaningThreshold;
         this.extendedGapCheckEnabled = builder.extendedGapCheckEnabled;
+        this.snapshotAndEventsInSingleQuery = builder.snapshotAndEventsInSingleQuery;
         this.createTokenAt = builder.createTokenAt;
         this.appendEvents = builder.appendEvents;
         this.lastSequenceNumberFor = builder.lastSequenceNumberFor;
@@ -162,6 +186,9 @@ protected JdbcEventStorageEngine(Builder builder) {
         this.readSnapshotData = builder.readSnapshotData;
         this.readEventDataWithoutGaps = builder.readEventDataWithoutGaps;
         this.readEventDataWithGaps = builder.readEventDataWithGaps;
+        this.readEventDataSkippingPayloadTypes = builder.readEventDataSkippingPayloadTypes;
+        this.readSkippedEventData = builder.readSkippedEventData;
+        this.readSnapshotAndEventData = builder.readSnapshotAndEventData;
     }
 
     /**
@@ -173,13 +200,17 @@ protected JdbcEventStorageEngine(Builder builder) {
      * <li>The {@link PersistenceExceptionResolver} is defaulted to a {@link JdbcSQLErrorCodesResolver}</li>
      * <li>The {@code snapshotFilter} defaults to a {@link SnapshotFilter#allowAll()} instance.</li>
      * <li>The {@code batchSize} defaults to an integer of size {@code 100}.</li>
+     * <li>The {@code readAheadBatches} defaults to {@code 0}, disabling read-ahead.</li>
      * <li>The {@code dataType} is defaulted to the {@code byte[]} type.</li>
      * <li>The {@link EventSchema} defaults to an {@link EventSchema#EventSchema()} call.</li>
      * <li>The {@code maxGapOffset} defaults to an  integer of size {@code 10000}.</li>
      * <li>The {@code lowestGlobalSequence} defaults to a long of size {@code 1}.</li>
+     * <li>The {@code trackingConnectionProvider} defaults to the {@link ConnectionProvider}.</li>
+     * <li>The {@code trackingReplicaLag} defaults to an integer of size {@code 0}.</li>
      * <li>The {@code gapTimeout} defaults to an integer of size {@code 60000} (1 minute).</li>
      * <li>The {@code gapCleaningThreshold} defaults to an integer of size {@code 250}.</li>
      * <li>The {@code extendedGapCheckEnabled} defaults to {@code true}.</li>
+     * <li>The {@code snapshotAndEventsInSingleQuery} defaults to {@code false}.</li>
      * <li>The {@code createTokenAt} defaults to {@link JdbcEventStorageEngineStatements#createTokenAt}.</li>
      * <li>The {@code appendEvents} defaults to {@link JdbcEventStorageEngineStatements#appendEvents}.</li>
      * <li>The {@code lastSequenceNumberFor} defaults to {@link JdbcEventStorageEngineStatements#lastSequenceNumberFor}.</li>
@@ -193,6 +224,9 @@ protected JdbcEventStorageEngine(Builder builder) {
      * <li>The {@code readSnapshotData} defaults to {@link JdbcEventStorageEngineStatements#readSnapshotData}.</li>
      * <li>The {@code readEventDataWithoutGaps} defaults to {@link JdbcEventStorageEngineStatements#readEventDataWithoutGaps}.</li>
      * <li>The {@code readEventDataWithGaps} defaults to {@link JdbcEventStorageEngineStatements#readEventDataWithGaps}.</li>
+     * <li>The {@code readEventDataSkippingPayloadTypes} defaults to {@link JdbcEventStorageEngineStatements#readEventDataSkippingPayloadTypes}.</li>
+     * <li>The {@code readSkippedEventData} defaults to {@link JdbcEventStorageEngineStatements#readSkippedEventData}.</li>
+     * <li>The {@code readSnapshotAndEventData} defaults to {@link JdbcEventStorageEngineStatements#readSnapshotAndEventData}.</li>
      * </ul>
      * <p>
      * The event and snapshot {@link Serializer}, {@link ConnectionProvider} and {@link TransactionManager} are <b>hard
@@ -386,6 +420,69 @@ protected PreparedStatement readEventDataWithGaps(Connection connection, long gl
         return readEventDataWithGaps.build(connection, schema, globalIndex, batchSize, gaps);
     }
 
+    /**
+     * Creates a statement to be used at {@link JdbcEventStorageEngine#fetchTrackedEvents(TrackingToken, int, Set,
+     * Segment)}, which leaves out the entries with one of the given {@code skippedPayloadTypes} or of another segment
+     * than the given {@code segment}.
+     *
+     * @param connection          The connection to the database.
+     * @param globalIndex         The index taken from the tracking token.
+     * @param batchSize           The number of items to include in the batch
+     * @param gaps                The Set of gaps taken from the tracking token, may be empty.
+     * @param skippedPayloadTypes The payload types of the entries to leave out.
+     * @param segment             The segment of the entries to read.
+     *
+     * @return The newly created {@link PreparedStatement}.
+     * @throws SQLException when an exception occurs while creating the prepared statement.
+     */
+    protected PreparedStatement readEventDataSkippingPayloadTypes(Connection connection, long globalIndex,
+                                                                  int batchSize, List<Long> gaps,
+                                                                  Set<String> skippedPayloadTypes,
+                                                                  Segment segment)
+            throws SQLException {
+        return readEventDataSkippingPayloadTypes.build(connection, schema, globalIndex, batchSize, gaps,
+                                                       skippedPayloadTypes, segment);
+    }
+
+    /**
+     * Creates a statement to be used at {@link JdbcEventStorageEngine#fetchTrackedEvents(TrackingToken, int, Set,
+     * Segment)}, which reads the entries with one of the given {@code skippedPayloadTypes} or of another segment than
+     * the given {@code segment}, without their payload and meta data.
+     *
+     * @param connection          The connection to the database.
+     * @param globalIndex         The index taken from the tracking token.
+     * @param batchSize           The number of items to include in the batch
+     * @param gaps                The Set of gaps taken from the tracking token, may be empty.
+     * @param skippedPayloadTypes The payload types of the entries to read.
+     * @param segment             The segment of the entries that are not read.
+     *
+     * @return The newly created {@link PreparedStatement}.
+     * @throws SQLException when an exception occurs while creating the prepared statement.
+     */
+    protected PreparedStatement readSkippedEventData(Connection connection, long globalIndex, int batchSize,
+                                                     List<Long> gaps, Set<String> skippedPayloadTypes,
+                                                     Segment segment)
+            throws SQLException {
+        return readSkippedEventData.build(connection, schema, globalIndex, batchSize, gaps, skippedPayloadTypes,
+                                          segment);
+    }
+
+    /**
+     * Creates a statement to be used at {@link JdbcEventStorageEngine#readSnapshotData(String)} when snapshots and the
+     * events following the latest snapshot are read in a single query.
+     *
+     * @param connection The connection to the database.
+     * @param identifier The identifier of the aggregate.
+     * @param batchSize  The maximum number of events following the latest snapshot to include.
+     *
+     * @return The newly created {@link PreparedStatement}.
+     * @throws SQLException when an exception occurs while creating the prepared statement.
+     */
+    protected PreparedStatement readSnapshotAndEventData(Connection connection, String identifier, int batchSize)
+            throws SQLException {
+        return readSnapshotAndEventData.build(connection, schema, identifier, batchSize);
+    }
+
     /**
      * Performs the DDL queries to create the schema necessary for this storage engine implementation.
      *
@@ -400,6 +497,21 @@ public void createSchema(EventTableFactory schemaFactory) {
                        connection -> schemaFactory.createSnapshotEventTable(connection, schema));
     }
 
+    /**
+     * Performs the DDL query to add the {@link EventSchema#sequenceHashColumn() sequence hash column} to an existing
+     * domain event table. Events stored before this migration have no hash, and are therefore read by every segment.
+     *
+     * @param schemaFactory Factory of the event schema.
+     *
+     * @throws EventStoreException when an error occurs executing SQL statements.
+     */
+    public void addSequenceHashColumn(EventTableFactory schemaFactory) {
+        state(schema.sequenceHashColumn() != null, () -> "The event schema has no sequence hash column");
+        executeUpdates(getConnection(), e -> {
+                           throw new EventStoreException("Failed to add the sequence hash column", e);
+                       }, connection -> schemaFactory.addSequenceHashColumn(connection, schema));
+    }
+
     @Override
     protected void appendEvents(List<? extends EventMessage<?>> events, Serializer serializer) {
         if (events.isEmpty()) {
@@ -444,7 +556,7 @@ public Optional<Long> lastSequenceNumberFor(@Nonnull String aggregateIdentifier)
     @Override
     public TrackingToken createTailToken() {
         Long index = transactionManager.fetchInTransaction(() -> executeQuery(
-                getConnection(),
+                getTrackingConnection(),
                 this::createTailToken,
                 resultSet -> nextAndExtract(resultSet, 1, Long.class),
                 e -> new EventStoreException("Failed to get tail token", e)
@@ -460,7 +572,7 @@ public TrackingToken createHeadToken() {
     @Override
     public TrackingToken createTokenAt(@Nonnull Instant dateTime) {
         Long index = transactionManager.fetchInTransaction(() -> executeQuery(
-                getConnection(),
+                getTrackingConnection(),
                 connection -> createTokenAt(connection, dateTime),
                 resultSet -> nextAndExtract(resultSet, 1, Long.class),
                 e -> new EventStoreException(format("Failed to get token at [%s]", dateTime), e)
@@ -504,6 +616,36 @@ protected boolean fetchForAggregateUntilEmpty() {
 
     @Override
     protected List<? extends TrackedEventData<?>> fetchTrackedEvents(TrackingToken lastToken, int batchSize) {
+        return fetchTrackedEvents(lastToken, batchSize, Collections.emptySet());
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Entries with one of the given {@code skippedPayloadTypes} are filtered out by the query for the batch. A second
+     * query reads these entries without their payload and meta data, so that they can be returned with an empty
+     * payload and meta data. This way the tracking tokens advance past them, without registering them as gaps.
+     */
+    @Override
+    protected List<? extends TrackedEventData<?>> fetchTrackedEvents(TrackingToken lastToken,
+                                                                     int batchSize,
+                                                                     Set<String> skippedPayloadTypes) {
+        return fetchTrackedEvents(lastToken, batchSize, skippedPayloadTypes, Segment.ROOT_SEGMENT);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If the given {@code segment} is not the root segment and the {@link EventSchema} has a {@link
+     * EventSchema#sequenceHashColumn() sequence hash column}, entries of other segments are filtered out by the query
+     * for the batch as well. Like entries with a skipped payload type, they are read without their payload and meta
+     * data by a second query. Without a sequence hash column, all entries of the batch are read with their payload.
+     */
+    @Override
+    protected List<? extends TrackedEventData<?>> fetchTrackedEvents(TrackingToken lastToken,
+                                                                     int batchSize,
+                                                                     Set<String> skippedPayloadTypes,
+                                                                     Segment segment) {
         isTrue(lastToken == null || lastToken instanceof GapAwareTrackingToken,
                () -> "Unsupported token format: " + lastToken);
 
@@ -516,47 +658,100 @@ protected List<? extends TrackedEventData<?>> fetchTrackedEvents(TrackingToken l
                 cleanedToken = (GapAwareTrackingToken) lastToken;
             }
 
-            List<TrackedEventData<?>> eventData = executeEventDataQuery(cleanedToken, batchSize);
+            List<TrackedEventData<?>> eventData =
+                    executeEventDataQuery(cleanedToken, batchSize, skippedPayloadTypes, segment);
 
             // Additional check for empty batches. This may be because there is a gap of more than _batchSize_ items ahead
             // see
             if (extendedGapCheckEnabled && eventData.isEmpty()) {
                 long index = cleanedToken == null ? -1 : cleanedToken.getIndex();
-                Long result = executeQuery(getConnection(),
+                Long result = executeQuery(getTrackingConnection(),
                                            connection -> fetchTrackedEvents(connection, index),
                                            resultSet -> nextAndExtract(resultSet, 1, Long.class),
                                            e -> new EventStoreException("Failed to read globalIndex ahead of token",
                                                                         e));
                 if (result != null) {
-                    return executeEventDataQuery(cleanedToken, (int) (result - index));
+                    return executeEventDataQuery(cleanedToken, (int) (result - index), skippedPayloadTypes, segment);
                 }
             }
             return eventData;
         });
     }
 
-    private List<TrackedEventData<?>> executeEventDataQuery(GapAwareTrackingToken cleanedToken, int batchSize) {
+    private List<TrackedEventData<?>> executeEventDataQuery(GapAwareTrackingToken cleanedToken,
+                                                            int batchSize,
+                                                            Set<String> skippedPayloadTypes,
+                                                            Segment segment) {
+        TreeMap<Long, DomainEventData<?>> skippedEntries = skippedPayloadTypes.isEmpty() && !isFiltered(segment)
+                ? new TreeMap<>()
+                : executeSkippedEventDataQuery(cleanedToken, batchSize, skippedPayloadTypes, segment);
         return executeQuery(
-                getConnection(),
-                connection -> readEventData(connection, cleanedToken, batchSize),
+                getTrackingConnection(),
+                connection -> readEventData(connection, cleanedToken, batchSize, skippedPayloadTypes, segment),
                 resultSet -> {
                     GapAwareTrackingToken previousToken = cleanedToken;
                     List<TrackedEventData<?>> results = new ArrayList<>();
                     while (resultSet.next()) {
+                        long globalIndex = resultSet.getLong(schema.globalIndexColumn());
+                        previousToken = addSkippedEntries(skippedEntries.headMap(globalIndex), previousToken, results);
                         TrackedEventData<?> next = getTrackedEventData(resultSet, previousToken);
                         results.add(next);
                         previousToken = (GapAwareTrackingToken) next.trackingToken();
                     }
+                    addSkippedEntries(skippedEntries, previousToken, results);
                     return results;
                 },
                 e -> new EventStoreException(format("Failed to read events from token [%s]", cleanedToken), e)
         );
     }
 
+    private boolean isFiltered(Segment segment) {
+        return segment.getMask() != 0 && schema.sequenceHashColumn() != null;
+    }
+
+    private TreeMap<Long, DomainEventData<?>> executeSkippedEventDataQuery(GapAwareTrackingToken cleanedToken,
+                                                                           int batchSize,
+                                                                           Set<String> skippedPayloadTypes,
+                                                                           Segment segment) {
+        long globalIndex = cleanedToken == null ? -1 : cleanedToken.getIndex();
+        List<Long> gaps = cleanedToken == null ? Collections.emptyList() : new ArrayList<>(cleanedToken.getGaps());
+        return executeQuery(
+                getTrackingConnection(),
+                connection -> readSkippedEventData(
+                        connection, globalIndex, batchSize, gaps, skippedPayloadTypes, segment
+                ),
+                resultSet -> {
+                    TreeMap<Long, DomainEventData<?>> results = new TreeMap<>();
+                    while (resultSet.next()) {
+                        results.put(resultSet.getLong(schema.globalIndexColumn()),
+                                    getEventDataWithoutPayload(resultSet));
+                    }
+                    return results;
+                },
+                e -> new EventStoreException(format("Failed to read events from token [%s]", cleanedToken), e)
+        );
+    }
+
+    /**
+     * Adds the given skipped entries to the {@code results}, in order of their global index, and clears them from the
+     * given map. Returns the token of the last entry added, or the given {@code previousToken} if there were none.
+     */
+    private GapAwareTrackingToken addSkippedEntries(SortedMap<Long, DomainEventData<?>> skippedEntries,
+                                                    GapAwareTrackingToken previousToken,
+                                                    List<TrackedEventData<?>> results) {
+        GapAwareTrackingToken token = previousToken;
+        for (Map.Entry<Long, DomainEventData<?>> entry : skippedEntries.entrySet()) {
+            token = advanceToken(token, entry.getKey(), entry.getValue());
+            results.add(new TrackedDomainEventData<>(token, entry.getValue()));
+        }
+        skippedEntries.clear();
+        return token;
+    }
+
     private GapAwareTrackingToken cleanGaps(TrackingToken lastToken) {
         SortedSet<Long> gaps = ((GapAwareTrackingToken) lastToken).getGaps();
         return executeQuery(
-                getConnection(),
+                getTrackingConnection(),
                 connection -> cleanGaps(connection, gaps),
                 resultSet -> {
                     GapAwareTrackingToken cleanToken = (GapAwareTrackingToken) lastToken;
@@ -599,6 +794,69 @@ protected Stream<? extends DomainEventData<?>> readSnapshotData(String aggregate
         });
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * When {@link Builder#snapshotAndEventsInSingleQuery(boolean)} is enabled, the snapshots and the first batch of
+     * events following the latest snapshot are read by a single query. If the configured {@link SnapshotFilter} rejects
+     * the latest snapshot, or reading it fails, the events following the snapshot that is used instead are read with
+     * the regular query.
+     */
+    @Override
+    public DomainEventStream readSnapshotAndEvents(
+            @Nonnull String aggregateIdentifier,
+            @Nonnull Function<Throwable, Optional<DomainEventMessage<?>>> snapshotErrorHandler
+    ) {
+        if (!snapshotAndEventsInSingleQuery) {
+            return super.readSnapshotAndEvents(aggregateIdentifier, snapshotErrorHandler);
+        }
+        List<DomainEventData<?>> snapshots = new ArrayList<>();
+        List<DomainEventData<?>> events = new ArrayList<>();
+        Optional<DomainEventMessage<?>> optionalSnapshot;
+        boolean eventsFollowSnapshot;
+        try {
+            readSnapshotAndEventData(aggregateIdentifier, snapshots, events);
+            optionalSnapshot = upcastAndDeserializeSnapshot(snapshots.stream());
+            long latestSnapshotSequenceNumber = snapshots.isEmpty() ? -1L : snapshots.get(0).getSequenceNumber();
+            eventsFollowSnapshot = latestSnapshotSequenceNumber
+                    == optionalSnapshot.map(DomainEventMessage::getSequenceNumber).orElse(-1L);
+        } catch (Exception | LinkageError e) {
+            optionalSnapshot = snapshotErrorHandler.apply(e);
+            eventsFollowSnapshot = false;
+        }
+        DomainEventStream eventStream = eventsFollowSnapshot
+                ? upcastAndDeserializeDomainEvents(
+                        readEventData(aggregateIdentifier, events), getEventSerializer(), upcasterChain
+                )
+                : readEvents(aggregateIdentifier,
+                             optionalSnapshot.map(snapshot -> snapshot.getSequenceNumber() + 1).orElse(0L));
+        return optionalSnapshot.map(snapshot -> DomainEventStream.concat(DomainEventStream.of(snapshot), eventStream))
+                               .orElse(eventStream);
+    }
+
+    private void readSnapshotAndEventData(String aggregateIdentifier,
+                                          List<DomainEventData<?>> snapshots,
+                                          List<DomainEventData<?>> events) {
+        int batchSize = batchSize();
+        transactionManager.executeInTransaction(() -> executeQuery(
+                getConnection(),
+                connection -> readSnapshotAndEventData(connection, aggregateIdentifier, batchSize),
+                resultSet -> {
+                    while (resultSet.next()) {
+                        if (resultSet.getInt(JdbcEventStorageEngineStatements.SNAPSHOT_ENTRY_COLUMN) == 1) {
+                            snapshots.add(0, getSnapshotData(resultSet));
+                        } else {
+                            events.add(getDomainEventData(resultSet));
+                        }
+                    }
+                    return null;
+                },
+                e -> new EventStoreException(
+                        format("Error reading aggregate snapshot and events [%s]", aggregateIdentifier), e
+                )
+        ));
+    }
+
     /**
      * Creates a statement to read all tracked event entries stored.
      *
@@ -643,6 +901,37 @@ protected PreparedStatement readEventData(Connection connection, TrackingToken l
         return readEventDataWithGaps(connection, globalIndex, batchSize, gaps);
     }
 
+    /**
+     * Creates a statement to read tracked event entries stored since given tracking token, leaving out the entries with
+     * one of the given {@code skippedPayloadTypes} or of another segment than the given {@code segment}. If there are
+     * no skipped payload types and entries are not filtered by segment, this method returns the statement created by
+     * {@link #readEventData(Connection, TrackingToken, int)}.
+     *
+     * @param connection          The connection to the database.
+     * @param lastToken           Object describing the global index of the last processed event or {@code null} to
+     *                            return all entries in the store.
+     * @param batchSize           The number of items to include in the batch
+     * @param skippedPayloadTypes The payload types of the entries to leave out.
+     * @param segment             The segment of the entries to read.
+     *
+     * @return A {@link PreparedStatement} that returns event entries for the given query when executed.
+     * @throws SQLException when an exception occurs while creating the prepared statement.
+     */
+    protected PreparedStatement readEventData(Connection connection, TrackingToken lastToken, int batchSize,
+                                              Set<String> skippedPayloadTypes, Segment segment)
+            throws SQLException {
+        if (skippedPayloadTypes.isEmpty() && !isFiltered(segment)) {
+            return readEventData(connection, lastToken, batchSize);
+        }
+        isTrue(lastToken == null || lastToken instanceof GapAwareTrackingToken,
+               () -> format("Token [%s] is of the wrong type", lastToken));
+        GapAwareTrackingToken previousToken = (GapAwareTrackingToken) lastToken;
+        long globalIndex = previousToken == null ? -1 : previousToken.getIndex();
+        List<Long> gaps = previousToken == null ? Collections.emptyList() : new ArrayList<>(previousToken.getGaps());
+        return readEventDataSkippingPayloadTypes(connection, globalIndex, batchSize, gaps, skippedPayloadTypes,
+                                                 segment);
+    }
+
     /**
      * Extracts the next tracked event entry from the given {@code resultSet}.
      *
@@ -670,6 +959,32 @@ protected TrackedEventData<?> getTrackedEventData(ResultSet resultSet,
                 readPayload(resultSet, schema.metaDataColumn())
         );
 
+        return new TrackedDomainEventData<>(advanceToken(previousToken, globalSequence, domainEvent), domainEvent);
+    }
+
+    /**
+     * Extracts the next event entry from the given {@code resultSet}, which does not contain the payload and meta data
+     * of the entry. These are replaced by empty data instead.
+     */
+    private DomainEventData<?> getEventDataWithoutPayload(ResultSet resultSet) throws SQLException {
+        String aggregateIdentifier = resultSet.getString(schema.aggregateIdentifierColumn());
+        String eventIdentifier = resultSet.getString(schema.eventIdentifierColumn());
+        return new GenericDomainEventEntry<>(
+                resultSet.getString(schema.typeColumn()),
+                eventIdentifier.equals(aggregateIdentifier) ? null : aggregateIdentifier,
+                resultSet.getLong(schema.sequenceNumberColumn()),
+                eventIdentifier,
+                readTimeStamp(resultSet, schema.timestampColumn()),
+                resultSet.getString(schema.payloadTypeColumn()),
+                resultSet.getString(schema.payloadRevisionColumn()),
+                new byte[0],
+                new byte[0]
+        );
+    }
+
+    private GapAwareTrackingToken advanceToken(GapAwareTrackingToken previousToken,
+                                               long globalSequence,
+                                               DomainEventData<?> domainEvent) {
         // Now that we have the event itself, we can calculate the token.
         boolean allowGaps = domainEvent.getTimestamp().isAfter(gapTimeoutFrame());
         GapAwareTrackingToken token = previousToken;
@@ -688,11 +1003,11 @@ protected TrackedEventData<?> getTrackedEventData(ResultSet resultSet,
                 token = token.withGapsTruncatedAt(globalSequence);
             }
         }
-        return new TrackedDomainEventData<>(token, domainEvent);
+        return token;
     }
 
     private Instant gapTimeoutFrame() {
-        return GenericEventMessage.clock.instant().minus(gapTimeout, ChronoUnit.MILLIS);
+        return GenericEventMessage.clock.instant().minus(gapTimeout + trackingReplicaLag, ChronoUnit.MILLIS);
     }
 
     /**
@@ -825,6 +1140,22 @@ protected Connection getConnection() {
         }
     }
 
+    /**
+     * Returns a {@link Connection} to the database used for the queries of tracking event streams, like fetching
+     * tracked events and creating tail tokens. This is a connection of the {@link
+     * Builder#trackingConnectionProvider(ConnectionProvider) tracking ConnectionProvider}, which may point to a read
+     * replica of the database.
+     *
+     * @return a database Connection for tracking reads.
+     */
+    protected Connection getTrackingConnection() {
+        try {
+            return trackingConnectionProvider.getConnection();
+        } catch (SQLException e) {
+            throw new EventStoreException("Failed to obtain a database connection", e);
+        }
+    }
+
     /**
      * Sets the amount of time until a 'gap' in a TrackingToken may be considered timed out. This setting will affect
      * the cleaning process of gaps. Gaps that have timed out will be removed from Tracking Tokens to improve
@@ -861,13 +1192,17 @@ public void setGapCleaningThreshold(int gapCleaningThreshold) {
      * <li>The {@link PersistenceExceptionResolver} is defaulted to a {@link JdbcSQLErrorCodesResolver}</li>
      * <li>The {@code snapshotFilter} defaults to a {@link SnapshotFilter#allowAll()} instance.</li>
      * <li>The {@code batchSize} defaults to an integer of size {@code 100}.</li>
+     * <li>The {@code readAheadBatches} defaults to {@code 0}, disabling read-ahead.</li>
      * <li>The {@code dataType} is defaulted to the {@code byte[]} type.</li>
      * <li>The {@link EventSchema} defaults to an {@link EventSchema#EventSchema()} call.</li>
      * <li>The {@code maxGapOffset} defaults to an  integer of size {@code 10000}.</li>
      * <li>The {@code lowestGlobalSequence} defaults to a long of size {@code 1}.</li>
+     * <li>The {@code trackingConnectionProvider} defaults to the {@link ConnectionProvider}.</li>
+     * <li>The {@code trackingReplicaLag} defaults to an integer of size {@code 0}.</li>
      * <li>The {@code gapTimeout} defaults to an integer of size {@code 60000} (1 minute).</li>
      * <li>The {@code gapCleaningThreshold} defaults to an integer of size {@code 250}.</li>
      * <li>The {@code extendedGapCheckEnabled} defaults to {@code true}.</li>
+     * <li>The {@code snapshotAndEventsInSingleQuery} defaults to {@code false}.</li>
      * <li>The {@code createTokenAt} defaults to {@link JdbcEventStorageEngineStatements#createTokenAt}.</li>
      * <li>The {@code appendEvents} defaults to {@link JdbcEventStorageEngineStatements#appendEvents}.</li>
      * <li>The {@code lastSequenceNumberFor} defaults to {@link JdbcEventStorageEngineStatements#lastSequenceNumberFor}.</li>
@@ -881,6 +1216,9 @@ public void setGapCleaningThreshold(int gapCleaningThreshold) {
      * <li>The {@code readSnapshotData} defaults to {@link JdbcEventStorageEngineStatements#readSnapshotData}.</li>
      * <li>The {@code readEventDataWithoutGaps} defaults to {@link JdbcEventStorageEngineStatements#readEventDataWithoutGaps}.</li>
      * <li>The {@code readEventDataWithGaps} defaults to {@link JdbcEventStorageEngineStatements#readEventDataWithGaps}.</li>
+     * <li>The {@code readEventDataSkippingPayloadTypes} defaults to {@link JdbcEventStorageEngineStatements#readEventDataSkippingPayloadTypes}.</li>
+     * <li>The {@code readSkippedEventData} defaults to {@link JdbcEventStorageEngineStatements#readSkippedEventData}.</li>
+     * <li>The {@code readSnapshotAndEventData} defaults to {@link JdbcEventStorageEngineStatements#readSnapshotAndEventData}.</li>
      * </ul>
      * <p>
      * The event and snapshot {@link Serializer}, {@link ConnectionProvider} and {@link TransactionManager} are <b>hard
@@ -889,6 +1227,8 @@ public void setGapCleaningThreshold(int gapCleaningThreshold) {
     public static class Builder extends BatchingEventStorageEngine.Builder {
 
         private ConnectionProvider connectionProvider;
+        private ConnectionProvider trackingConnectionProvider;
+        private int trackingReplicaLag = 0;
         private TransactionManager transactionManager;
         private Class<?> dataType = byte[].class;
         private EventSchema schema = new EventSchema();
@@ -911,6 +1251,10 @@ public static class Builder extends BatchingEventStorageEngine.Builder {
         private ReadSnapshotDataStatementBuilder readSnapshotData = JdbcEventStorageEngineStatements::readSnapshotData;
         private ReadEventDataWithoutGapsStatementBuilder readEventDataWithoutGaps = JdbcEventStorageEngineStatements::readEventDataWithoutGaps;
         private ReadEventDataWithGapsStatementBuilder readEventDataWithGaps = JdbcEventStorageEngineStatements::readEventDataWithGaps;
+        private ReadEventDataSkippingPayloadTypesStatementBuilder readEventDataSkippingPayloadTypes = JdbcEventStorageEngineStatements::readEventDataSkippingPayloadTypes;
+        private ReadSkippedEventDataStatementBuilder readSkippedEventData = JdbcEventStorageEngineStatements::readSkippedEventData;
+        private ReadSnapshotAndEventDataStatementBuilder readSnapshotAndEventData = JdbcEventStorageEngineStatements::readSnapshotAndEventData;
+        private boolean snapshotAndEventsInSingleQuery = DEFAULT_SNAPSHOT_AND_EVENTS_IN_SINGLE_QUERY;
 
         private Builder() {
             persistenceExceptionResolver(new JdbcSQLErrorCodesResolver());
@@ -1079,6 +1423,47 @@ public Builder readEventDataWithGaps(ReadEventDataWithGapsStatementBuilder readE
             return this;
         }
 
+        /**
+         * Set the PreparedStatement to be used on {@link JdbcEventStorageEngine#readEventDataSkippingPayloadTypes(Connection,
+         * long, int, List, Set, Segment)}. Defaults to {@link JdbcEventStorageEngineStatements#readEventDataSkippingPayloadTypes(Connection,
+         * EventSchema, long, int, List, Set, Segment)}
+         *
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder readEventDataSkippingPayloadTypes(
+                ReadEventDataSkippingPayloadTypesStatementBuilder readEventDataSkippingPayloadTypes
+        ) {
+            assertNonNull(readEventDataSkippingPayloadTypes, "readEventDataSkippingPayloadTypes may not be null");
+            this.readEventDataSkippingPayloadTypes = readEventDataSkippingPayloadTypes;
+            return this;
+        }
+
+        /**
+         * Set the PreparedStatement to be used on {@link JdbcEventStorageEngine#readSkippedEventData(Connection, long,
+         * int, List, Set, Segment)}. Defaults to {@link JdbcEventStorageEngineStatements#readSkippedEventData(Connection,
+         * EventSchema, long, int, List, Set, Segment)}
+         *
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder readSkippedEventData(ReadSkippedEventDataStatementBuilder readSkippedEventData) {
+            assertNonNull(readSkippedEventData, "readSkippedEventData may not be null");
+            this.readSkippedEventData = readSkippedEventData;
+            return this;
+        }
+
+        /**
+         * Set the PreparedStatement to be used on {@link JdbcEventStorageEngine#readSnapshotAndEventData(Connection,
+         * String, int)}. Defaults to {@link JdbcEventStorageEngineStatements#readSnapshotAndEventData(Connection,
+         * EventSchema, String, int)}
+         *
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder readSnapshotAndEventData(ReadSnapshotAndEventDataStatementBuilder readSnapshotAndEventData) {
+            assertNonNull(readSnapshotAndEventData, "readSnapshotAndEventData may not be null");
+            this.readSnapshotAndEventData = readSnapshotAndEventData;
+            return this;
+        }
+
         @Override
         public JdbcEventStorageEngine.Builder snapshotSerializer(Serializer snapshotSerializer) {
             super.snapshotSerializer(snapshotSerializer);
@@ -1145,6 +1530,18 @@ public JdbcEventStorageEngine.Builder batchSize(int batchSize) {
             return this;
         }
 
+        @Override
+        public JdbcEventStorageEngine.Builder readAheadBatches(int readAheadBatches) {
+            super.readAheadBatches(readAheadBatches);
+            return this;
+        }
+
+        @Override
+        public JdbcEventStorageEngine.Builder readAheadExecutor(Executor readAheadExecutor) {
+            super.readAheadExecutor(readAheadExecutor);
+            return this;
+        }
+
         /**
          * Sets the {@link ConnectionProvider} which provides access to a JDBC connection.
          *
@@ -1157,6 +1554,42 @@ public Builder connectionProvider(@Nonnull ConnectionProvider connectionProvider
             return this;
         }
 
+        /**
+         * Sets the {@link ConnectionProvider} used for the queries of tracking event streams, which are fetching
+         * tracked events, cleaning gaps and creating tail tokens and tokens at a given point in time. This allows
+         * these reads, like the replays of event processors, to be served by a read replica of the database. Appends,
+         * aggregate and snapshot reads and the creation of head tokens keep using the {@link
+         * #connectionProvider(ConnectionProvider) ConnectionProvider}. Defaults to that same {@code
+         * ConnectionProvider}.
+         * <p>
+         * When the replica lags behind, consider configuring the {@link #trackingReplicaLag(int) trackingReplicaLag}.
+         *
+         * @param trackingConnectionProvider a {@link ConnectionProvider} which provides access to a JDBC connection for
+         *                                   tracking reads
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder trackingConnectionProvider(@Nonnull ConnectionProvider trackingConnectionProvider) {
+            assertNonNull(trackingConnectionProvider, "Tracking ConnectionProvider may not be null");
+            this.trackingConnectionProvider = trackingConnectionProvider;
+            return this;
+        }
+
+        /**
+         * Sets the maximum amount of time, in milliseconds, the database behind the {@link
+         * #trackingConnectionProvider(ConnectionProvider) tracking ConnectionProvider} may lag behind the primary. This
+         * lag is added to the {@link #gapTimeout(int) gapTimeout}, as an event filling a gap may become visible to
+         * tracking reads only this much later than it was committed. Defaults to {@code 0}.
+         *
+         * @param trackingReplicaLag an {@code int} specifying the maximum replication lag of tracking reads, in
+         *                           milliseconds
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder trackingReplicaLag(int trackingReplicaLag) {
+            assertThat(trackingReplicaLag, lag -> lag >= 0, "The trackingReplicaLag must not be negative");
+            this.trackingReplicaLag = trackingReplicaLag;
+            return this;
+        }
+
         /**
          * Sets the {@link TransactionManager} used to manage transactions around fetching event data. Required by
          * certain databases for reading blob data.
@@ -1291,6 +1724,26 @@ public Builder extendedGapCheckEnabled(boolean extendedGapCheckEnabled) {
             return this;
         }
 
+        /**
+         * Indicates whether the snapshots of an aggregate and the first batch of events following its latest snapshot
+         * should be read in a single query by {@link JdbcEventStorageEngine#readSnapshotAndEvents(String, Function)}.
+         * This saves a database round trip when an aggregate is loaded through an {@link
+         * org.axonframework.eventsourcing.eventstore.EventStore}.
+         * <p>
+         * The configured {@link SnapshotFilter} is still applied to the snapshots. If it rejects the latest snapshot,
+         * the events following the accepted snapshot are read with a separate query, as without this setting.
+         * <p>
+         * Defaults to {@code false}
+         *
+         * @param snapshotAndEventsInSingleQuery whether to read snapshots and the events following the latest snapshot
+         *                                       in a single query
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder snapshotAndEventsInSingleQuery(boolean snapshotAndEventsInSingleQuery) {
+            this.snapshotAndEventsInSingleQuery = snapshotAndEventsInSingleQuery;
+            return this;
+        }
+
         private void assertPositive(int num, final String numberDescription) {
             assertThat(num, number -> number > 0, "The " + numberDescription + " must be a positive number");
         }
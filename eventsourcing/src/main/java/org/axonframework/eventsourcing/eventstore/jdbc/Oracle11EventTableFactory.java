@@ -43,6 +43,7 @@ public PreparedStatement createDomainEventTable(Connection connection, EventSche
                 schema.payloadColumn() + " " + payloadType() + " NOT NULL,\n" +
                 schema.payloadRevisionColumn() + " VARCHAR(255),\n" +
                 schema.payloadTypeColumn() + " VARCHAR(255) NOT NULL,\n" +
+                (schema.sequenceHashColumn() == null ? "" : schema.sequenceHashColumn() + " INTEGER,\n") +
                 schema.timestampColumn() + " VARCHAR(255) NOT NULL,\n" +
                 "PRIMARY KEY (" + schema.globalIndexColumn() + "),\n" +
                 "UNIQUE (" + schema.aggregateIdentifierColumn() + ", " +
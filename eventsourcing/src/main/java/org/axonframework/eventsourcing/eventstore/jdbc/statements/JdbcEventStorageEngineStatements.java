@@ -21,6 +21,7 @@
 import org.axonframework.eventhandling.GapAwareTrackingToken;
 import org.axonframework.eventhandling.GenericDomainEventMessage;
 import org.axonframework.eventhandling.GenericEventMessage;
+import org.axonframework.eventhandling.Segment;
 import org.axonframework.eventhandling.TrackingToken;
 import org.axonframework.eventsourcing.eventstore.jdbc.EventSchema;
 import org.axonframework.eventsourcing.eventstore.jdbc.JdbcEventStorageEngine;
@@ -32,8 +33,11 @@
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import java.util.SortedSet;
 
 import static org.axonframework.common.DateTimeUtils.formatInstant;
@@ -47,6 +51,12 @@
  */
 public abstract class JdbcEventStorageEngineStatements {
 
+    /**
+     * The name of the column marking snapshot rows in the result of {@link #readSnapshotAndEventData(Connection,
+     * EventSchema, String, int)}.
+     */
+    public static final String SNAPSHOT_ENTRY_COLUMN = "snapshotEntry";
+
     private JdbcEventStorageEngineStatements() {
 
     }
@@ -83,7 +93,9 @@ public static PreparedStatement createTokenAt(Connection connection, EventSchema
      * {@code "INSERT INTO [domainEventTable] ([domainEventFields]) VALUES (?,?,?,?,?,?,?,?,?)" }
      * <p/>
      * <b>NOTE:</b> each "?" is a domain event field from {@link EventSchema#domainEventFields()} and should
-     * <b>always</b> be present for the PreparedStatement to work.
+     * <b>always</b> be present for the PreparedStatement to work. If the schema has a {@link
+     * EventSchema#sequenceHashColumn() sequence hash column}, it is added as a tenth field, containing the {@link
+     * #sequenceHash(String) sequence hash} of the aggregate identifier.
      *
      * @param connection      The connection to the database.
      * @param schema          The EventSchema to be used.
@@ -102,8 +114,10 @@ public static PreparedStatement appendEvents(Connection connection,
                                                  Serializer serializer,
                                                  TimestampWriter timestampWriter)
             throws SQLException {
-        final String sql = "INSERT INTO " + schema.domainEventTable() + " (" + schema.domainEventFields() + ") "
-                + "VALUES (?,?,?,?,?,?,?,?,?)";
+        boolean withSequenceHash = schema.sequenceHashColumn() != null;
+        final String sql = "INSERT INTO " + schema.domainEventTable() + " (" + schema.domainEventFields()
+                + (withSequenceHash ? ", " + schema.sequenceHashColumn() : "") + ") "
+                + "VALUES (?,?,?,?,?,?,?,?,?" + (withSequenceHash ? ",?" : "") + ")";
         PreparedStatement statement = connection.prepareStatement(sql);
         for (EventMessage<?> eventMessage : events) {
             DomainEventMessage<?> event = asDomainEventMessage(eventMessage);
@@ -118,11 +132,27 @@ public static PreparedStatement appendEvents(Connection connection,
             statement.setString(7, payload.getType().getRevision());
             statement.setObject(8, payload.getData());
             statement.setObject(9, metaData.getData());
+            if (withSequenceHash) {
+                statement.setInt(10, sequenceHash(event.getAggregateIdentifier()));
+            }
             statement.addBatch();
         }
         return statement;
     }
 
+    /**
+     * Returns the hash stored in the {@link EventSchema#sequenceHashColumn() sequence hash column} for an event with
+     * given {@code aggregateIdentifier}. This is the non-negative part of the hash code of the identifier, so that the
+     * {@link Segment} of the event is given by {@code MOD(hash, mask + 1)}, like {@link Segment#matches(Object)}.
+     *
+     * @param aggregateIdentifier The aggregate identifier of the event, or its event identifier if the event was not
+     *                            published by an aggregate.
+     * @return The sequence hash of the given identifier.
+     */
+    public static int sequenceHash(String aggregateIdentifier) {
+        return Objects.hashCode(aggregateIdentifier) & Integer.MAX_VALUE;
+    }
+
     /**
      * Converts an {@link EventMessage} to a {@link DomainEventMessage}. If the message already is a {@link
      * DomainEventMessage} it will be returned as is. Otherwise a new {@link GenericDomainEventMessage} is made with
@@ -378,6 +408,50 @@ public static PreparedStatement readSnapshotData(Connection connection, EventSch
         return statement;
     }
 
+    /**
+     * Build the PreparedStatement to be used on {@link JdbcEventStorageEngine#readSnapshotData(String)} when snapshots
+     * and the events following the latest snapshot are read in a single query. Defaults to:
+     * <p/>
+     * {@code "SELECT 1 AS snapshotEntry, [domainEventFields] FROM [snapshotTable] WHERE [aggregateIdentifierColumn] = ?
+     * UNION ALL SELECT 0, [domainEventFields] FROM [domainEventTable] WHERE [aggregateIdentifierColumn] = ? AND
+     * [sequenceNumberColumn] >= ([latestSnapshotSequenceNumber] + 1) AND [sequenceNumberColumn] <
+     * ([latestSnapshotSequenceNumber] + 1) + ? ORDER BY [sequenceNumberColumn] ASC" }
+     * <p/>
+     * Where {@code [latestSnapshotSequenceNumber] + 1} is computed by a sub query on the snapshot table, evaluating to
+     * {@code 0} when the aggregate has no snapshots.
+     * <p/>
+     * <b>NOTE:</b> The aggregate identifier is bound to the first four parameters and the batch size to the last one.
+     *
+     * @param connection The connection to the database.
+     * @param schema     The EventSchema to be used
+     * @param identifier The identifier of the aggregate.
+     * @param batchSize  The maximum number of events following the latest snapshot to include.
+     * @return The newly created {@link PreparedStatement}.
+     * @throws SQLException when an exception occurs while creating the prepared statement.
+     */
+    public static PreparedStatement readSnapshotAndEventData(Connection connection,
+                                                             EventSchema schema,
+                                                             String identifier,
+                                                             int batchSize) throws SQLException {
+        final String firstEventSequenceNumber =
+                "(SELECT COALESCE(MAX(" + schema.sequenceNumberColumn() + ") + 1, 0) FROM " + schema.snapshotTable()
+                        + " WHERE " + schema.aggregateIdentifierColumn() + " = ?)";
+        final String sql = "SELECT 1 AS " + SNAPSHOT_ENTRY_COLUMN + ", " + schema.domainEventFields()
+                + " FROM " + schema.snapshotTable() + " WHERE " + schema.aggregateIdentifierColumn() + " = ?"
+                + " UNION ALL SELECT 0, " + schema.domainEventFields() + " FROM " + schema.domainEventTable()
+                + " WHERE " + schema.aggregateIdentifierColumn() + " = ?"
+                + " AND " + schema.sequenceNumberColumn() + " >= " + firstEventSequenceNumber
+                + " AND " + schema.sequenceNumberColumn() + " < " + firstEventSequenceNumber + " + ?"
+                + " ORDER BY " + schema.sequenceNumberColumn() + " ASC";
+        PreparedStatement statement = connection.prepareStatement(sql);
+        statement.setString(1, identifier);
+        statement.setString(2, identifier);
+        statement.setString(3, identifier);
+        statement.setString(4, identifier);
+        statement.setInt(5, batchSize);
+        return statement;
+    }
+
     /**
      * Set the PreparedStatement to be used on {@link JdbcEventStorageEngine#fetchTrackedEvents(TrackingToken, int)}
      * when there is no gaps on the {@link GapAwareTrackingToken}. Defaults to:
@@ -443,4 +517,143 @@ public static PreparedStatement readEventDataWithGaps(Connection connection, Eve
         }
         return statement;
     }
+
+    /**
+     * Set the PreparedStatement to be used on {@link JdbcEventStorageEngine#fetchTrackedEvents(TrackingToken, int, Set,
+     * Segment)} to read the entries of a batch that do not have a skipped payload type and belong to the given {@code
+     * segment}. Defaults to:
+     * <p/>
+     * {@code "SELECT [globalIndexColumn], [typeColumn], [aggregateIdentifierColumn], [sequenceNumberColumn],
+     * [eventIdentifierColumn], [timestampColumn], [payloadTypeColumn], [payloadRevisionColumn], [payloadColumn],
+     * [metaDataColumn] FROM [domainEventTable] WHERE (([globalIndexColumn] > ?1 AND [globalIndexColumn] <= ?2) OR
+     * [globalIndexColumn] IN (?3 .. ?n)) AND [payloadTypeColumn] NOT IN (?n+1 .. ?m) AND ([sequenceHashColumn] IS NULL
+     * OR MOD([sequenceHashColumn], ?m+1) = ?m+2) ORDER BY [globalIndexColumn] ASC" }
+     * <p/>
+     * <b>NOTE:</b> "?1" is the globalIndex and "?2" is based on the batchSize. The {@code IN} clause on the {@link
+     * GapAwareTrackingToken#getGaps()} is only added if there are gaps. "?n+1 .. ?m" are the skipped payload types,
+     * and their clause is only added if there are any. "?m+1" is the mask of the segment plus one and "?m+2" is the
+     * segment identifier. Their clause is only added if the segment is not the root segment and the schema has a
+     * {@link EventSchema#sequenceHashColumn() sequence hash column}. Entries without a hash are always included.
+     *
+     * @param connection          The connection to the database.
+     * @param schema              The EventSchema to be used
+     * @param globalIndex         The index taken from the tracking token.
+     * @param batchSize           The number of items to include in the batch
+     * @param gaps                The Set of gaps taken from the tracking token, may be empty.
+     * @param skippedPayloadTypes The payload types of the entries to leave out.
+     * @param segment             The segment of the entries to read.
+     * @return The newly created {@link PreparedStatement}.
+     * @throws SQLException when an exception occurs while creating the prepared statement.
+     */
+    public static PreparedStatement readEventDataSkippingPayloadTypes(Connection connection,
+                                                                      EventSchema schema,
+                                                                      long globalIndex,
+                                                                      int batchSize,
+                                                                      List<Long> gaps,
+                                                                      Set<String> skippedPayloadTypes,
+                                                                      Segment segment)
+            throws SQLException {
+        boolean segmentFiltered = isSegmentFiltered(schema, segment);
+        final String sql = "SELECT "
+                + schema.globalIndexColumn() + ", " + schema.typeColumn() + ", "
+                + schema.aggregateIdentifierColumn() + ", " + schema.sequenceNumberColumn() + ", "
+                + schema.eventIdentifierColumn() + ", " + schema.timestampColumn() + ", "
+                + schema.payloadTypeColumn() + ", " + schema.payloadRevisionColumn() + ", "
+                + schema.payloadColumn() + ", " + schema.metaDataColumn()
+                + " FROM " + schema.domainEventTable() + " WHERE " + batchCondition(schema, gaps)
+                + (skippedPayloadTypes.isEmpty() ? "" : " AND " + schema.payloadTypeColumn() + " NOT IN ("
+                + String.join(",", Collections.nCopies(skippedPayloadTypes.size(), "?")) + ")")
+                + (segmentFiltered ? " AND (" + schema.sequenceHashColumn() + " IS NULL OR MOD("
+                + schema.sequenceHashColumn() + ", ?) = ?)" : "")
+                + " ORDER BY " + schema.globalIndexColumn() + " ASC";
+        return prepareBatchStatement(connection, sql, globalIndex, batchSize, gaps, skippedPayloadTypes,
+                                     segmentFiltered ? segment : null);
+    }
+
+    /**
+     * Set the PreparedStatement to be used on {@link JdbcEventStorageEngine#fetchTrackedEvents(TrackingToken, int, Set,
+     * Segment)} to read the entries of a batch that have a skipped payload type or belong to another segment than the
+     * given {@code segment}, without their payload and meta data. These entries are only read to advance the tracking
+     * token past them. Defaults to:
+     * <p/>
+     * {@code "SELECT [globalIndexColumn], [typeColumn], [aggregateIdentifierColumn], [sequenceNumberColumn],
+     * [eventIdentifierColumn], [timestampColumn], [payloadTypeColumn], [payloadRevisionColumn] FROM [domainEventTable]
+     * WHERE (([globalIndexColumn] > ?1 AND [globalIndexColumn] <= ?2) OR [globalIndexColumn] IN (?3 .. ?n)) AND
+     * ([payloadTypeColumn] IN (?n+1 .. ?m) OR MOD([sequenceHashColumn], ?m+1) <> ?m+2) ORDER BY [globalIndexColumn]
+     * ASC" }
+     * <p/>
+     * <b>NOTE:</b> "?1" is the globalIndex and "?2" is based on the batchSize. The {@code IN} clause on the {@link
+     * GapAwareTrackingToken#getGaps()} is only added if there are gaps. "?n+1 .. ?m" are the skipped payload types,
+     * and their clause is only added if there are any. "?m+1" is the mask of the segment plus one and "?m+2" is the
+     * segment identifier. Their clause is only added if the segment is not the root segment and the schema has a
+     * {@link EventSchema#sequenceHashColumn() sequence hash column}. At least one of both clauses is expected.
+     *
+     * @param connection          The connection to the database.
+     * @param schema              The EventSchema to be used
+     * @param globalIndex         The index taken from the tracking token.
+     * @param batchSize           The number of items to include in the batch
+     * @param gaps                The Set of gaps taken from the tracking token, may be empty.
+     * @param skippedPayloadTypes The payload types of the entries to read.
+     * @param segment             The segment of the entries that are not read.
+     * @return The newly created {@link PreparedStatement}.
+     * @throws SQLException when an exception occurs while creating the prepared statement.
+     */
+    public static PreparedStatement readSkippedEventData(Connection connection,
+                                                         EventSchema schema,
+                                                         long globalIndex,
+                                                         int batchSize,
+                                                         List<Long> gaps,
+                                                         Set<String> skippedPayloadTypes,
+                                                         Segment segment) throws SQLException {
+        boolean segmentFiltered = isSegmentFiltered(schema, segment);
+        List<String> conditions = new ArrayList<>();
+        if (!skippedPayloadTypes.isEmpty()) {
+            conditions.add(schema.payloadTypeColumn() + " IN ("
+                                   + String.join(",", Collections.nCopies(skippedPayloadTypes.size(), "?")) + ")");
+        }
+        if (segmentFiltered) {
+            conditions.add("MOD(" + schema.sequenceHashColumn() + ", ?) <> ?");
+        }
+        final String sql = "SELECT "
+                + schema.globalIndexColumn() + ", " + schema.typeColumn() + ", "
+                + schema.aggregateIdentifierColumn() + ", " + schema.sequenceNumberColumn() + ", "
+                + schema.eventIdentifierColumn() + ", " + schema.timestampColumn() + ", "
+                + schema.payloadTypeColumn() + ", " + schema.payloadRevisionColumn()
+                + " FROM " + schema.domainEventTable() + " WHERE " + batchCondition(schema, gaps)
+                + " AND (" + String.join(" OR ", conditions) + ")"
+                + " ORDER BY " + schema.globalIndexColumn() + " ASC";
+        return prepareBatchStatement(connection, sql, globalIndex, batchSize, gaps, skippedPayloadTypes,
+                                     segmentFiltered ? segment : null);
+    }
+
+    private static boolean isSegmentFiltered(EventSchema schema, Segment segment) {
+        return segment.getMask() != 0 && schema.sequenceHashColumn() != null;
+    }
+
+    private static String batchCondition(EventSchema schema, List<Long> gaps) {
+        return "((" + schema.globalIndexColumn() + " > ? AND " + schema.globalIndexColumn() + " <= ?)"
+                + (gaps.isEmpty() ? "" : " OR " + schema.globalIndexColumn() + " IN ("
+                + String.join(",", Collections.nCopies(gaps.size(), "?")) + ")") + ")";
+    }
+
+    private static PreparedStatement prepareBatchStatement(Connection connection, String sql, long globalIndex,
+                                                           int batchSize, List<Long> gaps,
+                                                           Set<String> payloadTypes,
+                                                           Segment segment) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(sql);
+        int parameterIndex = 1;
+        statement.setLong(parameterIndex++, globalIndex);
+        statement.setLong(parameterIndex++, globalIndex + batchSize);
+        for (Long gap : gaps) {
+            statement.setLong(parameterIndex++, gap);
+        }
+        for (String payloadType : payloadTypes) {
+            statement.setString(parameterIndex++, payloadType);
+        }
+        if (segment != null) {
+            statement.setInt(parameterIndex++, segment.getMask() + 1);
+            statement.setInt(parameterIndex, segment.getSegmentId());
+        }
+        return statement;
+    }
 }
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2010-2022. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventsourcing.eventstore.jdbc.statements;
+
+import org.axonframework.eventhandling.Segment;
+import org.axonframework.eventhandling.TrackingToken;
+import org.axonframework.eventsourcing.eventstore.jdbc.EventSchema;
+import org.axonframework.eventsourcing.eventstore.jdbc.JdbcEventStorageEngine;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Contract which defines how to build a PreparedStatement for use on {@link JdbcEventStorageEngine#fetchTrackedEvents(TrackingToken,
+ * int, Set, Segment)}, leaving out the entries with a skipped payload type or of another segment.
+ *
+ * @since 4.7
+ */
+@FunctionalInterface
+public interface ReadEventDataSkippingPayloadTypesStatementBuilder {
+
+    /**
+     * Creates a statement to be used at {@link JdbcEventStorageEngine#fetchTrackedEvents(TrackingToken, int, Set,
+     * Segment)}. The statement should return the entries in the batch, except for those with a payload type in the
+     * given {@code skippedPayloadTypes}. If the given {@code segment} is not the root segment and the schema has a
+     * {@link EventSchema#sequenceHashColumn() sequence hash column}, entries with a hash that does not match the
+     * segment should be left out as well.
+     *
+     * @param connection          The connection to the database.
+     * @param schema              The EventSchema to be used
+     * @param globalIndex         The index taken from the tracking token.
+     * @param batchSize           The number of items to include in the batch
+     * @param gaps                The Set of gaps taken from the tracking token, may be empty.
+     * @param skippedPayloadTypes The payload types of the entries to leave out.
+     * @param segment             The segment of the entries to read.
+     * @return The newly created {@link PreparedStatement}.
+     * @throws SQLException when an exception occurs while creating the prepared statement.
+     * @see JdbcEventStorageEngine#readEventDataSkippingPayloadTypes(Connection, long, int, List, Set, Segment)
+     */
+    PreparedStatement build(Connection connection, EventSchema schema, long globalIndex, int batchSize,
+                            List<Long> gaps, Set<String> skippedPayloadTypes, Segment segment) throws SQLException;
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2010-2023. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventsourcing.eventstore.jdbc.statements;
+
+import org.axonframework.eventsourcing.eventstore.jdbc.EventSchema;
+import org.axonframework.eventsourcing.eventstore.jdbc.JdbcEventStorageEngine;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Contract which defines how to build a PreparedStatement for use on {@link JdbcEventStorageEngine#readSnapshotData(String)}
+ * when snapshots and the events following the latest snapshot are read in a single query.
+ * <p>
+ * The resulting rows should contain the {@link EventSchema#domainEventFields() domain event fields} of all snapshots
+ * and of the first batch of events following the latest snapshot of the aggregate. A column named {@link
+ * JdbcEventStorageEngineStatements#SNAPSHOT_ENTRY_COLUMN} should hold {@code 1} for snapshot rows and {@code 0} for
+ * event rows.
+ *
+ * @since 4.7
+ */
+@FunctionalInterface
+public interface ReadSnapshotAndEventDataStatementBuilder {
+
+    /**
+     * Creates a statement to be used at {@link JdbcEventStorageEngine#readSnapshotData(String)}
+     *
+     * @param connection The connection to the database.
+     * @param schema     The EventSchema to be used
+     * @param identifier The identifier of the aggregate.
+     * @param batchSize  The maximum number of events following the latest snapshot to include.
+     * @return The newly created {@link PreparedStatement}.
+     * @throws SQLException when an exception occurs while creating the prepared statement.
+     */
+    PreparedStatement build(Connection connection, EventSchema schema, String identifier, int batchSize)
+            throws SQLException;
+}
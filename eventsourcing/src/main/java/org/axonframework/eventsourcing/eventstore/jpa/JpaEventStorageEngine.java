@@ -29,6 +29,7 @@
 import org.axonframework.eventhandling.GenericDomainEventEntry;
 import org.axonframework.eventhandling.GenericDomainEventMessage;
 import org.axonframework.eventhandling.GenericEventMessage;
+import org.axonframework.eventhandling.Segment;
 import org.axonframework.eventhandling.TrackedDomainEventData;
 import org.axonframework.eventhandling.TrackedEventData;
 import org.axonframework.eventhandling.TrackingToken;
@@ -44,10 +45,16 @@
 import java.time.format.DateTimeParseException;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.Executor;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.LongStream;
@@ -60,6 +67,7 @@
 import static org.axonframework.common.BuilderUtils.assertNonNull;
 import static org.axonframework.common.BuilderUtils.assertThat;
 import static org.axonframework.common.DateTimeUtils.formatInstant;
+import static org.axonframework.common.ObjectUtils.getOrDefault;
 
 /**
  * EventStorageEngine implementation that uses JPA to store and fetch events.
@@ -80,6 +88,8 @@ public class JpaEventStorageEngine extends BatchingEventStorageEngine {
     private static final int DEFAULT_GAP_CLEANING_THRESHOLD = 250;
 
     private final EntityManagerProvider entityManagerProvider;
+    private final EntityManagerProvider trackingEntityManagerProvider;
+    private final int trackingReplicaLag;
     private final TransactionManager transactionManager;
     private final boolean explicitFlush;
     private final int maxGapOffset;
@@ -99,6 +109,9 @@ public class JpaEventStorageEngine extends BatchingEventStorageEngine {
     protected JpaEventStorageEngine(Builder builder) {
         super(builder);
         this.entityManagerProvider = builder.entityManagerProvider;
+        this.trackingEntityManagerProvider =
+                getOrDefault(builder.trackingEntityManagerProvider, builder.entityManagerProvider);
+        this.trackingReplicaLag = builder.trackingReplicaLag;
         this.transactionManager = builder.transactionManager;
         this.explicitFlush = builder.explicitFlush;
         this.maxGapOffset = builder.maxGapOffset;
@@ -117,9 +130,12 @@ protected JpaEventStorageEngine(Builder builder) {
      * {@link DataSource} is provided</li>
      * <li>The {@code snapshotFilter} defaults to a {@link SnapshotFilter#allowAll()} instance.</li>
      * <li>The {@code batchSize} defaults to an integer of size {@code 100}.</li>
+     * <li>The {@code readAheadBatches} defaults to {@code 0}, disabling read-ahead.</li>
      * <li>The {@code explicitFlush} defaults to {@code true}.</li>
      * <li>The {@code maxGapOffset} defaults to an  integer of size {@code 10000}.</li>
      * <li>The {@code lowestGlobalSequence} defaults to a long of size {@code 1}.</li>
+     * <li>The {@code trackingEntityManagerProvider} defaults to the {@link EntityManagerProvider}.</li>
+     * <li>The {@code trackingReplicaLag} defaults to an integer of size {@code 0}.</li>
      * <li>The {@code gapTimeout} defaults to an integer of size {@code 60000} (1 minute).</li>
      * <li>The {@code gapCleaningThreshold} defaults to an integer of size {@code 250}.</li>
      * </ul>
@@ -160,15 +176,156 @@ protected static <T> DomainEventMessage<T> asDomainEventMessage(EventMessage<T>
      * @return A batch of event messages as object stored since the given tracking token.
      */
     protected List<Object[]> fetchEvents(GapAwareTrackingToken token) {
+        return fetchEvents(token, Collections.emptySet());
+    }
+
+    /**
+     * Returns a batch of event data as object entries in the event storage with a greater than the given {@code
+     * token}, like {@link #fetchEvents(GapAwareTrackingToken)}. Entries with one of the given {@code
+     * skippedPayloadTypes} are left out of the query for the batch. These are retrieved in a second query without
+     * their payload and meta data, which are empty in the returned entries instead. This way the token advances past
+     * these entries, while their payload is never read from the database.
+     *
+     * @param token               Object describing the global index of the last processed event.
+     * @param skippedPayloadTypes The payload types of the entries for which the payload is omitted.
+     * @return A batch of event messages as object stored since the given tracking token.
+     */
+    protected List<Object[]> fetchEvents(GapAwareTrackingToken token, Set<String> skippedPayloadTypes) {
+        if (skippedPayloadTypes.isEmpty()) {
+            return fetchEventsWithPayload(token);
+        }
+        List<Object[]> entries = createTrackedEventsQuery(", e.payload, e.metaData",
+                                                          "e.payloadType NOT IN :skipped",
+                                                          token)
+                .setParameter("skipped", skippedPayloadTypes)
+                .setMaxResults(batchSize())
+                .getResultList();
+        // entries after a full batch are left for the next batch, so skipped entries are only read up to there
+        long upperBound = entries.size() < batchSize() ? Long.MAX_VALUE : (Long) entries.get(entries.size() - 1)[0];
+        List<Object[]> skippedEntries = createTrackedEventsQuery("",
+                                                                 "e.payloadType IN :skipped "
+                                                                         + "AND e.globalIndex < :upperBound",
+                                                                 token)
+                .setParameter("skipped", skippedPayloadTypes)
+                .setParameter("upperBound", upperBound)
+                .setMaxResults(batchSize())
+                .getResultList();
+        if (skippedEntries.isEmpty()) {
+            return entries;
+        }
+
+        long lastIndex = skippedEntries.size() < batchSize()
+                ? Long.MAX_VALUE
+                : (Long) skippedEntries.get(skippedEntries.size() - 1)[0];
+        List<Object[]> result = new ArrayList<>(entries.size() + skippedEntries.size());
+        for (Object[] entry : entries) {
+            if ((Long) entry[0] < lastIndex) {
+                result.add(entry);
+            }
+        }
+        for (Object[] skippedEntry : skippedEntries) {
+            Object[] completeEntry = Arrays.copyOf(skippedEntry, 10);
+            completeEntry[8] = new byte[0];
+            completeEntry[9] = new byte[0];
+            result.add(completeEntry);
+        }
+        result.sort(Comparator.comparing(entry -> (Long) entry[0]));
+        return result;
+    }
+
+    private TypedQuery<Object[]> createTrackedEventsQuery(String selection,
+                                                          String condition,
+                                                          GapAwareTrackingToken token) {
+        String query = "SELECT e.globalIndex, e.type, e.aggregateIdentifier, e.sequenceNumber, e.eventIdentifier, "
+                + "e.timeStamp, e.payloadType, e.payloadRevision" + selection
+                + " FROM " + domainEventEntryEntityName() + " e ";
+        if (token == null || token.getGaps().isEmpty()) {
+            return trackingEntityManager().createQuery(
+                    query + "WHERE e.globalIndex > :token AND " + condition + " ORDER BY e.globalIndex ASC",
+                    Object[].class
+            ).setParameter("token", token == null ? -1L : token.getIndex());
+        }
+        return trackingEntityManager().createQuery(
+                query + "WHERE (e.globalIndex > :token OR e.globalIndex IN :gaps) AND " + condition
+                        + " ORDER BY e.globalIndex ASC",
+                Object[].class
+        ).setParameter("token", token.getIndex()).setParameter("gaps", token.getGaps());
+    }
+
+    /**
+     * Returns a batch of event data as object entries in the event storage with a greater than the given {@code
+     * token}, like {@link #fetchEvents(GapAwareTrackingToken, Set)}. If the given {@code segment} is not the root
+     * segment, the entries are first retrieved without their payload and meta data. These are then retrieved in a
+     * second query, for the entries that belong to the segment and do not have a skipped payload type only. The other
+     * entries have an empty payload and meta data.
+     *
+     * @param token               Object describing the global index of the last processed event.
+     * @param skippedPayloadTypes The payload types of the entries for which the payload is omitted.
+     * @param segment             The segment of the entries for which the payload is retrieved.
+     * @return A batch of event messages as object stored since the given tracking token.
+     */
+    protected List<Object[]> fetchEvents(GapAwareTrackingToken token,
+                                         Set<String> skippedPayloadTypes,
+                                         Segment segment) {
+        if (segment.getMask() == 0) {
+            return fetchEvents(token, skippedPayloadTypes);
+        }
+        String selection = "SELECT e.globalIndex, e.type, e.aggregateIdentifier, e.sequenceNumber, "
+                + "e.eventIdentifier, e.timeStamp, e.payloadType, e.payloadRevision "
+                + "FROM " + domainEventEntryEntityName() + " e ";
         TypedQuery<Object[]> query;
         if (token == null || token.getGaps().isEmpty()) {
-            query = entityManager().createQuery(
+            query = trackingEntityManager().createQuery(
+                    selection + "WHERE e.globalIndex > :token ORDER BY e.globalIndex ASC", Object[].class
+            );
+        } else {
+            query = trackingEntityManager().createQuery(
+                    selection + "WHERE e.globalIndex > :token OR e.globalIndex IN :gaps ORDER BY e.globalIndex ASC",
+                    Object[].class
+            ).setParameter("gaps", token.getGaps());
+        }
+        List<Object[]> entries = query.setParameter("token", token == null ? -1L : token.getIndex())
+                                      .setMaxResults(batchSize())
+                                      .getResultList();
+
+        List<Long> handledIndices = new ArrayList<>();
+        for (Object[] entry : entries) {
+            // the aggregate identifier of events not published by an aggregate is their event identifier
+            if (!skippedPayloadTypes.contains((String) entry[6]) && segment.matches(entry[2])) {
+                handledIndices.add((Long) entry[0]);
+            }
+        }
+        Map<Long, Object[]> payloads = new HashMap<>();
+        if (!handledIndices.isEmpty()) {
+            trackingEntityManager().createQuery(
+                                   "SELECT e.globalIndex, e.payload, e.metaData FROM " + domainEventEntryEntityName()
+                                           + " e WHERE e.globalIndex IN :indices", Object[].class
+                           )
+                           .setParameter("indices", handledIndices)
+                           .getResultList()
+                           .forEach(payload -> payloads.put((Long) payload[0], payload));
+        }
+        List<Object[]> result = new ArrayList<>(entries.size());
+        for (Object[] entry : entries) {
+            Object[] payload = payloads.get((Long) entry[0]);
+            Object[] completeEntry = Arrays.copyOf(entry, 10);
+            completeEntry[8] = payload == null ? new byte[0] : payload[1];
+            completeEntry[9] = payload == null ? new byte[0] : payload[2];
+            result.add(completeEntry);
+        }
+        return result;
+    }
+
+    private List<Object[]> fetchEventsWithPayload(GapAwareTrackingToken token) {
+        TypedQuery<Object[]> query;
+        if (token == null || token.getGaps().isEmpty()) {
+            query = trackingEntityManager().createQuery(
                     "SELECT e.globalIndex, e.type, e.aggregateIdentifier, e.sequenceNumber, e.eventIdentifier, "
                             + "e.timeStamp, e.payloadType, e.payloadRevision, e.payload, e.metaData " +
                             "FROM " + domainEventEntryEntityName() + " e " +
                             "WHERE e.globalIndex > :token ORDER BY e.globalIndex ASC", Object[].class);
         } else {
-            query = entityManager().createQuery(
+            query = trackingEntityManager().createQuery(
                     "SELECT e.globalIndex, e.type, e.aggregateIdentifier, e.sequenceNumber, e.eventIdentifier, "
                             + "e.timeStamp, e.payloadType, e.payloadRevision, e.payload, e.metaData " +
                             "FROM " + domainEventEntryEntityName() + " e " +
@@ -183,6 +340,35 @@ protected List<Object[]> fetchEvents(GapAwareTrackingToken token) {
 
     @Override
     protected List<? extends TrackedEventData<?>> fetchTrackedEvents(TrackingToken lastToken, int batchSize) {
+        return fetchTrackedEvents(lastToken, batchSize, Collections.emptySet());
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The payload of entries with one of the given {@code skippedPayloadTypes} is not retrieved from the database, as
+     * described in {@link #fetchEvents(GapAwareTrackingToken, Set)}. These entries are returned with an empty payload
+     * and meta data instead.
+     */
+    @Override
+    protected List<? extends TrackedEventData<?>> fetchTrackedEvents(TrackingToken lastToken,
+                                                                     int batchSize,
+                                                                     Set<String> skippedPayloadTypes) {
+        return fetchTrackedEvents(lastToken, batchSize, skippedPayloadTypes, Segment.ROOT_SEGMENT);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The payload and meta data of entries that do not belong to the given {@code segment} are not retrieved from the
+     * database, as described in {@link #fetchEvents(GapAwareTrackingToken, Set, Segment)}. These entries are returned
+     * with an empty payload and meta data instead.
+     */
+    @Override
+    protected List<? extends TrackedEventData<?>> fetchTrackedEvents(TrackingToken lastToken,
+                                                                     int batchSize,
+                                                                     Set<String> skippedPayloadTypes,
+                                                                     Segment segment) {
         Assert.isTrue(
                 lastToken == null || lastToken instanceof GapAwareTrackingToken,
                 () -> String.format("Token [%s] is of the wrong type. Expected [%s]",
@@ -191,7 +377,11 @@ protected List<? extends TrackedEventData<?>> fetchTrackedEvents(TrackingToken l
 
         GapAwareTrackingToken previousToken = cleanedToken((GapAwareTrackingToken) lastToken);
 
-        List<Object[]> entries = transactionManager.fetchInTransaction(() -> fetchEvents(previousToken));
+        List<Object[]> entries = skippedPayloadTypes.isEmpty() && segment.getMask() == 0
+                ? transactionManager.fetchInTransaction(() -> fetchEvents(previousToken))
+                : transactionManager.fetchInTransaction(
+                        () -> fetchEvents(previousToken, skippedPayloadTypes, segment)
+                );
         List<TrackedEventData<?>> result = new ArrayList<>();
         GapAwareTrackingToken token = previousToken;
         for (Object[] entry : entries) {
@@ -228,7 +418,7 @@ protected List<? extends TrackedEventData<?>> fetchTrackedEvents(TrackingToken l
 
     private GapAwareTrackingToken cleanedToken(GapAwareTrackingToken lastToken) {
         if (lastToken != null && lastToken.getGaps().size() > gapCleaningThreshold) {
-            return withGapsCleaned(lastToken, transactionManager.fetchInTransaction(() -> entityManager()
+            return withGapsCleaned(lastToken, transactionManager.fetchInTransaction(() -> trackingEntityManager()
                     .createQuery(
                             "SELECT e.globalIndex, e.timeStamp FROM " + domainEventEntryEntityName() + " e "
                                     + "WHERE e.globalIndex >= :firstGapOffset "
@@ -271,7 +461,7 @@ private GapAwareTrackingToken withGapsCleaned(GapAwareTrackingToken token, List<
     }
 
     private Instant gapTimeoutThreshold() {
-        return GenericEventMessage.clock.instant().minus(gapTimeout, ChronoUnit.MILLIS);
+        return GenericEventMessage.clock.instant().minus(gapTimeout + trackingReplicaLag, ChronoUnit.MILLIS);
     }
 
     @Override
@@ -358,7 +548,7 @@ public Optional<Long> lastSequenceNumberFor(@Nonnull String aggregateIdentifier)
 
     @Override
     public TrackingToken createTailToken() {
-        List<Long> results = entityManager().createQuery(
+        List<Long> results = trackingEntityManager().createQuery(
                 "SELECT MIN(e.globalIndex) - 1 FROM " + domainEventEntryEntityName() + " e", Long.class
         ).getResultList();
         return createToken(results);
@@ -371,7 +561,7 @@ public TrackingToken createHeadToken() {
 
     @Override
     public TrackingToken createTokenAt(@Nonnull Instant dateTime) {
-        List<Long> results = entityManager()
+        List<Long> results = trackingEntityManager()
                 .createQuery(
                         "SELECT MIN(e.globalIndex) - 1 FROM " + domainEventEntryEntityName() + " e "
                                 + "WHERE e.timeStamp >= :dateTime", Long.class
@@ -470,6 +660,18 @@ protected EntityManager entityManager() {
         return entityManagerProvider.getEntityManager();
     }
 
+    /**
+     * Provides an {@link EntityManager} instance for the queries of tracking event streams, like fetching tracked
+     * events and creating tail tokens. This is an {@code EntityManager} of the {@link
+     * Builder#trackingEntityManagerProvider(EntityManagerProvider) tracking EntityManagerProvider}, which may point to a
+     * read replica of the database.
+     *
+     * @return the EntityManager instance to use for tracking reads
+     */
+    protected EntityManager trackingEntityManager() {
+        return trackingEntityManagerProvider.getEntityManager();
+    }
+
     /**
      * Sets the amount of time until a 'gap' in a TrackingToken may be considered timed out. This setting will affect
      * the cleaning process of gaps. Gaps that have timed out will be removed from Tracking Tokens to improve
@@ -500,9 +702,12 @@ public void setGapCleaningThreshold(int gapCleaningThreshold) {
      * {@link DataSource} is provided</li>
      * <li>The {@code snapshotFilter} defaults to a {@link SnapshotFilter#allowAll()} instance.</li>
      * <li>The {@code batchSize} defaults to an integer of size {@code 100}.</li>
+     * <li>The {@code readAheadBatches} defaults to {@code 0}, disabling read-ahead.</li>
      * <li>The {@code explicitFlush} defaults to {@code true}.</li>
      * <li>The {@code maxGapOffset} defaults to an  integer of size {@code 10000}.</li>
      * <li>The {@code lowestGlobalSequence} defaults to a long of size {@code 1}.</li>
+     * <li>The {@code trackingEntityManagerProvider} defaults to the {@link EntityManagerProvider}.</li>
+     * <li>The {@code trackingReplicaLag} defaults to an integer of size {@code 0}.</li>
      * <li>The {@code gapTimeout} defaults to an integer of size {@code 60000} (1 minute).</li>
      * <li>The {@code gapCleaningThreshold} defaults to an integer of size {@code 250}.</li>
      * </ul>
@@ -513,6 +718,8 @@ public void setGapCleaningThreshold(int gapCleaningThreshold) {
     public static class Builder extends BatchingEventStorageEngine.Builder {
 
         private EntityManagerProvider entityManagerProvider;
+        private EntityManagerProvider trackingEntityManagerProvider;
+        private int trackingReplicaLag = 0;
         private TransactionManager transactionManager;
         private boolean explicitFlush = true;
         private int maxGapOffset = DEFAULT_MAX_GAP_OFFSET;
@@ -581,6 +788,18 @@ public JpaEventStorageEngine.Builder batchSize(int batchSize) {
             return this;
         }
 
+        @Override
+        public JpaEventStorageEngine.Builder readAheadBatches(int readAheadBatches) {
+            super.readAheadBatches(readAheadBatches);
+            return this;
+        }
+
+        @Override
+        public JpaEventStorageEngine.Builder readAheadExecutor(Executor readAheadExecutor) {
+            super.readAheadExecutor(readAheadExecutor);
+            return this;
+        }
+
         /**
          * Sets the {@link PersistenceExceptionResolver} as a {@link SQLErrorCodesResolver}, using the provided
          * {@link DataSource} to resolve the error codes. <b>Note</b> that the provided DataSource sole purpose in this
@@ -615,6 +834,42 @@ public Builder entityManagerProvider(EntityManagerProvider entityManagerProvider
             return this;
         }
 
+        /**
+         * Sets the {@link EntityManagerProvider} used for the queries of tracking event streams, which are fetching
+         * tracked events, cleaning gaps and creating tail tokens and tokens at a given point in time. This allows
+         * these reads, like the replays of event processors, to be served by a read replica of the database. Appends,
+         * aggregate and snapshot reads and the creation of head tokens keep using the {@link
+         * #entityManagerProvider(EntityManagerProvider) EntityManagerProvider}. Defaults to that same {@code
+         * EntityManagerProvider}.
+         * <p>
+         * When the replica lags behind, consider configuring the {@link #trackingReplicaLag(int) trackingReplicaLag}.
+         *
+         * @param trackingEntityManagerProvider a {@link EntityManagerProvider} which provides the {@link EntityManager}
+         *                                      used for tracking reads
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder trackingEntityManagerProvider(EntityManagerProvider trackingEntityManagerProvider) {
+            assertNonNull(trackingEntityManagerProvider, "Tracking EntityManagerProvider may not be null");
+            this.trackingEntityManagerProvider = trackingEntityManagerProvider;
+            return this;
+        }
+
+        /**
+         * Sets the maximum amount of time, in milliseconds, the database behind the {@link
+         * #trackingEntityManagerProvider(EntityManagerProvider) tracking EntityManagerProvider} may lag behind the
+         * primary. This lag is added to the {@link #gapTimeout(int) gapTimeout}, as an event filling a gap may become
+         * visible to tracking reads only this much later than it was committed. Defaults to {@code 0}.
+         *
+         * @param trackingReplicaLag an {@code int} specifying the maximum replication lag of tracking reads, in
+         *                           milliseconds
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder trackingReplicaLag(int trackingReplicaLag) {
+            assertThat(trackingReplicaLag, lag -> lag >= 0, "The trackingReplicaLag must not be negative");
+            this.trackingReplicaLag = trackingReplicaLag;
+            return this;
+        }
+
         /**
          * Sets the {@link TransactionManager} used to manage transaction around fetching event data. Required by
          * certain databases for reading blob data.
@@ -19,15 +19,34 @@
 import org.axonframework.eventhandling.DomainEventMessage;
 import org.axonframework.eventhandling.EventMessage;
 import org.axonframework.eventhandling.GenericEventMessage;
+import org.axonframework.eventhandling.Segment;
+import org.axonframework.eventhandling.TrackedEventMessage;
+import org.axonframework.eventhandling.TrackingToken;
+import org.axonframework.lifecycle.Lifecycle;
+import org.axonframework.lifecycle.Phase;
 import org.junit.jupiter.api.Test;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import static org.axonframework.eventsourcing.utils.EventStoreTestUtils.AGGREGATE;
+import static java.util.stream.Collectors.toList;
 import static org.axonframework.eventsourcing.utils.EventStoreTestUtils.createEvents;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 
 /**
  * Test class validating the specifics around a {@link BatchingEventStorageEngine}.
@@ -66,6 +85,158 @@ void loadLargeAmountFromOpenStream() {
         assertEquals(last.getIdentifier(), resultEventMessage.get().getIdentifier());
     }
 
+    @Test
+    void readEventsSkippingPayloadTypesDeliversOtherEventsAndAdvancesPastSkippedOnes() {
+        int eventCount = testSubject.batchSize() + 10;
+        testSubject.appendEvents(new GenericEventMessage<>(1));
+        testSubject.appendEvents(createEvents(eventCount));
+        testSubject.appendEvents(new GenericEventMessage<>(2));
+        testSubject.appendEvents(createEvents(() -> AGGREGATE + "-2", eventCount));
+
+        List<? extends TrackedEventMessage<?>> unfiltered = testSubject.readEvents(null, false).collect(toList());
+        List<? extends TrackedEventMessage<?>> filtered =
+                testSubject.readEvents(null, false, Collections.singleton(String.class)).collect(toList());
+
+        List<Object> deliveredPayloads = filtered.stream()
+                                                 .filter(e -> !String.class.equals(e.getPayloadType()))
+                                                 .map(EventMessage::getPayload)
+                                                 .collect(toList());
+        assertEquals(2, deliveredPayloads.size());
+        assertEquals(1, deliveredPayloads.get(0));
+        assertEquals(2, deliveredPayloads.get(1));
+        TrackingToken lastToken = unfiltered.get(unfiltered.size() - 1).trackingToken();
+        assertEquals(lastToken, filtered.get(filtered.size() - 1).trackingToken());
+    }
+
+    @Test
+    void readEventsForSegmentDeliversEventsOfThatSegmentAndAdvancesPastOthers() {
+        int eventCount = testSubject.batchSize() + 10;
+        testSubject.appendEvents(createEvents(() -> UUID.randomUUID().toString(), eventCount));
+        testSubject.appendEvents(new GenericEventMessage<>("test"));
+        Segment segment = Segment.ROOT_SEGMENT.split()[1];
+
+        List<? extends TrackedEventMessage<?>> unfiltered = testSubject.readEvents(null, false).collect(toList());
+        List<? extends TrackedEventMessage<?>> filtered =
+                testSubject.readEvents(null, false, Collections.emptySet(), segment).collect(toList());
+
+        List<Object> expectedPayloads = unfiltered.stream()
+                                                  .filter(e -> segment.matches(sequenceIdentifier(e)))
+                                                  .map(EventMessage::getPayload)
+                                                  .collect(toList());
+        List<Object> deliveredPayloads = filtered.stream()
+                                                 .filter(e -> segment.matches(sequenceIdentifier(e)))
+                                                 .map(EventMessage::getPayload)
+                                                 .collect(toList());
+        assertFalse(expectedPayloads.isEmpty());
+        assertEquals(expectedPayloads, deliveredPayloads);
+        TrackingToken lastToken = unfiltered.get(unfiltered.size() - 1).trackingToken();
+        assertEquals(lastToken, filtered.get(filtered.size() - 1).trackingToken());
+    }
+
+    @Test
+    void readAheadDeliversTheSameEventsAsReadingBatchByBatch() throws InterruptedException {
+        ExecutorService readAheadExecutor = Executors.newSingleThreadExecutor();
+        try {
+            BatchingEventStorageEngine readAheadEngine = createEngine(builder -> {
+                builder.readAheadBatches(2)
+                       .readAheadExecutor(readAheadExecutor);
+                return builder;
+            });
+            int eventCount = testSubject.batchSize() * 3 + 10;
+            testSubject.appendEvents(createEvents(eventCount));
+            testSubject.appendEvents(new GenericEventMessage<>("test"));
+
+            assertEquals(testSubject.readEvents(AGGREGATE).asStream().map(EventMessage::getIdentifier)
+                                    .collect(toList()),
+                         readAheadEngine.readEvents(AGGREGATE).asStream().map(EventMessage::getIdentifier)
+                                        .collect(toList()));
+            assertEquals(testSubject.readEvents(null, false).map(TrackedEventMessage::trackingToken)
+                                    .collect(toList()),
+                         readAheadEngine.readEvents(null, false).map(TrackedEventMessage::trackingToken)
+                                        .collect(toList()));
+        } finally {
+            readAheadExecutor.shutdown();
+            assertTrue(readAheadExecutor.awaitTermination(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void readAheadTrackingStreamDeliversEventsAppendedAfterItCaughtUp() throws InterruptedException {
+        ExecutorService readAheadExecutor = Executors.newSingleThreadExecutor();
+        try {
+            BatchingEventStorageEngine readAheadEngine = createEngine(builder -> {
+                builder.readAheadBatches(2)
+                       .readAheadExecutor(readAheadExecutor);
+                return builder;
+            });
+            int eventCount = testSubject.batchSize() + 10;
+            testSubject.appendEvents(createEvents(eventCount));
+
+            try (Stream<? extends TrackedEventMessage<?>> stream = readAheadEngine.readEvents(null, false)) {
+                Iterator<? extends TrackedEventMessage<?>> iterator = stream.iterator();
+                for (int i = 0; i < eventCount; i++) {
+                    assertTrue(iterator.hasNext());
+                    iterator.next();
+                }
+                assertFalse(iterator.hasNext());
+
+                GenericEventMessage<String> appended = new GenericEventMessage<>("appended");
+                testSubject.appendEvents(appended);
+
+                assertTrue(iterator.hasNext());
+                assertEquals(appended.getIdentifier(), iterator.next().getIdentifier());
+                assertFalse(iterator.hasNext());
+            }
+        } finally {
+            readAheadExecutor.shutdown();
+            assertTrue(readAheadExecutor.awaitTermination(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void readAheadStreamKeepsDeliveringEventsAfterTheEngineShutsDown() {
+        BatchingEventStorageEngine readAheadEngine = createEngine(builder -> {
+            builder.readAheadBatches(2);
+            return builder;
+        });
+        int eventCount = testSubject.batchSize() * 4;
+        testSubject.appendEvents(createEvents(eventCount));
+
+        try (Stream<? extends TrackedEventMessage<?>> stream = readAheadEngine.readEvents(null, false)) {
+            Iterator<? extends TrackedEventMessage<?>> iterator = stream.iterator();
+            int delivered = 0;
+            for (; delivered <= testSubject.batchSize(); delivered++) {
+                assertTrue(iterator.hasNext());
+                iterator.next();
+            }
+            readAheadEngine.shutDown();
+            while (iterator.hasNext()) {
+                iterator.next();
+                delivered++;
+            }
+            assertEquals(eventCount, delivered);
+        }
+    }
+
+    @Test
+    void readAheadEngineShutsDownWithTheOutboundEventConnectors() {
+        BatchingEventStorageEngine readAheadEngine = createEngine(builder -> {
+            builder.readAheadBatches(2);
+            return builder;
+        });
+        Lifecycle.LifecycleRegistry lifecycleRegistry = mock(Lifecycle.LifecycleRegistry.class);
+
+        readAheadEngine.registerLifecycleHandlers(lifecycleRegistry);
+
+        verify(lifecycleRegistry).onShutdown(eq(Phase.OUTBOUND_EVENT_CONNECTORS), any(Runnable.class));
+    }
+
+    private static String sequenceIdentifier(EventMessage<?> event) {
+        return event instanceof DomainEventMessage && ((DomainEventMessage<?>) event).getAggregateIdentifier() != null
+                ? ((DomainEventMessage<?>) event).getAggregateIdentifier()
+                : event.getIdentifier();
+    }
+
     protected void setTestSubject(BatchingEventStorageEngine testSubject) {
         super.setTestSubject(this.testSubject = testSubject);
     }
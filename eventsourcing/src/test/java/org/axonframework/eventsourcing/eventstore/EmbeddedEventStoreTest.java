@@ -21,8 +21,10 @@
 import org.axonframework.common.transaction.TransactionManager;
 import org.axonframework.eventhandling.DomainEventMessage;
 import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.GenericEventMessage;
 import org.axonframework.eventhandling.GenericTrackedEventMessage;
 import org.axonframework.eventhandling.GlobalSequenceTrackingToken;
+import org.axonframework.eventhandling.Segment;
 import org.axonframework.eventhandling.TrackedEventMessage;
 import org.axonframework.eventhandling.TrackingEventStream;
 import org.axonframework.eventhandling.TrackingToken;
@@ -36,6 +38,8 @@
 import org.mockito.invocation.*;
 import org.mockito.stubbing.*;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
@@ -100,11 +104,23 @@ public TransactionManager getTransactionManager() {
         return transactionManager;
     }
 
+    /**
+     * Indicates whether the {@link EmbeddedEventStore} under test should store its cache of tailing events in a ring
+     * buffer. Defaults to {@code false}.
+     *
+     * @return {@code true} if the {@link EmbeddedEventStore} under test should use a ring buffer tail cache.
+     */
+    protected boolean useRingBufferTailCache() {
+        return false;
+    }
+
     private void newTestSubject(int cachedEvents,
                                 long fetchDelay,
                                 long cleanupDelay,
                                 boolean optimizeEventConsumption) {
         Optional.ofNullable(testSubject).ifPresent(EmbeddedEventStore::shutDown);
+        // a ring buffer requires a positive capacity, so tests without a cache fall back to the linked list
+        boolean ringBufferTailCache = useRingBufferTailCache() && cachedEvents > 0;
         testSubject = EmbeddedEventStore.builder()
                                         .storageEngine(storageEngine)
                                         .cachedEvents(cachedEvents)
@@ -112,6 +128,7 @@ private void newTestSubject(int cachedEvents,
                                         .cleanupDelay(cleanupDelay)
                                         .threadFactory(threadFactory)
                                         .optimizeEventConsumption(optimizeEventConsumption)
+                                        .ringBufferTailCache(ringBufferTailCache)
                                         .spanFactory(spanFactory)
                                         .build();
     }
@@ -501,6 +518,53 @@ void eventStreamKeepsReturningEventsIfEventConsumptionOptimizationIsSwitchedOff(
         assertFalse(eventStream.hasNextAvailable()); // Should have no events anymore
     }
 
+    @Test
+    void privateStreamLeavesOutEventsWithSkippedPayloadTypes() throws InterruptedException {
+        testSubject.publish(new GenericEventMessage<>(1));
+        testSubject.publish(createEvents(5));
+        testSubject.publish(new GenericEventMessage<>(2));
+
+        TrackingEventStream stream = testSubject.openStream(null);
+        assertEquals(1, stream.nextAvailable().getPayload());
+        TrackedEventMessage<?> ignored = stream.nextAvailable();
+        assertEquals(String.class, ignored.getPayloadType());
+        stream.skipMessagesWithPayloadTypeOf(ignored);
+
+        TrackedEventMessage<?> next = stream.nextAvailable();
+        assertEquals(2, next.getPayload());
+        TrackingToken lastToken = storageEngine.readEvents(null, false).reduce((a, b) -> b)
+                                               .map(TrackedEventMessage::trackingToken).orElse(null);
+        assertEquals(lastToken, next.trackingToken());
+        assertFalse(stream.hasNextAvailable());
+        verify(storageEngine).readEvents(
+                any(), eq(false), eq(Collections.singleton(String.class)), eq(Segment.ROOT_SEGMENT)
+        );
+        stream.close();
+    }
+
+    @Test
+    void privateStreamLeavesOutEventsOfOtherSegments() throws InterruptedException {
+        testSubject.publish(createEvents(() -> UUID.randomUUID().toString(), 20));
+        Segment segment = Segment.ROOT_SEGMENT.split()[0];
+
+        TrackingEventStream stream = testSubject.openStream(null, segment);
+        List<TrackedEventMessage<?>> result = new ArrayList<>();
+        while (stream.hasNextAvailable()) {
+            result.add(stream.nextAvailable());
+        }
+        stream.close();
+
+        List<String> expected = storageEngine.readEvents(null, false)
+                                             .map(e -> ((DomainEventMessage<?>) e).getAggregateIdentifier())
+                                             .filter(segment::matches)
+                                             .collect(toList());
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, result.stream()
+                                     .map(e -> ((DomainEventMessage<?>) e).getAggregateIdentifier())
+                                     .collect(toList()));
+        verify(storageEngine).readEvents(any(), eq(false), eq(Collections.emptySet()), eq(segment));
+    }
+
     private static class SynchronizedBooleanAnswer implements Answer<Boolean> {
 
         private final boolean answer;
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2010-2022. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventsourcing.eventstore.file;
+
+import org.axonframework.eventsourcing.eventstore.EmbeddedEventStoreTest;
+import org.axonframework.eventsourcing.eventstore.EventStorageEngine;
+import org.axonframework.eventsourcing.utils.TestSerializer;
+import org.junit.jupiter.api.io.*;
+
+import java.nio.file.Path;
+
+/**
+ * An {@link EmbeddedEventStoreTest} implementation using the {@link FileEventStorageEngine} during testing.
+ */
+class FileEmbeddedEventStoreTest extends EmbeddedEventStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Override
+    public EventStorageEngine createStorageEngine() {
+        return FileEventStorageEngine.builder()
+                                     .eventSerializer(TestSerializer.xStreamSerializer())
+                                     .snapshotSerializer(TestSerializer.xStreamSerializer())
+                                     .storageDirectory(tempDir)
+                                     .segmentSize(1024 * 1024)
+                                     .build();
+    }
+}
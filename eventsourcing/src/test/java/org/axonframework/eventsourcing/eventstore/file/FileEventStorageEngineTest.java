@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2010-2022. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventsourcing.eventstore.file;
+
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.eventhandling.GlobalSequenceTrackingToken;
+import org.axonframework.eventhandling.TrackedEventMessage;
+import org.axonframework.eventsourcing.eventstore.AbstractEventStorageEngineTest;
+import org.axonframework.eventsourcing.eventstore.EventStoreException;
+import org.axonframework.eventsourcing.utils.TestSerializer;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.stream.Collectors.toList;
+import static org.axonframework.eventsourcing.utils.EventStoreTestUtils.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class validating the {@link FileEventStorageEngine}.
+ */
+class FileEventStorageEngineTest
+        extends AbstractEventStorageEngineTest<FileEventStorageEngine, FileEventStorageEngine.Builder> {
+
+    private static final int SEGMENT_SIZE = 4096;
+
+    @TempDir
+    Path tempDir;
+
+    private Path storageDirectory;
+    private FileEventStorageEngine testSubject;
+
+    @BeforeEach
+    void setUp() {
+        storageDirectory = tempDir.resolve("store");
+        setTestSubject(testSubject = createEngine());
+    }
+
+    @Test
+    @Override
+    public void uniqueKeyConstraintOnFirstEventIdentifierThrowsAggregateIdentifierAlreadyExistsException() {
+        // uniqueness of event identifiers is not enforced by this engine
+        testSubject.appendEvents(createEvent("id", AGGREGATE, 0), createEvent("id", "otherAggregate", 0));
+
+        assertEquals(1, testSubject.readEvents(AGGREGATE).asStream().count());
+        assertEquals(1, testSubject.readEvents("otherAggregate").asStream().count());
+    }
+
+    @Test
+    @Override
+    public void uniqueKeyConstraintOnEventIdentifier() {
+        // uniqueness of event identifiers is not enforced by this engine
+        testSubject.appendEvents(createEvent("id", AGGREGATE, 1), createEvent("id", "otherAggregate", 1));
+
+        assertEquals(2, testSubject.readEvents(null, false).count());
+    }
+
+    @Test
+    void eventsAndSnapshotsAreRestoredWhenReopened() {
+        testSubject.appendEvents(createEvents(5));
+        testSubject.appendEvents(createEvent("otherAggregate", 0));
+        testSubject.storeSnapshot(createEvent(3));
+
+        FileEventStorageEngine reopened = createEngine();
+
+        assertEquals(6, reopened.readEvents(null, false).count());
+        assertEquals(5, reopened.readEvents(AGGREGATE).asStream().count());
+        assertEquals(4L, reopened.lastSequenceNumberFor(AGGREGATE).orElse(-1L));
+        assertEquals(3L, reopened.readSnapshot(AGGREGATE).map(DomainEventMessage::getSequenceNumber).orElse(-1L));
+        assertEquals(testSubject.createHeadToken(), reopened.createHeadToken());
+    }
+
+    @Test
+    void aggregateIndexIsRestoredFromSidecarFilesOfSealedSegments() throws IOException {
+        for (int i = 0; i < 50; i++) {
+            testSubject.appendEvents(createEvent(AGGREGATE, i), createEvent("otherAggregate", i));
+        }
+        List<Path> sidecarFiles = listFiles(".idx");
+        assertFalse(sidecarFiles.isEmpty());
+
+        assertEquals(50, createEngine().readEvents(AGGREGATE).asStream().count());
+
+        for (Path sidecarFile : sidecarFiles) {
+            Files.delete(sidecarFile);
+        }
+        FileEventStorageEngine reopened = createEngine();
+        assertEquals(20, reopened.readEvents("otherAggregate", 30).asStream().count());
+        assertEquals(sidecarFiles, listFiles(".idx"));
+    }
+
+    @Test
+    void tornWriteIsTruncatedWhenReopened() throws IOException {
+        testSubject.appendEvents(createEvents(3));
+        long end = ((GlobalSequenceTrackingToken) testSubject.createHeadToken()).getGlobalIndex() + 1;
+        byte[] incompleteBatch = EventRecord.encode(createEvent(3), false, TestSerializer.xStreamSerializer());
+        try (FileChannel channel = FileChannel.open(listFiles(".seg").get(0), WRITE)) {
+            channel.write(ByteBuffer.wrap(incompleteBatch), end);
+            channel.write(ByteBuffer.wrap(new byte[]{0, 0, 1, 0, 42}), end + incompleteBatch.length);
+        }
+
+        FileEventStorageEngine reopened = createEngine();
+        assertEquals(3, reopened.readEvents(AGGREGATE).asStream().count());
+        assertEquals(testSubject.createHeadToken(), reopened.createHeadToken());
+
+        reopened.appendEvents(createEvent(3));
+        List<? extends TrackedEventMessage<?>> events = createEngine().readEvents(null, false).collect(toList());
+        assertEquals(4, events.size());
+        assertEquals(3L, ((DomainEventMessage<?>) events.get(3)).getSequenceNumber());
+    }
+
+    @Test
+    void tokensFollowRecordOffsetsAcrossSegments() {
+        for (int i = 0; i < 20; i++) {
+            testSubject.appendEvents(createEvent(i));
+        }
+        List<? extends TrackedEventMessage<?>> events = testSubject.readEvents(null, false).collect(toList());
+        assertEquals(20, events.size());
+        for (int i = 1; i < events.size(); i++) {
+            assertEquals(20 - i, testSubject.readEvents(events.get(i - 1).trackingToken(), false).count());
+        }
+        assertEquals(events.get(19).trackingToken(), testSubject.createHeadToken());
+    }
+
+    @Test
+    void batchExceedingSegmentSizeIsRejected() {
+        assertThrows(EventStoreException.class, () -> testSubject.appendEvents(createEvents(100)));
+        assertEquals(0, testSubject.readEvents(null, false).count());
+    }
+
+    private List<Path> listFiles(String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(storageDirectory)) {
+            return files.filter(file -> file.toString().endsWith(suffix)).sorted().collect(toList());
+        }
+    }
+
+    @Override
+    protected FileEventStorageEngine createEngine(UnaryOperator<FileEventStorageEngine.Builder> customization) {
+        FileEventStorageEngine.Builder engineBuilder =
+                FileEventStorageEngine.builder()
+                                      .eventSerializer(TestSerializer.xStreamSerializer())
+                                      .snapshotSerializer(TestSerializer.xStreamSerializer())
+                                      .storageDirectory(storageDirectory)
+                                      .segmentSize(SEGMENT_SIZE);
+        return customization.apply(engineBuilder).build();
+    }
+}
@@ -16,6 +16,7 @@
 
 package org.axonframework.eventsourcing.eventstore.inmemory;
 
+import org.axonframework.eventhandling.DomainEventMessage;
 import org.axonframework.eventhandling.EventMessage;
 import org.axonframework.eventhandling.GenericEventMessage;
 import org.axonframework.eventhandling.TrackedEventMessage;
@@ -24,12 +25,18 @@
 import org.axonframework.eventsourcing.eventstore.EventStore;
 import org.axonframework.messaging.unitofwork.DefaultUnitOfWork;
 import org.axonframework.messaging.unitofwork.UnitOfWork;
+import org.axonframework.modelling.command.AggregateStreamCreationException;
+import org.axonframework.modelling.command.ConcurrencyException;
 import org.junit.jupiter.api.*;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 import java.util.OptionalLong;
 import java.util.stream.Stream;
 
+import static java.util.stream.Collectors.toList;
+import static org.axonframework.eventsourcing.utils.EventStoreTestUtils.createEvent;
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -107,4 +114,61 @@ void eventsAreNotStoredWhenTheUnitOfWorkIsRolledBackIfCurrentUnitOfWorkIsActive(
         eventStream = testSubject.readEvents(null, true);
         assertEquals(0L, eventStream.count());
     }
+
+    @Test
+    void aggregateEventsAreReadFromIndexInSequenceOrder() {
+        testSubject.appendEvents(createEvent("aggregate-1", 0), createEvent("aggregate-2", 0),
+                                 createEvent("aggregate-1", 1), createEvent("aggregate-2", 1),
+                                 createEvent("aggregate-1", 2));
+
+        List<Long> sequenceNumbers = testSubject.readEvents("aggregate-1", 1)
+                                                .asStream()
+                                                .map(DomainEventMessage::getSequenceNumber)
+                                                .collect(toList());
+
+        assertEquals(Arrays.asList(1L, 2L), sequenceNumbers);
+        assertEquals(Optional.of(2L), testSubject.lastSequenceNumberFor("aggregate-1"));
+        assertEquals(Optional.of(1L), testSubject.lastSequenceNumberFor("aggregate-2"));
+        assertEquals(Optional.empty(), testSubject.lastSequenceNumberFor("unknown"));
+    }
+
+    @Test
+    void appendingDuplicateDomainEventIsRejectedWithoutAppendingAnyEvents() {
+        testSubject.appendEvents(createEvent("aggregate-1", 0), createEvent("aggregate-1", 1));
+
+        assertThrows(ConcurrencyException.class,
+                     () -> testSubject.appendEvents(createEvent("aggregate-2", 0), createEvent("aggregate-1", 1)));
+        assertThrows(AggregateStreamCreationException.class,
+                     () -> testSubject.appendEvents(createEvent("aggregate-1", 0)));
+        assertThrows(ConcurrencyException.class,
+                     () -> testSubject.appendEvents(createEvent("aggregate-3", 1), createEvent("aggregate-3", 1)));
+
+        assertEquals(2L, testSubject.readEvents(null, false).count());
+        assertEquals(Optional.empty(), testSubject.lastSequenceNumberFor("aggregate-2"));
+        assertEquals(Optional.empty(), testSubject.lastSequenceNumberFor("aggregate-3"));
+        assertEquals(2L, testSubject.readEvents("aggregate-1").asStream().count());
+    }
+
+    @Test
+    void oldestEventsAreEvictedWhenMaxRetainedEventsIsExceeded() {
+        testSubject = new InMemoryEventStorageEngine(0, 3);
+        testSubject.appendEvents(createEvent("aggregate-1", 0), createEvent("aggregate-2", 0),
+                                 createEvent("aggregate-1", 1), createEvent("aggregate-2", 1));
+
+        assertEquals(3L, testSubject.readEvents(null, false).count());
+        assertEquals(1L, testSubject.readEvents("aggregate-1").asStream().count());
+        assertEquals(Optional.of(1L), testSubject.lastSequenceNumberFor("aggregate-1"));
+        assertEquals(2L, testSubject.readEvents("aggregate-2").asStream().count());
+
+        testSubject.appendEvents(createEvent("aggregate-2", 2), createEvent("aggregate-2", 3));
+
+        assertEquals(Optional.empty(), testSubject.lastSequenceNumberFor("aggregate-1"));
+        assertEquals(3L, testSubject.readEvents("aggregate-2").asStream().count());
+        assertEquals(Optional.of(3L), testSubject.lastSequenceNumberFor("aggregate-2"));
+    }
+
+    @Test
+    void maxRetainedEventsShouldBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new InMemoryEventStorageEngine(0, 0));
+    }
 }
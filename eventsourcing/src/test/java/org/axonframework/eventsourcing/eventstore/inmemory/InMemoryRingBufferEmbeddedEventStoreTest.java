@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2010-2022. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventsourcing.eventstore.inmemory;
+
+import org.axonframework.common.AxonConfigurationException;
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.eventhandling.TrackingEventStream;
+import org.axonframework.eventsourcing.eventstore.EmbeddedEventStore;
+import org.axonframework.eventsourcing.eventstore.EmbeddedEventStoreTest;
+import org.axonframework.eventsourcing.eventstore.EventStorageEngine;
+import org.junit.jupiter.api.*;
+
+import static org.axonframework.eventsourcing.utils.EventStoreTestUtils.createEvent;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * An {@link EmbeddedEventStoreTest} implementation using the {@link InMemoryEventStorageEngine} during testing, with
+ * the tail cache of the {@link org.axonframework.eventsourcing.eventstore.EmbeddedEventStore} stored in a ring buffer.
+ */
+class InMemoryRingBufferEmbeddedEventStoreTest extends EmbeddedEventStoreTest {
+
+    @Override
+    public EventStorageEngine createStorageEngine() {
+        return new InMemoryEventStorageEngine();
+    }
+
+    @Override
+    protected boolean useRingBufferTailCache() {
+        return true;
+    }
+
+    @Test
+    void streamsReadFromTheStorageEngineWhenEventConsumptionIsNotOptimized() throws InterruptedException {
+        EmbeddedEventStore testSubject = EmbeddedEventStore.builder()
+                                                           .storageEngine(createStorageEngine())
+                                                           .optimizeEventConsumption(false)
+                                                           .ringBufferTailCache(true)
+                                                           .build();
+        try {
+            DomainEventMessage<?> first = createEvent(0);
+            testSubject.publish(first);
+            //noinspection resource
+            TrackingEventStream stream = testSubject.openStream(null);
+            assertEquals(first.getIdentifier(), stream.nextAvailable().getIdentifier());
+
+            DomainEventMessage<?> second = createEvent(1);
+            testSubject.publish(second);
+            assertTrue(stream.hasNextAvailable());
+            assertEquals(second.getIdentifier(), stream.nextAvailable().getIdentifier());
+        } finally {
+            testSubject.shutDown();
+        }
+    }
+
+    @Test
+    void buildingWithoutCachedEventsThrowsAxonConfigurationException() {
+        EmbeddedEventStore.Builder builder = EmbeddedEventStore.builder()
+                                                               .storageEngine(createStorageEngine())
+                                                               .cachedEvents(0)
+                                                               .ringBufferTailCache(true);
+
+        assertThrows(AxonConfigurationException.class, builder::build);
+        assertDoesNotThrow(() -> builder.optimizeEventConsumption(false).build().shutDown());
+    }
+}
@@ -18,9 +18,12 @@
 
 import org.axonframework.common.jdbc.PersistenceExceptionResolver;
 import org.axonframework.common.transaction.NoTransactionManager;
+import org.axonframework.eventhandling.DomainEventData;
 import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.eventhandling.EventMessage;
 import org.axonframework.eventhandling.GapAwareTrackingToken;
 import org.axonframework.eventhandling.GenericEventMessage;
+import org.axonframework.eventhandling.Segment;
 import org.axonframework.eventhandling.TrackedEventData;
 import org.axonframework.eventhandling.TrackedEventMessage;
 import org.axonframework.eventhandling.TrackingEventStream;
@@ -30,7 +33,9 @@
 import org.axonframework.eventsourcing.eventstore.jdbc.statements.JdbcEventStorageEngineStatements;
 import org.axonframework.eventsourcing.eventstore.jdbc.statements.ReadEventDataForAggregateStatementBuilder;
 import org.axonframework.eventsourcing.eventstore.jpa.SQLErrorCodesResolver;
+import org.axonframework.eventsourcing.snapshotting.SnapshotFilter;
 import org.axonframework.eventsourcing.utils.TestSerializer;
+import org.axonframework.serialization.CompressingSerializer;
 import org.axonframework.serialization.UnknownSerializedType;
 import org.hsqldb.jdbc.JDBCDataSource;
 import org.junit.jupiter.api.BeforeEach;
@@ -45,9 +50,13 @@
 import java.time.Clock;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 import java.util.stream.LongStream;
@@ -59,11 +68,13 @@
 import static org.axonframework.eventsourcing.utils.EventStoreTestUtils.createEvents;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -118,6 +129,96 @@ void loadLargeAmountOfEventsFromAggregateStream_WithCustomFinalBatchPredicate()
         verify(readForAggregateStatementBuilder, times(4)).build(any(), any(), eq(AGGREGATE), anyLong(), anyInt());
     }
 
+    @Test
+    void snapshotAndFollowingEventsAreReadInSingleQuery() throws SQLException {
+        setTestSubject(testSubject = createEngine(b -> b.snapshotAndEventsInSingleQuery(true)
+                                                        .readEventDataForAggregate(readForAggregateStatementBuilder)));
+        testSubject.appendEvents(createEvents(5));
+        testSubject.storeSnapshot(createEvent(1));
+        testSubject.storeSnapshot(createEvent(2));
+
+        List<Long> sequenceNumbers = testSubject.readSnapshotAndEvents(AGGREGATE, e -> Optional.empty())
+                                                .asStream()
+                                                .map(DomainEventMessage::getSequenceNumber)
+                                                .collect(toList());
+
+        assertEquals(Arrays.asList(2L, 3L, 4L), sequenceNumbers);
+        verify(readForAggregateStatementBuilder, never()).build(any(), any(), eq(AGGREGATE), eq(3L), anyInt());
+    }
+
+    @Test
+    void eventsAreReadSeparatelyWhenTheLatestSnapshotIsFilteredOut() throws SQLException {
+        setTestSubject(testSubject = createEngine(b -> b.snapshotAndEventsInSingleQuery(true)
+                                                        .snapshotFilter((SnapshotFilter) snapshot -> false)
+                                                        .readEventDataForAggregate(readForAggregateStatementBuilder)));
+        testSubject.appendEvents(createEvents(5));
+        testSubject.storeSnapshot(createEvent(2));
+
+        List<Long> sequenceNumbers = testSubject.readSnapshotAndEvents(AGGREGATE, e -> Optional.empty())
+                                                .asStream()
+                                                .map(DomainEventMessage::getSequenceNumber)
+                                                .collect(toList());
+
+        assertEquals(Arrays.asList(0L, 1L, 2L, 3L, 4L), sequenceNumbers);
+        verify(readForAggregateStatementBuilder).build(any(), any(), eq(AGGREGATE), eq(0L), anyInt());
+    }
+
+    @Test
+    void snapshotErrorHandlerDecidesOnTheSnapshotWhenReadingTheSnapshotFails() {
+        RuntimeException snapshotFailure = new RuntimeException("snapshot failure");
+        setTestSubject(testSubject = createEngine(b -> b.snapshotAndEventsInSingleQuery(true)
+                                                        .snapshotFilter((SnapshotFilter) snapshot -> {
+                                                            throw snapshotFailure;
+                                                        })));
+        testSubject.appendEvents(createEvents(5));
+        testSubject.storeSnapshot(createEvent(2));
+        List<Throwable> handledErrors = new ArrayList<>();
+
+        List<Long> sequenceNumbers = testSubject.readSnapshotAndEvents(AGGREGATE, e -> {
+                                                    handledErrors.add(e);
+                                                    return Optional.empty();
+                                                })
+                                                .asStream()
+                                                .map(DomainEventMessage::getSequenceNumber)
+                                                .collect(toList());
+
+        assertEquals(Collections.singletonList(snapshotFailure), handledErrors);
+        assertEquals(Arrays.asList(0L, 1L, 2L, 3L, 4L), sequenceNumbers);
+    }
+
+    @Test
+    void trackingReadsUseTheTrackingConnectionProvider() {
+        AtomicInteger trackingConnections = new AtomicInteger();
+        setTestSubject(testSubject = createEngine(b -> b.trackingConnectionProvider(() -> {
+            trackingConnections.incrementAndGet();
+            return dataSource.getConnection();
+        })));
+        testSubject.appendEvents(createEvents(3));
+
+        assertEquals(3, testSubject.readEvents(AGGREGATE).asStream().count());
+        assertEquals(0, trackingConnections.get());
+
+        assertEquals(3, testSubject.readEvents(null, false).count());
+        assertNotNull(testSubject.createTailToken());
+        assertTrue(trackingConnections.get() >= 2);
+    }
+
+    @Test
+    void eventsAndSnapshotsAreReadWithACompressingSerializer() {
+        String largePayload = String.join("", Collections.nCopies(100, "payload "));
+        CompressingSerializer serializer = CompressingSerializer.builder()
+                                                                .delegate(TestSerializer.xStreamSerializer())
+                                                                .build();
+        setTestSubject(testSubject = createEngine(b -> b.eventSerializer(serializer).snapshotSerializer(serializer)));
+        testSubject.appendEvents(createEvent(AGGREGATE, 0, largePayload), createEvent(AGGREGATE, 1, "small"));
+        testSubject.storeSnapshot(createEvent(AGGREGATE, 1, largePayload));
+
+        List<Object> payloads = testSubject.readEvents(AGGREGATE).asStream().map(EventMessage::getPayload)
+                                           .collect(toList());
+        assertEquals(Arrays.asList(largePayload, "small"), payloads);
+        assertEquals(largePayload, testSubject.readSnapshot(AGGREGATE).map(EventMessage::getPayload).orElse(null));
+    }
+
     @Test
     void storeTwoExactSameSnapshots() {
         testSubject.storeSnapshot(createEvent(1));
@@ -152,6 +253,62 @@ protected String payloadType() {
         storeAndLoadEvents();
     }
 
+    @Test
+    void fetchTrackedEventsForSegmentOnlyReadsPayloadOfThatSegmentWithSequenceHashColumn() {
+        EventSchema testSchema = EventSchema.builder().sequenceHashColumn("sequenceHash").build();
+        setTestSubject(testSubject = createEngine(engineBuilder -> engineBuilder.schema(testSchema)));
+        testSubject.appendEvents(createEvents(() -> UUID.randomUUID().toString(), 20));
+        testSubject.appendEvents(new GenericEventMessage<>("test"));
+        Segment segment = Segment.ROOT_SEGMENT.split()[1];
+
+        List<? extends TrackedEventData<?>> unfiltered = testSubject.fetchTrackedEvents((TrackingToken) null, 100);
+        List<? extends TrackedEventData<?>> filtered =
+                testSubject.fetchTrackedEvents(null, 100, Collections.emptySet(), segment);
+
+        assertEquals(unfiltered.size(), filtered.size());
+        assertEquals(unfiltered.get(unfiltered.size() - 1).trackingToken(),
+                     filtered.get(filtered.size() - 1).trackingToken());
+        long matchingEvents = 0;
+        for (TrackedEventData<?> entry : filtered) {
+            boolean matches = segment.matches(sequenceIdentifier((DomainEventData<?>) entry));
+            assertEquals(matches, ((byte[]) entry.getPayload().getData()).length > 0);
+            matchingEvents += matches ? 1 : 0;
+        }
+        assertTrue(matchingEvents > 0);
+        assertTrue(matchingEvents < filtered.size());
+    }
+
+    @Test
+    void eventsStoredBeforeAddingSequenceHashColumnAreReadForEverySegment() {
+        testSubject.appendEvents(createEvents(() -> UUID.randomUUID().toString(), 10));
+        EventSchema testSchema = EventSchema.builder().sequenceHashColumn("sequenceHash").build();
+        JdbcEventStorageEngine migratedEngine = new JdbcEventStorageEngine(
+                JdbcEventStorageEngine.builder()
+                                      .eventSerializer(TestSerializer.xStreamSerializer())
+                                      .snapshotSerializer(TestSerializer.xStreamSerializer())
+                                      .connectionProvider(dataSource::getConnection)
+                                      .transactionManager(NoTransactionManager.INSTANCE)
+                                      .schema(testSchema)
+        );
+        migratedEngine.addSequenceHashColumn(HsqlEventTableFactory.INSTANCE);
+        migratedEngine.appendEvents(createEvents(() -> UUID.randomUUID().toString(), 10));
+        Segment segment = Segment.ROOT_SEGMENT.split()[0];
+
+        List<? extends TrackedEventData<?>> filtered =
+                migratedEngine.fetchTrackedEvents(null, 100, Collections.emptySet(), segment);
+
+        assertEquals(20, filtered.size());
+        for (int i = 0; i < filtered.size(); i++) {
+            TrackedEventData<?> entry = filtered.get(i);
+            boolean expectPayload = i < 10 || segment.matches(sequenceIdentifier((DomainEventData<?>) entry));
+            assertEquals(expectPayload, ((byte[]) entry.getPayload().getData()).length > 0);
+        }
+    }
+
+    private static String sequenceIdentifier(DomainEventData<?> entry) {
+        return entry.getAggregateIdentifier() == null ? entry.getEventIdentifier() : entry.getAggregateIdentifier();
+    }
+
     @Test
     @DirtiesContext
     void customSchemaConfigTimestampColumn() {
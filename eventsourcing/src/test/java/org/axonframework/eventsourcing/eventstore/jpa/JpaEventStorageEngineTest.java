@@ -43,6 +43,7 @@
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -138,6 +139,35 @@ void gapsForVeryOldEventsAreNotIncluded() {
                    .forEach(i -> assertTrue(!i.hasGaps() || i.getGaps().first() >= 5L));
     }
 
+    @Test
+    void gapsWithinTheTrackingReplicaLagAreIncluded() {
+        EntityManagerProvider trackingEntityManagerProvider = spy(new SimpleEntityManagerProvider(entityManager));
+        testSubject = createEngine(b -> b.trackingEntityManagerProvider(trackingEntityManagerProvider)
+                                         .trackingReplicaLag(300000));
+        entityManager.createQuery("DELETE FROM DomainEventEntry dee").executeUpdate();
+
+        GenericEventMessage.clock =
+                Clock.fixed(Clock.systemUTC().instant().minus(1, ChronoUnit.HOURS), Clock.systemUTC().getZone());
+        testSubject.appendEvents(createEvent(-1), createEvent(0));
+
+        GenericEventMessage.clock =
+                Clock.fixed(Clock.systemUTC().instant().minus(2, ChronoUnit.MINUTES), Clock.systemUTC().getZone());
+        testSubject.appendEvents(createEvent(-2), createEvent(1));
+
+        GenericEventMessage.clock = Clock.fixed(Clock.systemUTC().instant(), Clock.systemUTC().getZone());
+        testSubject.appendEvents(createEvent(-3), createEvent(2));
+
+        entityManager.clear();
+        entityManager.createQuery("DELETE FROM DomainEventEntry dee WHERE dee.sequenceNumber < 0").executeUpdate();
+
+        List<? extends TrackedEventData<?>> events = testSubject.fetchTrackedEvents(null, 100);
+        GapAwareTrackingToken lastToken = (GapAwareTrackingToken) events.get(events.size() - 1).trackingToken();
+        long firstIndex = ((GapAwareTrackingToken) events.get(0).trackingToken()).getIndex();
+        assertFalse(lastToken.getGaps().contains(firstIndex - 1));
+        assertTrue(lastToken.getGaps().contains(firstIndex + 1));
+        verify(trackingEntityManagerProvider, atLeastOnce()).getEntityManager();
+    }
+
     @DirtiesContext
     @Test
     void oldGapsAreRemovedFromProvidedTrackingToken() {
@@ -276,6 +306,29 @@ void eventsWithUnknownPayloadDoNotResultInError() throws InterruptedException {
         assertFalse(eventStoreResult.hasNextAvailable());
     }
 
+    @Test
+    void fetchEventsLeavesOutPayloadOfEntriesWithSkippedPayloadTypeUpToTheEndOfTheBatch() {
+        testSubject = createEngine(builder -> builder.batchSize(5));
+        testSubject.appendEvents(new GenericEventMessage<>(1));
+        testSubject.appendEvents(createEvents(7));
+        testSubject.appendEvents(new GenericEventMessage<>(2));
+        entityManager.clear();
+        String skippedType = testSubject.getEventSerializer().typeForClass(String.class).getName();
+
+        List<Object[]> entries = testSubject.fetchEvents(null, Collections.singleton(skippedType));
+
+        // the batch ends at the fifth skipped entry, leaving the second integer event for the next batch
+        assertEquals(6, entries.size());
+        assertNotEquals(skippedType, entries.get(0)[6]);
+        for (int i = 1; i < entries.size(); i++) {
+            assertTrue((Long) entries.get(i - 1)[0] < (Long) entries.get(i)[0]);
+            assertEquals(skippedType, entries.get(i)[6]);
+            assertArrayEquals(new byte[0], (byte[]) entries.get(i)[8]);
+            assertArrayEquals(new byte[0], (byte[]) entries.get(i)[9]);
+        }
+        assertTrue(((byte[]) entries.get(0)[8]).length > 0);
+    }
+
     @Test
     void appendEventsIsPerformedInATransaction() {
         testSubject.appendEvents(createEvents(2));
@@ -16,9 +16,11 @@
 
 package org.axonframework.integrationtests.eventhandling;
 
+import org.axonframework.common.AxonConfigurationException;
 import org.axonframework.common.transaction.NoTransactionManager;
 import org.axonframework.common.transaction.Transaction;
 import org.axonframework.common.transaction.TransactionManager;
+import org.axonframework.eventhandling.AdaptiveBatchSizePolicy;
 import org.axonframework.eventhandling.EventHandlerInvoker;
 import org.axonframework.eventhandling.EventMessage;
 import org.axonframework.eventhandling.EventMessageHandler;
@@ -29,6 +31,7 @@
 import org.axonframework.eventhandling.GlobalSequenceTrackingToken;
 import org.axonframework.eventhandling.MultiEventHandlerInvoker;
 import org.axonframework.eventhandling.PropagatingErrorHandler;
+import org.axonframework.eventhandling.ReplayProfile;
 import org.axonframework.eventhandling.ReplayToken;
 import org.axonframework.eventhandling.Segment;
 import org.axonframework.eventhandling.SimpleEventHandlerInvoker;
@@ -67,12 +70,16 @@
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalInt;
 import java.util.Queue;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -82,6 +89,7 @@
 import java.util.function.Supplier;
 import java.util.function.UnaryOperator;
 import java.util.stream.IntStream;
+import javax.annotation.Nonnull;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptySortedSet;
@@ -544,6 +552,150 @@ void tokenStoredAtEndOfEventBatchAndNotExtendedWhenUsingANoTransactionManager()
         );
     }
 
+    @Test
+    void adaptiveBatchSizeIsReportedThroughTheProcessingStatus() throws Exception {
+        initProcessor(TrackingEventProcessorConfiguration.forSingleThreadedProcessing()
+                                                         .andAdaptiveBatchSize(AdaptiveBatchSizePolicy.builder()
+                                                                                                      .maxBatchSize(64)
+                                                                                                      .build()));
+
+        CountDownLatch countDownLatch = new CountDownLatch(100);
+        doAnswer(invocation -> {
+            countDownLatch.countDown();
+            return null;
+        }).when(mockHandler).handle(any());
+        testSubject.start();
+        eventBus.publish(createEvents(100));
+        assertTrue(countDownLatch.await(5, TimeUnit.SECONDS), "Expected all 100 events to be handled");
+
+        assertWithin(1, TimeUnit.SECONDS, () -> {
+            EventTrackerStatus status = testSubject.processingStatus().get(0);
+            assertNotNull(status);
+            assertTrue(status.getBatchSize().isPresent());
+            int batchSize = status.getBatchSize().getAsInt();
+            assertTrue(batchSize >= 1 && batchSize <= 64, "Unexpected batch size " + batchSize);
+        });
+    }
+
+    @Test
+    void eventsAreDeserializedOnTheDeserializationExecutorAheadOfHandling() throws Exception {
+        AtomicInteger submittedEvents = new AtomicInteger();
+        ExecutorService deserializationExecutor = new ThreadPoolExecutor(
+                2, 2, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>()
+        ) {
+            @Override
+            public void execute(Runnable command) {
+                submittedEvents.incrementAndGet();
+                super.execute(command);
+            }
+        };
+        initProcessor(TrackingEventProcessorConfiguration.forSingleThreadedProcessing()
+                                                         .andBatchSize(10)
+                                                         .andDeserializationExecutor(deserializationExecutor));
+
+        CountDownLatch countDownLatch = new CountDownLatch(30);
+        doAnswer(invocation -> {
+            countDownLatch.countDown();
+            return null;
+        }).when(mockHandler).handle(any());
+        try {
+            testSubject.start();
+            eventBus.publish(createEvents(30));
+            assertTrue(countDownLatch.await(5, TimeUnit.SECONDS), "Expected all 30 events to be handled");
+
+            assertEquals(30, submittedEvents.get());
+        } finally {
+            deserializationExecutor.shutdown();
+        }
+    }
+
+    @Test
+    void coalescedTokenStorageDefersStoringTheTokenUntilShutdown() throws Exception {
+        initProcessor(TrackingEventProcessorConfiguration.forSingleThreadedProcessing()
+                                                         .andCoalescedTokenStorage(1, TimeUnit.HOURS, 100));
+
+        CountDownLatch countDownLatch = new CountDownLatch(10);
+        //noinspection resource
+        testSubject.registerHandlerInterceptor(((unitOfWork, interceptorChain) -> {
+            unitOfWork.onCleanup(uow -> countDownLatch.countDown());
+            return interceptorChain.proceed();
+        }));
+        testSubject.start();
+        eventBus.publish(createEvents(10));
+        assertTrue(
+                countDownLatch.await(5, TimeUnit.SECONDS),
+                "Expected Unit of Work to have reached clean up phase for 10 messages"
+        );
+
+        verify(tokenStore, never()).storeToken(any(), any(), anyInt());
+
+        testSubject.shutDown();
+
+        verify(tokenStore, times(1)).storeToken(any(), any(), anyInt());
+        assertEquals(new GlobalSequenceTrackingToken(9), tokenStore.fetchToken(testSubject.getName(), 0));
+    }
+
+    @Test
+    void coalescedTokenStorageStoresTheTokenAtLeastEveryTokenClaimInterval() throws Exception {
+        initProcessor(TrackingEventProcessorConfiguration.forSingleThreadedProcessing()
+                                                         .andTokenClaimInterval(100, TimeUnit.MILLISECONDS)
+                                                         .andCoalescedTokenStorage(1, TimeUnit.HOURS, 100));
+
+        CountDownLatch countDownLatch = new CountDownLatch(10);
+        doAnswer(invocation -> {
+            countDownLatch.countDown();
+            return null;
+        }).when(mockHandler).handle(any());
+        testSubject.start();
+        // events keep arriving, so the token is not stored because the segment is idle
+        for (int i = 0; i < 10; i++) {
+            eventBus.publish(createUUIDEvents(1));
+            Thread.sleep(50);
+        }
+        assertTrue(countDownLatch.await(5, TimeUnit.SECONDS), "Expected all 10 events to be handled");
+
+        verify(tokenStore, atLeastOnce()).storeToken(any(), any(), anyInt());
+    }
+
+    @Test
+    void replayProfileAppliesWhileReplayingAndRegularSettingsOnceCaughtUp() throws Exception {
+        initProcessor(TrackingEventProcessorConfiguration.forSingleThreadedProcessing()
+                                                         .andReplayProfile(ReplayProfile.builder()
+                                                                                        .batchSize(100)
+                                                                                        .coalescedTokenStorage(3_600_000,
+                                                                                                               100)
+                                                                                        .build()));
+        when(mockHandler.supportsReset()).thenReturn(true);
+        List<String> handled = new CopyOnWriteArrayList<>();
+        doAnswer(i -> {
+            handled.add(i.<EventMessage<?>>getArgument(0).getIdentifier());
+            return null;
+        }).when(mockHandler).handle(any());
+        int segmentId = 0;
+
+        eventBus.publish(createEvents(4));
+        testSubject.start();
+        assertWithin(1, TimeUnit.SECONDS, () -> assertEquals(4, handled.size()));
+        testSubject.shutDown();
+        testSubject.resetTokens();
+        testSubject.start();
+
+        assertWithin(1, TimeUnit.SECONDS, () -> assertEquals(8, handled.size()));
+        assertWithin(1, TimeUnit.SECONDS, () -> {
+            EventTrackerStatus status = testSubject.processingStatus().get(segmentId);
+            assertTrue(status.isReplaying());
+            assertEquals(OptionalInt.of(100), status.getBatchSize());
+        });
+
+        eventBus.publish(createUUIDEvents(1));
+
+        assertWithin(1, TimeUnit.SECONDS, () -> {
+            EventTrackerStatus status = testSubject.processingStatus().get(segmentId);
+            assertFalse(status.isReplaying());
+            assertEquals(OptionalInt.of(1), status.getBatchSize());
+        });
+    }
+
     @Test
     void tokenStoredAtEndOfEventBatchAndNotExtendedWhenTransactionManagerIsConfigured() throws Exception {
         TrackingEventProcessorConfiguration tepConfig =
@@ -710,7 +862,7 @@ void continueAfterPause() throws Exception {
             return null;
         }).when(mockHandler).handle(any());
 
-        eventBus.publish(createEvents(2));
+        eventBus.publish(createUUIDEvents(2));
 
         assertEquals(2, countDownLatch2.getCount());
 
@@ -912,7 +1064,7 @@ void resetCausesEventsToBeReplayedWithCorrectContext() throws Exception {
         assertTrue(testSubject.processingStatus().get(segmentId).getResetPosition().isPresent());
 
         long resetPositionAtReplay = testSubject.processingStatus().get(segmentId).getCurrentPosition().getAsLong();
-        eventBus.publish(createEvents(1));
+        eventBus.publish(createUUIDEvents(1));
 
         assertWithin(1, TimeUnit.SECONDS, () -> assertFalse(
                 testSubject.processingStatus().get(segmentId).isReplaying()
@@ -990,7 +1142,7 @@ void resetToPositionCausesCertainEventsToBeReplayed() throws Exception {
         assertTrue(testSubject.processingStatus().get(segmentId).getResetPosition().isPresent());
 
         long resetPositionAtReplay = testSubject.processingStatus().get(segmentId).getResetPosition().getAsLong();
-        eventBus.publish(createEvents(1));
+        eventBus.publish(createUUIDEvents(1));
 
         assertWithin(1, TimeUnit.SECONDS, () -> assertFalse(
                 testSubject.processingStatus().get(segmentId).isReplaying()
@@ -1059,7 +1211,7 @@ protected void doSleepFor(long millisToSleep) {
         assertTrue(testSubject.processingStatus().get(segmentId).getResetPosition().isPresent());
 
         long resetPositionAtReplay = testSubject.processingStatus().get(segmentId).getResetPosition().getAsLong();
-        eventBus.publish(createEvents(1));
+        eventBus.publish(createUUIDEvents(1));
 
         assertWithin(1, TimeUnit.SECONDS, () -> assertFalse(
                 testSubject.processingStatus().get(segmentId).isReplaying()
@@ -2092,6 +2244,55 @@ private void waitForSegmentRelease(int segmentId) throws InterruptedException {
         }
     }
 
+    @Test
+    void segmentFilteringAtSourceOpensStreamsForTheProcessedSegments() throws Exception {
+        List<Segment> openedSegments = new CopyOnWriteArrayList<>();
+        StreamableMessageSource<TrackedEventMessage<?>> messageSource =
+                new StreamableMessageSource<TrackedEventMessage<?>>() {
+                    @Override
+                    public TrackingEventStream openStream(TrackingToken trackingToken) {
+                        return eventBus.openStream(trackingToken);
+                    }
+
+                    @Override
+                    public TrackingEventStream openStream(TrackingToken trackingToken, @Nonnull Segment segment) {
+                        openedSegments.add(segment);
+                        return eventBus.openStream(trackingToken, segment);
+                    }
+                };
+        initProcessor(TrackingEventProcessorConfiguration.forParallelProcessing(2)
+                                                         .andEventAvailabilityTimeout(10, TimeUnit.MILLISECONDS)
+                                                         .andSegmentFilteringAtSource(true),
+                      builder -> builder.messageSource(messageSource));
+        tokenStore.initializeTokenSegments(testSubject.getName(), 2);
+        List<EventMessage<?>> handledEvents = new CopyOnWriteArrayList<>();
+        when(mockHandler.handle(any())).thenAnswer(i -> handledEvents.add(i.getArgument(0)));
+        List<EventMessage<?>> events = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            events.add(createEvent(UUID.randomUUID().toString(), 0));
+        }
+        eventBus.publish(events);
+
+        testSubject.start();
+
+        assertWithin(5, TimeUnit.SECONDS, () -> assertEquals(10, handledEvents.size()));
+        assertEquals(10, handledEvents.stream().map(EventMessage::getIdentifier).distinct().count());
+        assertEquals(new HashSet<>(asList(Segment.ROOT_SEGMENT.split())), new HashSet<>(openedSegments));
+    }
+
+    @Test
+    void segmentFilteringAtSourceIsRejectedForOtherSequencingPolicies() {
+        EventHandlerInvoker fullConcurrencyInvoker = SimpleEventHandlerInvoker.builder()
+                                                                              .eventHandlers(mockHandler)
+                                                                              .sequencingPolicy(e -> null)
+                                                                              .build();
+        TrackingEventProcessorConfiguration config =
+                TrackingEventProcessorConfiguration.forSingleThreadedProcessing().andSegmentFilteringAtSource(true);
+
+        assertThrows(AxonConfigurationException.class,
+                     () -> initProcessor(config, builder -> builder.eventHandlerInvoker(fullConcurrencyInvoker)));
+    }
+
     private void waitForActiveThreads(int minimalThreadCount) throws InterruptedException {
         while (testSubject.processingStatus().size() < minimalThreadCount) {
             Thread.sleep(10);
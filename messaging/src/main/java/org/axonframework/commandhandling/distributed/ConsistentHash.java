@@ -24,6 +24,7 @@
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 
 /**
  * Component used by command routers to find members capable of handling a given command. Members are selected based on
@@ -215,9 +216,15 @@ public static class ConsistentHashMember implements Member {
         private final Member member;
         private final int segmentCount;
         private final CommandMessageFilter commandFilter;
+        private final long[] positions;
 
-        private ConsistentHashMember(Member member, int segmentCount,
-                                     CommandMessageFilter commandFilter) {
+        ConsistentHashMember(Member member, int segmentCount,
+                             CommandMessageFilter commandFilter) {
+            this(member, segmentCount, commandFilter, null);
+        }
+
+        ConsistentHashMember(Member member, int segmentCount,
+                             CommandMessageFilter commandFilter, long[] positions) {
             if (member instanceof ConsistentHashMember) {
                 this.member = ((ConsistentHashMember) member).member;
             } else {
@@ -225,6 +232,7 @@ private ConsistentHashMember(Member member, int segmentCount,
             }
             this.segmentCount = segmentCount;
             this.commandFilter = commandFilter;
+            this.positions = positions;
         }
 
         @Override
@@ -265,14 +273,35 @@ public CommandMessageFilter getCommandFilter() {
          * hashes and the member is capable of handling the command then it will be selected as a target for the
          * command.
          *
+         * <p>
+         * For a member of a {@link PrimitiveConsistentHash}, the hashes are the hexadecimal representations of its
+         * {@link #positions() positions}, zero padded to 16 digits.
+         *
          * @return the hashes covered by this member
          */
         public Set<String> hashes() {
+            if (positions != null) {
+                return LongStream.of(positions)
+                                 .mapToObj(position -> String.format("%016x", position))
+                                 .collect(Collectors.toSet());
+            }
             return IntStream.range(0, segmentCount)
                             .mapToObj(i -> hash(name() + " #" + i))
                             .collect(Collectors.toSet());
         }
 
+        /**
+         * Returns the positions covered by the member on the ring of a {@link PrimitiveConsistentHash}, in ascending
+         * order. A routing key whose position is larger than the preceding position on the ring and no larger than
+         * one of these positions is routed to this member, if it is capable of handling the command. Members of a
+         * regular {@link ConsistentHash} are not placed on a ring of primitive positions, and return an empty array.
+         *
+         * @return the positions covered by this member on the ring of a {@link PrimitiveConsistentHash}
+         */
+        public long[] positions() {
+            return positions == null ? new long[0] : positions.clone();
+        }
+
         @Override
         public <T> Optional<T> getConnectionEndpoint(Class<T> protocol) {
             return member.getConnectionEndpoint(protocol);
@@ -0,0 +1,299 @@
+/*
+ * Copyright (c) 2010-2022. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.commandhandling.distributed;
+
+import org.axonframework.commandhandling.CommandMessage;
+import org.axonframework.commandhandling.distributed.ConsistentHash.ConsistentHashMember;
+import org.axonframework.common.Assert;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+/**
+ * {@link ConsistentHash} implementation which keeps the positions of the members on the ring as a sorted array of
+ * primitive {@code long} values. Routing keys are hashed to a {@code long} without creating intermediate objects, after
+ * which the responsible member is found through a binary search on the positions. This avoids the digest, hex encoding
+ * and {@link String} comparisons the {@link ConsistentHash} performs for every command it routes.
+ * <p>
+ * Instances are immutable. Registering or removing a member creates a new ring by merging the positions of the changed
+ * member into, or filtering them out of, the positions of the current ring, rather than recalculating all positions.
+ * <p>
+ * As a {@code ConsistentHash}, this ring can be used by any component that routes commands through a {@code
+ * ConsistentHash}, and it is passed to {@link ConsistentHashChangeListener ConsistentHashChangeListeners}. A command
+ * router opts in by starting from a {@code PrimitiveConsistentHash} instead of a {@code ConsistentHash}, since
+ * {@link #with(Member, int, CommandMessageFilter)} and {@link #without(Member)} preserve the implementation.
+ * <p>
+ * Note that this implementation uses a different hash function than the default {@link ConsistentHash}. Hence, the
+ * same routing key is likely to be routed to a different member by both implementations, and all nodes participating
+ * in the same distributed command bus should use the same implementation.
+ *
+ * @since 4.7.0
+ */
+public class PrimitiveConsistentHash extends ConsistentHash {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final long[] positions;
+    private final ConsistentHashMember[] owners;
+    private final Map<String, ConsistentHashMember> members;
+    private final ToLongFunction<String> hashFunction;
+    private final int modCount;
+
+    /**
+     * Returns the position of the given {@code routingKey} on the ring. By default this applies a 64 bit FNV-1a hash
+     * over the characters of the key, followed by a finalization step to spread the bits of short keys over the full
+     * ring. Calculating the position does not allocate any objects.
+     *
+     * @param routingKey the routing key to calculate the position for
+     * @return the position of the input key on the ring
+     */
+    protected static long position(String routingKey) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < routingKey.length(); i++) {
+            hash ^= routingKey.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    /**
+     * Initializes a new {@link PrimitiveConsistentHash}. To register members use
+     * {@link #with(Member, int, CommandMessageFilter)}.
+     */
+    public PrimitiveConsistentHash() {
+        this(PrimitiveConsistentHash::position);
+    }
+
+    /**
+     * Initializes a new {@link PrimitiveConsistentHash} using the given {@code hashFunction} to calculate the position
+     * of routing keys and members on the ring. To register members use
+     * {@link #with(Member, int, CommandMessageFilter)}.
+     *
+     * @param hashFunction the hash function to use to calculate positions on the ring
+     */
+    public PrimitiveConsistentHash(ToLongFunction<String> hashFunction) {
+        this(new long[0], new ConsistentHashMember[0], Collections.emptyMap(), hashFunction, 0);
+    }
+
+    private PrimitiveConsistentHash(long[] positions,
+                                    ConsistentHashMember[] owners,
+                                    Map<String, ConsistentHashMember> members,
+                                    ToLongFunction<String> hashFunction,
+                                    int modCount) {
+        super();
+        this.positions = positions;
+        this.owners = owners;
+        this.members = members;
+        this.hashFunction = hashFunction;
+        this.modCount = modCount;
+    }
+
+    /**
+     * Returns the collection of nodes, represented as {@link ConsistentHashMember}, in the order they would be
+     * considered for the given routing key. Whether a CommandMessage would be forwarded to each of the candidates,
+     * depends on the Command Filter of each node.
+     *
+     * @param routingKey the routing key to select ordering
+     * @return a collection containing each of the nodes, in the order they would be considered
+     */
+    @Override
+    public Collection<ConsistentHashMember> getEligibleMembers(String routingKey) {
+        Set<ConsistentHashMember> eligibleMembers = new LinkedHashSet<>();
+        int start = indexOf(hashFunction.applyAsLong(routingKey));
+        for (int i = 0; i < owners.length && eligibleMembers.size() < members.size(); i++) {
+            eligibleMembers.add(owners[(start + i) % owners.length]);
+        }
+        return eligibleMembers;
+    }
+
+    /**
+     * Returns the member instance to which the given {@code message} should be routed. If no suitable member could be
+     * found an empty Optional is returned.
+     *
+     * @param routingKey     the routing that should be used to select a member
+     * @param commandMessage the command message to find a member for
+     * @return the member that should handle the message or an empty Optional if no suitable member was found
+     */
+    @Override
+    public Optional<Member> getMember(String routingKey, CommandMessage<?> commandMessage) {
+        int start = indexOf(hashFunction.applyAsLong(routingKey));
+        for (int i = 0; i < owners.length; i++) {
+            ConsistentHashMember candidate = owners[(start + i) % owners.length];
+            if (candidate.getCommandFilter().matches(commandMessage)) {
+                return Optional.of(candidate);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Returns the index of the first position on the ring that is equal to or larger than the given {@code hash},
+     * wrapping around to the start of the ring if no such position exists.
+     */
+    private int indexOf(long hash) {
+        int low = 0;
+        int high = positions.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (positions[mid] < hash) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low == positions.length ? 0 : low;
+    }
+
+    /**
+     * Returns the set of members registered with this consistent hash instance.
+     *
+     * @return the members of this consistent hash
+     */
+    @Override
+    public Set<Member> getMembers() {
+        return new HashSet<>(members.values());
+    }
+
+    /**
+     * Registers the given {@code member} with given {@code loadFactor} and {@code commandFilter} if it is not already
+     * contained in the {@link PrimitiveConsistentHash}. It will return the current instance if the addition is a
+     * duplicate and returns a new PrimitiveConsistentHash with updated memberships if it is not.
+     * <p>
+     * The relative loadFactor of the member determines the likelihood of being selected as a destination for a command.
+     *
+     * @param member        the member to register
+     * @param loadFactor    the load factor of the new member
+     * @param commandFilter filter describing which commands can be handled by the given member
+     * @return a new {@link PrimitiveConsistentHash} instance with updated memberships
+     */
+    @Override
+    public PrimitiveConsistentHash with(Member member, int loadFactor, CommandMessageFilter commandFilter) {
+        Assert.notNull(member, () -> "Member may not be null");
+
+        long[] memberPositions = new long[loadFactor];
+        for (int i = 0; i < loadFactor; i++) {
+            memberPositions[i] = hashFunction.applyAsLong(member.name() + " #" + i);
+        }
+        Arrays.sort(memberPositions);
+        ConsistentHashMember newMember = new ConsistentHashMember(member, loadFactor, commandFilter, memberPositions);
+        ConsistentHashMember existingMember = members.get(member.name());
+        if (newMember.equals(existingMember)) {
+            return this;
+        }
+
+        PrimitiveConsistentHash base = existingMember == null ? this : without(existingMember);
+
+        long[] newPositions = new long[base.positions.length + memberPositions.length];
+        ConsistentHashMember[] newOwners = new ConsistentHashMember[newPositions.length];
+        int current = 0;
+        int added = 0;
+        for (int i = 0; i < newPositions.length; i++) {
+            if (added == memberPositions.length
+                    || (current < base.positions.length && base.positions[current] <= memberPositions[added])) {
+                newPositions[i] = base.positions[current];
+                newOwners[i] = base.owners[current++];
+            } else {
+                newPositions[i] = memberPositions[added++];
+                newOwners[i] = newMember;
+            }
+        }
+
+        Map<String, ConsistentHashMember> newMembers = new TreeMap<>(base.members);
+        newMembers.put(member.name(), newMember);
+        return new PrimitiveConsistentHash(newPositions, newOwners, newMembers, hashFunction, modCount + 1);
+    }
+
+    /**
+     * Deregisters the given {@code member} and returns a new {@link PrimitiveConsistentHash} with updated memberships.
+     *
+     * @param member the member to remove from the consistent hash
+     * @return a new {@link PrimitiveConsistentHash} instance with updated memberships
+     */
+    @Override
+    public PrimitiveConsistentHash without(Member member) {
+        Assert.notNull(member, () -> "Member may not be null");
+        ConsistentHashMember existingMember = members.get(member.name());
+        if (existingMember == null) {
+            return this;
+        }
+
+        long[] newPositions = new long[positions.length - existingMember.segmentCount()];
+        ConsistentHashMember[] newOwners = new ConsistentHashMember[newPositions.length];
+        int retained = 0;
+        for (int i = 0; i < positions.length; i++) {
+            if (owners[i] != existingMember) {
+                newPositions[retained] = positions[i];
+                newOwners[retained++] = owners[i];
+            }
+        }
+
+        Map<String, ConsistentHashMember> newMembers = new TreeMap<>(members);
+        newMembers.remove(member.name());
+        return new PrimitiveConsistentHash(newPositions, newOwners, newMembers, hashFunction, modCount + 1);
+    }
+
+    /**
+     * Returns the version of this consistent hash instance. The version is increased by one each time a change is made.
+     *
+     * @return the version of this consistent hash instance
+     */
+    @Override
+    public int version() {
+        return modCount;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        PrimitiveConsistentHash that = (PrimitiveConsistentHash) o;
+        return Arrays.equals(positions, that.positions) && Arrays.equals(owners, that.owners);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(Arrays.hashCode(positions), Arrays.hashCode(owners));
+    }
+
+    @Override
+    public String toString() {
+        String join = this.members.values().stream()
+                                  .map(ConsistentHashMember::toString)
+                                  .collect(Collectors.joining(","));
+        return "PrimitiveConsistentHash [" + join + "]";
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2010-2022. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.common;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+
+/**
+ * A {@link java.util.concurrent.ScheduledExecutorService} that runs every task executed or submitted for immediate
+ * execution on a new thread, and only uses a single thread to run delayed and periodic tasks. Threads are created by
+ * the given {@link ThreadFactory}.
+ * <p>
+ * This suits a {@link VirtualThreadFactory}, as virtual threads are cheap to create and should not be pooled. For
+ * example, the worker executor of a {@link org.axonframework.eventhandling.pooled.PooledStreamingEventProcessor} only
+ * submits tasks, each of which runs on a virtual thread of its own when using this executor.
+ *
+ * @since 4.7.0
+ */
+public class ThreadPerTaskScheduledExecutor extends ScheduledThreadPoolExecutor {
+
+    private final ExecutorService taskExecutor;
+
+    /**
+     * Initializes an executor that creates its threads through the given {@code threadFactory}.
+     *
+     * @param threadFactory the {@link ThreadFactory} creating a thread per task, and the thread running delayed and
+     *                      periodic tasks
+     */
+    public ThreadPerTaskScheduledExecutor(ThreadFactory threadFactory) {
+        super(1, threadFactory);
+        // Without core threads and keep alive time, every thread terminates once its task is done
+        this.taskExecutor = new ThreadPoolExecutor(
+                0, Integer.MAX_VALUE, 0L, TimeUnit.MILLISECONDS, new SynchronousQueue<>(), threadFactory
+        );
+    }
+
+    @Override
+    public void execute(@Nonnull Runnable command) {
+        taskExecutor.execute(command);
+    }
+
+    @Nonnull
+    @Override
+    public Future<?> submit(@Nonnull Runnable task) {
+        return taskExecutor.submit(task);
+    }
+
+    @Nonnull
+    @Override
+    public <T> Future<T> submit(@Nonnull Runnable task, T result) {
+        return taskExecutor.submit(task, result);
+    }
+
+    @Nonnull
+    @Override
+    public <T> Future<T> submit(@Nonnull Callable<T> task) {
+        return taskExecutor.submit(task);
+    }
+
+    @Override
+    public void shutdown() {
+        super.shutdown();
+        taskExecutor.shutdown();
+    }
+
+    @Nonnull
+    @Override
+    public List<Runnable> shutdownNow() {
+        List<Runnable> unstartedTasks = new ArrayList<>(super.shutdownNow());
+        unstartedTasks.addAll(taskExecutor.shutdownNow());
+        return unstartedTasks;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return super.isTerminated() && taskExecutor.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, @Nonnull TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        return super.awaitTermination(timeout, unit)
+                && taskExecutor.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+}
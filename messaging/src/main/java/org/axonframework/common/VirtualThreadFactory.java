@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2010-2022. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.common;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+import javax.annotation.Nonnull;
+
+/**
+ * Thread factory that creates virtual threads, as introduced in Java 21. Virtual threads are cheap to create and to
+ * block, which suits components that spend most of their time waiting for I/O, like event handlers and command
+ * handlers using a database.
+ * <p>
+ * Components that accept a {@link ThreadFactory}, like the
+ * {@link org.axonframework.eventhandling.TrackingEventProcessor} through
+ * {@link org.axonframework.eventhandling.TrackingEventProcessorConfiguration#andThreadFactory(java.util.function.Function)
+ * TrackingEventProcessorConfiguration#andThreadFactory}, run on virtual threads when given this factory. Components
+ * that accept an executor, like the
+ * {@link org.axonframework.eventhandling.pooled.PooledStreamingEventProcessor}, the
+ * {@link org.axonframework.commandhandling.AsynchronousCommandBus} and the
+ * {@link org.axonframework.deadline.SimpleDeadlineManager}, do so when given an executor using this factory. As virtual
+ * threads should not be pooled, prefer an executor creating a thread per task, like
+ * {@code new ThreadPerTaskScheduledExecutor(new VirtualThreadFactory("WorkPackage"))}.
+ * <p>
+ * Use {@link #isSupported()} to verify whether the running JVM supports virtual threads. Constructing this factory on a
+ * JVM without virtual thread support results in an {@link AxonConfigurationException}.
+ *
+ * @since 4.7.0
+ */
+public class VirtualThreadFactory implements ThreadFactory {
+
+    private static final Method OF_VIRTUAL = resolveOfVirtual();
+
+    private final ThreadFactory delegate;
+
+    /**
+     * Initializes a ThreadFactory instance that creates virtual threads named after the given {@code namePrefix},
+     * followed by a dash and a sequence number.
+     *
+     * @param namePrefix the prefix of the names of the threads to create
+     * @throws AxonConfigurationException when the running JVM does not support virtual threads
+     */
+    public VirtualThreadFactory(String namePrefix) {
+        if (!isSupported()) {
+            throw new AxonConfigurationException(
+                    "Virtual threads are not supported by this JVM. They require Java 21 or higher."
+            );
+        }
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = OF_VIRTUAL.invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, namePrefix + "-", 0L);
+            this.delegate = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            throw new AxonConfigurationException("Unable to create a factory for virtual threads", e);
+        }
+    }
+
+    /**
+     * Indicates whether the running JVM supports virtual threads.
+     *
+     * @return {@code true} if the running JVM supports virtual threads, {@code false} otherwise
+     */
+    public static boolean isSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    @Override
+    public Thread newThread(@Nonnull Runnable r) {
+        return delegate.newThread(r);
+    }
+
+    private static Method resolveOfVirtual() {
+        try {
+            Method ofVirtual = Thread.class.getMethod("ofVirtual");
+            // On Java 19 and 20, virtual threads are a preview feature that may be disabled
+            ofVirtual.invoke(null);
+            return ofVirtual;
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            return null;
+        }
+    }
+}
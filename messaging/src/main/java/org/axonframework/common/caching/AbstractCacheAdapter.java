@@ -20,6 +20,7 @@
 
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
 
 /**
  * Abstract implementation of the Cache interface which makes it easier to implement Adapters.
@@ -32,6 +33,7 @@
 
     private final ConcurrentMap<EntryListener, L> registeredAdapters =
             new ConcurrentHashMap<>();
+    private final InFlightLoads inFlightLoads = new InFlightLoads();
 
     /**
      * Creates an adapter for the given {@code cacheEntryListener}. The adapter must forward all incoming
@@ -66,4 +68,9 @@ public Registration registerCacheEntryListener(EntryListener entryListener) {
      * @return a handle to unregister the listener
      */
     protected abstract Registration doRegisterListener(L listenerAdapter);
+
+    @Override
+    public <V> V computeIfAbsent(Object key, Supplier<V> valueSupplier) {
+        return inFlightLoads.computeIfAbsent(this, key, valueSupplier);
+    }
 }
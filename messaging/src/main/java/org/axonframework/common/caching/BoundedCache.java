@@ -0,0 +1,589 @@
+/*
+ * Copyright (c) 2010-2022. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.common.caching;
+
+import org.axonframework.common.Assert;
+import org.axonframework.common.AxonConfigurationException;
+import org.axonframework.common.Registration;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.function.ToLongBiFunction;
+import java.util.function.UnaryOperator;
+
+import static org.axonframework.common.BuilderUtils.assertNonNull;
+import static org.axonframework.common.BuilderUtils.assertStrictPositive;
+
+/**
+ * {@link Cache} implementation that holds a bounded number of entries, or entries up to a bounded total weight, and
+ * decides which entries to keep using a W-TinyLFU policy.
+ * <p>
+ * New entries enter a small admission window, ordered by recency of use. Entries leaving the window compete for a place
+ * in the main space with the entry that would otherwise be evicted from it, based on an estimate of how often both keys
+ * were accessed recently. The main space is split in a probation and a protected segment, where entries are promoted to
+ * the protected segment when they are read while on probation. This keeps frequently used entries, like the aggregates
+ * most commands target, cached while a burst of one-off reads passes through the window.
+ * <p>
+ * Reads do not acquire a lock. They are recorded in striped buffers, which are applied to the eviction policy in
+ * batches, either by a writing thread or by a reading thread that finds its buffer filling up. Writes are serialized
+ * through a single lock. Evicted entries are reported to registered {@link EntryListener EntryListeners} as expired.
+ * The cache keeps count of hits, misses and evictions, which are exposed through {@link #hitCount()},
+ * {@link #missCount()} and {@link #evictionCount()}.
+ *
+ * @since 4.7.0
+ */
+public class BoundedCache implements Cache {
+
+    private static final int READ_BUFFER_SIZE = 16;
+    private static final int READ_BUFFER_MASK = READ_BUFFER_SIZE - 1;
+    private static final int READ_BUFFER_DRAIN_THRESHOLD = READ_BUFFER_SIZE / 2;
+    private static final int READ_BUFFER_STRIPES =
+            Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1) << 1;
+
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+
+    private final ConcurrentMap<Object, Node> entries = new ConcurrentHashMap<>();
+    private final Set<EntryListener> listeners = new CopyOnWriteArraySet<>();
+    private final ReadBuffer[] readBuffers = new ReadBuffer[READ_BUFFER_STRIPES];
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final ToLongBiFunction<Object, Object> weigher;
+    private final long maximumWeight;
+    private final long windowMaximum;
+    private final long protectedMaximum;
+
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final InFlightLoads inFlightLoads = new InFlightLoads();
+    private final FrequencySketch sketch;
+    private final AccessOrder window = new AccessOrder();
+    private final AccessOrder probation = new AccessOrder();
+    private final AccessOrder protectedSegment = new AccessOrder();
+    private long windowWeight;
+    private long protectedWeight;
+    private long totalWeight;
+
+    /**
+     * Instantiate a {@link BoundedCache} based on the fields contained in the {@link Builder}.
+     * <p>
+     * Will assert that the {@code maximumSize} is strictly positive. If not, an {@link AxonConfigurationException}
+     * will be thrown.
+     *
+     * @param builder the {@link Builder} used to instantiate a {@link BoundedCache} instance
+     */
+    protected BoundedCache(Builder builder) {
+        builder.validate();
+        this.maximumWeight = builder.maximumSize;
+        this.weigher = builder.weigher;
+        this.windowMaximum = Math.max(1, maximumWeight / 100);
+        this.protectedMaximum = (maximumWeight - windowMaximum) * 4 / 5;
+        this.sketch = new FrequencySketch(Math.min(maximumWeight, 1 << 20));
+        for (int i = 0; i < readBuffers.length; i++) {
+            readBuffers[i] = new ReadBuffer();
+        }
+    }
+
+    /**
+     * Instantiate a Builder to be able to create a {@link BoundedCache}.
+     * <p>
+     * Each entry is given a weight of {@code 1} by default, making the {@code maximumSize} the maximum number of
+     * entries. The {@code maximumSize} is a <b>hard requirement</b> and as such should be provided.
+     *
+     * @return a Builder to be able to create a {@link BoundedCache}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public Registration registerCacheEntryListener(EntryListener cacheEntryListener) {
+        listeners.add(cacheEntryListener);
+        return () -> listeners.remove(cacheEntryListener);
+    }
+
+    @Override
+    public <K, V> V get(K key) {
+        Assert.nonNull(key, () -> "Key may not be null");
+        Node node = entries.get(key);
+        if (node == null) {
+            misses.increment();
+            return null;
+        }
+        //noinspection unchecked
+        V value = (V) node.value;
+        hits.increment();
+        recordRead(node);
+        for (EntryListener listener : listeners) {
+            listener.onEntryRead(key, value);
+        }
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        Assert.nonNull(key, () -> "Key may not be null");
+        if (value == null) {
+            throw new IllegalArgumentException("Null values not supported");
+        }
+        boolean created;
+        List<Object> evictedKeys;
+        evictionLock.lock();
+        try {
+            drainReadBuffers();
+            Node existing = entries.get(key);
+            created = existing == null;
+            if (created) {
+                add(key, value);
+            } else {
+                update(existing, value);
+            }
+            evictedKeys = evict();
+        } finally {
+            evictionLock.unlock();
+        }
+        for (EntryListener listener : listeners) {
+            if (created) {
+                listener.onEntryCreated(key, value);
+            } else {
+                listener.onEntryUpdated(key, value);
+            }
+        }
+        notifyEvicted(evictedKeys);
+    }
+
+    @Override
+    public boolean putIfAbsent(Object key, Object value) {
+        Assert.nonNull(key, () -> "Key may not be null");
+        if (value == null) {
+            throw new IllegalArgumentException("Null values not supported");
+        }
+        List<Object> evictedKeys;
+        evictionLock.lock();
+        try {
+            if (entries.containsKey(key)) {
+                return false;
+            }
+            drainReadBuffers();
+            add(key, value);
+            evictedKeys = evict();
+        } finally {
+            evictionLock.unlock();
+        }
+        for (EntryListener listener : listeners) {
+            listener.onEntryCreated(key, value);
+        }
+        notifyEvicted(evictedKeys);
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object key) {
+        evictionLock.lock();
+        try {
+            Node node = entries.remove(key);
+            if (node == null) {
+                return false;
+            }
+            unlink(node);
+        } finally {
+            evictionLock.unlock();
+        }
+        for (EntryListener listener : listeners) {
+            listener.onEntryRemoved(key);
+        }
+        return true;
+    }
+
+    @Override
+    public void removeAll() {
+        new HashSet<>(entries.keySet()).forEach(this::remove);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        Assert.nonNull(key, () -> "Key may not be null");
+        return entries.containsKey(key);
+    }
+
+    @Override
+    public <V> void computeIfPresent(Object key, UnaryOperator<V> update) {
+        Object updatedValue;
+        List<Object> evictedKeys;
+        evictionLock.lock();
+        try {
+            Node node = entries.get(key);
+            if (node == null) {
+                return;
+            }
+            //noinspection unchecked
+            updatedValue = update.apply((V) node.value);
+            if (updatedValue == null) {
+                entries.remove(key, node);
+                unlink(node);
+                evictedKeys = Collections.emptyList();
+            } else {
+                drainReadBuffers();
+                update(node, updatedValue);
+                evictedKeys = evict();
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+        for (EntryListener listener : listeners) {
+            if (updatedValue == null) {
+                listener.onEntryRemoved(key);
+            } else {
+                listener.onEntryUpdated(key, updatedValue);
+            }
+        }
+        notifyEvicted(evictedKeys);
+    }
+
+    @Override
+    public <V> V computeIfAbsent(Object key, Supplier<V> valueSupplier) {
+        Assert.nonNull(key, () -> "Key may not be null");
+        return inFlightLoads.computeIfAbsent(this, key, valueSupplier);
+    }
+
+    /**
+     * Returns the number of entries currently held by this cache.
+     *
+     * @return the number of entries currently held by this cache
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the number of times {@link #get(Object)} found an entry for the requested key.
+     *
+     * @return the number of cache hits
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of times {@link #get(Object)} did not find an entry for the requested key.
+     *
+     * @return the number of cache misses
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of entries that have been evicted to keep this cache within its bounds.
+     *
+     * @return the number of evicted entries
+     */
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    private void recordRead(Node node) {
+        ReadBuffer buffer = readBuffers[(int) Thread.currentThread().getId() & (READ_BUFFER_STRIPES - 1)];
+        if (buffer.offer(node) && evictionLock.tryLock()) {
+            try {
+                drainReadBuffers();
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    private void drainReadBuffers() {
+        for (ReadBuffer buffer : readBuffers) {
+            buffer.drain(this);
+        }
+    }
+
+    private void add(Object key, Object value) {
+        Node node = new Node(key, value, weigh(key, value));
+        entries.put(key, node);
+        node.segment = WINDOW;
+        window.addLast(node);
+        windowWeight += node.weight;
+        totalWeight += node.weight;
+        sketch.increment(key);
+    }
+
+    private void update(Node node, Object value) {
+        long weight = weigh(node.key, value);
+        long difference = weight - node.weight;
+        node.value = value;
+        node.weight = weight;
+        totalWeight += difference;
+        if (node.segment == WINDOW) {
+            windowWeight += difference;
+        } else if (node.segment == PROTECTED) {
+            protectedWeight += difference;
+        }
+        onAccess(node);
+    }
+
+    private long weigh(Object key, Object value) {
+        return weigher == null ? 1 : weigher.applyAsLong(key, value);
+    }
+
+    private void onAccess(Node node) {
+        if (node.removed) {
+            return;
+        }
+        sketch.increment(node.key);
+        if (node.segment == WINDOW) {
+            window.moveToEnd(node);
+        } else if (node.segment == PROTECTED) {
+            protectedSegment.moveToEnd(node);
+        } else {
+            probation.remove(node);
+            node.segment = PROTECTED;
+            protectedSegment.addLast(node);
+            protectedWeight += node.weight;
+            while (protectedWeight > protectedMaximum && protectedSegment.first() != node) {
+                Node demoted = protectedSegment.first();
+                protectedSegment.remove(demoted);
+                protectedWeight -= demoted.weight;
+                demoted.segment = PROBATION;
+                probation.addLast(demoted);
+            }
+        }
+    }
+
+    private List<Object> evict() {
+        while (windowWeight > windowMaximum && window.first() != null) {
+            Node candidate = window.first();
+            window.remove(candidate);
+            windowWeight -= candidate.weight;
+            candidate.segment = PROBATION;
+            probation.addLast(candidate);
+        }
+        List<Object> evictedKeys = Collections.emptyList();
+        while (totalWeight > maximumWeight) {
+            Node victim = probation.first();
+            Node candidate = probation.last();
+            Node evicted;
+            if (victim == null) {
+                evicted = protectedSegment.first() != null ? protectedSegment.first() : window.first();
+            } else if (victim == candidate) {
+                evicted = victim;
+            } else {
+                evicted = sketch.frequency(candidate.key) > sketch.frequency(victim.key) ? victim : candidate;
+            }
+            entries.remove(evicted.key, evicted);
+            unlink(evicted);
+            evictions.increment();
+            if (evictedKeys.isEmpty()) {
+                evictedKeys = new ArrayList<>();
+            }
+            evictedKeys.add(evicted.key);
+        }
+        return evictedKeys;
+    }
+
+    private void unlink(Node node) {
+        if (node.segment == WINDOW) {
+            window.remove(node);
+            windowWeight -= node.weight;
+        } else if (node.segment == PROTECTED) {
+            protectedSegment.remove(node);
+            protectedWeight -= node.weight;
+        } else {
+            probation.remove(node);
+        }
+        totalWeight -= node.weight;
+        node.removed = true;
+    }
+
+    private void notifyEvicted(List<Object> evictedKeys) {
+        for (Object evictedKey : evictedKeys) {
+            for (EntryListener listener : listeners) {
+                listener.onEntryExpired(evictedKey);
+            }
+        }
+    }
+
+    /**
+     * Builder class to instantiate a {@link BoundedCache}.
+     * <p>
+     * Each entry is given a weight of {@code 1} by default, making the {@code maximumSize} the maximum number of
+     * entries. The {@code maximumSize} is a <b>hard requirement</b> and as such should be provided.
+     */
+    public static class Builder {
+
+        private long maximumSize = -1;
+        private ToLongBiFunction<Object, Object> weigher;
+
+        /**
+         * Sets the maximum size of the cache. Without a {@link #weigher(ToLongBiFunction) weigher}, this is the
+         * maximum number of entries. With a weigher, it is the maximum total weight of all entries.
+         *
+         * @param maximumSize the maximum number of entries, or the maximum total weight of the entries
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder maximumSize(long maximumSize) {
+            assertStrictPositive(maximumSize, "The maximum size should be a strictly positive number");
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        /**
+         * Sets the function calculating the weight of an entry from its key and value, after which the
+         * {@link #maximumSize(long) maximumSize} bounds the total weight of the cached entries. The weight of an entry
+         * is calculated whenever its value is stored. Defaults to a weight of {@code 1} for every entry.
+         *
+         * @param weigher the function calculating the weight of an entry from its key and value
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder weigher(ToLongBiFunction<Object, Object> weigher) {
+            assertNonNull(weigher, "The weigher may not be null");
+            this.weigher = weigher;
+            return this;
+        }
+
+        /**
+         * Initializes a {@link BoundedCache} as specified through this Builder.
+         *
+         * @return a {@link BoundedCache} as specified through this Builder
+         */
+        public BoundedCache build() {
+            return new BoundedCache(this);
+        }
+
+        /**
+         * Validates whether the fields contained in this Builder are set accordingly.
+         *
+         * @throws AxonConfigurationException if one field is asserted to be incorrect according to the Builder's
+         *                                    specifications
+         */
+        protected void validate() throws AxonConfigurationException {
+            assertStrictPositive(maximumSize, "The maximum size is a hard requirement and should be provided");
+        }
+    }
+
+    private static final class Node {
+
+        private final Object key;
+        private volatile Object value;
+        private long weight;
+        private int segment;
+        private boolean removed;
+        private Node previous;
+        private Node next;
+
+        private Node(Object key, Object value, long weight) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * Doubly linked list of nodes, ordered from least to most recently used. Only accessed while holding the eviction
+     * lock.
+     */
+    private static final class AccessOrder {
+
+        private final Node head = new Node(null, null, 0);
+
+        private AccessOrder() {
+            head.previous = head;
+            head.next = head;
+        }
+
+        private Node first() {
+            return head.next == head ? null : head.next;
+        }
+
+        private Node last() {
+            return head.previous == head ? null : head.previous;
+        }
+
+        private void addLast(Node node) {
+            node.previous = head.previous;
+            node.next = head;
+            head.previous.next = node;
+            head.previous = node;
+        }
+
+        private void remove(Node node) {
+            node.previous.next = node.next;
+            node.next.previous = node.previous;
+            node.previous = null;
+            node.next = null;
+        }
+
+        private void moveToEnd(Node node) {
+            remove(node);
+            addLast(node);
+        }
+    }
+
+    /**
+     * Lossy ring buffer recording reads of a group of threads. Reads are dropped when the buffer is full, as the policy
+     * only needs an approximation of the access pattern.
+     */
+    private static final class ReadBuffer {
+
+        private final AtomicReferenceArray<Node> buffer = new AtomicReferenceArray<>(READ_BUFFER_SIZE);
+        private final AtomicLong writeCounter = new AtomicLong();
+        private volatile long readCounter;
+
+        /**
+         * Records a read of the given {@code node}, returning {@code true} if the buffer should be drained.
+         */
+        private boolean offer(Node node) {
+            long writes = writeCounter.get();
+            long pending = writes - readCounter;
+            if (pending >= READ_BUFFER_SIZE) {
+                return true;
+            }
+            if (writeCounter.compareAndSet(writes, writes + 1)) {
+                buffer.lazySet((int) (writes & READ_BUFFER_MASK), node);
+            }
+            return pending + 1 >= READ_BUFFER_DRAIN_THRESHOLD;
+        }
+
+        private void drain(BoundedCache cache) {
+            long reads = readCounter;
+            long writes = writeCounter.get();
+            for (; reads < writes; reads++) {
+                int index = (int) (reads & READ_BUFFER_MASK);
+                Node node = buffer.get(index);
+                if (node == null) {
+                    break;
+                }
+                buffer.lazySet(index, null);
+                cache.onAccess(node);
+            }
+            readCounter = reads;
+        }
+    }
+}
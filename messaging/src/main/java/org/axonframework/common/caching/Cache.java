@@ -18,6 +18,7 @@
 
 import org.axonframework.common.Registration;
 
+import java.util.function.Supplier;
 import java.util.function.UnaryOperator;
 
 /**
@@ -102,6 +103,35 @@ default <V> void computeIfPresent(Object key, UnaryOperator<V> update) {
         throw new UnsupportedOperationException("Cache#computeIfPresent is currently unsupported by this version");
     }
 
+    /**
+     * Returns the value stored under the given {@code key}, or stores and returns the value provided by the given
+     * {@code valueSupplier} if no value is stored yet. If the {@code valueSupplier} returns {@code null}, nothing is
+     * stored and {@code null} is returned.
+     * <p>
+     * Implementations provided by Axon only invoke the {@code valueSupplier} once when several threads concurrently
+     * compute the value for the same absent {@code key}. The other threads wait for that invocation to complete and
+     * share its result, or the exception it threw. This default implementation does not offer that guarantee, as it
+     * is composed of {@link #get(Object)} and {@link #putIfAbsent(Object, Object)}. When concurrent callers both load
+     * the value, the value that is stored first is returned to both of them.
+     *
+     * @param key           The key to return the value of.
+     * @param valueSupplier The supplier of the value to store if no value is stored under the {@code key} yet.
+     * @param <V>           The type of the value.
+     * @return the value stored under the given {@code key}, or the value provided by the {@code valueSupplier}
+     */
+    default <V> V computeIfAbsent(Object key, Supplier<V> valueSupplier) {
+        V cached = get(key);
+        if (cached != null) {
+            return cached;
+        }
+        V value = valueSupplier.get();
+        if (value == null || putIfAbsent(key, value)) {
+            return value;
+        }
+        V current = get(key);
+        return current != null ? current : value;
+    }
+
     /**
      * Interface describing callback methods, which are invoked when changes are made in the underlying cache.
      */
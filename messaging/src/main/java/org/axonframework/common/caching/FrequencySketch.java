@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2010-2022. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.common.caching;
+
+/**
+ * Probabilistic estimate of how often keys have been accessed recently, used by the {@link BoundedCache} to decide
+ * whether a new entry is worth admitting at the expense of an existing one. The sketch is a count-min sketch with four
+ * rows of 4 bit counters, packed sixteen to a {@code long}. Once the number of recorded accesses reaches ten times the
+ * capacity of the cache, all counters are halved, so that the estimate favours recent popularity.
+ * <p>
+ * This class is not thread safe. The {@link BoundedCache} only accesses it while holding its eviction lock.
+ *
+ * @since 4.7.0
+ */
+final class FrequencySketch {
+
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+    };
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final int MAX_COUNT = 15;
+
+    private final long[] table;
+    private final int tableMask;
+    private final int sampleSize;
+    private int additions;
+
+    /**
+     * Initializes a sketch suitable to estimate access frequencies for a cache holding about the given
+     * {@code capacity} entries.
+     *
+     * @param capacity the expected maximum number of entries in the cache
+     */
+    FrequencySketch(long capacity) {
+        int tableSize = Integer.highestOneBit((int) Math.min(Math.max(capacity, 8), 1 << 20) - 1) << 1;
+        this.table = new long[tableSize];
+        this.tableMask = tableSize - 1;
+        this.sampleSize = (int) Math.min(10L * Math.max(capacity, 8), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the estimated number of recent accesses of the given {@code key}, with a maximum of 15.
+     *
+     * @param key the key to estimate the access frequency of
+     * @return the estimated number of recent accesses of the given {@code key}
+     */
+    int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int frequency = MAX_COUNT;
+        for (int row = 0; row < SEEDS.length; row++) {
+            long position = position(hash, row);
+            int offset = offset(position);
+            frequency = Math.min(frequency, (int) ((table[index(position)] >>> offset) & MAX_COUNT));
+        }
+        return frequency;
+    }
+
+    /**
+     * Records an access of the given {@code key}.
+     *
+     * @param key the key that was accessed
+     */
+    void increment(Object key) {
+        int hash = spread(key.hashCode());
+        boolean added = false;
+        for (int row = 0; row < SEEDS.length; row++) {
+            long position = position(hash, row);
+            int index = index(position);
+            int offset = offset(position);
+            if (((table[index] >>> offset) & MAX_COUNT) != MAX_COUNT) {
+                table[index] += 1L << offset;
+                added = true;
+            }
+        }
+        if (added && ++additions == sampleSize) {
+            reset();
+        }
+    }
+
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions /= 2;
+    }
+
+    private static int spread(int hash) {
+        hash ^= hash >>> 17;
+        hash *= 0xed5ad4bb;
+        hash ^= hash >>> 11;
+        hash *= 0xac4c1b51;
+        hash ^= hash >>> 15;
+        return hash;
+    }
+
+    private static long position(int hash, int row) {
+        long position = (hash + SEEDS[row]) * SEEDS[row];
+        return position + (position >>> 32);
+    }
+
+    private int index(long position) {
+        return (int) position & tableMask;
+    }
+
+    private static int offset(long position) {
+        return (int) ((position >>> 40) & 15) << 2;
+    }
+}
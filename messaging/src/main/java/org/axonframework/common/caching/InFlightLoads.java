@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2010-2022. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.common.caching;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Keeps track of the values a {@link Cache} is loading, so that concurrent callers of
+ * {@link Cache#computeIfAbsent(Object, Supplier)} for the same key wait for a single load, rather than each loading
+ * the value themselves.
+ *
+ * @since 4.7.0
+ */
+final class InFlightLoads {
+
+    private final ConcurrentMap<Object, CompletableFuture<Object>> loads = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the value cached under the given {@code key} in the given {@code cache}, loading it through the given
+     * {@code valueSupplier} if it is absent. Only one caller at a time loads the value for a key. Other callers wait
+     * for its outcome, which is either the loaded value or the exception thrown by the {@code valueSupplier}. A
+     * {@code null} value is returned to all waiting callers, but not stored in the cache.
+     *
+     * @param cache         the cache to look up and store the value in
+     * @param key           the key of the value
+     * @param valueSupplier the supplier loading the value if it is absent
+     * @param <V>           the type of value
+     * @return the cached or loaded value, or {@code null} if the {@code valueSupplier} returned {@code null}
+     */
+    <V> V computeIfAbsent(Cache cache, Object key, Supplier<V> valueSupplier) {
+        V cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        CompletableFuture<Object> load = new CompletableFuture<>();
+        CompletableFuture<Object> inFlight = loads.putIfAbsent(key, load);
+        if (inFlight != null) {
+            return await(inFlight);
+        }
+        try {
+            // another caller may have completed a load between our lookup and registering this one
+            V value = cache.containsKey(key) ? cache.get(key) : null;
+            if (value == null) {
+                value = valueSupplier.get();
+                if (value != null && !cache.putIfAbsent(key, value)) {
+                    V current = cache.get(key);
+                    value = current != null ? current : value;
+                }
+            }
+            load.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            loads.remove(key, load);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> V await(CompletableFuture<Object> load) {
+        try {
+            return (V) load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            } else if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
@@ -18,6 +18,7 @@
 
 import org.axonframework.common.Registration;
 
+import java.util.function.Supplier;
 import java.util.function.UnaryOperator;
 
 /**
@@ -75,4 +76,9 @@ public Registration registerCacheEntryListener(EntryListener cacheEntryListener)
     public <V> void computeIfPresent(Object key, UnaryOperator<V> update) {
         // Do nothing
     }
+
+    @Override
+    public <V> V computeIfAbsent(Object key, Supplier<V> valueSupplier) {
+        return valueSupplier.get();
+    }
 }
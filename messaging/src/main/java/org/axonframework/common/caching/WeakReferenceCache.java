@@ -27,6 +27,7 @@
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.function.Supplier;
 import java.util.function.UnaryOperator;
 
 /**
@@ -50,6 +51,7 @@ public class WeakReferenceCache implements Cache {
     private final ConcurrentMap<Object, Entry> cache = new ConcurrentHashMap<>();
     private final ReferenceQueue<Object> referenceQueue = new ReferenceQueue<>();
     private final Set<EntryListener> adapters = new CopyOnWriteArraySet<>();
+    private final InFlightLoads inFlightLoads = new InFlightLoads();
 
     @Override
     public Registration registerCacheEntryListener(EntryListener entryListener) {
@@ -154,6 +156,11 @@ public <V> void computeIfPresent(Object key, UnaryOperator<V> update) {
         cache.computeIfPresent(key, (k, v) -> new Entry(k, update.apply((V) v.get())));
     }
 
+    @Override
+    public <V> V computeIfAbsent(Object key, Supplier<V> valueSupplier) {
+        return inFlightLoads.computeIfAbsent(this, key, valueSupplier);
+    }
+
     private class Entry extends WeakReference<Object> {
 
         private final Object key;
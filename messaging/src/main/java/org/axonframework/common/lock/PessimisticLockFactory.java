@@ -42,6 +42,9 @@
  * has been released as many times as it was obtained.
  * <p/>
  * This lock can be used to ensure thread safe access to a number of objects, such as Aggregates and Sagas.
+ * <p/>
+ * The locks are backed by a {@link ReentrantLock} rather than a monitor. Hence, a virtual thread waiting for or holding a
+ * lock while blocking on I/O does not keep its carrier thread occupied.
  *
  * @author Allard Buijze
  * @author Michael Bischoff
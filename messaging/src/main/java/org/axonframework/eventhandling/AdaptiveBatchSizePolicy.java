@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2010-2022. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventhandling;
+
+import org.axonframework.common.AxonConfigurationException;
+
+import static org.axonframework.common.BuilderUtils.assertStrictPositive;
+import static org.axonframework.common.BuilderUtils.assertThat;
+
+/**
+ * Policy adapting the number of events a {@link StreamingEventProcessor} handles in a single batch to the observed
+ * processing conditions, rather than using a static batch size. Every segment of a processor adapts its batch size
+ * independently, through the {@link Controller} created by {@link #createController()}.
+ * <p>
+ * After each batch, the batch size is adjusted based on the time it took to process and commit the batch and on
+ * whether more events are waiting to be processed:
+ * <ul>
+ *     <li>When the batch took longer than the {@code latencyTarget}, the batch size shrinks proportionally, by at most
+ *     half.</li>
+ *     <li>When the batch was full, more events are waiting and the batch was processed within the
+ *     {@code latencyTarget}, the batch size grows towards the size expected to meet the {@code latencyTarget}, by at
+ *     most doubling it. This is typically the case while replaying or catching up.</li>
+ *     <li>When no events are waiting, as is the case at the head of the stream, the batch size is halved. This keeps
+ *     batches small for low latency processing of new events.</li>
+ * </ul>
+ * The batch size always stays within the {@code minBatchSize} and {@code maxBatchSize}. The current batch size of a
+ * segment is reported through {@link EventTrackerStatus#getBatchSize()}.
+ *
+ * @since 4.7.0
+ */
+public class AdaptiveBatchSizePolicy {
+
+    private final int minBatchSize;
+    private final int maxBatchSize;
+    private final long latencyTarget;
+
+    /**
+     * Instantiate an {@link AdaptiveBatchSizePolicy} based on the fields contained in the {@link Builder}.
+     * <p>
+     * Will assert that the {@code minBatchSize} does not exceed the {@code maxBatchSize}. If it does, an
+     * {@link AxonConfigurationException} is thrown.
+     *
+     * @param builder the {@link Builder} used to instantiate an {@link AdaptiveBatchSizePolicy} instance
+     */
+    protected AdaptiveBatchSizePolicy(Builder builder) {
+        builder.validate();
+        this.minBatchSize = builder.minBatchSize;
+        this.maxBatchSize = builder.maxBatchSize;
+        this.latencyTarget = builder.latencyTarget;
+    }
+
+    /**
+     * Instantiate a Builder to be able to create an {@link AdaptiveBatchSizePolicy}.
+     * <p>
+     * The {@code minBatchSize} defaults to {@code 1}, the {@code maxBatchSize} to {@code 1024} and the
+     * {@code latencyTarget} to {@code 200} milliseconds.
+     *
+     * @return a Builder to be able to create an {@link AdaptiveBatchSizePolicy}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Creates a {@link Controller} keeping track of the batch size of a single segment. Segments start processing with
+     * the {@code minBatchSize}.
+     *
+     * @return a {@link Controller} keeping track of the batch size of a single segment
+     */
+    public Controller createController() {
+        return new Controller();
+    }
+
+    /**
+     * Returns the minimum number of events processed in a single batch.
+     *
+     * @return the minimum number of events processed in a single batch
+     */
+    public int minBatchSize() {
+        return minBatchSize;
+    }
+
+    /**
+     * Returns the maximum number of events processed in a single batch.
+     *
+     * @return the maximum number of events processed in a single batch
+     */
+    public int maxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * Returns the time in milliseconds processing and committing a single batch should take at most.
+     *
+     * @return the time in milliseconds processing and committing a single batch should take at most
+     */
+    public long latencyTarget() {
+        return latencyTarget;
+    }
+
+    /**
+     * Keeps track of the batch size of a single segment, adapting it after every processed batch. A controller is
+     * updated by the thread processing the segment only, while its {@link #batchSize()} may be read by any thread.
+     */
+    public class Controller {
+
+        private volatile int batchSize = minBatchSize;
+
+        private Controller() {
+        }
+
+        /**
+         * Returns the number of events to process in the next batch.
+         *
+         * @return the number of events to process in the next batch
+         */
+        public int batchSize() {
+            return batchSize;
+        }
+
+        /**
+         * Adapts the batch size to the outcome of processing a batch.
+         *
+         * @param processedEvents the number of events in the processed batch
+         * @param latencyMillis   the time in milliseconds it took to process and commit the batch
+         * @param backlogged      {@code true} if more events were waiting to be processed once the batch completed
+         */
+        public void onBatchProcessed(int processedEvents, long latencyMillis, boolean backlogged) {
+            int current = batchSize;
+            long next = current;
+            if (latencyMillis > latencyTarget) {
+                next = Math.max(current / 2, current * latencyTarget / latencyMillis);
+            } else if (!backlogged) {
+                next = current / 2;
+            } else if (processedEvents >= current) {
+                long doubled = 2L * current;
+                next = latencyMillis == 0 ? doubled : Math.min(doubled, current * latencyTarget / latencyMillis);
+            }
+            batchSize = (int) Math.max(minBatchSize, Math.min(maxBatchSize, next));
+        }
+    }
+
+    /**
+     * Builder class to instantiate an {@link AdaptiveBatchSizePolicy}.
+     * <p>
+     * The {@code minBatchSize} defaults to {@code 1}, the {@code maxBatchSize} to {@code 1024} and the
+     * {@code latencyTarget} to {@code 200} milliseconds.
+     */
+    public static class Builder {
+
+        private int minBatchSize = 1;
+        private int maxBatchSize = 1024;
+        private long latencyTarget = 200;
+
+        /**
+         * Sets the minimum number of events processed in a single batch. Defaults to {@code 1}.
+         *
+         * @param minBatchSize the minimum number of events processed in a single batch
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder minBatchSize(int minBatchSize) {
+            assertStrictPositive(minBatchSize, "The minimum batch size should be a higher valuer than zero");
+            this.minBatchSize = minBatchSize;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of events processed in a single batch. Defaults to {@code 1024}.
+         *
+         * @param maxBatchSize the maximum number of events processed in a single batch
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder maxBatchSize(int maxBatchSize) {
+            assertStrictPositive(maxBatchSize, "The maximum batch size should be a higher valuer than zero");
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        /**
+         * Sets the time in milliseconds processing and committing a single batch should take at most. Defaults to
+         * {@code 200} milliseconds.
+         *
+         * @param latencyTarget the time in milliseconds processing and committing a single batch should take at most
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder latencyTarget(long latencyTarget) {
+            assertStrictPositive(latencyTarget, "The latency target should be a higher valuer than zero");
+            this.latencyTarget = latencyTarget;
+            return this;
+        }
+
+        /**
+         * Initializes an {@link AdaptiveBatchSizePolicy} as specified through this Builder.
+         *
+         * @return an {@link AdaptiveBatchSizePolicy} as specified through this Builder
+         */
+        public AdaptiveBatchSizePolicy build() {
+            return new AdaptiveBatchSizePolicy(this);
+        }
+
+        /**
+         * Validates whether the fields contained in this Builder are set accordingly.
+         *
+         * @throws AxonConfigurationException if one field is asserted to be incorrect according to the Builder's
+         *                                    specifications
+         */
+        protected void validate() throws AxonConfigurationException {
+            assertThat(minBatchSize, min -> min <= maxBatchSize,
+                       "The minimum batch size should not exceed the maximum batch size");
+        }
+    }
+}
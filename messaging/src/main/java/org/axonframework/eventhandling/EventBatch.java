@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2010-2022. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventhandling;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation indicating that a parameter on an {@link EventHandler} method should be injected with all the events of
+ * the processed batch the handler is able to handle, rather than a single event. The parameter type must be assignable
+ * from {@link java.util.List}. The element type of the list defines what is injected:
+ * <ul>
+ *     <li>A payload type, like {@code @EventBatch List<OrderPlacedEvent> events}, injects the payloads of the events.
+ *     The element type is used as the payload type the handler handles.</li>
+ *     <li>A message type, like {@code @EventBatch List<EventMessage<OrderPlacedEvent>> events}, injects the events
+ *     themselves. The generic parameter of the message type is used as the payload type the handler handles.</li>
+ * </ul>
+ * A handler with a batch parameter is invoked once per batch, when the {@link
+ * org.axonframework.messaging.unitofwork.UnitOfWork} processing the batch is being committed. This allows a projection
+ * to, for example, write all changes of a batch to its database in a single statement, instead of once per event.
+ * Other parameters of the handler are resolved based on the last event of the batch. When there is no active unit of
+ * work, the handler is invoked for every event, with a batch consisting of that event only.
+ * <p>
+ * As the handler is invoked during the commit of the unit of work, exceptions thrown by the handler roll back the
+ * entire batch and are reported to the {@link ErrorHandler} of the processor, instead of the {@link
+ * ListenerInvocationErrorHandler}. Events that are not handled because of {@link AllowReplay}, {@link DisallowReplay}
+ * or the segment of the processor are not part of the batch.
+ *
+ * @see EventBatchHandlerEnhancerDefinition
+ * @since 4.7.0
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.PARAMETER, ElementType.ANNOTATION_TYPE})
+public @interface EventBatch {
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2010-2022. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventhandling;
+
+import org.axonframework.common.IdentifierFactory;
+import org.axonframework.common.Priority;
+import org.axonframework.common.annotation.AnnotationUtils;
+import org.axonframework.messaging.Message;
+import org.axonframework.messaging.annotation.HandlerEnhancerDefinition;
+import org.axonframework.messaging.annotation.MessageHandlingMember;
+import org.axonframework.messaging.annotation.WrappedMessageHandlingMember;
+import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
+import org.axonframework.messaging.unitofwork.UnitOfWork;
+
+import java.lang.reflect.Executable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nonnull;
+
+import static org.axonframework.eventhandling.EventBatchParameterResolverFactory.CURRENT_BATCH_RESOURCE;
+
+/**
+ * An implementation of the {@link HandlerEnhancerDefinition} for event handlers with an {@link EventBatch} annotated
+ * parameter. Rather than invoking such a handler for every event, the events are collected in the current {@link
+ * UnitOfWork}, per handler instance. The handler is invoked once with all collected events, when the unit of work is
+ * preparing to commit.
+ * <p>
+ * This enhancer is applied before any other enhancer, so that enhancers filtering events, like the one for {@link
+ * AllowReplay}, are applied to every event of the batch individually.
+ *
+ * @since 4.7.0
+ */
+@Priority(Priority.FIRST)
+public class EventBatchHandlerEnhancerDefinition implements HandlerEnhancerDefinition {
+
+    @Override
+    public @Nonnull
+    <T> MessageHandlingMember<T> wrapHandler(@Nonnull MessageHandlingMember<T> original) {
+        boolean batchHandler = original.unwrap(Executable.class)
+                                       .map(executable -> Arrays.stream(executable.getParameters())
+                                                                .anyMatch(parameter -> AnnotationUtils.isAnnotationPresent(
+                                                                        parameter, EventBatch.class
+                                                                )))
+                                       .orElse(false);
+        return batchHandler ? new EventBatchHandlingMember<>(original) : original;
+    }
+
+    private static class EventBatchHandlingMember<T> extends WrappedMessageHandlingMember<T> {
+
+        private final String pendingBatchesResource =
+                EventBatchHandlingMember.class.getName() + "." + IdentifierFactory.getInstance().generateIdentifier();
+
+        private EventBatchHandlingMember(MessageHandlingMember<T> delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public Object handle(@Nonnull Message<?> message, T target) throws Exception {
+            if (!CurrentUnitOfWork.isStarted()) {
+                return super.handle(message, target);
+            }
+            UnitOfWork<?> unitOfWork = CurrentUnitOfWork.get();
+            Map<T, List<Message<?>>> pendingBatches = unitOfWork.getOrComputeResource(pendingBatchesResource, key -> {
+                Map<T, List<Message<?>>> batches = new IdentityHashMap<>();
+                unitOfWork.onPrepareCommit(u -> invokeWithBatches(u, batches));
+                return batches;
+            });
+            pendingBatches.computeIfAbsent(target, t -> new ArrayList<>()).add(message);
+            return null;
+        }
+
+        private void invokeWithBatches(UnitOfWork<?> unitOfWork, Map<T, List<Message<?>>> batches) {
+            for (Map.Entry<T, List<Message<?>>> batch : batches.entrySet()) {
+                List<Message<?>> messages = batch.getValue();
+                unitOfWork.resources().put(CURRENT_BATCH_RESOURCE, Collections.unmodifiableList(messages));
+                try {
+                    super.handle(messages.get(messages.size() - 1), batch.getKey());
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new EventProcessingException("An event batch handler failed to handle a batch of events", e);
+                } finally {
+                    unitOfWork.resources().remove(CURRENT_BATCH_RESOURCE);
+                }
+            }
+        }
+    }
+}
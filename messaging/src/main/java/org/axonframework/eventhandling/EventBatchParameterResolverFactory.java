@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2010-2022. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventhandling;
+
+import org.axonframework.common.annotation.AnnotationUtils;
+import org.axonframework.messaging.Message;
+import org.axonframework.messaging.annotation.ParameterResolver;
+import org.axonframework.messaging.annotation.ParameterResolverFactory;
+import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
+
+import java.lang.reflect.Executable;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static java.util.Collections.singletonList;
+
+/**
+ * Parameter resolver factory for {@link java.util.List} event handler parameters annotated with {@link EventBatch}.
+ * The resolver injects the batch that is registered with the current unit of work by the {@link
+ * EventBatchHandlerEnhancerDefinition}, either as a list of payloads or as a list of messages, depending on the element
+ * type of the parameter. If no batch is registered, the resolver injects a batch consisting of the given message only.
+ *
+ * @since 4.7.0
+ */
+public class EventBatchParameterResolverFactory implements ParameterResolverFactory {
+
+    /**
+     * The key of the {@link org.axonframework.messaging.unitofwork.UnitOfWork} resource holding the batch of messages
+     * a handler is being invoked with.
+     */
+    static final String CURRENT_BATCH_RESOURCE = EventBatch.class.getName() + ".currentBatch";
+
+    @Override
+    public ParameterResolver<List<?>> createInstance(Executable executable, Parameter[] parameters,
+                                                     int parameterIndex) {
+        Parameter parameter = parameters[parameterIndex];
+        if (!AnnotationUtils.isAnnotationPresent(parameter, EventBatch.class)
+                || !parameter.getType().isAssignableFrom(List.class)) {
+            return null;
+        }
+        Type elementType = typeArgument(parameter.getParameterizedType());
+        Class<?> elementClass = rawClass(elementType);
+        if (Message.class.isAssignableFrom(elementClass)) {
+            return new EventBatchParameterResolver(elementClass, rawClass(typeArgument(elementType)));
+        }
+        return new EventBatchParameterResolver(null, elementClass);
+    }
+
+    private static Type typeArgument(Type type) {
+        if (!(type instanceof ParameterizedType)) {
+            return Object.class;
+        }
+        Type argument = ((ParameterizedType) type).getActualTypeArguments()[0];
+        return argument instanceof WildcardType ? ((WildcardType) argument).getUpperBounds()[0] : argument;
+    }
+
+    private static Class<?> rawClass(Type type) {
+        if (type instanceof Class) {
+            return (Class<?>) type;
+        }
+        if (type instanceof ParameterizedType) {
+            return (Class<?>) ((ParameterizedType) type).getRawType();
+        }
+        return Object.class;
+    }
+
+    private static class EventBatchParameterResolver implements ParameterResolver<List<?>> {
+
+        private final Class<?> messageType;
+        private final Class<?> payloadType;
+
+        private EventBatchParameterResolver(Class<?> messageType, Class<?> payloadType) {
+            this.messageType = messageType;
+            this.payloadType = payloadType;
+        }
+
+        @Override
+        public List<?> resolveParameterValue(Message<?> message) {
+            List<Message<?>> batch =
+                    CurrentUnitOfWork.map(unitOfWork -> unitOfWork.<List<Message<?>>>getResource(CURRENT_BATCH_RESOURCE))
+                                     .orElseGet(() -> singletonList(message));
+            return messageType != null ? batch : batch.stream()
+                                                      .map(Message::getPayload)
+                                                      .collect(Collectors.toList());
+        }
+
+        @Override
+        public boolean matches(Message<?> message) {
+            return message instanceof EventMessage
+                    && (messageType == null || messageType.isInstance(message))
+                    && message.getPayloadType() != null
+                    && payloadType.isAssignableFrom(message.getPayloadType());
+        }
+
+        @Override
+        public Class<?> supportedPayloadType() {
+            return payloadType;
+        }
+    }
+}
@@ -19,6 +19,7 @@
 import org.axonframework.eventhandling.tokenstore.TokenStore;
 
 import java.util.Objects;
+import java.util.OptionalInt;
 import java.util.OptionalLong;
 
 /**
@@ -118,6 +119,17 @@ public interface EventTrackerStatus {
      */
     OptionalLong getResetPosition();
 
+    /**
+     * Returns the number of events this Segment currently processes in a single batch, as decided by an {@link
+     * AdaptiveBatchSizePolicy}. In case the processor uses a static batch size, an {@code OptionalInt.empty()} will be
+     * returned.
+     *
+     * @return the number of events this Segment currently processes in a single batch
+     */
+    default OptionalInt getBatchSize() {
+        return OptionalInt.empty();
+    }
+
     /**
      * Returns a {@code boolean} describing whether this {@link EventTrackerStatus} is starting it's progress for the
      * first time. Particularly useful if the {@link EventTrackerStatusChangeListener} should react to added status'.
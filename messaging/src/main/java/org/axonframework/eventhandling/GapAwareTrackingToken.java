@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2010-2020. Axon Framework
+ * Copyright (c) 2010-2023. Axon Framework
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,19 +17,16 @@
 package org.axonframework.eventhandling;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import org.axonframework.common.Assert;
-import org.axonframework.common.CollectionUtils;
 
 import java.beans.ConstructorProperties;
 import java.io.Serializable;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Objects;
 import java.util.OptionalLong;
 import java.util.SortedSet;
-import java.util.concurrent.ConcurrentSkipListSet;
-import java.util.stream.LongStream;
 
 /**
  * Implementation of a {@link TrackingToken} that uses the global insertion sequence number of the event to determine
@@ -40,6 +37,11 @@
  * been committed to the store, consumers are able to track the event store uninterruptedly even when there are gaps
  * in the sequence numbers of events. If a gap is detected the event store can check if meanwhile this gap has been
  * filled each time a new batch of events is fetched.
+ * <p>
+ * Gaps are stored as ranges of consecutive sequence numbers, rather than as individual numbers. This keeps the memory
+ * footprint and the cost of advancing, merging and comparing tokens proportional to the number of distinct ranges of
+ * gaps instead of the total number of gaps. The serialized form stores these ranges too. Tokens serialized in the
+ * previous form, listing each individual gap, can still be deserialized.
  *
  * @author Rene de Waele
  */
@@ -74,12 +76,29 @@ public static GapAwareTrackingToken newInstance(long index, Collection<Long> gap
      *              smaller than the current index. These missing sequence numbers may be filled in later when those
      *              events get committed to the store or may never be filled in if those events never get committed.
      */
-    @JsonCreator
-    @ConstructorProperties({"index", "gaps"})
-    public GapAwareTrackingToken(@JsonProperty("index") long index, @JsonProperty("gaps") Collection<Long> gaps) {
+    public GapAwareTrackingToken(long index, Collection<Long> gaps) {
         this(index, createSortedSetOf(gaps, index), 0);
     }
 
+    /**
+     * This constructor is meant to be used for deserialization of the range encoded form of this token. Both the
+     * {@code gapRanges} and the individual {@code gaps} of tokens serialized by earlier versions are accepted. <br>
+     * Please use {@link #newInstance(long, Collection)} to create new instances.
+     *
+     * @param index     the highest global sequence number of events up until (and including) this tracking token
+     * @param gaps      individual global sequence numbers of events that have not been seen yet, as serialized by
+     *                  earlier versions of this token. May be {@code null}
+     * @param gapRanges the first and last global sequence number (both inclusive) of each range of events that have
+     *                  not been seen yet. May be {@code null}
+     */
+    @JsonCreator
+    @ConstructorProperties({"index", "gaps", "gapRanges"})
+    public GapAwareTrackingToken(@JsonProperty("index") long index,
+                                 @JsonProperty("gaps") Collection<Long> gaps,
+                                 @JsonProperty("gapRanges") long[] gapRanges) {
+        this(index, validated(GapRanges.fromRangeArray(gapRanges).union(GapRanges.of(gaps)), index), 0);
+    }
+
     private GapAwareTrackingToken(long index, SortedSet<Long> gaps, long gapTruncationIndex) {
         this.index = index;
         this.gaps = gaps;
@@ -96,15 +115,16 @@ private GapAwareTrackingToken(long index, SortedSet<Long> gaps, long gapTruncati
      * @return a {@link SortedSet} constructed out of the given {@code gaps}
      */
     protected static SortedSet<Long> createSortedSetOf(Collection<Long> gaps, long index) {
-        if (gaps == null || gaps.isEmpty()) {
-            return Collections.emptySortedSet();
-        }
-        SortedSet<Long> gapSet = new ConcurrentSkipListSet<>(gaps);
-        Assert.isTrue(gapSet.last() < index,
+        return validated(GapRanges.of(gaps), index);
+    }
+
+    private static GapRanges validated(GapRanges gaps, long index) {
+        Assert.isTrue(gaps.isEmpty() || gaps.last() < index,
                       () -> String.format("Gap indices [%s] should all be smaller than head index [%d]", gaps, index));
-        return gapSet;
+        return gaps;
     }
 
+
     /**
      * Returns a new {@link GapAwareTrackingToken} instance based on this token but which has advanced to given {@code
      * index}. Gaps that have fallen behind the index by more than the {@code maxGapOffset} will not be included in the
@@ -122,20 +142,20 @@ protected static SortedSet<Long> createSortedSetOf(Collection<Long> gaps, long i
      */
     public GapAwareTrackingToken advanceTo(long index, int maxGapOffset) {
         long newIndex;
-        SortedSet<Long> gaps = new ConcurrentSkipListSet<>(this.gaps);
-        if (gaps.remove(index)) {
+        GapRanges gaps = ranges();
+        if (gaps.contains(index)) {
             newIndex = this.index;
+            gaps = gaps.without(index);
         } else if (index > this.index) {
             newIndex = index;
-            LongStream.range(this.index + 1L, index).forEach(gaps::add);
+            gaps = gaps.union(GapRanges.range(this.index + 1L, index));
         } else {
             throw new IllegalArgumentException(String.format(
                     "The given index [%d] should be larger than the token index [%d] or be one of the token's gaps [%s]",
                     index, this.index, gaps));
         }
         long smalledAllowedGap = Math.max(gapTruncationIndex, newIndex - maxGapOffset);
-        gaps.removeAll(gaps.headSet(smalledAllowedGap));
-        return new GapAwareTrackingToken(newIndex, gaps, smalledAllowedGap);
+        return new GapAwareTrackingToken(newIndex, gaps.tailSet(smalledAllowedGap), smalledAllowedGap);
     }
 
     /**
@@ -152,8 +172,7 @@ public GapAwareTrackingToken withGapsTruncatedAt(long truncationPoint) {
         if (gaps.isEmpty() || gaps.first() > truncationPoint) {
             return this;
         }
-        SortedSet<Long> truncatedGaps = new ConcurrentSkipListSet<>(this.gaps.tailSet(truncationPoint));
-        return new GapAwareTrackingToken(this.index, truncatedGaps, truncationPoint);
+        return new GapAwareTrackingToken(this.index, ranges().tailSet(truncationPoint), truncationPoint);
     }
 
     /**
@@ -170,8 +189,24 @@ public long getIndex() {
      *
      * @return the gaps of this token
      */
+    @JsonIgnore
     public SortedSet<Long> getGaps() {
-        return Collections.unmodifiableSortedSet(gaps);
+        return gaps;
+    }
+
+    /**
+     * Returns the gaps of this token as ranges, for the compact JSON representation. The returned array holds the first
+     * and last sequence number (both inclusive) of each range of consecutive gaps.
+     *
+     * @return the ranges of gaps of this token
+     */
+    @JsonProperty("gapRanges")
+    private long[] gapRanges() {
+        return ranges().toRangeArray();
+    }
+
+    private GapRanges ranges() {
+        return (GapRanges) gaps;
     }
 
     @Override
@@ -179,32 +214,29 @@ public GapAwareTrackingToken lowerBound(TrackingToken other) {
         Assert.isTrue(other instanceof GapAwareTrackingToken, () -> "Incompatible token type provided.");
         GapAwareTrackingToken otherToken = (GapAwareTrackingToken) other;
 
-        SortedSet<Long> mergedGaps = new ConcurrentSkipListSet<>(this.gaps);
-        mergedGaps.addAll(otherToken.gaps);
+        GapRanges mergedGaps = ranges().union(otherToken.ranges());
         long mergedIndex = calculateIndex(otherToken, mergedGaps);
-        mergedGaps.removeIf(i -> i >= mergedIndex);
-        return new GapAwareTrackingToken(mergedIndex, mergedGaps, Math.min(gapTruncationIndex,
-                                                                           otherToken.gapTruncationIndex));
+        return new GapAwareTrackingToken(mergedIndex, mergedGaps.headSet(mergedIndex),
+                                         Math.min(gapTruncationIndex, otherToken.gapTruncationIndex));
     }
 
     @Override
     public TrackingToken upperBound(TrackingToken otherToken) {
         Assert.isTrue(otherToken instanceof GapAwareTrackingToken, () -> "Incompatible token type provided.");
         GapAwareTrackingToken other = (GapAwareTrackingToken) otherToken;
-        SortedSet<Long> newGaps = CollectionUtils.intersect(this.gaps, other.gaps, ConcurrentSkipListSet::new);
         long min = Math.min(this.index, other.index) + 1;
-        SortedSet<Long> mergedGaps =
-                CollectionUtils.merge(this.gaps.tailSet(min), other.gaps.tailSet(min), ConcurrentSkipListSet::new);
-        newGaps.addAll(mergedGaps);
+        GapRanges newGaps = ranges().intersect(other.ranges())
+                                    .union(ranges().tailSet(min))
+                                    .union(other.ranges().tailSet(min));
 
         return new GapAwareTrackingToken(Math.max(this.index, other.index), newGaps,
                                          Math.min(gapTruncationIndex, other.gapTruncationIndex));
     }
 
-    private long calculateIndex(GapAwareTrackingToken otherToken, SortedSet<Long> mergedGaps) {
+    private long calculateIndex(GapAwareTrackingToken otherToken, GapRanges mergedGaps) {
         long mergedIndex = Math.min(this.index, otherToken.index);
-        while (mergedGaps.contains(mergedIndex)) {
-            mergedIndex--;
+        if (mergedGaps.contains(mergedIndex)) {
+            mergedIndex = mergedGaps.rangeStart(mergedIndex) - 1;
         }
         return mergedIndex;
     }
@@ -216,14 +248,14 @@ public boolean covers(TrackingToken other) {
 
         // if the token we compare to has a higher gap truncation index, we need to truncate this instance to compare
         if (!this.gaps.isEmpty()
-                && !this.gaps.headSet(otherToken.gapTruncationIndex).isEmpty()
+                && this.gaps.first() < otherToken.gapTruncationIndex
                 && this.gapTruncationIndex < otherToken.gapTruncationIndex) {
             return this.withGapsTruncatedAt(otherToken.gapTruncationIndex).covers(other);
         }
 
         return otherToken.index <= this.index
-                && !this.gaps.contains(otherToken.index)
-                && otherToken.gaps.containsAll(this.gaps.headSet(otherToken.index));
+                && !this.ranges().contains(otherToken.index)
+                && otherToken.gaps.containsAll(this.ranges().headSet(otherToken.index));
     }
 
     /**
@@ -245,7 +277,8 @@ public boolean equals(Object o) {
         }
         GapAwareTrackingToken that = (GapAwareTrackingToken) o;
         long truncationIndex = Math.max(this.gapTruncationIndex, that.gapTruncationIndex) + 1;
-        return index == that.index && Objects.equals(gaps.tailSet(truncationIndex), that.gaps.tailSet(truncationIndex));
+        return index == that.index
+                && Objects.equals(ranges().tailSet(truncationIndex), that.ranges().tailSet(truncationIndex));
     }
 
     @Override
@@ -262,4 +295,17 @@ public String toString() {
     public OptionalLong position() {
         return OptionalLong.of(index);
     }
+
+    /**
+     * Replaces gaps deserialized in the form of earlier versions, which stored each gap individually in a {@link
+     * SortedSet}, by their range encoded representation.
+     *
+     * @return this token, or an equal token with range encoded gaps
+     */
+    private Object readResolve() {
+        if (gaps instanceof GapRanges) {
+            return this;
+        }
+        return new GapAwareTrackingToken(index, GapRanges.of(gaps), 0);
+    }
 }
@@ -0,0 +1,512 @@
+/*
+ * Copyright (c) 2010-2023. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventhandling;
+
+import java.io.Serializable;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.SortedSet;
+
+/**
+ * Immutable {@link SortedSet} of {@code long} values, stored as an ordered array of closed ranges. Used by the {@link
+ * GapAwareTrackingToken} to represent its gaps, which typically consist of a small number of long runs of consecutive
+ * sequence numbers.
+ * <p>
+ * The ranges are kept in a single primitive array, holding the first and last value of each range in ascending order.
+ * Adjacent and overlapping ranges are always coalesced, so two instances containing the same values have equal range
+ * arrays. All operations that "modify" the set return a new instance, leaving the original untouched. This makes
+ * instances safe to share between tokens and threads.
+ *
+ * @since 4.7
+ */
+final class GapRanges extends AbstractSet<Long> implements SortedSet<Long>, Serializable {
+
+    private static final long serialVersionUID = 7372530585361620528L;
+
+    /**
+     * An empty set of gaps.
+     */
+    static final GapRanges EMPTY = new GapRanges(new long[0]);
+
+    private static final long LOW_WORD_MASK = 0xFFFFFFFFL;
+
+    private final long[] ranges;
+    private final transient int size;
+
+    private GapRanges(long[] ranges) {
+        this.ranges = ranges;
+        long count = 0;
+        for (int i = 0; i < ranges.length; i += 2) {
+            count += ranges[i + 1] - ranges[i] + 1;
+        }
+        this.size = count > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) count;
+    }
+
+    /**
+     * Creates a set containing the given {@code values}. If the given collection already is a {@link GapRanges}, it is
+     * returned as is.
+     *
+     * @param values the values to include in the set, may be {@code null}
+     * @return a {@link GapRanges} containing the given values
+     */
+    static GapRanges of(Collection<Long> values) {
+        if (values instanceof GapRanges) {
+            return (GapRanges) values;
+        }
+        if (values == null || values.isEmpty()) {
+            return EMPTY;
+        }
+        long[] sorted = values.stream().mapToLong(Long::longValue).sorted().toArray();
+        long[] buffer = new long[sorted.length * 2];
+        int length = 0;
+        for (long value : sorted) {
+            if (length > 0 && value <= buffer[length - 1] + 1) {
+                buffer[length - 1] = Math.max(buffer[length - 1], value);
+            } else {
+                buffer[length++] = value;
+                buffer[length++] = value;
+            }
+        }
+        return create(buffer, length);
+    }
+
+    /**
+     * Creates a set containing all values from {@code fromInclusive} up to (and excluding) {@code toExclusive}.
+     *
+     * @param fromInclusive the lowest value in the set
+     * @param toExclusive   the value directly following the highest value in the set
+     * @return a {@link GapRanges} containing the given range of values
+     */
+    static GapRanges range(long fromInclusive, long toExclusive) {
+        if (fromInclusive >= toExclusive) {
+            return EMPTY;
+        }
+        return new GapRanges(new long[]{fromInclusive, toExclusive - 1});
+    }
+
+    private static GapRanges create(long[] buffer, int length) {
+        if (length == 0) {
+            return EMPTY;
+        }
+        return new GapRanges(length == buffer.length ? buffer : Arrays.copyOf(buffer, length));
+    }
+
+    /**
+     * Returns the number of ranges of consecutive values in this set.
+     *
+     * @return the number of ranges in this set
+     */
+    int rangeCount() {
+        return ranges.length / 2;
+    }
+
+    /**
+     * Returns a copy of the ranges in this set, as an array holding the first and last value (both inclusive) of each
+     * range, in ascending order.
+     *
+     * @return the ranges in this set
+     */
+    long[] toRangeArray() {
+        return ranges.clone();
+    }
+
+    /**
+     * Creates a set from the given {@code rangeArray}, as returned by {@link #toRangeArray()}. The ranges do not need
+     * to be ordered or coalesced. Ordered ranges, as produced by {@link #toRangeArray()}, are coalesced in a single
+     * pass, other ranges are sorted first.
+     *
+     * @param rangeArray an array holding the first and last value (both inclusive) of each range
+     * @return a {@link GapRanges} containing the values in the given ranges
+     */
+    static GapRanges fromRangeArray(long[] rangeArray) {
+        if (rangeArray == null || rangeArray.length == 0) {
+            return EMPTY;
+        }
+        if (rangeArray.length % 2 != 0) {
+            throw new IllegalArgumentException("Gap ranges should consist of pairs of first and last values");
+        }
+        boolean ordered = true;
+        for (int i = 0; i < rangeArray.length; i += 2) {
+            if (rangeArray[i] > rangeArray[i + 1]) {
+                throw new IllegalArgumentException(String.format(
+                        "Gap range [%d, %d] should not start after its end", rangeArray[i], rangeArray[i + 1]
+                ));
+            }
+            ordered &= i == 0 || rangeArray[i - 2] <= rangeArray[i];
+        }
+        long[] orderedRanges = ordered ? rangeArray : orderByFirstValue(rangeArray);
+        long[] buffer = new long[orderedRanges.length];
+        int length = 0;
+        for (int i = 0; i < orderedRanges.length; i += 2) {
+            long first = orderedRanges[i];
+            long last = orderedRanges[i + 1];
+            if (length > 0 && (buffer[length - 1] == Long.MAX_VALUE || first <= buffer[length - 1] + 1)) {
+                buffer[length - 1] = Math.max(buffer[length - 1], last);
+            } else {
+                buffer[length++] = first;
+                buffer[length++] = last;
+            }
+        }
+        return create(buffer, length);
+    }
+
+    private static long[] orderByFirstValue(long[] rangeArray) {
+        Integer[] rangeIndices = new Integer[rangeArray.length / 2];
+        for (int i = 0; i < rangeIndices.length; i++) {
+            rangeIndices[i] = i;
+        }
+        Arrays.sort(rangeIndices, Comparator.comparingLong(i -> rangeArray[i * 2]));
+        long[] ordered = new long[rangeArray.length];
+        for (int i = 0; i < rangeIndices.length; i++) {
+            ordered[i * 2] = rangeArray[rangeIndices[i] * 2];
+            ordered[i * 2 + 1] = rangeArray[rangeIndices[i] * 2 + 1];
+        }
+        return ordered;
+    }
+
+    /**
+     * Indicates whether the given {@code value} is part of this set.
+     *
+     * @param value the value to check
+     * @return {@code true} if the value is contained in this set, otherwise {@code false}
+     */
+    boolean contains(long value) {
+        int index = floorRange(value);
+        return index >= 0 && value <= ranges[index + 1];
+    }
+
+    /**
+     * Returns the first value of the range containing given {@code value}, or the {@code value} itself if it is not
+     * part of this set.
+     *
+     * @param value the value to find the range for
+     * @return the first value of the range containing the given value
+     */
+    long rangeStart(long value) {
+        int index = floorRange(value);
+        return index >= 0 && value <= ranges[index + 1] ? ranges[index] : value;
+    }
+
+    /**
+     * Returns a set containing all values of this set, except the given {@code value}.
+     *
+     * @param value the value to exclude
+     * @return a set without the given value
+     */
+    GapRanges without(long value) {
+        int index = floorRange(value);
+        if (index < 0 || value > ranges[index + 1]) {
+            return this;
+        }
+        long start = ranges[index];
+        long end = ranges[index + 1];
+        long[] buffer = new long[ranges.length + 2];
+        System.arraycopy(ranges, 0, buffer, 0, index);
+        int length = index;
+        if (start < value) {
+            buffer[length++] = start;
+            buffer[length++] = value - 1;
+        }
+        if (value < end) {
+            buffer[length++] = value + 1;
+            buffer[length++] = end;
+        }
+        System.arraycopy(ranges, index + 2, buffer, length, ranges.length - index - 2);
+        return create(buffer, length + ranges.length - index - 2);
+    }
+
+    /**
+     * Returns a set containing the values of this set as well as those of the given {@code other} set.
+     *
+     * @param other the set to merge with this one
+     * @return a set containing the values of both sets
+     */
+    GapRanges union(GapRanges other) {
+        if (other.ranges.length == 0) {
+            return this;
+        }
+        if (ranges.length == 0) {
+            return other;
+        }
+        long[] buffer = new long[ranges.length + other.ranges.length];
+        int length = 0;
+        int i = 0;
+        int j = 0;
+        while (i < ranges.length || j < other.ranges.length) {
+            long start;
+            long end;
+            if (j >= other.ranges.length || (i < ranges.length && ranges[i] <= other.ranges[j])) {
+                start = ranges[i];
+                end = ranges[i + 1];
+                i += 2;
+            } else {
+                start = other.ranges[j];
+                end = other.ranges[j + 1];
+                j += 2;
+            }
+            if (length > 0 && start <= buffer[length - 1] + 1) {
+                buffer[length - 1] = Math.max(buffer[length - 1], end);
+            } else {
+                buffer[length++] = start;
+                buffer[length++] = end;
+            }
+        }
+        return create(buffer, length);
+    }
+
+    /**
+     * Returns a set containing only the values that are part of both this set and the given {@code other} set.
+     *
+     * @param other the set to intersect with this one
+     * @return a set containing the values present in both sets
+     */
+    GapRanges intersect(GapRanges other) {
+        if (ranges.length == 0 || other.ranges.length == 0) {
+            return EMPTY;
+        }
+        long[] buffer = new long[ranges.length + other.ranges.length];
+        int length = 0;
+        int i = 0;
+        int j = 0;
+        while (i < ranges.length && j < other.ranges.length) {
+            long start = Math.max(ranges[i], other.ranges[j]);
+            long end = Math.min(ranges[i + 1], other.ranges[j + 1]);
+            if (start <= end) {
+                buffer[length++] = start;
+                buffer[length++] = end;
+            }
+            if (ranges[i + 1] < other.ranges[j + 1]) {
+                i += 2;
+            } else {
+                j += 2;
+            }
+        }
+        return create(buffer, length);
+    }
+
+    /**
+     * Returns the subset of values that are larger than or equal to {@code fromInclusive} and smaller than {@code
+     * toExclusive}.
+     *
+     * @param fromInclusive the lowest value to include
+     * @param toExclusive   the value above the highest value to include
+     * @return the subset of values within the given bounds
+     */
+    private GapRanges slice(long fromInclusive, long toExclusive) {
+        if (ranges.length == 0 || fromInclusive >= toExclusive) {
+            return EMPTY;
+        }
+        if (fromInclusive <= ranges[0] && toExclusive > ranges[ranges.length - 1]) {
+            return this;
+        }
+        int first = Math.max(floorRange(fromInclusive), 0);
+        long[] buffer = new long[ranges.length - first];
+        int length = 0;
+        for (int i = first; i < ranges.length && ranges[i] < toExclusive; i += 2) {
+            long start = Math.max(ranges[i], fromInclusive);
+            long end = Math.min(ranges[i + 1], toExclusive - 1);
+            if (start <= end) {
+                buffer[length++] = start;
+                buffer[length++] = end;
+            }
+        }
+        return create(buffer, length);
+    }
+
+    /**
+     * Returns the index in the range array of the range with the highest start that is lower than or equal to the
+     * given {@code value}, or {@code -1} if all ranges start after the given value.
+     */
+    private int floorRange(long value) {
+        int low = 0;
+        int high = ranges.length / 2 - 1;
+        int result = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (ranges[mid * 2] <= value) {
+                result = mid * 2;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return ranges.length == 0;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Long && contains(((Long) o).longValue());
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        if (!(c instanceof GapRanges)) {
+            return super.containsAll(c);
+        }
+        long[] otherRanges = ((GapRanges) c).ranges;
+        for (int i = 0; i < otherRanges.length; i += 2) {
+            int index = floorRange(otherRanges[i]);
+            if (index < 0 || otherRanges[i + 1] > ranges[index + 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Iterator<Long> iterator() {
+        return new Iterator<Long>() {
+            private int rangeIndex = 0;
+            private long next = ranges.length == 0 ? 0 : ranges[0];
+
+            @Override
+            public boolean hasNext() {
+                return rangeIndex < ranges.length;
+            }
+
+            @Override
+            public Long next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                long current = next;
+                if (current == ranges[rangeIndex + 1]) {
+                    rangeIndex += 2;
+                    if (rangeIndex < ranges.length) {
+                        next = ranges[rangeIndex];
+                    }
+                } else {
+                    next++;
+                }
+                return current;
+            }
+        };
+    }
+
+    @Override
+    public Comparator<? super Long> comparator() {
+        return null;
+    }
+
+    @Override
+    public GapRanges subSet(Long fromElement, Long toElement) {
+        if (fromElement > toElement) {
+            throw new IllegalArgumentException("fromElement should not be larger than toElement");
+        }
+        return slice(fromElement, toElement);
+    }
+
+    @Override
+    public GapRanges headSet(Long toElement) {
+        return slice(Long.MIN_VALUE, toElement);
+    }
+
+    @Override
+    public GapRanges tailSet(Long fromElement) {
+        return fromElement == Long.MIN_VALUE ? this : slice(fromElement, Long.MAX_VALUE);
+    }
+
+    @Override
+    public Long first() {
+        if (ranges.length == 0) {
+            throw new NoSuchElementException();
+        }
+        return ranges[0];
+    }
+
+    @Override
+    public Long last() {
+        if (ranges.length == 0) {
+            throw new NoSuchElementException();
+        }
+        return ranges[ranges.length - 1];
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof GapRanges) {
+            return Arrays.equals(ranges, ((GapRanges) o).ranges);
+        }
+        return super.equals(o);
+    }
+
+    /**
+     * Returns the sum of the hash codes of the values in this set, as defined by {@link java.util.Set#hashCode()}. The
+     * sum is computed per range, without iterating over the values in it.
+     *
+     * @return the hash code of this set
+     */
+    @Override
+    public int hashCode() {
+        int hashCode = 0;
+        for (int i = 0; i < ranges.length; i += 2) {
+            hashCode += rangeHashCode(ranges[i], ranges[i + 1]);
+        }
+        return hashCode;
+    }
+
+    private static int rangeHashCode(long first, long last) {
+        // Long#hashCode is the low word XOR the high word, so the range is summed per high word
+        long firstHigh = first >> 32;
+        long lastHigh = last >> 32;
+        if (firstHigh == lastHigh) {
+            return lowWordHashCode((int) firstHigh, first & LOW_WORD_MASK, last & LOW_WORD_MASK);
+        }
+        int hashCode = lowWordHashCode((int) firstHigh, first & LOW_WORD_MASK, LOW_WORD_MASK)
+                + lowWordHashCode((int) lastHigh, 0, last & LOW_WORD_MASK);
+        // All low words of a high word sum to 2^31 * (2^32 - 1), which is Integer.MIN_VALUE in int arithmetic
+        return hashCode + (int) (lastHigh - firstHigh - 1) * Integer.MIN_VALUE;
+    }
+
+    private static int lowWordHashCode(int highWord, long firstLowWord, long lastLowWord) {
+        long count = lastLowWord - firstLowWord + 1;
+        int hashCode = 0;
+        for (int bit = 0; bit < 32; bit++) {
+            long setBits = setBitsUpTo(lastLowWord, bit) - setBitsUpTo(firstLowWord - 1, bit);
+            long setAfterXor = ((highWord >>> bit) & 1) == 0 ? setBits : count - setBits;
+            hashCode += (int) (setAfterXor << bit);
+        }
+        return hashCode;
+    }
+
+    private static long setBitsUpTo(long value, int bit) {
+        if (value < 0) {
+            return 0;
+        }
+        long period = 1L << (bit + 1);
+        long half = period / 2;
+        return (value + 1) / period * half + Math.max(0, (value + 1) % period - half);
+    }
+
+    private Object readResolve() {
+        return fromRangeArray(ranges);
+    }
+}
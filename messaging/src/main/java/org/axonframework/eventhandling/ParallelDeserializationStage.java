@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2010-2022. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventhandling;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import javax.annotation.Nonnull;
+
+import static org.axonframework.common.BuilderUtils.assertNonNull;
+
+/**
+ * Pipeline stage of a {@link StreamingEventProcessor} that deserializes the payload and {@link
+ * org.axonframework.messaging.MetaData} of events on an {@link Executor}, before the events are handled. Serialized
+ * events deserialize their payload and metadata lazily, by default on the thread handling them. By deserializing events
+ * as soon as they are scheduled for handling, handling an event overlaps with deserializing the events following it.
+ * <p>
+ * Deserialization results are cached by the events, so the handling thread reuses them. Should the handling thread
+ * reach an event whose deserialization did not start yet, it deserializes that event itself. A failed deserialization
+ * is ignored by this stage, as it resurfaces once the event is handled.
+ *
+ * @since 4.7.0
+ */
+public class ParallelDeserializationStage {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParallelDeserializationStage.class);
+
+    private final Executor executor;
+
+    /**
+     * Instantiate a {@link ParallelDeserializationStage} deserializing events on the given {@code executor}. A bounded
+     * pool, like a {@link java.util.concurrent.ForkJoinPool} with a fixed parallelism, prevents deserialization from
+     * claiming all processor cores.
+     *
+     * @param executor the {@link Executor} to deserialize events on
+     */
+    public ParallelDeserializationStage(@Nonnull Executor executor) {
+        assertNonNull(executor, "The deserialization Executor may not be null");
+        this.executor = executor;
+    }
+
+    /**
+     * Schedules the deserialization of the payload and metadata of the given {@code event}. Events are deserialized in
+     * parallel, in any order. If the {@link Executor} rejects the task, the event is deserialized once it is handled.
+     *
+     * @param event the event to deserialize ahead of its handling
+     */
+    public void deserialize(@Nonnull EventMessage<?> event) {
+        try {
+            executor.execute(() -> deserializeNow(event));
+        } catch (RejectedExecutionException e) {
+            logger.debug("Deserialization of event [{}] was rejected. It is deserialized when handled.",
+                         event.getIdentifier());
+        }
+    }
+
+    private static void deserializeNow(EventMessage<?> event) {
+        try {
+            event.getPayload();
+            event.getMetaData();
+        } catch (Exception e) {
+            logger.debug("Failed to deserialize event [{}] ahead of handling it.", event.getIdentifier(), e);
+        }
+    }
+}
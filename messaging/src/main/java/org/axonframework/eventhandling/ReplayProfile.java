@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2010-2022. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventhandling;
+
+import org.axonframework.common.AxonConfigurationException;
+
+import java.util.concurrent.ExecutorService;
+import javax.annotation.Nonnull;
+
+import static org.axonframework.common.BuilderUtils.assertNonNull;
+import static org.axonframework.common.BuilderUtils.assertStrictPositive;
+
+/**
+ * Profile of settings a {@link StreamingEventProcessor} applies to a segment instead of its regular settings, for as
+ * long as the segment is replaying events after a {@link StreamingEventProcessor#resetTokens() reset}. Replays
+ * typically process a large backlog of events, which benefits from larger batches and fewer token updates than live
+ * processing at the head of the stream does.
+ * <p>
+ * A segment is considered to be replaying while its token is a {@link ReplayToken}, as also reported through
+ * {@link EventTrackerStatus#isReplaying()}. Once the replay has caught up with the position the tokens were reset
+ * from, the segment switches back to the regular settings of the processor automatically. The profile contains:
+ * <ul>
+ *     <li>The {@code batchSize}, the number of events processed in a single batch. Defaults to {@code 1024}.</li>
+ *     <li>The {@code tokenStoreInterval} and {@code maxUnstoredEvents}, coalescing token storage as described by
+ *     {@link TrackingEventProcessorConfiguration#andCoalescedTokenStorage(long, java.util.concurrent.TimeUnit, int)}.
+ *     Default to {@code 5000} milliseconds and {@code 10000} events respectively.</li>
+ *     <li>The {@code readAhead}, the number of events a segment buffers ahead of processing. Defaults to
+ *     {@code 8192}. Only used by the {@link org.axonframework.eventhandling.pooled.PooledStreamingEventProcessor}.</li>
+ *     <li>The {@code laneCount} and {@code laneExecutor}, dividing every batch over parallel lanes as described by
+ *     {@link org.axonframework.eventhandling.pooled.PooledStreamingEventProcessor.Builder#parallelLanes(int,
+ *     ExecutorService)}. By default, batches are not divided over lanes. Only used by the
+ *     {@link org.axonframework.eventhandling.pooled.PooledStreamingEventProcessor}.</li>
+ * </ul>
+ * Note that coalesced token storage trades exactly-once processing within a transaction for bounded at-least-once
+ * delivery. As a replay redelivers events to its handlers by definition, this is typically acceptable while replaying.
+ *
+ * @since 4.7.0
+ */
+public class ReplayProfile {
+
+    private final int batchSize;
+    private final long tokenStoreInterval;
+    private final int maxUnstoredEvents;
+    private final int readAhead;
+    private final int laneCount;
+    private final ExecutorService laneExecutor;
+
+    /**
+     * Instantiate a {@link ReplayProfile} based on the fields contained in the {@link Builder}.
+     *
+     * @param builder the {@link Builder} used to instantiate a {@link ReplayProfile} instance
+     */
+    protected ReplayProfile(Builder builder) {
+        builder.validate();
+        this.batchSize = builder.batchSize;
+        this.tokenStoreInterval = builder.tokenStoreInterval;
+        this.maxUnstoredEvents = builder.maxUnstoredEvents;
+        this.readAhead = builder.readAhead;
+        this.laneCount = builder.laneCount;
+        this.laneExecutor = builder.laneExecutor;
+    }
+
+    /**
+     * Instantiate a Builder to be able to create a {@link ReplayProfile}.
+     * <p>
+     * The {@code batchSize} defaults to {@code 1024}, the {@code tokenStoreInterval} to {@code 5000} milliseconds, the
+     * {@code maxUnstoredEvents} to {@code 10000}, the {@code readAhead} to {@code 8192} and the {@code laneCount} to
+     * {@code 1}.
+     *
+     * @return a Builder to be able to create a {@link ReplayProfile}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the number of events processed in a single batch while replaying.
+     *
+     * @return the number of events processed in a single batch while replaying
+     */
+    public int batchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Returns the maximum time in milliseconds to defer storing the token of a segment while replaying.
+     *
+     * @return the maximum time in milliseconds to defer storing the token of a segment while replaying
+     */
+    public long tokenStoreInterval() {
+        return tokenStoreInterval;
+    }
+
+    /**
+     * Returns the maximum number of processed events left unaccounted for in the stored token of a segment while
+     * replaying.
+     *
+     * @return the maximum number of processed events left unaccounted for in the stored token of a segment while
+     * replaying
+     */
+    public int maxUnstoredEvents() {
+        return maxUnstoredEvents;
+    }
+
+    /**
+     * Returns the number of events a segment buffers ahead of processing while replaying.
+     *
+     * @return the number of events a segment buffers ahead of processing while replaying
+     */
+    public int readAhead() {
+        return readAhead;
+    }
+
+    /**
+     * Returns the number of lanes the events of a batch are divided over while replaying.
+     *
+     * @return the number of lanes the events of a batch are divided over while replaying
+     */
+    public int laneCount() {
+        return laneCount;
+    }
+
+    /**
+     * Returns the {@link ExecutorService} processing all but the first lane of a batch while replaying, or
+     * {@code null} if batches are not divided over lanes.
+     *
+     * @return the {@link ExecutorService} processing all but the first lane of a batch while replaying
+     */
+    public ExecutorService laneExecutor() {
+        return laneExecutor;
+    }
+
+    /**
+     * Builder class to instantiate a {@link ReplayProfile}.
+     * <p>
+     * The {@code batchSize} defaults to {@code 1024}, the {@code tokenStoreInterval} to {@code 5000} milliseconds, the
+     * {@code maxUnstoredEvents} to {@code 10000}, the {@code readAhead} to {@code 8192} and the {@code laneCount} to
+     * {@code 1}.
+     */
+    public static class Builder {
+
+        private int batchSize = 1024;
+        private long tokenStoreInterval = 5000;
+        private int maxUnstoredEvents = 10000;
+        private int readAhead = 8192;
+        private int laneCount = 1;
+        private ExecutorService laneExecutor;
+
+        /**
+         * Sets the number of events processed in a single batch while replaying. Defaults to {@code 1024}.
+         *
+         * @param batchSize the number of events processed in a single batch while replaying
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder batchSize(int batchSize) {
+            assertStrictPositive(batchSize, "The batch size should be a higher valuer than zero");
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        /**
+         * Sets the bounds for deferring token storage while replaying. The token of a segment is stored once the given
+         * {@code tokenStoreInterval} in milliseconds has passed since it was last stored, or storing the next batch
+         * would leave more than {@code maxUnstoredEvents} processed events unaccounted for. Default to {@code 5000}
+         * milliseconds and {@code 10000} events respectively. As storing the token extends the claim on it, processors
+         * store the token at least once per token claim interval or claim extension threshold, regardless of a larger
+         * {@code tokenStoreInterval}.
+         *
+         * @param tokenStoreInterval the maximum time in milliseconds to defer storing the token of a segment
+         * @param maxUnstoredEvents  the maximum number of processed events left unaccounted for in the stored token of
+         *                           a segment
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder coalescedTokenStorage(long tokenStoreInterval, int maxUnstoredEvents) {
+            assertStrictPositive(tokenStoreInterval, "The token store interval should be a higher valuer than zero");
+            assertStrictPositive(maxUnstoredEvents, "The max unstored events should be a higher valuer than zero");
+            this.tokenStoreInterval = tokenStoreInterval;
+            this.maxUnstoredEvents = maxUnstoredEvents;
+            return this;
+        }
+
+        /**
+         * Sets the number of events a segment buffers ahead of processing while replaying. Defaults to {@code 8192}.
+         * Only used by the {@link org.axonframework.eventhandling.pooled.PooledStreamingEventProcessor}.
+         *
+         * @param readAhead the number of events a segment buffers ahead of processing while replaying
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder readAhead(int readAhead) {
+            assertStrictPositive(readAhead, "The read ahead should be a higher valuer than zero");
+            this.readAhead = readAhead;
+            return this;
+        }
+
+        /**
+         * Divides every batch over the given {@code laneCount} lanes while replaying, processing all but the first lane
+         * on the given {@code laneExecutor}. By default, batches are not divided over lanes. Only used by the {@link
+         * org.axonframework.eventhandling.pooled.PooledStreamingEventProcessor}, which requires its event handlers to
+         * share a single {@link org.axonframework.eventhandling.async.SequencingPolicy} to use lanes.
+         *
+         * @param laneCount    the number of lanes the events of a batch are divided over while replaying
+         * @param laneExecutor the {@link ExecutorService} processing all but the first lane of a batch
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder parallelLanes(int laneCount, @Nonnull ExecutorService laneExecutor) {
+            assertStrictPositive(laneCount, "The lane count should be a higher valuer than zero");
+            assertNonNull(laneExecutor, "The lane ExecutorService may not be null");
+            this.laneCount = laneCount;
+            this.laneExecutor = laneExecutor;
+            return this;
+        }
+
+        /**
+         * Initializes a {@link ReplayProfile} as specified through this Builder.
+         *
+         * @return a {@link ReplayProfile} as specified through this Builder
+         */
+        public ReplayProfile build() {
+            return new ReplayProfile(this);
+        }
+
+        /**
+         * Validates whether the fields contained in this Builder are set accordingly.
+         *
+         * @throws AxonConfigurationException if one field is asserted to be incorrect according to the Builder's
+         *                                    specifications
+         */
+        protected void validate() throws AxonConfigurationException {
+            // Method kept for overriding
+        }
+    }
+}
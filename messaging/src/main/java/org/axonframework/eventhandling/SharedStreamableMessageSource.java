@@ -0,0 +1,558 @@
+/*
+ * Copyright (c) 2010-2022. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventhandling;
+
+import org.axonframework.common.AxonConfigurationException;
+import org.axonframework.common.AxonThreadFactory;
+import org.axonframework.common.stream.BlockingStream;
+import org.axonframework.messaging.StreamableMessageSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.annotation.Nonnull;
+
+import static org.axonframework.common.BuilderUtils.assertNonNull;
+import static org.axonframework.common.BuilderUtils.assertStrictPositive;
+
+/**
+ * A {@link StreamableMessageSource} allowing the event processors on a node to share a single stream on a delegate
+ * source, like an {@code AxonServerEventStore}. Without it, every processor opens a stream of its own, fetching and
+ * deserializing every event once per processor.
+ * <p>
+ * While streams are open on this source, a single reader thread streams the events of the delegate from the head of
+ * the stream onwards, caching the most recent {@code cachedEvents} events. Streams positioned within the cache are
+ * attached to it, receiving the same event instances from the reader. As these instances deserialize their payload and
+ * metadata lazily and only once, every event is fetched and deserialized once for all attached streams.
+ * <p>
+ * Streams positioned before the cache, for example because their processor is replaying, read from a private stream on
+ * the delegate. They attach to the cache once they have caught up with it. Attached streams that fall behind the
+ * cache, because their processor is slower than the events arrive, detach onto a private stream again. A stream
+ * attaches to the cache when its position equals the position of a cached event, and its token {@link
+ * TrackingToken#covers(TrackingToken) covers} the token of that event. Hence, a stream with a {@link
+ * GapAwareTrackingToken} that still has gaps the shared stream has seen filled keeps reading from a private stream
+ * until these gaps are filled or cleaned up. Conversely, an attached stream skips the events its token already covers,
+ * like an event filling a gap it has seen filled before. The tokens of the events it receives combine the token of the
+ * shared stream with its own, through {@link TrackingToken#upperBound(TrackingToken)}, so that such gaps stay
+ * closed.
+ * <p>
+ * To share the stream, all processors should use the same instance of this source, for example through
+ * {@code EventProcessingConfigurer#configureDefaultStreamableMessageSource}.
+ *
+ * @since 4.7.0
+ */
+public class SharedStreamableMessageSource implements StreamableMessageSource<TrackedEventMessage<?>> {
+
+    private static final Logger logger = LoggerFactory.getLogger(SharedStreamableMessageSource.class);
+
+    private static final long POLL_INTERVAL_MILLIS = 1000;
+    private static final long RETRY_DELAY_MILLIS = 1000;
+
+    private final StreamableMessageSource<TrackedEventMessage<?>> delegate;
+    private final int cachedEvents;
+    private final ThreadFactory threadFactory;
+
+    private final Lock readerLock = new ReentrantLock();
+    private final Set<SharedStream> openStreams = ConcurrentHashMap.newKeySet();
+    private volatile EventReader reader;
+
+    /**
+     * Instantiate a {@link SharedStreamableMessageSource} based on the fields contained in the {@link Builder}.
+     * <p>
+     * Will assert that the delegate {@link StreamableMessageSource} is not {@code null}, and will throw an
+     * {@link AxonConfigurationException} if it is {@code null}.
+     *
+     * @param builder the {@link Builder} used to instantiate a {@link SharedStreamableMessageSource} instance
+     */
+    protected SharedStreamableMessageSource(Builder builder) {
+        builder.validate();
+        this.delegate = builder.delegate;
+        this.cachedEvents = builder.cachedEvents;
+        this.threadFactory = builder.threadFactory;
+    }
+
+    /**
+     * Instantiate a Builder to be able to create a {@link SharedStreamableMessageSource}.
+     * <p>
+     * The {@code cachedEvents} defaults to {@code 10000} and the {@link ThreadFactory} to an {@link AxonThreadFactory}
+     * for the reader thread. The delegate {@link StreamableMessageSource} is a <b>hard requirement</b> and as such
+     * should be provided.
+     *
+     * @return a Builder to be able to create a {@link SharedStreamableMessageSource}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public BlockingStream<TrackedEventMessage<?>> openStream(TrackingToken trackingToken) {
+        SharedStream stream = new SharedStream(trackingToken);
+        readerLock.lock();
+        try {
+            openStreams.add(stream);
+            if (reader == null) {
+                reader = new EventReader(delegate.createHeadToken());
+                threadFactory.newThread(reader).start();
+            }
+        } finally {
+            readerLock.unlock();
+        }
+        return stream;
+    }
+
+    private void streamClosed(SharedStream stream) {
+        readerLock.lock();
+        try {
+            if (openStreams.remove(stream) && openStreams.isEmpty() && reader != null) {
+                reader.stop();
+                reader = null;
+            }
+        } finally {
+            readerLock.unlock();
+        }
+    }
+
+    @Override
+    public TrackingToken createTailToken() {
+        return delegate.createTailToken();
+    }
+
+    @Override
+    public TrackingToken createHeadToken() {
+        return delegate.createHeadToken();
+    }
+
+    @Override
+    public TrackingToken createTokenAt(Instant dateTime) {
+        return delegate.createTokenAt(dateTime);
+    }
+
+    @Override
+    public TrackingToken createTokenSince(Duration duration) {
+        return delegate.createTokenSince(duration);
+    }
+
+    /**
+     * Reads the events of the delegate source into a {@link EventCache}. Should reading fail, the cache is terminated,
+     * detaching all streams, and reading restarts from the head of the delegate in a new cache.
+     */
+    private class EventReader implements Runnable {
+
+        private volatile boolean running = true;
+        private volatile Thread thread;
+        private volatile EventCache cache;
+
+        private EventReader(TrackingToken startToken) {
+            this.cache = new EventCache(startToken);
+        }
+
+        @Override
+        public void run() {
+            thread = Thread.currentThread();
+            while (running) {
+                EventCache current = cache;
+                try (BlockingStream<TrackedEventMessage<?>> upstream = delegate.openStream(current.oldest.token)) {
+                    while (running) {
+                        if (upstream.hasNextAvailable((int) POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+                            current.append(upstream.nextAvailable(), cachedEvents);
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    if (running) {
+                        logger.warn("Reader of the shared event stream was interrupted. Stopping reader.");
+                    }
+                    running = false;
+                    Thread.currentThread().interrupt();
+                } catch (Exception e) {
+                    logger.warn("Failed to read the shared event stream. "
+                                        + "Open streams read from the delegate source until the reader recovered.", e);
+                } finally {
+                    current.terminate();
+                }
+                if (running) {
+                    retryAfterDelay();
+                }
+            }
+        }
+
+        private void retryAfterDelay() {
+            try {
+                Thread.sleep(RETRY_DELAY_MILLIS);
+                if (running) {
+                    cache = new EventCache(delegate.createHeadToken());
+                }
+            } catch (InterruptedException e) {
+                running = false;
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                logger.warn("Failed to create the head token to restart the shared event stream from.", e);
+            }
+        }
+
+        private void stop() {
+            running = false;
+            Thread readerThread = thread;
+            if (readerThread != null) {
+                readerThread.interrupt();
+            }
+        }
+    }
+
+    /**
+     * Linked list of the most recently read events, which attached streams traverse. The first node of a new cache
+     * holds no event, only the token the reader started from.
+     */
+    private static class EventCache {
+
+        private final Lock lock = new ReentrantLock();
+        private final Condition eventsAppended = lock.newCondition();
+        private final Map<Object, Node> nodesByPosition = new ConcurrentHashMap<>();
+        private volatile Node oldest;
+        private volatile Node newest;
+        private volatile boolean terminated;
+
+        private EventCache(TrackingToken startToken) {
+            Node start = new Node(0, startToken, null);
+            this.oldest = start;
+            this.newest = start;
+            if (startToken != null) {
+                nodesByPosition.put(positionOf(startToken), start);
+            }
+        }
+
+        private void append(TrackedEventMessage<?> event, int maxSize) {
+            Node node = new Node(newest.index + 1, event.trackingToken(), event);
+            if (node.token != null) {
+                nodesByPosition.put(positionOf(node.token), node);
+            }
+            newest.next = node;
+            newest = node;
+            while (node.index - oldest.index >= maxSize) {
+                Node removed = oldest;
+                oldest = removed.next;
+                if (removed.token != null) {
+                    nodesByPosition.remove(positionOf(removed.token), removed);
+                }
+            }
+            signalAll();
+        }
+
+        private Node find(TrackingToken token) {
+            Node node = token == null ? (oldest.token == null ? oldest : null) : nodesByPosition.get(positionOf(token));
+            return node == null || isTrimmed(node) || !covers(token, node.token) ? null : node;
+        }
+
+        private static Object positionOf(TrackingToken token) {
+            // Tokens without a position can only be matched on equality
+            OptionalLong position = token.position();
+            return position.isPresent() ? (Object) position.getAsLong() : token;
+        }
+
+        private static boolean covers(TrackingToken token, TrackingToken cachedToken) {
+            if (token == null || cachedToken == null) {
+                return token == cachedToken;
+            }
+            return token.equals(cachedToken)
+                    || (token.getClass().equals(cachedToken.getClass()) && token.covers(cachedToken));
+        }
+
+        private boolean isTrimmed(Node node) {
+            return node.index < oldest.index;
+        }
+
+        private boolean awaitNext(Node node, long deadlineNanos) throws InterruptedException {
+            lock.lock();
+            try {
+                long remaining = deadlineNanos - System.nanoTime();
+                while (node.next == null && !terminated && remaining > 0) {
+                    remaining = eventsAppended.awaitNanos(remaining);
+                }
+                return node.next != null;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void terminate() {
+            terminated = true;
+            signalAll();
+        }
+
+        private void signalAll() {
+            lock.lock();
+            try {
+                eventsAppended.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static class Node {
+
+        private final long index;
+        private final TrackingToken token;
+        private final TrackedEventMessage<?> event;
+        private volatile Node next;
+
+        private Node(long index, TrackingToken token, TrackedEventMessage<?> event) {
+            this.index = index;
+            this.token = token;
+            this.event = event;
+        }
+    }
+
+    /**
+     * Stream returned to a single consumer, reading from the {@link EventCache} while attached to it, or from a private
+     * stream on the delegate otherwise.
+     */
+    private class SharedStream implements BlockingStream<TrackedEventMessage<?>> {
+
+        private TrackingToken lastToken;
+        private EventCache cache;
+        private Node lastNode;
+        private BlockingStream<TrackedEventMessage<?>> privateStream;
+
+        private SharedStream(TrackingToken trackingToken) {
+            this.lastToken = trackingToken;
+        }
+
+        @Override
+        public Optional<TrackedEventMessage<?>> peek() {
+            if (isAttached() || attach()) {
+                Node next = nextNode();
+                return next == null ? Optional.empty() : Optional.of(withAdvancedToken(next));
+            }
+            return privateStream().peek();
+        }
+
+        @Override
+        public boolean hasNextAvailable(int timeout, TimeUnit unit) throws InterruptedException {
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+            while (isAttached() || attach()) {
+                if (nextNode() != null) {
+                    return true;
+                }
+                if (!cache.awaitNext(lastNode, deadline) && isAttached()) {
+                    return false;
+                }
+            }
+            long remainingMillis = TimeUnit.NANOSECONDS.toMillis(Math.max(0, deadline - System.nanoTime()));
+            return privateStream().hasNextAvailable((int) remainingMillis, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public TrackedEventMessage<?> nextAvailable() throws InterruptedException {
+            while (isAttached() || attach()) {
+                Node next = nextNode();
+                if (next != null) {
+                    TrackedEventMessage<?> event = withAdvancedToken(next);
+                    lastNode = next;
+                    lastToken = event.trackingToken();
+                    return event;
+                }
+                cache.awaitNext(lastNode, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(POLL_INTERVAL_MILLIS));
+            }
+            TrackedEventMessage<?> event = privateStream().nextAvailable();
+            lastToken = event.trackingToken();
+            return event;
+        }
+
+        /**
+         * Returns the next node of the cache this stream should receive, skipping the nodes whose token is already
+         * covered by the token of this stream.
+         */
+        private Node nextNode() {
+            Node next = lastNode.next;
+            while (next != null && isCovered(next)) {
+                lastNode = next;
+                next = next.next;
+            }
+            return next;
+        }
+
+        private boolean isCovered(Node node) {
+            // Events sharing a token, as created by upcasters, follow each other and are all received
+            return lastToken != null && node.token != null && !node.token.equals(lastNode.token)
+                    && isCompatible(node.token) && lastToken.covers(node.token);
+        }
+
+        private TrackedEventMessage<?> withAdvancedToken(Node node) {
+            if (lastToken == null || node.token == null || !isCompatible(node.token)) {
+                return node.event;
+            }
+            TrackingToken advancedToken = lastToken.upperBound(node.token);
+            return advancedToken.equals(node.token) ? node.event : node.event.withTrackingToken(advancedToken);
+        }
+
+        private boolean isCompatible(TrackingToken token) {
+            return lastToken.getClass().equals(token.getClass());
+        }
+
+        private boolean isAttached() {
+            if (cache == null) {
+                return false;
+            }
+            if (cache.isTrimmed(lastNode) || (cache.terminated && lastNode.next == null)) {
+                logger.debug("Stream at position [{}] detaches from the shared event stream.", lastToken);
+                cache = null;
+                lastNode = null;
+                return false;
+            }
+            return true;
+        }
+
+        private boolean attach() {
+            EventReader currentReader = reader;
+            EventCache currentCache = currentReader == null ? null : currentReader.cache;
+            if (currentCache == null || currentCache.terminated || hasPendingEventAtLastToken()) {
+                return false;
+            }
+            Node node = currentCache.find(lastToken);
+            if (node == null) {
+                return false;
+            }
+            logger.debug("Stream at position [{}] attaches to the shared event stream.", lastToken);
+            closePrivateStream();
+            cache = currentCache;
+            lastNode = node;
+            return true;
+        }
+
+        private boolean hasPendingEventAtLastToken() {
+            // Events sharing a token, as created by upcasters, are consumed from the same stream
+            return privateStream != null && lastToken != null
+                    && privateStream.peek().map(event -> lastToken.equals(event.trackingToken())).orElse(false);
+        }
+
+        private BlockingStream<TrackedEventMessage<?>> privateStream() {
+            if (privateStream == null) {
+                logger.debug("Stream at position [{}] reads from a private stream.", lastToken);
+                privateStream = delegate.openStream(lastToken);
+            }
+            return privateStream;
+        }
+
+        private void closePrivateStream() {
+            if (privateStream != null) {
+                privateStream.close();
+                privateStream = null;
+            }
+        }
+
+        @Override
+        public void skipMessagesWithPayloadTypeOf(TrackedEventMessage<?> ignoredMessage) {
+            if (privateStream != null) {
+                privateStream.skipMessagesWithPayloadTypeOf(ignoredMessage);
+            }
+        }
+
+        @Override
+        public void close() {
+            closePrivateStream();
+            cache = null;
+            lastNode = null;
+            streamClosed(this);
+        }
+    }
+
+    /**
+     * Builder class to instantiate a {@link SharedStreamableMessageSource}.
+     * <p>
+     * The {@code cachedEvents} defaults to {@code 10000} and the {@link ThreadFactory} to an {@link AxonThreadFactory}
+     * for the reader thread. The delegate {@link StreamableMessageSource} is a <b>hard requirement</b> and as such
+     * should be provided.
+     */
+    public static class Builder {
+
+        private StreamableMessageSource<TrackedEventMessage<?>> delegate;
+        private int cachedEvents = 10000;
+        private ThreadFactory threadFactory =
+                new AxonThreadFactory(SharedStreamableMessageSource.class.getSimpleName());
+
+        /**
+         * Sets the {@link StreamableMessageSource} the shared stream reads from. Streams that are not attached to the
+         * shared stream read from a private stream on this source.
+         *
+         * @param delegate the {@link StreamableMessageSource} the shared stream reads from
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder delegate(@Nonnull StreamableMessageSource<TrackedEventMessage<?>> delegate) {
+            assertNonNull(delegate, "The delegate StreamableMessageSource may not be null");
+            this.delegate = delegate;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of recently read events that are cached for the attached streams. A stream falling
+         * further behind than this number of events detaches onto a private stream. Defaults to {@code 10000}.
+         *
+         * @param cachedEvents the maximum number of recently read events that are cached for the attached streams
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder cachedEvents(int cachedEvents) {
+            assertStrictPositive(cachedEvents, "The number of cached events should be a higher valuer than zero");
+            this.cachedEvents = cachedEvents;
+            return this;
+        }
+
+        /**
+         * Sets the {@link ThreadFactory} used to create the thread reading the shared stream. Defaults to an
+         * {@link AxonThreadFactory}.
+         *
+         * @param threadFactory the {@link ThreadFactory} used to create the thread reading the shared stream
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder threadFactory(@Nonnull ThreadFactory threadFactory) {
+            assertNonNull(threadFactory, "The ThreadFactory may not be null");
+            this.threadFactory = threadFactory;
+            return this;
+        }
+
+        /**
+         * Initializes a {@link SharedStreamableMessageSource} as specified through this Builder.
+         *
+         * @return a {@link SharedStreamableMessageSource} as specified through this Builder
+         */
+        public SharedStreamableMessageSource build() {
+            return new SharedStreamableMessageSource(this);
+        }
+
+        /**
+         * Validates whether the fields contained in this Builder are set accordingly.
+         *
+         * @throws AxonConfigurationException if one field is asserted to be incorrect according to the Builder's
+         *                                    specifications
+         */
+        protected void validate() throws AxonConfigurationException {
+            assertNonNull(delegate,
+                          "The delegate StreamableMessageSource is a hard requirement and should be provided");
+        }
+    }
+}
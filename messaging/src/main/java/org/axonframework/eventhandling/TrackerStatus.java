@@ -1,6 +1,7 @@
 package org.axonframework.eventhandling;
 
 import java.util.Objects;
+import java.util.OptionalInt;
 import java.util.OptionalLong;
 
 /**
@@ -16,6 +17,7 @@ public final class TrackerStatus implements EventTrackerStatus {
     private final boolean caughtUp;
     private final TrackingToken trackingToken;
     private final Throwable errorState;
+    private final int batchSize;
 
     /**
      * Construct a {@link EventTrackerStatus} to portray the status of the given {@code segment} and {@code
@@ -42,10 +44,19 @@ public TrackerStatus(Segment segment, TrackingToken trackingToken) {
      *                      null}, the status is not in an error state
      */
     public TrackerStatus(Segment segment, boolean caughtUp, TrackingToken trackingToken, Throwable errorState) {
+        this(segment, caughtUp, trackingToken, errorState, 0);
+    }
+
+    private TrackerStatus(Segment segment,
+                          boolean caughtUp,
+                          TrackingToken trackingToken,
+                          Throwable errorState,
+                          int batchSize) {
         this.segment = segment;
         this.caughtUp = caughtUp;
         this.trackingToken = trackingToken;
         this.errorState = errorState;
+        this.batchSize = batchSize;
     }
 
     /**
@@ -56,7 +67,7 @@ public TrackerStatus(Segment segment, boolean caughtUp, TrackingToken trackingTo
      * set to true
      */
     public TrackerStatus caughtUp() {
-        return caughtUp ? this : new TrackerStatus(segment, true, trackingToken, null);
+        return caughtUp ? this : new TrackerStatus(segment, true, trackingToken, null, batchSize);
     }
 
     /**
@@ -71,7 +82,7 @@ public TrackerStatus caughtUp() {
      */
     public TrackerStatus advancedTo(TrackingToken trackingToken) {
         return Objects.equals(this.trackingToken, trackingToken)
-                ? this : new TrackerStatus(segment, caughtUp, trackingToken, null);
+                ? this : new TrackerStatus(segment, caughtUp, trackingToken, null, batchSize);
     }
 
     /**
@@ -83,7 +94,7 @@ public TrackerStatus advancedTo(TrackingToken trackingToken) {
      * errorState}
      */
     public TrackerStatus markError(Throwable error) {
-        return new TrackerStatus(segment, caughtUp, trackingToken, error);
+        return new TrackerStatus(segment, caughtUp, trackingToken, error, batchSize);
     }
 
     /**
@@ -92,7 +103,20 @@ public TrackerStatus markError(Throwable error) {
      * @return a new {@link TrackerStatus} based on this status, removing the {@code errorState}
      */
     public TrackerStatus unmarkError() {
-        return new TrackerStatus(segment, caughtUp, trackingToken, null);
+        return new TrackerStatus(segment, caughtUp, trackingToken, null, batchSize);
+    }
+
+    /**
+     * Returns this {@link TrackerStatus} if its batch size equals the given {@code batchSize}, otherwise return a new
+     * instance reporting the given {@code batchSize}.
+     *
+     * @param batchSize the number of events the segment of this status currently processes in a single batch
+     * @return this {@link TrackerStatus} if its batch size equals the given {@code batchSize}, otherwise a new
+     * {@code TrackerStatus} instance with the given {@code batchSize}
+     */
+    public TrackerStatus withBatchSize(int batchSize) {
+        return this.batchSize == batchSize
+                ? this : new TrackerStatus(segment, caughtUp, trackingToken, errorState, batchSize);
     }
 
     /**
@@ -215,6 +239,11 @@ public OptionalLong getResetPosition() {
         return ReplayToken.getTokenAtReset(trackingToken);
     }
 
+    @Override
+    public OptionalInt getBatchSize() {
+        return batchSize > 0 ? OptionalInt.of(batchSize) : OptionalInt.empty();
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -225,6 +254,7 @@ public boolean equals(Object o) {
         }
         TrackerStatus that = (TrackerStatus) o;
         return caughtUp == that.caughtUp &&
+                batchSize == that.batchSize &&
                 Objects.equals(segment, that.segment) &&
                 Objects.equals(trackingToken, that.trackingToken) &&
                 Objects.equals(errorState, that.errorState);
@@ -232,7 +262,7 @@ public boolean equals(Object o) {
 
     @Override
     public int hashCode() {
-        return Objects.hash(segment, caughtUp, trackingToken, errorState);
+        return Objects.hash(segment, caughtUp, trackingToken, errorState, batchSize);
     }
 
     @Override
@@ -247,7 +277,8 @@ public String toString() {
                 ", trackingToken=" + getTrackingToken() +
                 ", currentPosition=" + getCurrentPosition() +
                 ", resetPosition=" + getResetPosition() +
-                ", mergeCompletedPosition=" + mergeCompletedPosition()
+                ", mergeCompletedPosition=" + mergeCompletedPosition() +
+                ", batchSize=" + getBatchSize()
                 + "}";
     }
 }
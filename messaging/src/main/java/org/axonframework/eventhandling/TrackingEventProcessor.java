@@ -24,6 +24,7 @@
 import org.axonframework.common.stream.BlockingStream;
 import org.axonframework.common.transaction.NoTransactionManager;
 import org.axonframework.common.transaction.TransactionManager;
+import org.axonframework.eventhandling.async.SequentialPerAggregatePolicy;
 import org.axonframework.eventhandling.tokenstore.TokenStore;
 import org.axonframework.eventhandling.tokenstore.UnableToClaimTokenException;
 import org.axonframework.lifecycle.Lifecycle;
@@ -100,6 +101,7 @@ public class TrackingEventProcessor extends AbstractEventProcessor implements St
     private final Function<StreamableMessageSource<TrackedEventMessage<?>>, TrackingToken> initialTrackingTokenBuilder;
     private final TransactionManager transactionManager;
     private final int batchSize;
+    private final AdaptiveBatchSizePolicy adaptiveBatchSizePolicy;
     private final int segmentsSize;
     private final boolean autoStart;
 
@@ -112,6 +114,7 @@ public class TrackingEventProcessor extends AbstractEventProcessor implements St
     private final ConcurrentMap<Integer, Long> segmentReleaseDeadlines = new ConcurrentSkipListMap<>();
     private final String segmentIdResourceKey;
     private final String lastTokenResourceKey;
+    private final String deferTokenStorageResourceKey;
     private final AtomicInteger availableThreads;
     private final long tokenClaimInterval;
     private final AtomicReference<String> tokenStoreIdentifier = new AtomicReference<>();
@@ -119,15 +122,22 @@ public class TrackingEventProcessor extends AbstractEventProcessor implements St
 
     private final ConcurrentMap<Integer, List<Instruction>> instructions = new ConcurrentHashMap<>();
     private final boolean storeTokenBeforeProcessing;
+    private final boolean segmentFilteringAtSource;
     private final int eventAvailabilityTimeout;
     private final EventTrackerStatusChangeListener trackerStatusChangeListener;
+    private final long tokenStoreInterval;
+    private final int maxUnstoredEvents;
+    private final ReplayProfile replayProfile;
+    private final ParallelDeserializationStage deserializationStage;
 
     /**
      * Instantiate a {@link TrackingEventProcessor} based on the fields contained in the {@link Builder}.
      * <p>
      * Will assert that the Event Processor {@code name}, {@link EventHandlerInvoker}, {@link StreamableMessageSource},
      * {@link TokenStore} and {@link TransactionManager} are not {@code null}, and will throw an {@link
-     * AxonConfigurationException} if any of them is {@code null}.
+     * AxonConfigurationException} if any of them is {@code null}. An {@link AxonConfigurationException} is also thrown
+     * if {@link TrackingEventProcessorConfiguration#andSegmentFilteringAtSource(boolean) segment filtering at the
+     * source} is enabled, while not all event handlers use a {@link SequentialPerAggregatePolicy}.
      *
      * @param builder the {@link Builder} used to instantiate a {@link TrackingEventProcessor} instance
      */
@@ -138,7 +148,14 @@ protected TrackingEventProcessor(Builder builder) {
         this.eventAvailabilityTimeout = config.getEventAvailabilityTimeout();
         this.storeTokenBeforeProcessing = builder.storeTokenBeforeProcessing;
         this.batchSize = config.getBatchSize();
+        this.adaptiveBatchSizePolicy = config.getAdaptiveBatchSizePolicy();
         this.autoStart = config.isAutoStart();
+        this.segmentFilteringAtSource = config.isSegmentFilteringAtSource();
+        if (segmentFilteringAtSource && !sequencesPerAggregate(eventHandlerInvoker())) {
+            throw new AxonConfigurationException(
+                    "Segment filtering at the message source requires a SequentialPerAggregatePolicy for all handlers"
+            );
+        }
 
         this.messageSource = builder.messageSource;
         this.tokenStore = builder.tokenStore;
@@ -152,11 +169,20 @@ protected TrackingEventProcessor(Builder builder) {
         this.workerTerminationTimeout = config.getWorkerTerminationTimeout();
         this.segmentIdResourceKey = "Processor[" + builder.name + "]/SegmentId";
         this.lastTokenResourceKey = "Processor[" + builder.name + "]/Token";
+        this.deferTokenStorageResourceKey = "Processor[" + builder.name + "]/DeferTokenStorage";
         this.initialTrackingTokenBuilder = config.getInitialTrackingToken();
         this.trackerStatusChangeListener = config.getEventTrackerStatusChangeListener();
+        this.tokenStoreInterval = config.getTokenStoreInterval();
+        this.maxUnstoredEvents = config.getMaxUnstoredEvents();
+        this.replayProfile = config.getReplayProfile();
+        this.deserializationStage = config.getDeserializationExecutor() != null
+                ? new ParallelDeserializationStage(config.getDeserializationExecutor())
+                : null;
 
         registerHandlerInterceptor((unitOfWork, interceptorChain) -> {
-            if (!(unitOfWork instanceof BatchingUnitOfWork) || ((BatchingUnitOfWork<?>) unitOfWork).isFirstMessage()) {
+            boolean firstMessage = !(unitOfWork instanceof BatchingUnitOfWork)
+                    || ((BatchingUnitOfWork<?>) unitOfWork).isFirstMessage();
+            if (firstMessage && !Boolean.TRUE.equals(unitOfWork.getResource(deferTokenStorageResourceKey))) {
                 Instant startTime = now();
                 TrackingToken lastToken = unitOfWork.getResource(lastTokenResourceKey);
                 if (storeTokenBeforeProcessing) {
@@ -235,6 +261,18 @@ public void start() {
         }
         State previousState = state.getAndSet(State.STARTED);
         if (!previousState.isRunning()) {
+            if (tokenStoreInterval > 0) {
+                logger.info("Processor [{}] coalesces token storage. After a failure, each segment may redeliver up "
+                                    + "to {} events processed within the last {}ms, next to the batch in progress.",
+                            getName(), maxUnstoredEvents, Math.min(tokenStoreInterval, tokenClaimInterval));
+            }
+            if (replayProfile != null) {
+                logger.info("Processor [{}] applies a replay profile while replaying. After a failure during a replay, "
+                                    + "each segment may redeliver up to {} events processed within the last {}ms, "
+                                    + "next to the batch in progress.",
+                            getName(), replayProfile.maxUnstoredEvents(),
+                            Math.min(replayProfile.tokenStoreInterval(), tokenClaimInterval));
+            }
             workLauncherRunning.set(true);
             startSegmentWorkers();
         }
@@ -307,15 +345,18 @@ public CompletableFuture<Boolean> mergeSegment(int segmentId) {
      */
     protected void processingLoop(Segment segment) {
         BlockingStream<TrackedEventMessage<?>> eventStream = null;
+        UnstoredProgress unstoredProgress = new UnstoredProgress(segment.getSegmentId());
+        AdaptiveBatchSizePolicy.Controller batchSizeController =
+                adaptiveBatchSizePolicy != null ? adaptiveBatchSizePolicy.createController() : null;
         long errorWaitTime = 1;
         try {
             // only execute the loop when in running state, no processing instructions have been executed, and the
             // segment is not ignored for release
-            while (state.get().isRunning() && !processInstructions(segment.getSegmentId())
+            while (state.get().isRunning() && !processInstructions(segment.getSegmentId(), unstoredProgress)
                     && canClaimSegment(segment.getSegmentId())) {
                 try {
                     eventStream = ensureEventStreamOpened(eventStream, segment);
-                    processBatch(segment, eventStream);
+                    processBatch(segment, eventStream, unstoredProgress, batchSizeController);
                     errorWaitTime = 1;
                     TrackerStatus trackerStatus = activeSegments.get(segment.getSegmentId());
                     if (trackerStatus.isErrorState()) {
@@ -327,6 +368,7 @@ && canClaimSegment(segment.getSegmentId())) {
                     }
                 } catch (UnableToClaimTokenException e) {
                     logger.info("Segment is owned by another node. Releasing thread to process another segment...");
+                    unstoredProgress.discard();
                     releaseSegment(segment.getSegmentId());
                 } catch (Exception e) {
                     // Make sure to start with a clean event stream. The exception may have caused an illegal state
@@ -342,6 +384,7 @@ && canClaimSegment(segment.getSegmentId())) {
                                 singletonMap(segment.getSegmentId(), errorStatus)
                         );
                     }
+                    unstoredProgress.flush();
                     releaseToken(segment);
                     closeQuietly(eventStream);
                     eventStream = null;
@@ -351,13 +394,19 @@ && canClaimSegment(segment.getSegmentId())) {
             }
         } finally {
             closeQuietly(eventStream);
+            unstoredProgress.flush();
             releaseToken(segment);
         }
     }
 
-    private boolean processInstructions(int segmentId) {
+    private boolean processInstructions(int segmentId, UnstoredProgress unstoredProgress) {
         List<Instruction> toExecute = instructions.getOrDefault(segmentId, Collections.emptyList());
         boolean instructionsPresent = !toExecute.isEmpty();
+        if (instructionsPresent) {
+            // Instructions may split, merge or delete the stored token, so it must reflect all progress beforehand
+            unstoredProgress.flush();
+            unstoredProgress.discard();
+        }
         for (Instruction instruction : toExecute) {
             toExecute.remove(instruction);
 
@@ -407,8 +456,14 @@ protected Set<Segment> processingSegments(TrackingToken token, Segment segment)
         return singleton(segment);
     }
 
-    private void processBatch(Segment segment, BlockingStream<TrackedEventMessage<?>> eventStream) throws Exception {
+    private void processBatch(Segment segment,
+                              BlockingStream<TrackedEventMessage<?>> eventStream,
+                              UnstoredProgress unstoredProgress,
+                              AdaptiveBatchSizePolicy.Controller batchSizeController) throws Exception {
         List<TrackedEventMessage<?>> batch = new ArrayList<>();
+        boolean replaying = isReplaying(segment);
+        unstoredProgress.applyReplayProfile(replaying);
+        int currentBatchSize = currentBatchSize(replaying, batchSizeController);
         try {
             TrackingToken lastToken = null;
             Collection<Segment> processingSegments = Collections.emptySet();
@@ -423,18 +478,20 @@ private void processBatch(Segment segment, BlockingStream<TrackedEventMessage<?>
                 processingSegments = processingSegments(lastToken, segment);
                 if (canHandle(firstMessage, processingSegments)) {
                     batch.add(firstMessage);
+                    deserializeAhead(firstMessage);
                 } else {
                     ignoreEvent(eventStream, firstMessage);
                 }
                 // Next to checking batch sizes, we must also ensure that both the current message in the batch
                 // and the next (if present) allow for processing with a batch.
                 for (int i = 0; isRegularProcessing(segment, processingSegments)
-                        && i < batchSize * 10 && batch.size() < batchSize
+                        && i < currentBatchSize * 10 && batch.size() < currentBatchSize
                         && eventStream.peek().map(m -> isRegularProcessing(segment, m)).orElse(false); i++) {
                     final TrackedEventMessage<?> trackedEventMessage = eventStream.nextAvailable();
                     lastToken = trackedEventMessage.trackingToken();
                     if (canHandle(trackedEventMessage, processingSegments)) {
                         batch.add(trackedEventMessage);
+                        deserializeAhead(trackedEventMessage);
                     } else {
                         ignoreEvent(eventStream, trackedEventMessage);
                     }
@@ -456,18 +513,28 @@ private void processBatch(Segment segment, BlockingStream<TrackedEventMessage<?>
             }
 
             if (lastToken == null) {
-                // The token is never updated, so we extend the token claim.
                 checkSegmentCaughtUp(segment, eventStream);
-                transactionManager.executeInTransaction(
-                        () -> tokenStore.extendClaim(getName(), segment.getSegmentId())
-                );
+                if (unstoredProgress.isPresent()) {
+                    // No new events arrived, so this is a good moment to store the progress made so far.
+                    unstoredProgress.store();
+                } else {
+                    // The token is never updated, so we extend the token claim.
+                    transactionManager.executeInTransaction(
+                            () -> tokenStore.extendClaim(getName(), segment.getSegmentId())
+                    );
+                }
                 return;
             } else if (batch.isEmpty()) {
                 // The token is updated but didn't contain events for this segment. So, we update the token position.
                 TrackingToken finalLastToken = lastToken;
-                transactionManager.executeInTransaction(
-                        () -> tokenStore.storeToken(finalLastToken, getName(), segment.getSegmentId())
-                );
+                if (unstoredProgress.isStoreDue(0)) {
+                    transactionManager.executeInTransaction(
+                            () -> tokenStore.storeToken(finalLastToken, getName(), segment.getSegmentId())
+                    );
+                    unstoredProgress.stored();
+                } else {
+                    unstoredProgress.advancedTo(finalLastToken, 0);
+                }
                 return;
             }
 
@@ -487,11 +554,28 @@ private void processBatch(Segment segment, BlockingStream<TrackedEventMessage<?>
             unitOfWork.attachTransaction(transactionManager);
             unitOfWork.resources().put(segmentIdResourceKey, segment.getSegmentId());
             unitOfWork.resources().put(lastTokenResourceKey, finalLastToken);
+            if (unstoredProgress.isStoreDue(batch.size())) {
+                unitOfWork.afterCommit(u -> unstoredProgress.stored());
+            } else {
+                unitOfWork.resources().put(deferTokenStorageResourceKey, true);
+                unitOfWork.afterCommit(u -> unstoredProgress.advancedTo(finalLastToken, batch.size()));
+            }
+            long processingStart = System.nanoTime();
             processInUnitOfWork(batch, unitOfWork, processingSegments);
+            if (batchSizeController != null && !replaying) {
+                // Replayed batches are sized by the replay profile, and should not affect the regular batch size
+                long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - processingStart);
+                batchSizeController.onBatchProcessed(batch.size(), latency, eventStream.peek().isPresent());
+            }
 
             TrackerStatus previousStatus = activeSegments.get(segment.getSegmentId());
-            TrackerStatus updatedStatus =
-                    activeSegments.computeIfPresent(segment.getSegmentId(), (k, v) -> v.advancedTo(finalLastToken));
+            TrackerStatus updatedStatus = activeSegments.computeIfPresent(segment.getSegmentId(), (k, v) -> {
+                TrackerStatus advancedStatus = v.advancedTo(finalLastToken);
+                return batchSizeController != null || replayProfile != null
+                        ? advancedStatus.withBatchSize(currentBatchSize(advancedStatus.isReplaying(),
+                                                                        batchSizeController))
+                        : advancedStatus;
+            });
             if (previousStatus.isDifferent(updatedStatus, trackerStatusChangeListener.validatePositions())) {
                 trackerStatusChangeListener.onEventTrackerStatusChange(
                         singletonMap(segment.getSegmentId(), updatedStatus)
@@ -507,9 +591,30 @@ private void processBatch(Segment segment, BlockingStream<TrackedEventMessage<?>
         }
     }
 
+    private void deserializeAhead(TrackedEventMessage<?> event) {
+        if (deserializationStage != null) {
+            deserializationStage.deserialize(event);
+        }
+    }
+
+    private boolean isReplaying(Segment segment) {
+        TrackerStatus status = activeSegments.get(segment.getSegmentId());
+        return replayProfile != null && status != null && status.isReplaying();
+    }
+
+    private int currentBatchSize(boolean replaying, AdaptiveBatchSizePolicy.Controller batchSizeController) {
+        if (replayProfile != null && replaying) {
+            return replayProfile.batchSize();
+        }
+        return batchSizeController != null ? batchSizeController.batchSize() : batchSize;
+    }
+
     private void ignoreEvent(BlockingStream<TrackedEventMessage<?>> eventStream,
-                             TrackedEventMessage<?> trackedEventMessage) {
-        if (!canHandleType(trackedEventMessage.getPayloadType())) {
+                             TrackedEventMessage<?> trackedEventMessage) throws Exception {
+        // The event may have been ignored for belonging to another segment only. Event streams may leave out any
+        // subsequent event of a skipped type, so only skip types the handlers cannot handle in any segment.
+        if (!canHandleType(trackedEventMessage.getPayloadType())
+                && !canHandle(trackedEventMessage, Segment.ROOT_SEGMENT)) {
             eventStream.skipMessagesWithPayloadTypeOf(trackedEventMessage);
         }
         reportIgnored(trackedEventMessage);
@@ -586,19 +691,36 @@ private BlockingStream<TrackedEventMessage<?>> ensureEventStreamOpened(
             );
             logger.info("Fetched token: {} for segment: {}", trackingToken, segment);
             eventStream = transactionManager.fetchInTransaction(
-                    () -> doOpenStream(trackingToken));
+                    () -> doOpenStream(trackingToken, segment));
         }
         return eventStream;
     }
 
-    private BlockingStream<TrackedEventMessage<?>> doOpenStream(TrackingToken trackingToken) {
+    private BlockingStream<TrackedEventMessage<?>> doOpenStream(TrackingToken trackingToken, Segment segment) {
         if (trackingToken instanceof WrappedToken) {
             return new WrappedMessageStream(
                     (WrappedToken) trackingToken,
-                    messageSource.openStream(WrappedToken.unwrapLowerBound(trackingToken))
+                    openMessageSourceStream(WrappedToken.unwrapLowerBound(trackingToken), segment)
             );
         }
-        return messageSource.openStream(WrappedToken.unwrapLowerBound(trackingToken));
+        return openMessageSourceStream(WrappedToken.unwrapLowerBound(trackingToken), segment);
+    }
+
+    private BlockingStream<TrackedEventMessage<?>> openMessageSourceStream(TrackingToken trackingToken,
+                                                                           Segment segment) {
+        return segmentFilteringAtSource
+                ? messageSource.openStream(trackingToken, segment)
+                : messageSource.openStream(trackingToken);
+    }
+
+    private static boolean sequencesPerAggregate(EventHandlerInvoker invoker) {
+        if (invoker instanceof MultiEventHandlerInvoker) {
+            return ((MultiEventHandlerInvoker) invoker).delegates()
+                                                       .stream()
+                                                       .allMatch(TrackingEventProcessor::sequencesPerAggregate);
+        }
+        return invoker instanceof SimpleEventHandlerInvoker
+                && ((SimpleEventHandlerInvoker) invoker).getSequencingPolicy() instanceof SequentialPerAggregatePolicy;
     }
 
     /**
@@ -1413,6 +1535,82 @@ protected boolean runSafe() {
         }
     }
 
+    /**
+     * Keeps track of the progress a segment made since its token was last stored, in case token storage is coalesced
+     * through {@link TrackingEventProcessorConfiguration#andCoalescedTokenStorage(long, TimeUnit, int)} or a
+     * {@link ReplayProfile}. Only to be used by the thread processing the segment.
+     */
+    private class UnstoredProgress {
+
+        private final int segmentId;
+        private TrackingToken token;
+        private int eventCount;
+        private long lastStoreTime;
+        private boolean replayProfileActive;
+
+        private UnstoredProgress(int segmentId) {
+            this.segmentId = segmentId;
+            this.lastStoreTime = now().toEpochMilli();
+        }
+
+        private boolean isPresent() {
+            return token != null;
+        }
+
+        private void applyReplayProfile(boolean replaying) {
+            if (replaying != replayProfileActive) {
+                logger.info("Segment [{}] of processor [{}] {}.", segmentId, getName(),
+                            replaying ? "is replaying and switches to its replay profile"
+                                    : "has finished replaying and switches back to its regular settings");
+                replayProfileActive = replaying;
+            }
+        }
+
+        private boolean isStoreDue(int additionalEvents) {
+            long interval = replayProfileActive ? replayProfile.tokenStoreInterval() : tokenStoreInterval;
+            int maxEvents = replayProfileActive ? replayProfile.maxUnstoredEvents() : maxUnstoredEvents;
+            // Storing the token extends the claim, so it should not be deferred beyond the token claim interval
+            return interval <= 0
+                    || eventCount + additionalEvents > maxEvents
+                    || now().toEpochMilli() - lastStoreTime >= Math.min(interval, tokenClaimInterval);
+        }
+
+        private void advancedTo(TrackingToken token, int processedEvents) {
+            this.token = token;
+            this.eventCount += processedEvents;
+        }
+
+        private void stored() {
+            discard();
+            lastStoreTime = now().toEpochMilli();
+        }
+
+        private void discard() {
+            token = null;
+            eventCount = 0;
+        }
+
+        private void store() {
+            TrackingToken tokenToStore = token;
+            transactionManager.executeInTransaction(() -> tokenStore.storeToken(tokenToStore, getName(), segmentId));
+            stored();
+        }
+
+        private void flush() {
+            if (!isPresent()) {
+                return;
+            }
+            try {
+                store();
+            } catch (Exception e) {
+                logger.warn("Failed to flush token [{}] of segment [{}] in processor [{}]. "
+                                    + "Up to {} events will be redelivered.",
+                            token, segmentId, getName(), eventCount, e);
+                discard();
+            }
+        }
+    }
+
     /**
      * Wrapper around {@link Runnable} to introduce Tracking Processor specific management methods.
      */
@@ -20,6 +20,7 @@
 import org.axonframework.common.AxonThreadFactory;
 import org.axonframework.messaging.StreamableMessageSource;
 
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -46,6 +47,7 @@ public class TrackingEventProcessorConfiguration {
 
     private final int maxThreadCount;
     private int batchSize;
+    private AdaptiveBatchSizePolicy adaptiveBatchSizePolicy;
     private int initialSegmentCount;
     private Function<StreamableMessageSource<TrackedEventMessage<?>>, TrackingToken> initialTrackingTokenBuilder = StreamableMessageSource::createTailToken;
     private Function<String, ThreadFactory> threadFactory;
@@ -54,6 +56,11 @@ public class TrackingEventProcessorConfiguration {
     private EventTrackerStatusChangeListener eventTrackerStatusChangeListener = EventTrackerStatusChangeListener.noOp();
     private boolean autoStart;
     private long workerTerminationTimeout;
+    private boolean segmentFilteringAtSource;
+    private long tokenStoreInterval;
+    private int maxUnstoredEvents = 1;
+    private ReplayProfile replayProfile;
+    private ExecutorService deserializationExecutor;
 
     /**
      * Initialize a configuration with single threaded processing.
@@ -96,6 +103,23 @@ public TrackingEventProcessorConfiguration andBatchSize(int batchSize) {
         return this;
     }
 
+    /**
+     * Sets the {@link AdaptiveBatchSizePolicy} adapting the number of events each segment processes in a single batch
+     * to the observed lag and commit latency. When set, the policy's bounds take precedence over the static {@link
+     * #andBatchSize(int) batch size}. The current batch size of each segment is reported through {@link
+     * EventTrackerStatus#getBatchSize()}.
+     *
+     * @param adaptiveBatchSizePolicy the {@link AdaptiveBatchSizePolicy} adapting the batch size of each segment
+     * @return {@code this} for method chaining
+     */
+    public TrackingEventProcessorConfiguration andAdaptiveBatchSize(
+            @Nonnull AdaptiveBatchSizePolicy adaptiveBatchSizePolicy
+    ) {
+        assertNonNull(adaptiveBatchSizePolicy, "The AdaptiveBatchSizePolicy may not be null");
+        this.adaptiveBatchSizePolicy = adaptiveBatchSizePolicy;
+        return this;
+    }
+
     /**
      * @param segmentsSize The number of segments requested for handling asynchronous processing of events.
      * @return {@code this} for method chaining
@@ -235,6 +259,92 @@ public TrackingEventProcessorConfiguration andWorkerTerminationTimeout(long work
         return this;
     }
 
+    /**
+     * Sets whether the processor's threads should ask the message source for the events of the segment they process
+     * only, by opening their streams through {@link StreamableMessageSource#openStream(TrackingToken, Segment)}. This
+     * allows the message source to avoid reading the events of other segments in full, reducing the work done by a
+     * processor with many segments. Defaults to {@code false}.
+     * <p>
+     * This may only be enabled if all event handlers of the processor use a {@link
+     * org.axonframework.eventhandling.async.SequentialPerAggregatePolicy}, as this is how message sources assign events
+     * to segments.
+     *
+     * @param segmentFilteringAtSource {@code true} to let the message source filter events by segment, {@code false}
+     *                                 to read all events in every thread
+     * @return {@code this} for method chaining
+     */
+    public TrackingEventProcessorConfiguration andSegmentFilteringAtSource(boolean segmentFilteringAtSource) {
+        this.segmentFilteringAtSource = segmentFilteringAtSource;
+        return this;
+    }
+
+    /**
+     * Enables coalesced token storage, deferring the storage of the token of a segment until either the given {@code
+     * tokenStoreInterval} has passed since the token was last stored, or storing the next batch would leave more than
+     * {@code maxUnstoredEvents} processed events unaccounted for. As storing the token is what extends the claim on
+     * it, the token is stored at least once every {@link #andTokenClaimInterval(long, TimeUnit) token claim interval},
+     * regardless of a larger {@code tokenStoreInterval}. Hence the token claim interval should remain well below the
+     * claim timeout of the {@link org.axonframework.eventhandling.tokenstore.TokenStore}. By default, the token is
+     * stored in the transaction of every batch.
+     * <p>
+     * Any unstored progress is flushed when a segment is released, split, merged or when the processor shuts down.
+     * Note that this trades the exactly-once processing within a transaction for bounded at-least-once delivery: when
+     * processing fails or the processor stops unexpectedly, up to {@code maxUnstoredEvents} events processed within
+     * the last {@code tokenStoreInterval} may be redelivered per segment. Hence this mode should only be used for
+     * idempotent event handlers.
+     *
+     * @param tokenStoreInterval the maximum time to defer storing the token of a segment
+     * @param timeUnit           the unit of the {@code tokenStoreInterval}
+     * @param maxUnstoredEvents  the maximum number of processed events left unaccounted for in the stored token of a
+     *                           segment
+     * @return {@code this} for method chaining
+     */
+    public TrackingEventProcessorConfiguration andCoalescedTokenStorage(long tokenStoreInterval,
+                                                                        TimeUnit timeUnit,
+                                                                        int maxUnstoredEvents) {
+        assertStrictPositive(tokenStoreInterval, "The token store interval should be strictly positive");
+        assertStrictPositive(maxUnstoredEvents, "The max unstored events should be strictly positive");
+        this.tokenStoreInterval = timeUnit.toMillis(tokenStoreInterval);
+        this.maxUnstoredEvents = maxUnstoredEvents;
+        return this;
+    }
+
+    /**
+     * Sets the {@link ReplayProfile} whose settings a segment applies while it is replaying events, instead of the
+     * {@link #andBatchSize(int) batch size} and {@link #andCoalescedTokenStorage(long, TimeUnit, int) token storage}
+     * configured for live processing. A segment switches back to the live settings automatically once its replay has
+     * caught up. The read ahead and lanes of the profile are not used by the {@link TrackingEventProcessor}. By
+     * default, replays are processed with the live settings.
+     *
+     * @param replayProfile the {@link ReplayProfile} whose settings a segment applies while replaying events
+     * @return {@code this} for method chaining
+     */
+    public TrackingEventProcessorConfiguration andReplayProfile(@Nonnull ReplayProfile replayProfile) {
+        assertNonNull(replayProfile, "The ReplayProfile may not be null");
+        this.replayProfile = replayProfile;
+        return this;
+    }
+
+    /**
+     * Sets the {@link ExecutorService} deserializing events ahead of handling them. Events are submitted to the
+     * {@code deserializationExecutor} as soon as they are added to a batch, so that their payload and
+     * {@link org.axonframework.messaging.MetaData} are deserialized and upcast in parallel, while the batch is being
+     * collected. By default, events are deserialized by the thread handling them.
+     * <p>
+     * A bounded pool, like a {@link java.util.concurrent.ForkJoinPool} with a parallelism matching the available
+     * processors, is recommended. Events the executor rejects are deserialized when handled.
+     *
+     * @param deserializationExecutor the {@link ExecutorService} deserializing events ahead of handling them
+     * @return {@code this} for method chaining
+     */
+    public TrackingEventProcessorConfiguration andDeserializationExecutor(
+            @Nonnull ExecutorService deserializationExecutor
+    ) {
+        assertNonNull(deserializationExecutor, "The deserialization ExecutorService may not be null");
+        this.deserializationExecutor = deserializationExecutor;
+        return this;
+    }
+
     /**
      * @return the maximum number of events to process in a single batch.
      */
@@ -242,6 +352,17 @@ public int getBatchSize() {
         return batchSize;
     }
 
+    /**
+     * Returns the {@link AdaptiveBatchSizePolicy} adapting the batch size of each segment, or {@code null} if the
+     * static {@link #getBatchSize() batch size} is used.
+     *
+     * @return the {@link AdaptiveBatchSizePolicy} adapting the batch size of each segment, or {@code null} if none is
+     * configured
+     */
+    public AdaptiveBatchSizePolicy getAdaptiveBatchSizePolicy() {
+        return adaptiveBatchSizePolicy;
+    }
+
     /**
      * @return the number of segments requested for handling asynchronous processing of events.
      */
@@ -317,4 +438,59 @@ public EventTrackerStatusChangeListener getEventTrackerStatusChangeListener() {
     public long getWorkerTerminationTimeout() {
         return workerTerminationTimeout;
     }
+
+    /**
+     * Indicates whether the processor's threads ask the message source for the events of their segment only.
+     *
+     * @return {@code true} if the message source is asked to filter events by segment, {@code false} otherwise
+     */
+    public boolean isSegmentFilteringAtSource() {
+        return segmentFilteringAtSource;
+    }
+
+    /**
+     * Returns the maximum time, in milliseconds, the processor may defer storing the token of a segment. A value of
+     * {@code 0} means token storage is not coalesced, storing the token with every batch.
+     *
+     * @return the maximum time, in milliseconds, the processor may defer storing the token of a segment
+     * @see #andCoalescedTokenStorage(long, TimeUnit, int)
+     */
+    public long getTokenStoreInterval() {
+        return tokenStoreInterval;
+    }
+
+    /**
+     * Returns the maximum number of processed events the processor may leave unaccounted for in the stored token of a
+     * segment. Only used when token storage is coalesced.
+     *
+     * @return the maximum number of processed events left unaccounted for in the stored token of a segment
+     * @see #andCoalescedTokenStorage(long, TimeUnit, int)
+     */
+    public int getMaxUnstoredEvents() {
+        return maxUnstoredEvents;
+    }
+
+    /**
+     * Returns the {@link ReplayProfile} whose settings a segment applies while replaying events, or {@code null} if
+     * replays are processed with the live settings.
+     *
+     * @return the {@link ReplayProfile} whose settings a segment applies while replaying events, or {@code null} if
+     * none is configured
+     * @see #andReplayProfile(ReplayProfile)
+     */
+    public ReplayProfile getReplayProfile() {
+        return replayProfile;
+    }
+
+    /**
+     * Returns the {@link ExecutorService} deserializing events ahead of handling them, or {@code null} if events are
+     * deserialized by the thread handling them.
+     *
+     * @return the {@link ExecutorService} deserializing events ahead of handling them, or {@code null} if none is
+     * configured
+     * @see #andDeserializationExecutor(ExecutorService)
+     */
+    public ExecutorService getDeserializationExecutor() {
+        return deserializationExecutor;
+    }
 }
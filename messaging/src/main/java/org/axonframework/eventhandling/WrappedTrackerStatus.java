@@ -17,6 +17,7 @@
 package org.axonframework.eventhandling;
 
 import java.util.Objects;
+import java.util.OptionalInt;
 import java.util.OptionalLong;
 
 /**
@@ -89,6 +90,11 @@ public OptionalLong getResetPosition() {
         return delegate.getResetPosition();
     }
 
+    @Override
+    public OptionalInt getBatchSize() {
+        return delegate.getBatchSize();
+    }
+
     @Override
     public boolean trackerAdded() {
         return delegate.trackerAdded();
@@ -26,7 +26,6 @@
 import org.axonframework.eventhandling.TrackingToken;
 import org.axonframework.eventhandling.WrappedToken;
 import org.axonframework.eventhandling.tokenstore.TokenStore;
-import org.axonframework.eventhandling.tokenstore.UnableToClaimTokenException;
 import org.axonframework.messaging.StreamableMessageSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -754,7 +753,6 @@ private CompletableFuture<Void> abortWorkPackages(Exception cause) {
          * @return a Map with each {@link TrackingToken} for newly claimed {@link Segment}
          */
         private Map<Segment, TrackingToken> claimNewSegments() {
-            Map<Segment, TrackingToken> newClaims = new HashMap<>();
             List<Segment> segments = transactionManager.fetchInTransaction(() -> tokenStore.fetchAvailableSegments(name));
 
             // As segments are used for Segment#computeSegment, we cannot filter out the WorkPackages upfront.
@@ -764,6 +762,7 @@ private Map<Segment, TrackingToken> claimNewSegments() {
 
             int maxSegmentsToClaim = maxClaimedSegments - workPackages.size();
 
+            List<Segment> segmentsToClaim = new ArrayList<>();
             for (Segment segment : unClaimedSegments) {
                 int segmentId = segment.getSegmentId();
                 if (isSegmentBlockedFromClaim(segmentId)) {
@@ -771,21 +770,25 @@ private Map<Segment, TrackingToken> claimNewSegments() {
                     processingStatusUpdater.accept(segmentId, u -> null);
                     continue;
                 }
-                if (newClaims.size() < maxSegmentsToClaim) {
-                    try {
-                        TrackingToken token = transactionManager.fetchInTransaction(
-                                () -> tokenStore.fetchToken(name, segment)
-                        );
-                        newClaims.put(segment, token);
-                    } catch (UnableToClaimTokenException e) {
-                        processingStatusUpdater.accept(segmentId, u -> null);
-                        logger.debug(
-                                "Unable to claim the token for segment {}. It is owned by another process or has been split/merged concurrently.",
-                                segmentId);
-                    }
+                if (segmentsToClaim.size() < maxSegmentsToClaim) {
+                    segmentsToClaim.add(segment);
                 }
             }
+            if (segmentsToClaim.isEmpty()) {
+                return Collections.emptyMap();
+            }
 
+            Map<Segment, TrackingToken> newClaims = transactionManager.fetchInTransaction(
+                    () -> tokenStore.fetchTokens(name, segmentsToClaim)
+            );
+            segmentsToClaim.stream()
+                           .filter(segment -> !newClaims.containsKey(segment))
+                           .forEach(segment -> {
+                               processingStatusUpdater.accept(segment.getSegmentId(), u -> null);
+                               logger.debug(
+                                       "Unable to claim the token for segment {}. It is owned by another process or has been split/merged concurrently.",
+                                       segment.getSegmentId());
+                           });
             return newClaims;
         }
 
@@ -862,11 +865,56 @@ private void coordinateWorkPackages() throws InterruptedException {
                         .filter(WorkPackage::isAbortTriggered)
                         .forEach(workPackage -> abortWorkPackage(workPackage, null));
 
+            extendClaimsOfIdleWorkPackages();
+
             // Chances are no events were scheduled at all. Scheduling regardless will ensure the token claim is held.
             workPackages.values()
                         .forEach(WorkPackage::scheduleWorker);
         }
 
+        /**
+         * Extends the claims of all idle {@link WorkPackage}s whose claim is due for extension in a single transaction,
+         * storing their last consumed token if they have one that has not been stored yet. Should this fail, the
+         * {@code WorkPackage}s extend their claims individually, so that only those that lost their claim abort.
+         */
+        private void extendClaimsOfIdleWorkPackages() {
+            List<WorkPackage> reservedWorkPackages = workPackages.values()
+                                                                 .stream()
+                                                                 .filter(WorkPackage::reserveForClaimExtension)
+                                                                 .collect(Collectors.toList());
+            if (reservedWorkPackages.isEmpty()) {
+                return;
+            }
+
+            Map<Integer, TrackingToken> tokensToStore = new HashMap<>();
+            List<Integer> claimsToExtend = new ArrayList<>();
+            for (WorkPackage workPackage : reservedWorkPackages) {
+                int segmentId = workPackage.segment().getSegmentId();
+                if (workPackage.hasUnstoredToken()) {
+                    tokensToStore.put(segmentId, workPackage.lastConsumedToken());
+                } else {
+                    claimsToExtend.add(segmentId);
+                }
+            }
+
+            boolean claimsExtended = false;
+            try {
+                transactionManager.executeInTransaction(() -> {
+                    tokenStore.storeTokens(tokensToStore, name);
+                    tokenStore.extendClaims(name, claimsToExtend);
+                });
+                claimsExtended = true;
+            } catch (Exception e) {
+                logger.debug("Processor [{}] was unable to extend the claims of {} work packages at once. "
+                                     + "Work packages will extend their claims individually.",
+                             name, reservedWorkPackages.size(), e);
+            } finally {
+                for (WorkPackage workPackage : reservedWorkPackages) {
+                    workPackage.endClaimExtensionReservation(claimsExtended);
+                }
+            }
+        }
+
         private boolean eventsEqualingLastScheduledToken() {
             return eventStream.peek()
                               .filter(e -> lastScheduledToken.equals(e.trackingToken()))
@@ -0,0 +1,340 @@
+/*
+ * Copyright (c) 2010-2022. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventhandling.pooled;
+
+import org.axonframework.eventhandling.StreamingEventProcessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandles;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import javax.annotation.Nonnull;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.axonframework.common.BuilderUtils.assertPositive;
+import static org.axonframework.common.BuilderUtils.assertStrictPositive;
+
+/**
+ * A {@link SegmentBalancer} evening out the number of segments claimed per node, and splitting segments that lag
+ * behind. Every invocation is considered a balancing round, in which the balancer takes at most one action:
+ * <ol>
+ *     <li>When all segments are claimed and this instance claims more segments than its fair share, being the number
+ *     of segments divided by the number of nodes claiming segments (rounded up), it releases its least lagging
+ *     segment for the {@code releaseDuration}, so that another node claims it.</li>
+ *     <li>When a segment claimed by this instance lags at least {@code splitLagThreshold} events behind the head of
+ *     the event stream and the processor has fewer than {@code maxSegmentCount} segments, the most lagging segment is
+ *     split. Both halves are released, so that they may be claimed by different nodes.</li>
+ *     <li>As nodes that do not claim any segment cannot be observed through the token store, the instance claiming the
+ *     most segments periodically releases one, once every {@code discoveryRounds}, to allow idle nodes to claim it.
+ *     This only happens while fewer nodes claim segments than the {@code expectedNodeCount}, which defaults to
+ *     {@code 1}, so a single node never releases segments this way. When no new node claims a segment, the period
+ *     between these releases doubles, up to eight times the {@code discoveryRounds}.</li>
+ * </ol>
+ * To avoid thrashing, the conditions for releasing or splitting a segment must hold for {@code stabilizationRounds}
+ * consecutive rounds, and no action is taken for {@code cooldownRounds} rounds after any action.
+ * <p>
+ * This balancer keeps state between rounds, so every processor instance requires its own balancer.
+ *
+ * @since 4.7.0
+ */
+public class LagBasedSegmentBalancer implements SegmentBalancer {
+
+    private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private static final int MAX_DISCOVERY_BACKOFF = 8;
+
+    private final int stabilizationRounds;
+    private final int cooldownRounds;
+    private final long releaseDuration;
+    private final long splitLagThreshold;
+    private final int maxSegmentCount;
+    private final int discoveryRounds;
+    private final int expectedNodeCount;
+
+    private final Map<Integer, Integer> laggingRounds = new HashMap<>();
+    private long round;
+    private long nextActionRound;
+    private int overloadedRounds;
+    private long nextDiscoveryRound;
+    private int discoveryBackoff = 1;
+    private int lastOwnerCount;
+    private volatile boolean splitUnsupported;
+
+    /**
+     * Instantiate a {@link LagBasedSegmentBalancer} based on the fields contained in the {@link Builder}.
+     *
+     * @param builder the {@link Builder} used to instantiate a {@link LagBasedSegmentBalancer} instance
+     */
+    protected LagBasedSegmentBalancer(Builder builder) {
+        this.stabilizationRounds = builder.stabilizationRounds;
+        this.cooldownRounds = builder.cooldownRounds;
+        this.releaseDuration = builder.releaseDuration;
+        this.splitLagThreshold = builder.splitLagThreshold;
+        this.maxSegmentCount = builder.maxSegmentCount;
+        this.discoveryRounds = builder.discoveryRounds;
+        this.expectedNodeCount = builder.expectedNodeCount;
+        this.nextDiscoveryRound = builder.discoveryRounds;
+    }
+
+    /**
+     * Instantiate a Builder to be able to create a {@link LagBasedSegmentBalancer}.
+     * <p>
+     * The {@code stabilizationRounds} defaults to {@code 3}, the {@code cooldownRounds} to {@code 6}, the
+     * {@code releaseDuration} to {@code 10000} milliseconds, the {@code splitLagThreshold} to {@code 10000} events, the
+     * {@code maxSegmentCount} to {@code 64}, the {@code discoveryRounds} to {@code 30} and the
+     * {@code expectedNodeCount} to {@code 1}.
+     *
+     * @return a Builder to be able to create a {@link LagBasedSegmentBalancer}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public void balance(@Nonnull SegmentClaims claims, @Nonnull StreamingEventProcessor processor) {
+        round++;
+        Optional<String> localOwner = claims.localOwner();
+        if (!localOwner.isPresent()) {
+            overloadedRounds = 0;
+            laggingRounds.clear();
+            return;
+        }
+
+        Map<String, Integer> segmentCountPerOwner = claims.segmentCountPerOwner();
+        int ownerCount = segmentCountPerOwner.size();
+        if (ownerCount > lastOwnerCount) {
+            discoveryBackoff = 1;
+        }
+        lastOwnerCount = ownerCount;
+
+        int segmentCount = claims.segments().size();
+        int localCount = segmentCountPerOwner.getOrDefault(localOwner.get(), 0);
+        int fairShare = (segmentCount + ownerCount - 1) / ownerCount;
+        boolean settled = claims.unclaimedSegmentCount() == 0;
+        overloadedRounds = settled && localCount > fairShare ? overloadedRounds + 1 : 0;
+        laggingRounds.keySet().retainAll(claims.localSegments());
+        for (Integer segment : claims.localSegments()) {
+            if (claims.lag(segment).orElse(0) >= splitLagThreshold) {
+                laggingRounds.merge(segment, 1, Integer::sum);
+            } else {
+                laggingRounds.remove(segment);
+            }
+        }
+
+        if (round < nextActionRound) {
+            return;
+        }
+        Optional<Integer> laggingSegment = mostLaggingSegment(claims);
+        if (overloadedRounds >= stabilizationRounds) {
+            int segment = leastLaggingSegment(claims);
+            logger.info("Processor [{}] claims {} of {} segments, exceeding its fair share of {}. Releasing segment {}.",
+                        processor.getName(), localCount, segmentCount, fairShare, segment);
+            processor.releaseSegment(segment, releaseDuration, MILLISECONDS);
+            actionTaken();
+        } else if (laggingSegment.isPresent() && segmentCount < maxSegmentCount && !splitUnsupported) {
+            int segment = laggingSegment.get();
+            logger.info("Processor [{}] splits segment {}, as it lags {} events behind.",
+                        processor.getName(), segment, claims.lag(segment).orElse(0));
+            processor.splitSegment(segment).whenComplete((split, e) -> {
+                if (e instanceof UnsupportedOperationException) {
+                    splitUnsupported = true;
+                    logger.warn("Processor [{}] does not support splitting segments. "
+                                        + "Lagging segments will no longer be split.", processor.getName());
+                } else if (e != null) {
+                    logger.warn("Processor [{}] failed to split segment {}.", processor.getName(), segment, e);
+                }
+            });
+            actionTaken();
+        } else if (isDiscoveryDue(settled, localOwner.get(), segmentCountPerOwner)) {
+            int segment = leastLaggingSegment(claims);
+            logger.debug("Processor [{}] releases segment {}, allowing idle nodes to claim it.",
+                         processor.getName(), segment);
+            processor.releaseSegment(segment, releaseDuration, MILLISECONDS);
+            nextDiscoveryRound = round + (long) discoveryRounds * discoveryBackoff;
+            discoveryBackoff = Math.min(discoveryBackoff * 2, MAX_DISCOVERY_BACKOFF);
+            actionTaken();
+        }
+    }
+
+    private Optional<Integer> mostLaggingSegment(SegmentClaims claims) {
+        return laggingRounds.entrySet()
+                            .stream()
+                            .filter(entry -> entry.getValue() >= stabilizationRounds)
+                            .map(Map.Entry::getKey)
+                            .max(Comparator.comparingLong(segment -> claims.lag(segment).orElse(0)));
+    }
+
+    private int leastLaggingSegment(SegmentClaims claims) {
+        return Collections.min(claims.localSegments(),
+                               Comparator.comparingLong(segment -> claims.lag(segment).orElse(Long.MAX_VALUE)));
+    }
+
+    private boolean isDiscoveryDue(boolean settled, String localOwner, Map<String, Integer> segmentCountPerOwner) {
+        if (discoveryRounds == 0 || segmentCountPerOwner.size() >= expectedNodeCount
+                || !settled || round < nextDiscoveryRound) {
+            return false;
+        }
+        int localCount = segmentCountPerOwner.get(localOwner);
+        int maxCount = Collections.max(segmentCountPerOwner.values());
+        if (localCount < 2 || localCount < maxCount) {
+            return false;
+        }
+        // Only the first of the nodes claiming the most segments releases one, so that they do not release at once
+        return segmentCountPerOwner.entrySet()
+                                   .stream()
+                                   .filter(entry -> entry.getValue() == maxCount)
+                                   .map(Map.Entry::getKey)
+                                   .min(Comparator.naturalOrder())
+                                   .map(localOwner::equals)
+                                   .orElse(false);
+    }
+
+    private void actionTaken() {
+        nextActionRound = round + cooldownRounds + 1;
+        overloadedRounds = 0;
+        laggingRounds.clear();
+    }
+
+    /**
+     * Builder class to instantiate a {@link LagBasedSegmentBalancer}.
+     * <p>
+     * The {@code stabilizationRounds} defaults to {@code 3}, the {@code cooldownRounds} to {@code 6}, the
+     * {@code releaseDuration} to {@code 10000} milliseconds, the {@code splitLagThreshold} to {@code 10000} events, the
+     * {@code maxSegmentCount} to {@code 64}, the {@code discoveryRounds} to {@code 30} and the
+     * {@code expectedNodeCount} to {@code 1}.
+     */
+    public static class Builder {
+
+        private int stabilizationRounds = 3;
+        private int cooldownRounds = 6;
+        private long releaseDuration = 10000;
+        private long splitLagThreshold = 10000;
+        private int maxSegmentCount = 64;
+        private int discoveryRounds = 30;
+        private int expectedNodeCount = 1;
+
+        /**
+         * Sets the number of consecutive balancing rounds in which a segment should be lagging, or this instance
+         * should claim more than its fair share of segments, before a segment is split or released. Defaults to
+         * {@code 3}.
+         *
+         * @param stabilizationRounds the number of consecutive rounds a condition should hold before acting on it
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder stabilizationRounds(int stabilizationRounds) {
+            assertStrictPositive(stabilizationRounds,
+                                 "The stabilization rounds should be a higher valuer than zero");
+            this.stabilizationRounds = stabilizationRounds;
+            return this;
+        }
+
+        /**
+         * Sets the number of balancing rounds in which no action is taken after a segment has been released or split,
+         * allowing the segment distribution to settle. Defaults to {@code 6}.
+         *
+         * @param cooldownRounds the number of rounds to skip after releasing or splitting a segment
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder cooldownRounds(int cooldownRounds) {
+            assertPositive(cooldownRounds, "The cooldown rounds should be a positive number");
+            this.cooldownRounds = cooldownRounds;
+            return this;
+        }
+
+        /**
+         * Sets the time in milliseconds during which this instance will not claim a segment it released. This should
+         * exceed the token claim interval of the other nodes, so that they get a chance to claim the segment. Defaults
+         * to {@code 10000} milliseconds.
+         *
+         * @param releaseDuration the time in milliseconds during which a released segment is not claimed again
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder releaseDuration(long releaseDuration) {
+            assertStrictPositive(releaseDuration, "The release duration should be a higher valuer than zero");
+            this.releaseDuration = releaseDuration;
+            return this;
+        }
+
+        /**
+         * Sets the number of events a segment should lag behind the head of the event stream to be split. Defaults to
+         * {@code 10000}.
+         *
+         * @param splitLagThreshold the number of events a segment should lag behind to be split
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder splitLagThreshold(long splitLagThreshold) {
+            assertStrictPositive(splitLagThreshold, "The split lag threshold should be a higher valuer than zero");
+            this.splitLagThreshold = splitLagThreshold;
+            return this;
+        }
+
+        /**
+         * Sets the number of segments beyond which lagging segments are no longer split. Defaults to {@code 64}.
+         *
+         * @param maxSegmentCount the number of segments beyond which lagging segments are no longer split
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder maxSegmentCount(int maxSegmentCount) {
+            assertStrictPositive(maxSegmentCount, "The max segment count should be a higher valuer than zero");
+            this.maxSegmentCount = maxSegmentCount;
+            return this;
+        }
+
+        /**
+         * Sets the number of balancing rounds between the releases of a segment by the instance claiming the most
+         * segments, allowing nodes that do not claim any segment to claim it. A value of {@code 0} disables these
+         * releases. Defaults to {@code 30}.
+         *
+         * @param discoveryRounds the number of rounds between releases to discover idle nodes, or {@code 0} to disable
+         *                        them
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder discoveryRounds(int discoveryRounds) {
+            assertPositive(discoveryRounds, "The discovery rounds should be a positive number");
+            this.discoveryRounds = discoveryRounds;
+            return this;
+        }
+
+        /**
+         * Sets the number of nodes expected to run this processor. While fewer nodes claim segments, the instance
+         * claiming the most segments periodically releases one to discover idle nodes, as configured through
+         * {@link #discoveryRounds(int)}. Defaults to {@code 1}, in which case segments are never released to discover
+         * idle nodes.
+         *
+         * @param expectedNodeCount the number of nodes expected to run this processor
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder expectedNodeCount(int expectedNodeCount) {
+            assertStrictPositive(expectedNodeCount, "The expected node count should be a higher valuer than zero");
+            this.expectedNodeCount = expectedNodeCount;
+            return this;
+        }
+
+        /**
+         * Initializes a {@link LagBasedSegmentBalancer} as specified through this Builder.
+         *
+         * @return a {@link LagBasedSegmentBalancer} as specified through this Builder
+         */
+        public LagBasedSegmentBalancer build() {
+            return new LagBasedSegmentBalancer(this);
+        }
+    }
+}
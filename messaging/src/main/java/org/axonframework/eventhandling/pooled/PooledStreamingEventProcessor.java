@@ -20,19 +20,25 @@
 import org.axonframework.common.AxonConfigurationException;
 import org.axonframework.common.transaction.TransactionManager;
 import org.axonframework.eventhandling.AbstractEventProcessor;
+import org.axonframework.eventhandling.AdaptiveBatchSizePolicy;
 import org.axonframework.eventhandling.ErrorHandler;
 import org.axonframework.eventhandling.EventHandlerInvoker;
 import org.axonframework.eventhandling.EventMessage;
 import org.axonframework.eventhandling.EventProcessor;
 import org.axonframework.eventhandling.EventTrackerStatus;
 import org.axonframework.eventhandling.GenericEventMessage;
+import org.axonframework.eventhandling.MultiEventHandlerInvoker;
+import org.axonframework.eventhandling.ParallelDeserializationStage;
 import org.axonframework.eventhandling.PropagatingErrorHandler;
+import org.axonframework.eventhandling.ReplayProfile;
 import org.axonframework.eventhandling.ReplayToken;
 import org.axonframework.eventhandling.Segment;
+import org.axonframework.eventhandling.SimpleEventHandlerInvoker;
 import org.axonframework.eventhandling.StreamingEventProcessor;
 import org.axonframework.eventhandling.TrackedEventMessage;
 import org.axonframework.eventhandling.TrackerStatus;
 import org.axonframework.eventhandling.TrackingToken;
+import org.axonframework.eventhandling.async.SequencingPolicy;
 import org.axonframework.eventhandling.tokenstore.TokenStore;
 import org.axonframework.lifecycle.Lifecycle;
 import org.axonframework.lifecycle.Phase;
@@ -49,21 +55,29 @@
 import java.time.Clock;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import javax.annotation.Nonnull;
 
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.axonframework.common.BuilderUtils.assertNonNull;
 import static org.axonframework.common.BuilderUtils.assertStrictPositive;
+import static org.axonframework.common.ObjectUtils.getOrDefault;
 
 /**
  * A {@link StreamingEventProcessor} implementation which pools it's resources to enhance processing speed. It utilizes
@@ -93,6 +107,7 @@ public class PooledStreamingEventProcessor extends AbstractEventProcessor implem
     private final StreamableMessageSource<TrackedEventMessage<?>> messageSource;
     private final TokenStore tokenStore;
     private final TransactionManager transactionManager;
+    private final ScheduledExecutorService coordinatorExecutor;
     private final ScheduledExecutorService workerExecutor;
     private final Coordinator coordinator;
     private final Function<StreamableMessageSource<TrackedEventMessage<?>>, TrackingToken> initialToken;
@@ -100,9 +115,20 @@ public class PooledStreamingEventProcessor extends AbstractEventProcessor implem
     private final int maxClaimedSegments;
     private final long claimExtensionThreshold;
     private final int batchSize;
+    private final AdaptiveBatchSizePolicy adaptiveBatchSizePolicy;
+    private final long tokenStoreInterval;
+    private final int maxUnstoredEvents;
+    private final SegmentBalancer segmentBalancer;
+    private final long balancingInterval;
+    private final int laneCount;
+    private final ExecutorService laneExecutor;
+    private final ReplayProfile replayProfile;
+    private final ParallelDeserializationStage deserializationStage;
+    private final Function<EventMessage<?>, Object> sequenceIdentifier;
     private final Clock clock;
 
     private final AtomicReference<String> tokenStoreIdentifier = new AtomicReference<>();
+    private final AtomicReference<ScheduledFuture<?>> balancingTask = new AtomicReference<>();
     private final Map<Integer, TrackerStatus> processingStatus = new ConcurrentHashMap<>();
 
     /**
@@ -119,6 +145,8 @@ public class PooledStreamingEventProcessor extends AbstractEventProcessor implem
      *     <li>A {@link ScheduledExecutorService} to process work packages.</li>
      * </ul>
      * If any of these is not present or does no comply to the requirements an {@link AxonConfigurationException} is thrown.
+     * This exception is also thrown when parallel lanes are configured, but no single {@link SequencingPolicy} can be
+     * derived from the {@link EventHandlerInvoker}.
      *
      * @param builder the {@link Builder} used to instantiate a {@link PooledStreamingEventProcessor} instance
      */
@@ -128,12 +156,26 @@ protected PooledStreamingEventProcessor(PooledStreamingEventProcessor.Builder bu
         this.messageSource = builder.messageSource;
         this.tokenStore = builder.tokenStore;
         this.transactionManager = builder.transactionManager;
+        this.coordinatorExecutor = builder.coordinatorExecutorBuilder.apply(name);
         this.workerExecutor = builder.workerExecutorBuilder.apply(name);
         this.initialToken = builder.initialToken;
         this.tokenClaimInterval = builder.tokenClaimInterval;
         this.maxClaimedSegments = builder.maxClaimedSegments;
         this.claimExtensionThreshold = builder.claimExtensionThreshold;
         this.batchSize = builder.batchSize;
+        this.adaptiveBatchSizePolicy = builder.adaptiveBatchSizePolicy;
+        this.tokenStoreInterval = builder.tokenStoreInterval;
+        this.maxUnstoredEvents = builder.maxUnstoredEvents;
+        this.segmentBalancer = builder.segmentBalancer;
+        this.balancingInterval = builder.balancingInterval;
+        this.laneCount = builder.laneCount;
+        this.laneExecutor = builder.laneExecutor;
+        this.replayProfile = builder.replayProfile;
+        this.deserializationStage = builder.deserializationExecutor != null
+                ? new ParallelDeserializationStage(builder.deserializationExecutor)
+                : null;
+        boolean usesLanes = laneCount > 1 || (replayProfile != null && replayProfile.laneCount() > 1);
+        this.sequenceIdentifier = usesLanes ? laneSequenceIdentifier(eventHandlerInvoker()) : null;
         this.clock = builder.clock;
 
         this.coordinator = Coordinator.builder()
@@ -141,7 +183,7 @@ protected PooledStreamingEventProcessor(PooledStreamingEventProcessor.Builder bu
                                       .messageSource(messageSource)
                                       .tokenStore(tokenStore)
                                       .transactionManager(transactionManager)
-                                      .executorService(builder.coordinatorExecutorBuilder.apply(name))
+                                      .executorService(coordinatorExecutor)
                                       .workPackageFactory(this::spawnWorker)
                                       .eventFilter(event -> canHandleType(event.getPayloadType()))
                                       .onMessageIgnored(this::reportIgnored)
@@ -175,6 +217,11 @@ protected PooledStreamingEventProcessor(PooledStreamingEventProcessor.Builder bu
      *     <li>The {@code maxCapacity} (used by {@link #maxCapacity()}) defaults to {@link Short#MAX_VALUE}.</li>
      *     <li>The {@code claimExtensionThreshold} defaults to {@code 5000} milliseconds.</li>
      *     <li>The {@code batchSize} defaults to {@code 1}.</li>
+     *     <li>Token storage is not coalesced, storing the {@link TrackingToken} with every batch.</li>
+     *     <li>Segments are not balanced over the nodes running this processor automatically.</li>
+     *     <li>The events of a batch are processed sequentially, rather than in parallel lanes.</li>
+     *     <li>Events are deserialized by the thread handling them, rather than ahead of handling in parallel.</li>
+     *     <li>Replays are processed with the same settings as live events, rather than a {@link ReplayProfile}.</li>
      *     <li>The {@link Clock} defaults to {@link GenericEventMessage#clock}.</li>
      *     <li>The {@link SpanFactory} defaults to {@link org.axonframework.tracing.NoOpSpanFactory}.</li>
      * </ul>
@@ -203,7 +250,24 @@ public void registerLifecycleHandlers(@Nonnull LifecycleRegistry handle) {
     @Override
     public void start() {
         logger.info("Starting PooledStreamingEventProcessor [{}].", name);
+        if (tokenStoreInterval > 0) {
+            logger.info("Processor [{}] coalesces token storage. After a failure, each segment may redeliver up to {} "
+                                + "events processed within the last {}ms, next to the batch in progress.",
+                        name, maxUnstoredEvents, Math.min(tokenStoreInterval, claimExtensionThreshold));
+        }
+        if (replayProfile != null) {
+            logger.info("Processor [{}] applies a replay profile while replaying. After a failure during a replay, "
+                                + "each segment may redeliver up to {} events processed within the last {}ms, next to "
+                                + "the batch in progress.",
+                        name, replayProfile.maxUnstoredEvents(),
+                        Math.min(replayProfile.tokenStoreInterval(), claimExtensionThreshold));
+        }
         coordinator.start();
+        if (segmentBalancer != null && balancingTask.get() == null) {
+            balancingTask.set(coordinatorExecutor.scheduleWithFixedDelay(
+                    this::balanceSegments, balancingInterval, balancingInterval, MILLISECONDS
+            ));
+        }
     }
 
     @Override
@@ -214,6 +278,10 @@ public void shutDown() {
     @Override
     public CompletableFuture<Void> shutdownAsync() {
         logger.info("Stopping processor [{}]", name);
+        ScheduledFuture<?> balancing = balancingTask.getAndSet(null);
+        if (balancing != null) {
+            balancing.cancel(false);
+        }
         return coordinator.stop();
     }
 
@@ -350,7 +418,70 @@ public Map<Integer, EventTrackerStatus> processingStatus() {
         return Collections.unmodifiableMap(processingStatus);
     }
 
+    /**
+     * Derives the sequence identifier deciding the lane of an event from the {@link SequencingPolicy} of the given
+     * {@code eventHandlerInvoker}. Like the {@link SimpleEventHandlerInvoker}, this falls back to the identifier of the
+     * event if the policy does not provide a sequence identifier.
+     *
+     * @param eventHandlerInvoker the {@link EventHandlerInvoker} to derive the {@link SequencingPolicy} from
+     * @return a function providing the sequence identifier of an event
+     * @throws AxonConfigurationException if no single {@link SequencingPolicy} can be derived
+     */
+    private static Function<EventMessage<?>, Object> laneSequenceIdentifier(EventHandlerInvoker eventHandlerInvoker) {
+        SequencingPolicy<? super EventMessage<?>> sequencingPolicy =
+                sequencingPolicyOf(eventHandlerInvoker).orElseThrow(() -> new AxonConfigurationException(
+                        "Parallel lanes require the event handlers of a processor to share a single SequencingPolicy"
+                ));
+        return event -> getOrDefault(sequencingPolicy.getSequenceIdentifierFor(event), event::getIdentifier);
+    }
+
+    private static Optional<SequencingPolicy<? super EventMessage<?>>> sequencingPolicyOf(
+            EventHandlerInvoker eventHandlerInvoker
+    ) {
+        if (eventHandlerInvoker instanceof SimpleEventHandlerInvoker) {
+            return Optional.of(((SimpleEventHandlerInvoker) eventHandlerInvoker).getSequencingPolicy());
+        }
+        if (eventHandlerInvoker instanceof MultiEventHandlerInvoker) {
+            List<Optional<SequencingPolicy<? super EventMessage<?>>>> policies =
+                    ((MultiEventHandlerInvoker) eventHandlerInvoker).delegates()
+                                                                   .stream()
+                                                                   .map(PooledStreamingEventProcessor::sequencingPolicyOf)
+                                                                   .distinct()
+                                                                   .collect(Collectors.toList());
+            return policies.size() == 1 ? policies.get(0) : Optional.empty();
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Provides the configured {@link SegmentBalancer} with a {@link SegmentClaims} snapshot of the segments of this
+     * processor. The lag of the segments claimed by this instance is based on the head of the event stream.
+     */
+    private void balanceSegments() {
+        try {
+            Map<Integer, Long> localLag = new HashMap<>();
+            TrackingToken headToken = messageSource.createHeadToken();
+            OptionalLong headPosition = headToken != null ? headToken.position() : OptionalLong.empty();
+            processingStatus.forEach((segmentId, status) -> {
+                OptionalLong position = status.getCurrentPosition();
+                localLag.put(segmentId, headPosition.isPresent() && position.isPresent()
+                        ? Math.max(0, headPosition.getAsLong() - position.getAsLong())
+                        : null);
+            });
+            SegmentClaims claims = transactionManager.fetchInTransaction(() -> new SegmentClaims(
+                    tokenStore.fetchSegments(name), tokenStore.fetchSegmentOwners(name), localLag
+            ));
+            segmentBalancer.balance(claims, this);
+        } catch (Exception e) {
+            logger.warn("Processor [{}] failed to balance its segments. Retrying in {}ms.",
+                        name, balancingInterval, e);
+        }
+    }
+
     private WorkPackage spawnWorker(Segment segment, TrackingToken initialToken) {
+        AdaptiveBatchSizePolicy.Controller batchSizeController =
+                adaptiveBatchSizePolicy != null ? adaptiveBatchSizePolicy.createController() : null;
+        TrackerStatus initialStatus = new TrackerStatus(segment, initialToken);
         return WorkPackage.builder()
                           .name(name)
                           .tokenStore(tokenStore)
@@ -361,9 +492,20 @@ private WorkPackage spawnWorker(Segment segment, TrackingToken initialToken) {
                           .segment(segment)
                           .initialToken(initialToken)
                           .batchSize(batchSize)
+                          .batchSizeController(batchSizeController)
                           .claimExtensionThreshold(claimExtensionThreshold)
+                          .tokenStoreInterval(tokenStoreInterval)
+                          .maxUnstoredEvents(maxUnstoredEvents)
+                          .laneCount(laneCount)
+                          .laneExecutor(laneExecutor)
+                          .sequenceIdentifier(sequenceIdentifier)
+                          .replayProfile(replayProfile)
+                          .deserializationStage(deserializationStage)
                           .segmentStatusUpdater(singleStatusUpdater(
-                                  segment.getSegmentId(), new TrackerStatus(segment, initialToken)
+                                  segment.getSegmentId(),
+                                  batchSizeController != null
+                                          ? initialStatus.withBatchSize(batchSizeController.batchSize())
+                                          : initialStatus
                           ))
                           .clock(clock)
                           .build();
@@ -412,6 +554,11 @@ private void statusUpdater(int segmentId, UnaryOperator<TrackerStatus> segmentUp
      *     <li>The {@code maxClaimedSegments} (used by {@link #maxCapacity()}) defaults to {@value Short#MAX_VALUE}.</li>
      *     <li>The {@code claimExtensionThreshold} defaults to {@code 5000} milliseconds.</li>
      *     <li>The {@code batchSize} defaults to {@code 1}.</li>
+     *     <li>Token storage is not coalesced, storing the {@link TrackingToken} with every batch.</li>
+     *     <li>Segments are not balanced over the nodes running this processor automatically.</li>
+     *     <li>The events of a batch are processed sequentially, rather than in parallel lanes.</li>
+     *     <li>Events are deserialized by the thread handling them, rather than ahead of handling in parallel.</li>
+     *     <li>Replays are processed with the same settings as live events, rather than a {@link ReplayProfile}.</li>
      *     <li>The {@link Clock} defaults to {@link GenericEventMessage#clock}.</li>
      *     <li>The {@link SpanFactory} defaults to a {@link org.axonframework.tracing.NoOpSpanFactory}.</li>
      * </ul>
@@ -439,6 +586,15 @@ public static class Builder extends AbstractEventProcessor.Builder {
         private int maxClaimedSegments = Short.MAX_VALUE;
         private long claimExtensionThreshold = 5000;
         private int batchSize = 1;
+        private AdaptiveBatchSizePolicy adaptiveBatchSizePolicy;
+        private long tokenStoreInterval = 0;
+        private int maxUnstoredEvents = 1;
+        private SegmentBalancer segmentBalancer;
+        private long balancingInterval;
+        private int laneCount = 1;
+        private ExecutorService laneExecutor;
+        private ReplayProfile replayProfile;
+        private ExecutorService deserializationExecutor;
         private Clock clock = GenericEventMessage.clock;
 
         protected Builder() {
@@ -699,6 +855,138 @@ public Builder batchSize(int batchSize) {
             return this;
         }
 
+        /**
+         * Specifies the {@link AdaptiveBatchSizePolicy} adapting the number of events each work package processes in
+         * a single transaction to the observed commit latency and the events waiting to be processed. When set, the
+         * policy's bounds take precedence over the static {@link #batchSize(int) batch size}. The current batch size
+         * of each segment is reported through {@link EventTrackerStatus#getBatchSize()}.
+         * <p>
+         * Note that a work package buffers a limited number of events, which bounds the batch size it can reach.
+         *
+         * @param adaptiveBatchSizePolicy the {@link AdaptiveBatchSizePolicy} adapting the batch size of each work
+         *                                package
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder adaptiveBatchSize(@Nonnull AdaptiveBatchSizePolicy adaptiveBatchSizePolicy) {
+            assertNonNull(adaptiveBatchSizePolicy, "The AdaptiveBatchSizePolicy may not be null");
+            this.adaptiveBatchSizePolicy = adaptiveBatchSizePolicy;
+            return this;
+        }
+
+        /**
+         * Enables coalesced token storage, deferring the storage of the {@link TrackingToken} of a segment until either
+         * the given {@code tokenStoreInterval} in milliseconds has passed since the token was last stored, or storing
+         * the next batch would leave more than {@code maxUnstoredEvents} processed events unaccounted for. The token
+         * is also stored whenever its claim is due for extension, as defined by the {@link
+         * #claimExtensionThreshold(long)}. By default, the token is stored in the transaction of every batch.
+         * <p>
+         * Any unstored progress is flushed when a segment is released, split, merged or when this processor shuts down.
+         * Note that this trades the exactly-once processing within a transaction for bounded at-least-once delivery:
+         * when processing fails or the processor stops unexpectedly, up to {@code maxUnstoredEvents} events processed
+         * within the last {@code tokenStoreInterval} may be redelivered per segment. Hence this mode should only be used
+         * for idempotent event handlers.
+         *
+         * @param tokenStoreInterval the maximum time in milliseconds to defer storing the {@link TrackingToken} of a
+         *                           segment
+         * @param maxUnstoredEvents  the maximum number of processed events left unaccounted for in the stored {@link
+         *                           TrackingToken} of a segment
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder coalescedTokenStorage(long tokenStoreInterval, int maxUnstoredEvents) {
+            assertStrictPositive(tokenStoreInterval, "The token store interval should be a higher valuer than zero");
+            assertStrictPositive(maxUnstoredEvents, "The max unstored events should be a higher valuer than zero");
+            this.tokenStoreInterval = tokenStoreInterval;
+            this.maxUnstoredEvents = maxUnstoredEvents;
+            return this;
+        }
+
+        /**
+         * Specifies the {@link SegmentBalancer} balancing the segments of this processor over the nodes running it.
+         * The balancer is invoked every {@code balancingInterval} milliseconds on the coordinator's
+         * {@link ScheduledExecutorService}, with a {@link SegmentClaims} snapshot of the owners of the segments in the
+         * {@link TokenStore} and the lag of the segments claimed by this instance. By default, segments are not
+         * balanced automatically.
+         * <p>
+         * Note that the {@link TokenStore} should report the owners of segments through
+         * {@link TokenStore#fetchSegmentOwners(String)} for the balancer to act.
+         *
+         * @param segmentBalancer   the {@link SegmentBalancer} balancing the segments of this processor
+         * @param balancingInterval the time in milliseconds between the invocations of the {@code segmentBalancer}
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder segmentBalancer(@Nonnull SegmentBalancer segmentBalancer, long balancingInterval) {
+            assertNonNull(segmentBalancer, "The SegmentBalancer may not be null");
+            assertStrictPositive(balancingInterval, "The balancing interval should be a higher valuer than zero");
+            this.segmentBalancer = segmentBalancer;
+            this.balancingInterval = balancingInterval;
+            return this;
+        }
+
+        /**
+         * Enables processing the events of each batch in parallel lanes. The events of a batch are divided over the
+         * given {@code laneCount} lanes by their sequence identifier, as defined by the {@link SequencingPolicy} of the
+         * event handlers. Hence the events of a sequence are processed in order, while different sequences are
+         * processed in parallel. The first lane is processed by the work package's thread, the others by the given
+         * {@code laneExecutor}, which may be shared by all work packages. By default, the events of a batch are
+         * processed sequentially.
+         * <p>
+         * Every lane is processed in a {@link org.axonframework.messaging.unitofwork.UnitOfWork} and transaction of its
+         * own. The {@link TrackingToken} is stored once all lanes of a batch have committed. Should a lane fail, the
+         * lanes that committed are redelivered together with the failed lane. Note that all event handlers of this
+         * processor should use the same {@link SequencingPolicy}, otherwise an {@link AxonConfigurationException} is
+         * thrown when building this processor.
+         *
+         * @param laneCount    the number of lanes the events of a batch are divided over
+         * @param laneExecutor the {@link ExecutorService} processing all but the first lane of a batch
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder parallelLanes(int laneCount, @Nonnull ExecutorService laneExecutor) {
+            assertStrictPositive(laneCount, "The lane count should be a higher valuer than zero");
+            assertNonNull(laneExecutor, "The lane ExecutorService may not be null");
+            this.laneCount = laneCount;
+            this.laneExecutor = laneExecutor;
+            return this;
+        }
+
+        /**
+         * Specifies the {@link ReplayProfile} whose settings a segment applies while it is replaying events, instead of
+         * the {@link #batchSize(int) batch size}, {@link #coalescedTokenStorage(long, int) token storage},
+         * {@link #parallelLanes(int, ExecutorService) lanes} and buffer size configured for live processing. A segment
+         * switches back to the live settings automatically once its replay has caught up. By default, replays are
+         * processed with the live settings.
+         * <p>
+         * Note that an {@link AxonConfigurationException} is thrown when building this processor if the profile
+         * divides batches over lanes, while the event handlers of this processor do not share a single
+         * {@link SequencingPolicy}.
+         *
+         * @param replayProfile the {@link ReplayProfile} whose settings a segment applies while replaying events
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder replayProfile(@Nonnull ReplayProfile replayProfile) {
+            assertNonNull(replayProfile, "The ReplayProfile may not be null");
+            this.replayProfile = replayProfile;
+            return this;
+        }
+
+        /**
+         * Specifies the {@link ExecutorService} deserializing events ahead of handling them. Events are submitted to
+         * the {@code deserializationExecutor} as soon as they are scheduled to a work package, so that their payload
+         * and {@link org.axonframework.messaging.MetaData} are deserialized and upcast in parallel, while the work
+         * package handles the preceding batch. Events a work package cannot handle are not deserialized. By default,
+         * events are deserialized by the thread handling them.
+         * <p>
+         * A bounded pool, like a {@link java.util.concurrent.ForkJoinPool} with a parallelism matching the available
+         * processors, is recommended. Events the executor rejects are deserialized when handled.
+         *
+         * @param deserializationExecutor the {@link ExecutorService} deserializing events ahead of handling them
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder deserializationExecutor(@Nonnull ExecutorService deserializationExecutor) {
+            assertNonNull(deserializationExecutor, "The deserialization ExecutorService may not be null");
+            this.deserializationExecutor = deserializationExecutor;
+            return this;
+        }
+
         /**
          * Defines the {@link Clock} used for time dependent operation by this {@link EventProcessor}. Used by the
          * {@link Coordinator} and {@link WorkPackage} threads to decide when to perform certain tasks, like updating
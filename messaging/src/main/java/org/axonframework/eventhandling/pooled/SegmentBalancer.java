@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2010-2022. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventhandling.pooled;
+
+import org.axonframework.eventhandling.StreamingEventProcessor;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Balances the segments of a {@link PooledStreamingEventProcessor} over the nodes processing them. A balancer is
+ * periodically invoked by every processor instance it is configured on, with a {@link SegmentClaims} snapshot of the
+ * segment distribution. Based on that, it may release segments claimed by the instance, so that other nodes claim them,
+ * or split segments to spread their load.
+ * <p>
+ * A balancer is invoked by a single thread at a time and may keep state between invocations, for example to only act
+ * on conditions that persist for several invocations. Hence a balancer instance should not be shared between processor
+ * instances.
+ *
+ * @see LagBasedSegmentBalancer
+ * @since 4.7.0
+ */
+@FunctionalInterface
+public interface SegmentBalancer {
+
+    /**
+     * Balances the segments of the given {@code processor}, based on the given {@code claims}. Segments are rebalanced
+     * through operations like {@link StreamingEventProcessor#releaseSegment(int, long, java.util.concurrent.TimeUnit)}
+     * and {@link StreamingEventProcessor#splitSegment(int)} of the given {@code processor}.
+     *
+     * @param claims    the current distribution of the segments of the {@code processor}
+     * @param processor the processor instance to balance the segments of
+     */
+    void balance(@Nonnull SegmentClaims claims, @Nonnull StreamingEventProcessor processor);
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2010-2022. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventhandling.pooled;
+
+import org.axonframework.eventhandling.tokenstore.TokenStore;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.TreeSet;
+import javax.annotation.Nonnull;
+
+/**
+ * Snapshot of the distribution of the segments of a {@link PooledStreamingEventProcessor} over the nodes processing
+ * them, as seen by a single processor instance. Provided to a {@link SegmentBalancer} to decide whether the instance
+ * should release or split any of its segments.
+ * <p>
+ * The owners of the segments are retrieved through {@link TokenStore#fetchSegmentOwners(String)}. The lag of a segment
+ * is the number of events between the position of the segment and the head of the event stream, and is only known for
+ * the segments claimed by this instance.
+ *
+ * @since 4.7.0
+ */
+public class SegmentClaims {
+
+    private final Set<Integer> segments;
+    private final Map<Integer, String> owners;
+    private final Map<Integer, Long> localLag;
+
+    /**
+     * Instantiate a {@link SegmentClaims} snapshot.
+     *
+     * @param segments the identifiers of all segments of the processor
+     * @param owners   the identifiers of the nodes owning a claim on the segments, by segment identifier
+     * @param localLag the lag of the segments claimed by this instance, by segment identifier. A {@code null} lag
+     *                 signals the lag of a segment is unknown
+     */
+    public SegmentClaims(@Nonnull int[] segments,
+                         @Nonnull Map<Integer, String> owners,
+                         @Nonnull Map<Integer, Long> localLag) {
+        Set<Integer> segmentIds = new TreeSet<>();
+        for (int segment : segments) {
+            segmentIds.add(segment);
+        }
+        this.segments = Collections.unmodifiableSet(segmentIds);
+        this.owners = Collections.unmodifiableMap(new HashMap<>(owners));
+        this.localLag = Collections.unmodifiableMap(new HashMap<>(localLag));
+    }
+
+    /**
+     * Returns the identifiers of all segments of the processor.
+     *
+     * @return the identifiers of all segments of the processor
+     */
+    public Set<Integer> segments() {
+        return segments;
+    }
+
+    /**
+     * Returns the identifiers of the nodes owning a claim on the segments, by segment identifier. Segments that are not
+     * claimed are absent.
+     *
+     * @return the identifiers of the nodes owning a claim on the segments, by segment identifier
+     */
+    public Map<Integer, String> owners() {
+        return owners;
+    }
+
+    /**
+     * Returns the identifiers of the segments claimed by this instance.
+     *
+     * @return the identifiers of the segments claimed by this instance
+     */
+    public Set<Integer> localSegments() {
+        return localLag.keySet();
+    }
+
+    /**
+     * Returns the lag of the given {@code segmentId}, if it is claimed by this instance and its lag is known.
+     *
+     * @param segmentId the identifier of the segment to return the lag for
+     * @return the number of events between the position of the segment and the head of the event stream
+     */
+    public OptionalLong lag(int segmentId) {
+        Long lag = localLag.get(segmentId);
+        return lag == null ? OptionalLong.empty() : OptionalLong.of(lag);
+    }
+
+    /**
+     * Returns the identifier this instance uses to claim segments, as found in the {@link #owners()}. This is empty if
+     * this instance claims no segments, or if the {@link TokenStore} does not report the owners of segments.
+     *
+     * @return the identifier this instance uses to claim segments
+     */
+    public Optional<String> localOwner() {
+        return localSegments().stream()
+                              .map(owners::get)
+                              .filter(Objects::nonNull)
+                              .findFirst();
+    }
+
+    /**
+     * Returns the number of segments claimed per node, by the identifier of the node. Nodes that do not claim any
+     * segment are absent.
+     *
+     * @return the number of segments claimed per node
+     */
+    public Map<String, Integer> segmentCountPerOwner() {
+        Map<String, Integer> counts = new HashMap<>();
+        owners.forEach((segment, owner) -> {
+            if (segments.contains(segment)) {
+                counts.merge(owner, 1, Integer::sum);
+            }
+        });
+        return counts;
+    }
+
+    /**
+     * Returns the number of segments that are not claimed by any node.
+     *
+     * @return the number of segments that are not claimed by any node
+     */
+    public int unclaimedSegmentCount() {
+        return (int) segments.stream().filter(segment -> !owners.containsKey(segment)).count();
+    }
+}
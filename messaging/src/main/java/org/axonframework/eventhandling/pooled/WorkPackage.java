@@ -18,8 +18,13 @@
 
 import org.axonframework.common.Assert;
 import org.axonframework.common.transaction.TransactionManager;
+import org.axonframework.eventhandling.AdaptiveBatchSizePolicy;
 import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.EventProcessingException;
 import org.axonframework.eventhandling.GenericEventMessage;
+import org.axonframework.eventhandling.ParallelDeserializationStage;
+import org.axonframework.eventhandling.ReplayProfile;
+import org.axonframework.eventhandling.ReplayToken;
 import org.axonframework.eventhandling.Segment;
 import org.axonframework.eventhandling.TrackedEventMessage;
 import org.axonframework.eventhandling.TrackerStatus;
@@ -41,10 +46,14 @@
 import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.UnaryOperator;
 
 /**
@@ -59,7 +68,19 @@
  * <p>
  * Since the {@code WorkPackage} is in charge of a {@code Segment}, it maintains the claim on the matching {@link
  * TrackingToken}. In absence of new events, it will also {@link TokenStore#extendClaim(String, int)} on the {@code
- * TrackingToken}.
+ * TrackingToken}, unless the {@link Coordinator} extended it as part of a batch spanning several work packages.
+ * <p>
+ * By default, the token is stored with every processed batch. When a {@code tokenStoreInterval} and {@code
+ * maxUnstoredEvents} are configured, storing the token is deferred until either bound is reached, or until the claim
+ * is due for extension. Any progress that has not been stored yet is flushed when the {@code WorkPackage} is aborted.
+ * <p>
+ * When a {@code laneCount} higher than one is configured, every batch is divided over that number of lanes based on
+ * the sequence identifier of the events. Each lane processes its events in order, in a unit of work of its own, while
+ * the lanes run in parallel on the {@code laneExecutor}. The token is stored once all lanes have committed. Should
+ * any lane fail or roll back, the {@code WorkPackage} is aborted, so that the batch is redelivered as a whole.
+ * <p>
+ * When a {@link ReplayProfile} is configured, its settings replace the batch size, token storage bounds, buffer size
+ * and lanes for as long as the {@code WorkPackage} is replaying events, as indicated by a {@link ReplayToken}.
  *
  * @author Allard Buijze
  * @author Steven van Beelen
@@ -81,14 +102,26 @@ class WorkPackage {
     private final BatchProcessor batchProcessor;
     private final Segment segment;
     private final int batchSize;
+    private final AdaptiveBatchSizePolicy.Controller batchSizeController;
     private final long claimExtensionThreshold;
+    private final long tokenStoreInterval;
+    private final int maxUnstoredEvents;
+    private final int laneCount;
+    private final ExecutorService laneExecutor;
+    private final Function<EventMessage<?>, Object> sequenceIdentifier;
+    private final ReplayProfile replayProfile;
+    private final ParallelDeserializationStage deserializationStage;
     private final Consumer<UnaryOperator<TrackerStatus>> segmentStatusUpdater;
     private final Clock clock;
 
     private TrackingToken lastDeliveredToken; // For use only by event delivery threads, like Coordinator
     private TrackingToken lastConsumedToken;
+    private TrackingToken lastCommittedToken;
     private TrackingToken lastStoredToken;
     private long lastClaimExtension;
+    private long lastTokenStore;
+    private int unstoredEventCount;
+    private boolean replayProfileActive;
 
     private final Queue<ProcessingEntry> processingQueue = new ConcurrentLinkedQueue<>();
     private final AtomicBoolean scheduled = new AtomicBoolean();
@@ -115,12 +148,22 @@ private WorkPackage(Builder builder) {
         this.segment = builder.segment;
         this.lastDeliveredToken = builder.initialToken;
         this.batchSize = builder.batchSize;
+        this.batchSizeController = builder.batchSizeController;
         this.claimExtensionThreshold = builder.claimExtensionThreshold;
+        this.tokenStoreInterval = builder.tokenStoreInterval;
+        this.maxUnstoredEvents = builder.maxUnstoredEvents;
+        this.laneCount = builder.laneCount;
+        this.laneExecutor = builder.laneExecutor;
+        this.sequenceIdentifier = builder.sequenceIdentifier;
+        this.replayProfile = builder.replayProfile;
+        this.deserializationStage = builder.deserializationStage;
         this.segmentStatusUpdater = builder.segmentStatusUpdater;
         this.clock = builder.clock;
 
         this.lastConsumedToken = builder.initialToken;
+        this.lastCommittedToken = builder.initialToken;
         this.lastClaimExtension = System.currentTimeMillis();
+        this.lastTokenStore = clock.instant().toEpochMilli();
     }
 
     /**
@@ -164,6 +207,7 @@ public boolean scheduleEvents(List<TrackedEventMessage<?>> events) {
         boolean canHandleAny = events.stream()
                                      .map(event -> {
                                          boolean canHandle = canHandle(event);
+                                         deserializeAhead(event, canHandle);
                                          batchProcessingEntry.add(new DefaultProcessingEntry(event, canHandle));
                                          return canHandle;
                                      })
@@ -210,6 +254,7 @@ public boolean scheduleEvent(TrackedEventMessage<?> event) {
                      event.getIdentifier(), event.trackingToken().position().orElse(-1), segment.getSegmentId());
 
         boolean canHandle = canHandle(event);
+        deserializeAhead(event, canHandle);
         processingQueue.add(new DefaultProcessingEntry(event, canHandle));
         lastDeliveredToken = event.trackingToken();
         // the worker must always be scheduled to ensure claims are extended
@@ -232,6 +277,12 @@ private boolean shouldNotSchedule(TrackedEventMessage<?> event) {
         return lastDeliveredToken != null && lastDeliveredToken.covers(event.trackingToken());
     }
 
+    private void deserializeAhead(TrackedEventMessage<?> event, boolean canHandle) {
+        if (canHandle && deserializationStage != null) {
+            deserializationStage.deserialize(event);
+        }
+    }
+
     private boolean canHandle(TrackedEventMessage<?> event) {
         try {
             return eventFilter.canHandle(event, segment);
@@ -261,6 +312,7 @@ public void scheduleWorker() {
             if (aborting != null) {
                 logger.debug("Work Package [{}]-[{}] should be aborted. Will shutdown this work package.",
                              segment.getSegmentId(), name);
+                flushUnstoredToken();
                 segmentStatusUpdater.accept(previousStatus -> null);
                 aborting.complete(abortException.get());
                 return;
@@ -284,7 +336,15 @@ public void scheduleWorker() {
 
     private void processEvents() throws Exception {
         List<TrackedEventMessage<?>> eventBatch = new ArrayList<>();
-        while (!isAbortTriggered() && eventBatch.size() < batchSize && !processingQueue.isEmpty()) {
+        boolean replaying = isReplaying(lastConsumedToken);
+        if (replaying != replayProfileActive) {
+            logger.info("Work Package [{}]-[{}] {}.", segment.getSegmentId(), name,
+                        replaying ? "is replaying and switches to its replay profile"
+                                : "has finished replaying and switches back to its regular settings");
+            replayProfileActive = replaying;
+        }
+        int currentBatchSize = currentBatchSize(replaying);
+        while (!isAbortTriggered() && eventBatch.size() < currentBatchSize && !processingQueue.isEmpty()) {
             ProcessingEntry entry = processingQueue.poll();
             lastConsumedToken = WrappedToken.advance(lastConsumedToken, entry.trackingToken());
             entry.addToBatch(eventBatch, lastConsumedToken);
@@ -296,17 +356,42 @@ private void processEvents() throws Exception {
         if (!eventBatch.isEmpty()) {
             logger.debug("Work Package [{}]-[{}] is processing a batch of {} events.",
                          segment.getSegmentId(), name, eventBatch.size());
-            UnitOfWork<TrackedEventMessage<?>> unitOfWork = new BatchingUnitOfWork<>(eventBatch);
-            unitOfWork.attachTransaction(transactionManager);
-            unitOfWork.onPrepareCommit(u -> storeToken(lastConsumedToken));
-            unitOfWork.afterCommit(
-                    u -> segmentStatusUpdater.accept(status -> status.advancedTo(lastConsumedToken))
-            );
-            batchProcessor.processBatch(eventBatch, unitOfWork, Collections.singleton(segment));
+            int batchEventCount = eventBatch.size();
+            boolean storeToken = isTokenStoreDue(batchEventCount, replaying);
+            int lanes = replaying ? replayProfile.laneCount() : laneCount;
+            long processingStart = System.nanoTime();
+            if (lanes > 1 && batchEventCount > 1) {
+                processInLanes(eventBatch, lanes, replaying ? replayProfile.laneExecutor() : laneExecutor);
+                if (storeToken) {
+                    transactionManager.executeInTransaction(() -> storeToken(lastConsumedToken));
+                }
+                batchCommitted(batchEventCount, storeToken);
+            } else {
+                UnitOfWork<TrackedEventMessage<?>> unitOfWork = new BatchingUnitOfWork<>(eventBatch);
+                unitOfWork.attachTransaction(transactionManager);
+                if (storeToken) {
+                    unitOfWork.onPrepareCommit(u -> storeToken(lastConsumedToken));
+                }
+                unitOfWork.afterCommit(u -> batchCommitted(batchEventCount, storeToken));
+                batchProcessor.processBatch(eventBatch, unitOfWork, Collections.singleton(segment));
+            }
+            if (batchSizeController != null && !replaying) {
+                // Replayed batches are sized by the replay profile, and should not affect the regular batch size
+                long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - processingStart);
+                batchSizeController.onBatchProcessed(batchEventCount, latency, !processingQueue.isEmpty());
+            }
+            if (batchSizeController != null || replayProfile != null) {
+                int nextBatchSize = currentBatchSize(isReplaying(lastConsumedToken));
+                segmentStatusUpdater.accept(status -> status.withBatchSize(nextBatchSize));
+            }
         } else {
+            lastCommittedToken = lastConsumedToken;
             segmentStatusUpdater.accept(status -> status.advancedTo(lastConsumedToken));
-            if (lastClaimExtension < clock.instant().toEpochMilli() - claimExtensionThreshold) {
-                if (lastStoredToken != lastConsumedToken) {
+            long now = clock.instant().toEpochMilli();
+            boolean claimExtensionDue = lastClaimExtension < now - claimExtensionThreshold;
+            if (claimExtensionDue || (isCoalescingTokenStorage(replaying) && hasUnstoredToken()
+                    && lastTokenStore <= now - tokenStoreInterval(replaying))) {
+                if (hasUnstoredToken()) {
                     transactionManager.executeInTransaction(() -> storeToken(lastConsumedToken));
                 } else {
                     transactionManager.executeInTransaction(this::extendClaim);
@@ -315,6 +400,93 @@ private void processEvents() throws Exception {
         }
     }
 
+    private boolean isReplaying(TrackingToken token) {
+        return replayProfile != null && ReplayToken.isReplay(token);
+    }
+
+    private int currentBatchSize(boolean replaying) {
+        if (replaying) {
+            return replayProfile.batchSize();
+        }
+        return batchSizeController != null ? batchSizeController.batchSize() : batchSize;
+    }
+
+    private void batchCommitted(int batchEventCount, boolean tokenStored) {
+        lastCommittedToken = lastConsumedToken;
+        if (!tokenStored) {
+            unstoredEventCount += batchEventCount;
+        }
+        segmentStatusUpdater.accept(status -> status.advancedTo(lastConsumedToken));
+    }
+
+    /**
+     * Divides the given {@code eventBatch} over the given number of {@code lanes} by the sequence identifier of the
+     * events, and processes the lanes in parallel. The first lane is processed by the current thread, the others by the
+     * given {@code laneExecutor}. Should any lane fail, or should the {@code laneExecutor} reject a lane, this method
+     * waits for all other lanes to complete before rethrowing the failure.
+     * <p>
+     * A lane that is rolled back without failing, for example because the error handler ignored the error, fails the
+     * batch as well. The other lanes may have committed already, so the token cannot reflect the batch as a whole.
+     *
+     * @param eventBatch   the batch of events to process
+     * @param laneCount    the number of lanes to divide the events over
+     * @param laneExecutor the {@link ExecutorService} processing all but the first lane
+     * @throws Exception if processing any of the lanes failed or was rolled back
+     */
+    private void processInLanes(List<TrackedEventMessage<?>> eventBatch,
+                                int laneCount,
+                                ExecutorService laneExecutor) throws Exception {
+        List<List<TrackedEventMessage<?>>> lanes = new ArrayList<>();
+        for (int i = 0; i < laneCount; i++) {
+            lanes.add(new ArrayList<>());
+        }
+        for (TrackedEventMessage<?> event : eventBatch) {
+            lanes.get(Math.floorMod(Objects.hashCode(sequenceIdentifier.apply(event)), laneCount)).add(event);
+        }
+        lanes.removeIf(List::isEmpty);
+
+        List<Future<Boolean>> laneResults = new ArrayList<>();
+        boolean committed = false;
+        Exception failure = null;
+        try {
+            for (List<TrackedEventMessage<?>> lane : lanes.subList(1, lanes.size())) {
+                laneResults.add(laneExecutor.submit(() -> processLane(lane)));
+            }
+            committed = processLane(lanes.get(0));
+        } catch (Exception e) {
+            failure = e;
+        }
+        for (Future<Boolean> laneResult : laneResults) {
+            try {
+                committed &= laneResult.get();
+            } catch (ExecutionException e) {
+                Exception laneFailure = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                if (failure == null) {
+                    failure = laneFailure;
+                } else {
+                    failure.addSuppressed(laneFailure);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        if (!committed) {
+            throw new EventProcessingException(
+                    "A lane of the batch has been rolled back, while other lanes may have been committed", null
+            );
+        }
+    }
+
+    private boolean processLane(List<TrackedEventMessage<?>> laneBatch) throws Exception {
+        logger.debug("Work Package [{}]-[{}] is processing a lane of {} events.",
+                     segment.getSegmentId(), name, laneBatch.size());
+        UnitOfWork<TrackedEventMessage<?>> unitOfWork = new BatchingUnitOfWork<>(laneBatch);
+        unitOfWork.attachTransaction(transactionManager);
+        batchProcessor.processBatch(laneBatch, unitOfWork, Collections.singleton(segment));
+        return !unitOfWork.isRolledBack();
+    }
+
     private void extendClaim() {
         logger.debug("Work Package [{}]-[{}] will extend its token claim.", name, segment.getSegmentId());
         tokenStore.extendClaim(name, segment.getSegmentId());
@@ -324,19 +496,72 @@ private void extendClaim() {
     private void storeToken(TrackingToken token) {
         logger.debug("Work Package [{}]-[{}] will store token [{}].", name, segment.getSegmentId(), token);
         tokenStore.storeToken(token, name, segment.getSegmentId());
+        tokenStored(token);
+    }
+
+    private void tokenStored(TrackingToken token) {
         lastStoredToken = token;
         lastClaimExtension = clock.instant().toEpochMilli();
+        lastTokenStore = lastClaimExtension;
+        unstoredEventCount = 0;
+    }
+
+    private boolean isCoalescingTokenStorage(boolean replaying) {
+        return tokenStoreInterval(replaying) > 0;
+    }
+
+    private long tokenStoreInterval(boolean replaying) {
+        return replaying ? replayProfile.tokenStoreInterval() : tokenStoreInterval;
+    }
+
+    /**
+     * Validates whether the token should be stored as part of a batch of the given {@code batchEventCount}. This is
+     * always the case, unless token storage is coalesced. Coalesced tokens are stored once the number of unstored
+     * events would exceed the {@code maxUnstoredEvents}, the {@code tokenStoreInterval} has passed since the last
+     * store, or the claim is due for extension. While {@code replaying}, the bounds of the {@link ReplayProfile} apply.
+     */
+    private boolean isTokenStoreDue(int batchEventCount, boolean replaying) {
+        if (!isCoalescingTokenStorage(replaying)) {
+            return true;
+        }
+        long now = clock.instant().toEpochMilli();
+        int maxUnstored = replaying ? replayProfile.maxUnstoredEvents() : maxUnstoredEvents;
+        return unstoredEventCount + batchEventCount > maxUnstored
+                || lastTokenStore <= now - tokenStoreInterval(replaying)
+                || lastClaimExtension < now - claimExtensionThreshold;
+    }
+
+    /**
+     * Stores the token of the last committed batch if token storage is coalesced and it has not been stored yet. Any
+     * failure to do so is logged, as the unstored events will simply be redelivered to whoever claims the segment
+     * next.
+     */
+    private void flushUnstoredToken() {
+        boolean tokenStorageMayBeDeferred = isCoalescingTokenStorage(false) || replayProfile != null;
+        if (!tokenStorageMayBeDeferred || !hasUnstoredToken()) {
+            return;
+        }
+        TrackingToken token = lastCommittedToken;
+        try {
+            transactionManager.executeInTransaction(() -> storeToken(token));
+        } catch (Exception e) {
+            logger.warn("Work Package [{}]-[{}] failed to flush token [{}] before shutting down. "
+                                + "Up to {} events will be redelivered.",
+                        name, segment.getSegmentId(), token, unstoredEventCount, e);
+        }
     }
 
     /**
      * Indicates whether this {@link WorkPackage} has any processing capacity remaining, or whether it has reached its
-     * soft limit. Note that one can still deliver events for processing in this {@code WorkPackage}.
+     * soft limit. While replaying, the soft limit is the {@link ReplayProfile#readAhead()} of the replay profile, if
+     * any. Note that one can still deliver events for processing in this {@code WorkPackage}.
      *
      * @return {@code true} if the {@link WorkPackage} has remaining capacity, or {@code false} if the soft limit has
      * been reached
      */
     public boolean hasRemainingCapacity() {
-        return this.processingQueue.size() < BUFFER_SIZE;
+        int capacity = isReplaying(lastDeliveredToken) ? replayProfile.readAhead() : BUFFER_SIZE;
+        return this.processingQueue.size() < capacity;
     }
 
     /**
@@ -362,6 +587,73 @@ public TrackingToken lastDeliveredToken() {
         return lastDeliveredToken;
     }
 
+    /**
+     * Attempts to reserve this {@link WorkPackage} for a claim extension by the {@link Coordinator}, which extends the
+     * claims of several work packages in a single {@link TokenStore} operation. The reservation is only granted if the
+     * claim is due for extension, no events are queued for processing and no worker is active. No worker will be
+     * started while this {@code WorkPackage} is reserved. A granted reservation must therefore always be ended through
+     * {@link #endClaimExtensionReservation(boolean)}.
+     * <p>
+     * <b>Threading note:</b> This method is and should only to be called by the {@link Coordinator} thread of a {@link
+     * PooledStreamingEventProcessor}.
+     *
+     * @return {@code true} if this {@link WorkPackage} has been reserved for a claim extension, otherwise {@code false}
+     */
+    public boolean reserveForClaimExtension() {
+        if (!scheduled.compareAndSet(false, true)) {
+            return false;
+        }
+        if (isAbortTriggered() || !processingQueue.isEmpty()
+                || lastClaimExtension >= clock.instant().toEpochMilli() - claimExtensionThreshold) {
+            endClaimExtensionReservation(false);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Indicates whether this {@link WorkPackage} has consumed events since it last stored its token, in which case
+     * {@link #lastConsumedToken()} should be stored rather than only extending the claim.
+     * <p>
+     * <b>Threading note:</b> This method is only safe to call from the {@link Coordinator} thread, while this {@link
+     * WorkPackage} is reserved through {@link #reserveForClaimExtension()}.
+     *
+     * @return {@code true} if the last consumed token has not been stored yet, otherwise {@code false}
+     */
+    public boolean hasUnstoredToken() {
+        return lastStoredToken != lastCommittedToken;
+    }
+
+    /**
+     * Returns the {@link TrackingToken} of the last event consumed by this {@link WorkPackage} in a committed batch.
+     * <p>
+     * <b>Threading note:</b> This method is only safe to call from the {@link Coordinator} thread, while this {@link
+     * WorkPackage} is reserved through {@link #reserveForClaimExtension()}.
+     *
+     * @return the {@link TrackingToken} of the last event consumed by this {@link WorkPackage}
+     */
+    public TrackingToken lastConsumedToken() {
+        return lastCommittedToken;
+    }
+
+    /**
+     * Ends the reservation obtained through {@link #reserveForClaimExtension()}. If the {@code claimExtended}, this
+     * {@link WorkPackage} considers its claim extended and its {@link #lastConsumedToken()} stored. Otherwise, it will
+     * extend its claim by itself once it is due.
+     *
+     * @param claimExtended {@code true} if the claim has been extended and the last consumed token has been stored
+     */
+    public void endClaimExtensionReservation(boolean claimExtended) {
+        if (claimExtended) {
+            logger.debug("Work Package [{}]-[{}] had its token claim extended.", name, segment.getSegmentId());
+            tokenStored(lastCommittedToken);
+        }
+        scheduled.set(false);
+        if (!processingQueue.isEmpty() || abortFlag.get() != null) {
+            scheduleWorker();
+        }
+    }
+
     /**
      * Indicates whether an abort has been triggered for this {@link WorkPackage}. When {@code true}, any events
      * scheduled for processing by this {@code WorkPackage} are likely to be ignored.
@@ -475,7 +767,15 @@ static class Builder {
         private Segment segment;
         private TrackingToken initialToken;
         private int batchSize = 1;
+        private AdaptiveBatchSizePolicy.Controller batchSizeController;
         private long claimExtensionThreshold = 5000;
+        private long tokenStoreInterval = 0;
+        private int maxUnstoredEvents = 1;
+        private int laneCount = 1;
+        private ExecutorService laneExecutor;
+        private Function<EventMessage<?>, Object> sequenceIdentifier;
+        private ReplayProfile replayProfile;
+        private ParallelDeserializationStage deserializationStage;
         private Consumer<UnaryOperator<TrackerStatus>> segmentStatusUpdater;
         private Clock clock = GenericEventMessage.clock;
 
@@ -581,6 +881,19 @@ Builder batchSize(int batchSize) {
             return this;
         }
 
+        /**
+         * The {@link AdaptiveBatchSizePolicy.Controller} deciding the amount of events to be processed in a single
+         * batch. If {@code null}, the static {@code batchSize} is used. Defaults to {@code null}.
+         *
+         * @param batchSizeController the {@link AdaptiveBatchSizePolicy.Controller} deciding the amount of events to be
+         *                            processed in a single batch
+         * @return the current Builder instance, for fluent interfacing
+         */
+        Builder batchSizeController(AdaptiveBatchSizePolicy.Controller batchSizeController) {
+            this.batchSizeController = batchSizeController;
+            return this;
+        }
+
         /**
          * The time in milliseconds after which the claim of the {@link TrackingToken} will be extended. Will only be
          * used in absence of regular token updates through event processing. Defaults to {@code 5000};
@@ -594,6 +907,95 @@ Builder claimExtensionThreshold(long claimExtensionThreshold) {
             return this;
         }
 
+        /**
+         * The maximum time in milliseconds this work package may defer storing its {@link TrackingToken} after
+         * processing a batch. A value of {@code 0} stores the token with every batch. Defaults to {@code 0}.
+         *
+         * @param tokenStoreInterval the maximum time in milliseconds this work package may defer storing its {@link
+         *                           TrackingToken}
+         * @return the current Builder instance, for fluent interfacing
+         */
+        Builder tokenStoreInterval(long tokenStoreInterval) {
+            this.tokenStoreInterval = tokenStoreInterval;
+            return this;
+        }
+
+        /**
+         * The maximum number of processed events this work package may leave unaccounted for in the stored {@link
+         * TrackingToken}. Only used when a {@code tokenStoreInterval} is configured. Defaults to {@code 1}.
+         *
+         * @param maxUnstoredEvents the maximum number of processed events this work package may leave unaccounted for
+         *                          in the stored {@link TrackingToken}
+         * @return the current Builder instance, for fluent interfacing
+         */
+        Builder maxUnstoredEvents(int maxUnstoredEvents) {
+            this.maxUnstoredEvents = maxUnstoredEvents;
+            return this;
+        }
+
+        /**
+         * The number of lanes a batch is divided over, to be processed in parallel. A value of {@code 1} processes
+         * every batch as a whole on the thread of this work package. Defaults to {@code 1}.
+         *
+         * @param laneCount the number of lanes a batch is divided over
+         * @return the current Builder instance, for fluent interfacing
+         */
+        Builder laneCount(int laneCount) {
+            this.laneCount = laneCount;
+            return this;
+        }
+
+        /**
+         * The {@link ExecutorService} processing all but the first lane of a batch. Only used when the {@code
+         * laneCount} is higher than one.
+         *
+         * @param laneExecutor the {@link ExecutorService} processing all but the first lane of a batch
+         * @return the current Builder instance, for fluent interfacing
+         */
+        Builder laneExecutor(ExecutorService laneExecutor) {
+            this.laneExecutor = laneExecutor;
+            return this;
+        }
+
+        /**
+         * Function providing the sequence identifier of an event, deciding the lane the event is processed in. Events
+         * with an equal sequence identifier are processed in the same lane, in order. Only used when the {@code
+         * laneCount} is higher than one.
+         *
+         * @param sequenceIdentifier function providing the sequence identifier of an event
+         * @return the current Builder instance, for fluent interfacing
+         */
+        Builder sequenceIdentifier(Function<EventMessage<?>, Object> sequenceIdentifier) {
+            this.sequenceIdentifier = sequenceIdentifier;
+            return this;
+        }
+
+        /**
+         * The {@link ReplayProfile} whose settings apply while this work package is replaying events. If {@code null},
+         * the regular settings apply to replays as well. Defaults to {@code null}.
+         *
+         * @param replayProfile the {@link ReplayProfile} whose settings apply while this work package is replaying
+         *                      events
+         * @return the current Builder instance, for fluent interfacing
+         */
+        Builder replayProfile(ReplayProfile replayProfile) {
+            this.replayProfile = replayProfile;
+            return this;
+        }
+
+        /**
+         * The {@link ParallelDeserializationStage} deserializing the events this work package handles as soon as they
+         * are scheduled. If {@code null}, events are deserialized when handled. Defaults to {@code null}.
+         *
+         * @param deserializationStage the {@link ParallelDeserializationStage} deserializing the events this work
+         *                             package handles as soon as they are scheduled
+         * @return the current Builder instance, for fluent interfacing
+         */
+        Builder deserializationStage(ParallelDeserializationStage deserializationStage) {
+            this.deserializationStage = deserializationStage;
+            return this;
+        }
+
         /**
          * Lambda to be invoked whenever the status of this package's {@code segment} changes.
          *
@@ -202,6 +202,17 @@ public boolean mayClaim(String owner, TemporalAmount claimTimeout) {
         return this.owner == null || owner.equals(this.owner) || expired(claimTimeout);
     }
 
+    /**
+     * Check whether this token is currently claimed, meaning it has an owner whose claim is not older than the given
+     * {@code claimTimeout}.
+     *
+     * @param claimTimeout The time after which a claim may be 'stolen' from its current owner
+     * @return {@code true} if this token is claimed by an owner, {@code false} otherwise
+     */
+    public boolean isClaimed(TemporalAmount claimTimeout) {
+        return this.owner != null && !expired(claimTimeout);
+    }
+
     private boolean expired(TemporalAmount claimTimeout) {
         return timestamp().plus(claimTimeout).isBefore(clock.instant());
     }
@@ -21,7 +21,11 @@
 import org.axonframework.eventhandling.TrackingToken;
 
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
@@ -164,6 +168,74 @@ default void extendClaim(@Nonnull String processorName, int segment) throws Unab
         fetchToken(processorName, segment);
     }
 
+    /**
+     * Claims the tokens of the given {@code segments} for the processor with given {@code processorName}, returning
+     * the last stored {@link TrackingToken} of each segment that could be claimed. Segments whose token is claimed by
+     * another process, has not been initialized, or has been split or merged concurrently are left out of the result,
+     * rather than failing the entire operation.
+     * <p>
+     * Like {@link #fetchToken(String, Segment)}, the claims are held until released through
+     * {@link #releaseClaim(String, int)}.
+     *
+     * @param processorName The process name for which to fetch the tokens
+     * @param segments      The segments for which to fetch and claim the tokens
+     * @return a Map with the last stored TrackingToken (possibly {@code null}) of every segment that has been claimed
+     * @implSpec By default, this method invokes {@link #fetchToken(String, Segment)} for each of the given
+     * {@code segments}. TokenStore implementations may choose to implement this method if they can claim several
+     * segments more efficiently.
+     */
+    default Map<Segment, TrackingToken> fetchTokens(@Nonnull String processorName,
+                                                    @Nonnull Collection<Segment> segments) {
+        Map<Segment, TrackingToken> claimedTokens = new LinkedHashMap<>();
+        for (Segment segment : segments) {
+            try {
+                claimedTokens.put(segment, fetchToken(processorName, segment));
+            } catch (UnableToClaimTokenException e) {
+                // Segments that cannot be claimed are left out of the result
+            }
+        }
+        return claimedTokens;
+    }
+
+    /**
+     * Extends the claims on the tokens held by this node for the given {@code processorName} and {@code segments}.
+     * This operation should be invoked within a transaction, in which case either all claims are extended, or the
+     * operation fails as a whole.
+     *
+     * @param processorName The process name for which to extend the claims
+     * @param segments      The segment indices for which to extend the claims
+     * @throws UnableToClaimTokenException if there is no token for any of the given {@code segments}, or if any of
+     *                                     them has been claimed by another process.
+     * @implSpec By default, this method invokes {@link #extendClaim(String, int)} for each of the given
+     * {@code segments}. TokenStore implementations may choose to implement this method if they can extend several
+     * claims more efficiently.
+     */
+    default void extendClaims(@Nonnull String processorName, @Nonnull Collection<Integer> segments)
+            throws UnableToClaimTokenException {
+        for (int segment : segments) {
+            extendClaim(processorName, segment);
+        }
+    }
+
+    /**
+     * Stores the given {@code tokens} in the store, each of them marking the current position of the process with
+     * given {@code processorName} in the segment it is mapped to. Tokens may be {@code null}. This operation should be
+     * invoked within a transaction, in which case either all tokens are stored, or the operation fails as a whole.
+     * <p>
+     * The same rules regarding segment initialization apply as for {@link #storeToken(TrackingToken, String, int)}.
+     *
+     * @param tokens        The tokens to store, mapped by the index of the segment to store them for
+     * @param processorName The name of the process for which to store the tokens
+     * @throws UnableToClaimTokenException when any of the tokens being updated has been claimed by another process.
+     * @implSpec By default, this method invokes {@link #storeToken(TrackingToken, String, int)} for each of the given
+     * {@code tokens}. TokenStore implementations may choose to implement this method if they can store several tokens
+     * more efficiently.
+     */
+    default void storeTokens(@Nonnull Map<Integer, TrackingToken> tokens, @Nonnull String processorName)
+            throws UnableToClaimTokenException {
+        tokens.forEach((segment, token) -> storeToken(token, processorName, segment));
+    }
+
     /**
      * Release a claim of the token for given {@code processorName} and {@code segment}. If no such claim existed,
      * nothing happens.
@@ -260,6 +332,22 @@ default List<Segment> fetchAvailableSegments(@Nonnull String processorName) {
                      .collect(Collectors.toList());
     }
 
+    /**
+     * Returns the owners of the {@code segments} of the given {@code processorName} that are currently claimed. The
+     * returned map contains an entry per claimed segment, mapping the segment identifier to the identifier of the node
+     * owning the claim. Segments that are not claimed, or of which the claim has timed out, are absent.
+     * <p>
+     * Like {@link #fetchSegments(String)}, this method may require a Transaction to be active.
+     *
+     * @param processorName the processor's name for which to fetch the segment owners
+     * @return a map of segment identifiers to the identifier of the node owning their claim
+     * @implSpec By default, this method returns an empty map, as not every {@link TokenStore} keeps track of the
+     * owners of its claims.
+     */
+    default Map<Integer, String> fetchSegmentOwners(@Nonnull String processorName) {
+        return Collections.emptyMap();
+    }
+
     /**
      * Returns a unique identifier that uniquely identifies the storage location of the tokens in this store. Two token
      * store implementations that share state, must return the same identifier. Two token store implementations that
@@ -40,13 +40,21 @@
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.time.Duration;
 import java.time.temporal.TemporalAmount;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -287,6 +295,145 @@ public TrackingToken fetchToken(@Nonnull String processorName, @Nonnull Segment
         }
     }
 
+    @Override
+    public Map<Segment, TrackingToken> fetchTokens(@Nonnull String processorName,
+                                                   @Nonnull Collection<Segment> segments) {
+        if (segments.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        List<Integer> segmentIds = segments.stream().map(Segment::getSegmentId).collect(Collectors.toList());
+        Connection connection = getConnection();
+        try {
+            Map<Integer, AbstractTokenEntry<?>> tokenEntries = executeQuery(
+                    connection,
+                    c -> selectForUpdate(c, processorName, segmentIds),
+                    listResults(this::readTokenEntry),
+                    e -> new JdbcException(format(
+                            "Could not load tokens for processor [%s] and segments %s", processorName, segmentIds
+                    ), e),
+                    false
+            ).stream().collect(Collectors.toMap(AbstractTokenEntry::getSegment, Function.identity()));
+            Set<Integer> existingSegments = new HashSet<>(executeQuery(
+                    connection,
+                    c -> selectForSegments(c, processorName),
+                    listResults(rs -> rs.getInt(schema.segmentColumn())),
+                    e -> new JdbcException(format("Could not load segments for processor [%s]", processorName), e),
+                    false
+            ));
+
+            Map<Segment, AbstractTokenEntry<?>> claimedEntries = new LinkedHashMap<>();
+            for (Segment segment : segments) {
+                AbstractTokenEntry<?> tokenEntry = tokenEntries.get(segment.getSegmentId());
+                if (tokenEntry == null) {
+                    logger.debug("Unable to claim token '{}[{}]'. It has not been initialized yet.",
+                                 processorName, segment.getSegmentId());
+                } else if (isSplitOrMerged(segment, existingSegments)) {
+                    logger.debug("Unable to claim token '{}[{}]'. It has been split or merged concurrently.",
+                                 processorName, segment.getSegmentId());
+                } else if (!tokenEntry.claim(nodeId, claimTimeout)) {
+                    logger.debug("Unable to claim token '{}[{}]'. It is owned by '{}'.",
+                                 processorName, segment.getSegmentId(), tokenEntry.getOwner());
+                } else {
+                    claimedEntries.put(segment, tokenEntry);
+                }
+            }
+            if (claimedEntries.isEmpty()) {
+                return Collections.emptyMap();
+            }
+
+            executeBatch(connection, c -> claimTokens(c, claimedEntries.values()), e -> {
+                throw new JdbcException(format(
+                        "Could not claim tokens for processor [%s] and segments %s", processorName, segmentIds
+                ), e);
+            });
+            Map<Segment, TrackingToken> claimedTokens = new LinkedHashMap<>();
+            claimedEntries.forEach((segment, tokenEntry) -> claimedTokens.put(segment, tokenEntry.getToken(serializer)));
+            return claimedTokens;
+        } finally {
+            closeQuietly(connection);
+        }
+    }
+
+    private static boolean isSplitOrMerged(Segment segment, Set<Integer> existingSegments) {
+        int candidates = (existingSegments.contains(segment.splitSegmentId()) ? 1 : 0)
+                + (existingSegments.contains(segment.mergeableSegmentId()) ? 1 : 0);
+        return candidates != 1;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The claims held by this node are extended with a single update. If that does not extend all of them, this method
+     * falls back to {@link #extendClaim(String, int)} for each of the given {@code segments}. Like a regular claim
+     * extension, this claims tokens that are not claimed, or whose claim has expired.
+     */
+    @Override
+    public void extendClaims(@Nonnull String processorName, @Nonnull Collection<Integer> segments)
+            throws UnableToClaimTokenException {
+        Set<Integer> uniqueSegments = new HashSet<>(segments);
+        if (uniqueSegments.isEmpty()) {
+            return;
+        }
+        Connection connection = getConnection();
+        try {
+            int updatedTokens = executeUpdate(
+                    connection,
+                    c -> extendClaims(c, processorName, uniqueSegments),
+                    e -> new JdbcException(format(
+                            "Could not extend the claims for processor [%s] and segments %s", processorName, segments
+                    ), e)
+            );
+            if (updatedTokens < uniqueSegments.size()) {
+                logger.debug("Could not extend all claims for processor [{}] and segments {}. "
+                                     + "Extending them one by one instead.", processorName, uniqueSegments);
+                for (int segment : uniqueSegments) {
+                    extendClaim(processorName, segment);
+                }
+            }
+        } finally {
+            closeQuietly(connection);
+        }
+    }
+
+    @Override
+    public void storeTokens(@Nonnull Map<Integer, TrackingToken> tokens, @Nonnull String processorName)
+            throws UnableToClaimTokenException {
+        if (tokens.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<Integer, TrackingToken>> tokensToStore = new ArrayList<>(tokens.entrySet());
+        int[] updatedTokens = executeBatch(getConnection(), c -> storeUpdates(c, tokensToStore, processorName), e -> {
+            throw new JdbcException(format(
+                    "Could not store tokens for processor [%s] and segments %s", processorName, tokens.keySet()
+            ), e);
+        });
+        // Drivers may not report update counts. The update only matches tokens owned by this node, so these are the
+        // ones that have been stored.
+        List<Integer> unknownSegments = new ArrayList<>();
+        for (int i = 0; i < updatedTokens.length; i++) {
+            if (updatedTokens[i] == Statement.SUCCESS_NO_INFO) {
+                unknownSegments.add(tokensToStore.get(i).getKey());
+            }
+        }
+        Set<Integer> ownedSegments = unknownSegments.isEmpty() ? Collections.emptySet() : new HashSet<>(executeQuery(
+                getConnection(),
+                c -> selectOwnedSegments(c, processorName, unknownSegments),
+                listResults(rs -> rs.getInt(schema.segmentColumn())),
+                e -> new JdbcException(format("Could not load owned segments for processor [%s]", processorName), e)
+        ));
+        List<Map.Entry<Integer, TrackingToken>> unstoredTokens = new ArrayList<>();
+        for (int i = 0; i < updatedTokens.length; i++) {
+            Map.Entry<Integer, TrackingToken> tokenToStore = tokensToStore.get(i);
+            boolean stored = updatedTokens[i] > 0 || (updatedTokens[i] == Statement.SUCCESS_NO_INFO
+                    && ownedSegments.contains(tokenToStore.getKey()));
+            if (!stored) {
+                unstoredTokens.add(tokenToStore);
+            }
+        }
+        // Falls back to the load-then-save approach for tokens that are not claimed by this node
+        unstoredTokens.forEach(token -> storeToken(token.getValue(), processorName, token.getKey()));
+    }
+
     @Override
     public void releaseClaim(@Nonnull String processorName, int segment) {
         Connection connection = getConnection();
@@ -361,6 +508,27 @@ public List<Segment> fetchAvailableSegments(@Nonnull String processorName) {
         }
     }
 
+    @Override
+    public Map<Integer, String> fetchSegmentOwners(@Nonnull String processorName) {
+        Connection connection = getConnection();
+        try {
+            List<AbstractTokenEntry<?>> tokenEntries = executeQuery(connection,
+                                                                    c -> selectTokenEntries(c, processorName),
+                                                                    listResults(this::readTokenEntry),
+                                                                    e -> new JdbcException(format(
+                                                                            "Could not load owners for processor [%s]",
+                                                                            processorName
+                                                                    ), e)
+            );
+            return tokenEntries.stream()
+                               .filter(tokenEntry -> tokenEntry.isClaimed(claimTimeout))
+                               .collect(Collectors.toMap(AbstractTokenEntry::getSegment,
+                                                         AbstractTokenEntry::getOwner));
+        } finally {
+            closeQuietly(connection);
+        }
+    }
+
     /**
      * Returns a {@link PreparedStatement} to select all segments ids for a given processorName from the underlying
      * storage.
@@ -381,6 +549,33 @@ protected PreparedStatement selectForSegments(Connection connection, String proc
         return preparedStatement;
     }
 
+    /**
+     * Returns a {@link PreparedStatement} to select those of the given {@code segments} of the given
+     * {@code processorName} whose token is owned by this node.
+     *
+     * @param connection    the connection to the underlying database
+     * @param processorName the name of the processor to fetch the segments for
+     * @param segments      the segments to select the owned ones from
+     * @return a {@link PreparedStatement} that will fetch the owned segments when executed
+     * @throws SQLException when an exception occurs while creating the prepared statement
+     */
+    protected PreparedStatement selectOwnedSegments(Connection connection, String processorName,
+                                                    Collection<Integer> segments) throws SQLException {
+        final String sql = "SELECT " + schema.segmentColumn() +
+                " FROM " + schema.tokenTable() +
+                " WHERE " + schema.ownerColumn() + " = ? AND " + schema.processorNameColumn() + " = ? AND " +
+                schema.segmentColumn() + " IN (" + placeholders(segments.size()) + ")";
+        PreparedStatement preparedStatement =
+                connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        preparedStatement.setString(1, nodeId);
+        preparedStatement.setString(2, processorName);
+        int parameterIndex = 3;
+        for (int segment : segments) {
+            preparedStatement.setInt(parameterIndex++, segment);
+        }
+        return preparedStatement;
+    }
+
     /**
      * Returns a {@link PreparedStatement} to select all {@link TokenEntry TokenEntries} for a given processorName from the underlying storage.
      *
@@ -415,28 +610,62 @@ protected PreparedStatement storeUpdate(Connection connection,
                                             TrackingToken token,
                                             String processorName,
                                             int segment) throws SQLException {
-        AbstractTokenEntry<?> tokenToStore =
-                new GenericTokenEntry<>(token, serializer, contentType, processorName, segment);
-        Object tokenDataToStore = getOrDefault(tokenToStore.getSerializedToken(), SerializedObject::getData, null);
-        String tokenTypeToStore = getOrDefault(tokenToStore.getTokenType(), SerializedType::getName, null);
+        PreparedStatement preparedStatement = connection.prepareStatement(
+                storeUpdateSql(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY
+        );
+        setStoreUpdateParameters(preparedStatement, token, processorName, segment);
+        return preparedStatement;
+    }
+
+    /**
+     * Returns a {@link PreparedStatement} which updates each of the given {@code tokens} for the given
+     * {@code processorName} and the segment the token is mapped to, as a single batch. The update counts of the batch
+     * are in the order of the given {@code tokens}.
+     *
+     * @param connection    the connection to the underlying database
+     * @param tokens        the new tokens to store, paired with the segment to store them for
+     * @param processorName the name of the processor executing the update
+     * @return a {@link PreparedStatement} that will update the token entries when executed as a batch
+     * @throws SQLException when an exception occurs while creating the prepared statement
+     */
+    protected PreparedStatement storeUpdates(Connection connection,
+                                             List<Map.Entry<Integer, TrackingToken>> tokens,
+                                             String processorName) throws SQLException {
+        PreparedStatement preparedStatement = connection.prepareStatement(
+                storeUpdateSql(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY
+        );
+        for (Map.Entry<Integer, TrackingToken> token : tokens) {
+            setStoreUpdateParameters(preparedStatement, token.getValue(), processorName, token.getKey());
+            preparedStatement.addBatch();
+        }
+        return preparedStatement;
+    }
 
-        final String sql = "UPDATE " + schema.tokenTable() + " SET "
+    private String storeUpdateSql() {
+        return "UPDATE " + schema.tokenTable() + " SET "
                 + schema.tokenColumn() + " = ?, "
                 + schema.tokenTypeColumn() + " = ?, "
                 + schema.timestampColumn() + " = ? "
                 + "WHERE " + schema.ownerColumn() + " = ? "
                 + "AND " + schema.processorNameColumn() + " = ? "
                 + "AND " + schema.segmentColumn() + " = ? ";
-        PreparedStatement preparedStatement = connection.prepareStatement(
-                sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY
-        );
+    }
+
+    private void setStoreUpdateParameters(PreparedStatement preparedStatement,
+                                          TrackingToken token,
+                                          String processorName,
+                                          int segment) throws SQLException {
+        AbstractTokenEntry<?> tokenToStore =
+                new GenericTokenEntry<>(token, serializer, contentType, processorName, segment);
+        Object tokenDataToStore = getOrDefault(tokenToStore.getSerializedToken(), SerializedObject::getData, null);
+        String tokenTypeToStore = getOrDefault(tokenToStore.getTokenType(), SerializedType::getName, null);
+
         preparedStatement.setObject(1, tokenDataToStore);
         preparedStatement.setString(2, tokenTypeToStore);
         preparedStatement.setString(3, tokenToStore.timestampAsString());
         preparedStatement.setString(4, nodeId);
         preparedStatement.setString(5, processorName);
         preparedStatement.setInt(6, segment);
-        return preparedStatement;
     }
 
     /**
@@ -479,6 +708,88 @@ protected PreparedStatement select(Connection connection, String processorName,
         return preparedStatement;
     }
 
+    /**
+     * Returns a {@link PreparedStatement} to select the token entries of the given {@code segments} from the underlying
+     * storage, locking them for update.
+     *
+     * @param connection    the connection to the underlying database
+     * @param processorName the name of the processor to fetch the entries for
+     * @param segments      the segments of the processor to fetch the entries for
+     * @return a {@link PreparedStatement} that will fetch and lock the token entries when executed
+     * @throws SQLException when an exception occurs while creating the prepared statement
+     */
+    protected PreparedStatement selectForUpdate(Connection connection, String processorName,
+                                                Collection<Integer> segments) throws SQLException {
+        final String sql = "SELECT " +
+                String.join(", ", schema.processorNameColumn(), schema.segmentColumn(), schema.tokenColumn(),
+                            schema.tokenTypeColumn(), schema.timestampColumn(), schema.ownerColumn()) + " FROM " +
+                schema.tokenTable() + " WHERE " + schema.processorNameColumn() + " = ? AND " + schema.segmentColumn() +
+                " IN (" + placeholders(segments.size()) + ") ORDER BY " + schema.segmentColumn() + " ASC FOR UPDATE";
+        PreparedStatement preparedStatement = connection.prepareStatement(sql);
+        preparedStatement.setString(1, processorName);
+        int parameterIndex = 2;
+        for (int segment : segments) {
+            preparedStatement.setInt(parameterIndex++, segment);
+        }
+        return preparedStatement;
+    }
+
+    /**
+     * Returns a {@link PreparedStatement} which claims each of the given {@code tokenEntries} for this node, as a
+     * single batch. The given entries are expected to have been claimed through
+     * {@link AbstractTokenEntry#claim(String, TemporalAmount)} already.
+     *
+     * @param connection   the connection to the underlying database
+     * @param tokenEntries the claimed entries to update
+     * @return a {@link PreparedStatement} that will claim the token entries when executed as a batch
+     * @throws SQLException when an exception occurs while creating the prepared statement
+     */
+    protected PreparedStatement claimTokens(Connection connection,
+                                            Collection<AbstractTokenEntry<?>> tokenEntries) throws SQLException {
+        final String sql = "UPDATE " + schema.tokenTable() + " SET " + schema.ownerColumn() + " = ?, " +
+                schema.timestampColumn() + " = ? WHERE " + schema.processorNameColumn() + " = ? AND " +
+                schema.segmentColumn() + " = ?";
+        PreparedStatement preparedStatement = connection.prepareStatement(sql);
+        for (AbstractTokenEntry<?> entry : tokenEntries) {
+            preparedStatement.setString(1, entry.getOwner());
+            preparedStatement.setString(2, entry.timestampAsString());
+            preparedStatement.setString(3, entry.getProcessorName());
+            preparedStatement.setInt(4, entry.getSegment());
+            preparedStatement.addBatch();
+        }
+        return preparedStatement;
+    }
+
+    /**
+     * Returns a {@link PreparedStatement} which extends the claims this node has on the tokens of the given
+     * {@code segments}, by updating their timestamp. Tokens not owned by this node are not updated.
+     *
+     * @param connection    the connection to the underlying database
+     * @param processorName the name of the processor to extend the claims for
+     * @param segments      the segments of the processor to extend the claims for
+     * @return a {@link PreparedStatement} that will extend the claims when executed
+     * @throws SQLException when an exception occurs while creating the prepared statement
+     */
+    protected PreparedStatement extendClaims(Connection connection, String processorName,
+                                             Collection<Integer> segments) throws SQLException {
+        final String sql = "UPDATE " + schema.tokenTable() + " SET " + schema.timestampColumn() + " = ? WHERE " +
+                schema.ownerColumn() + " = ? AND " + schema.processorNameColumn() + " = ? AND " +
+                schema.segmentColumn() + " IN (" + placeholders(segments.size()) + ")";
+        PreparedStatement preparedStatement = connection.prepareStatement(sql);
+        preparedStatement.setString(1, formatInstant(AbstractTokenEntry.clock.instant()));
+        preparedStatement.setString(2, nodeId);
+        preparedStatement.setString(3, processorName);
+        int parameterIndex = 4;
+        for (int segment : segments) {
+            preparedStatement.setInt(parameterIndex++, segment);
+        }
+        return preparedStatement;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
+
     /**
      * If the given {@code resultSet} has an entry, attempts to replace the token in the entry with the given
      * {@code token} and claim ownership.
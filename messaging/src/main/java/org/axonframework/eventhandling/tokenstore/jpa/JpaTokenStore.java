@@ -34,11 +34,17 @@
 import java.lang.management.ManagementFactory;
 import java.time.Duration;
 import java.time.temporal.TemporalAmount;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -232,6 +238,105 @@ public void extendClaim(@Nonnull String processorName, int segment) throws Unabl
         }
     }
 
+    @Override
+    public Map<Segment, TrackingToken> fetchTokens(@Nonnull String processorName,
+                                                   @Nonnull Collection<Segment> segments) {
+        if (segments.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        EntityManager entityManager = entityManagerProvider.getEntityManager();
+        List<Integer> segmentIds = segments.stream().map(Segment::getSegmentId).collect(Collectors.toList());
+        Map<Integer, TokenEntry> tokenEntries = loadTokens(processorName, segmentIds, entityManager);
+        Set<Integer> existingSegments = new HashSet<>(entityManager.createQuery(
+                "SELECT te.segment FROM TokenEntry te WHERE te.processorName = :processorName", Integer.class
+        ).setParameter("processorName", processorName).getResultList());
+
+        Map<Segment, TrackingToken> claimedTokens = new LinkedHashMap<>();
+        for (Segment segment : segments) {
+            TokenEntry tokenEntry = tokenEntries.get(segment.getSegmentId());
+            if (tokenEntry == null) {
+                logger.debug("Unable to claim token '{}[{}]'. It has not been initialized yet.",
+                             processorName, segment.getSegmentId());
+            } else if (!existingSegments.contains(segment.mergeableSegmentId())
+                    || existingSegments.contains(segment.splitSegmentId())) {
+                logger.debug("Unable to claim token '{}[{}]'. It has been split or merged concurrently.",
+                             processorName, segment.getSegmentId());
+            } else if (!tokenEntry.claim(nodeId, claimTimeout)) {
+                logger.debug("Unable to claim token '{}[{}]'. It is owned by '{}'.",
+                             processorName, segment.getSegmentId(), tokenEntry.getOwner());
+            } else {
+                claimedTokens.put(segment, tokenEntry.getToken(serializer));
+            }
+        }
+        return claimedTokens;
+    }
+
+    @Override
+    public void extendClaims(@Nonnull String processorName, @Nonnull Collection<Integer> segments)
+            throws UnableToClaimTokenException {
+        Set<Integer> uniqueSegments = new HashSet<>(segments);
+        if (uniqueSegments.isEmpty()) {
+            return;
+        }
+        EntityManager entityManager = entityManagerProvider.getEntityManager();
+        int updates = entityManager.createQuery("UPDATE TokenEntry te SET te.timestamp = :timestamp " +
+                                                        "WHERE te.processorName = :processorName " +
+                                                        "AND te.segment IN :segments " +
+                                                        "AND te.owner = :owner")
+                                   .setParameter("processorName", processorName)
+                                   .setParameter("segments", uniqueSegments)
+                                   .setParameter("owner", nodeId)
+                                   .setParameter("timestamp", formatInstant(TokenEntry.clock.instant()))
+                                   .executeUpdate();
+
+        if (updates < uniqueSegments.size()) {
+            throw new UnableToClaimTokenException("Unable to extend the claims on tokens for processor '" +
+                                                          processorName + "' and segments " + segments + ". " +
+                                                          "At least one of them is claimed by another process, " +
+                                                          "or there is no such token.");
+        }
+    }
+
+    @Override
+    public void storeTokens(@Nonnull Map<Integer, TrackingToken> tokens, @Nonnull String processorName)
+            throws UnableToClaimTokenException {
+        if (tokens.isEmpty()) {
+            return;
+        }
+        EntityManager entityManager = entityManagerProvider.getEntityManager();
+        Map<Integer, TokenEntry> tokenEntries = loadTokens(processorName, tokens.keySet(), entityManager);
+        tokens.forEach((segment, token) -> {
+            TokenEntry tokenEntry = tokenEntries.get(segment);
+            if (tokenEntry == null) {
+                throw new UnableToClaimTokenException(
+                        format("Unable to claim token '%s[%s]'. It has not been initialized yet", processorName,
+                               segment));
+            } else if (!tokenEntry.claim(nodeId, claimTimeout)) {
+                throw new UnableToClaimTokenException(
+                        format("Unable to claim token '%s[%s]'. It is owned by '%s'", processorName,
+                               segment, tokenEntry.getOwner()));
+            }
+            tokenEntry.updateToken(token, serializer);
+        });
+    }
+
+    private Map<Integer, TokenEntry> loadTokens(String processorName,
+                                                Collection<Integer> segments,
+                                                EntityManager entityManager) {
+        return entityManager.createQuery(
+                                    "SELECT te FROM TokenEntry te "
+                                            + "WHERE te.processorName = :processorName AND te.segment IN :segments "
+                                            + "ORDER BY te.segment ASC",
+                                    TokenEntry.class
+                            )
+                            .setParameter("processorName", processorName)
+                            .setParameter("segments", segments)
+                            .setLockMode(loadingLockMode)
+                            .getResultList()
+                            .stream()
+                            .collect(Collectors.toMap(TokenEntry::getSegment, Function.identity()));
+    }
+
     @Override
     public int[] fetchSegments(@Nonnull String processorName) {
         EntityManager entityManager = entityManagerProvider.getEntityManager();
@@ -263,6 +368,20 @@ public List<Segment> fetchAvailableSegments(@Nonnull String processorName) {
                          .collect(Collectors.toList());
     }
 
+    @Override
+    public Map<Integer, String> fetchSegmentOwners(@Nonnull String processorName) {
+        EntityManager entityManager = entityManagerProvider.getEntityManager();
+
+        final List<TokenEntry> resultList = entityManager.createQuery(
+                "SELECT te FROM TokenEntry te "
+                        + "WHERE te.processorName = :processorName ORDER BY te.segment ASC",
+                TokenEntry.class
+        ).setParameter("processorName", processorName).getResultList();
+        return resultList.stream()
+                         .filter(tokenEntry -> tokenEntry.isClaimed(claimTimeout))
+                         .collect(Collectors.toMap(TokenEntry::getSegment, TokenEntry::getOwner));
+    }
+
     /**
      * Loads an existing {@link TokenEntry} or creates a new one using the given {@code entityManager} for given {@code
      * processorName} and {@code segment}.
@@ -0,0 +1,273 @@
+/*
+ * Copyright (c) 2010-2022. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.messaging;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Immutable {@link Map} implementation used by {@link MetaData} to store a small number of entries. Keys and values are
+ * packed alternately in a single array, which is scanned linearly on lookups. For the handful of entries meta data
+ * typically contains, this is both smaller and faster than a hashed map.
+ * <p>
+ * Modifying operations return a new instance, only copying the packed array. The keys and values themselves are shared
+ * between the original and the modified instance. Operations that would exceed {@link #MAX_ENTRIES} return
+ * {@code null}, leaving it to the caller to switch to a hashed representation.
+ *
+ * @since 4.7.0
+ */
+final class CompactMetaDataMap extends AbstractMap<String, Object> implements Serializable {
+
+    /**
+     * The maximum number of entries a {@link CompactMetaDataMap} holds.
+     */
+    static final int MAX_ENTRIES = 8;
+
+    static final CompactMetaDataMap EMPTY = new CompactMetaDataMap(new Object[0]);
+
+    private static final long serialVersionUID = 3424918395837195014L;
+
+    private final Object[] keysAndValues;
+
+    private CompactMetaDataMap(Object[] keysAndValues) {
+        this.keysAndValues = keysAndValues;
+    }
+
+    /**
+     * Creates a {@link CompactMetaDataMap} with a copy of the given {@code entries}, or returns {@code null} if the
+     * given {@code entries} contain more than {@link #MAX_ENTRIES} entries.
+     *
+     * @param entries the entries to copy
+     * @return a {@link CompactMetaDataMap} containing the given {@code entries}, or {@code null} if there are too many
+     */
+    static CompactMetaDataMap copyOf(Map<String, ?> entries) {
+        if (entries instanceof CompactMetaDataMap) {
+            return (CompactMetaDataMap) entries;
+        }
+        if (entries.size() > MAX_ENTRIES) {
+            return null;
+        }
+        if (entries.isEmpty()) {
+            return EMPTY;
+        }
+        Object[] packed = new Object[entries.size() * 2];
+        int i = 0;
+        for (Entry<String, ?> entry : entries.entrySet()) {
+            packed[i++] = entry.getKey();
+            packed[i++] = entry.getValue();
+        }
+        return new CompactMetaDataMap(packed);
+    }
+
+    /**
+     * Returns a {@link CompactMetaDataMap} with the entries of this instance and the given {@code key} and
+     * {@code value}, replacing the value of an existing entry with the same key. Returns {@code null} if the result
+     * would exceed {@link #MAX_ENTRIES} entries.
+     *
+     * @param key   the key of the entry
+     * @param value the value of the entry
+     * @return a {@link CompactMetaDataMap} including the given entry, or {@code null} if it would become too large
+     */
+    CompactMetaDataMap with(String key, Object value) {
+        int index = indexOf(key);
+        if (index >= 0) {
+            if (keysAndValues[index + 1] == value) {
+                return this;
+            }
+            Object[] packed = keysAndValues.clone();
+            packed[index + 1] = value;
+            return new CompactMetaDataMap(packed);
+        }
+        if (size() == MAX_ENTRIES) {
+            return null;
+        }
+        Object[] packed = Arrays.copyOf(keysAndValues, keysAndValues.length + 2);
+        packed[keysAndValues.length] = key;
+        packed[keysAndValues.length + 1] = value;
+        return new CompactMetaDataMap(packed);
+    }
+
+    /**
+     * Returns a {@link CompactMetaDataMap} with the entries of this instance combined with the given
+     * {@code additionalEntries}, which take precedence for identical keys. Returns {@code null} if the result would
+     * exceed {@link #MAX_ENTRIES} entries.
+     *
+     * @param additionalEntries the entries to add
+     * @return a {@link CompactMetaDataMap} including the given entries, or {@code null} if it would become too large
+     */
+    CompactMetaDataMap withAll(Map<String, ?> additionalEntries) {
+        if (additionalEntries.size() > MAX_ENTRIES) {
+            return null;
+        }
+        Object[] packed = Arrays.copyOf(keysAndValues, keysAndValues.length + additionalEntries.size() * 2);
+        int length = keysAndValues.length;
+        for (Entry<String, ?> entry : additionalEntries.entrySet()) {
+            int index = indexOf(packed, length, entry.getKey());
+            if (index >= 0) {
+                packed[index + 1] = entry.getValue();
+            } else if (length == MAX_ENTRIES * 2) {
+                return null;
+            } else {
+                packed[length++] = entry.getKey();
+                packed[length++] = entry.getValue();
+            }
+        }
+        return new CompactMetaDataMap(length == packed.length ? packed : Arrays.copyOf(packed, length));
+    }
+
+    /**
+     * Returns a {@link CompactMetaDataMap} with the entries of this instance whose keys are in the given {@code keys}
+     * if {@code retain} is {@code true}, or whose keys are not in the given {@code keys} if {@code retain} is
+     * {@code false}. Returns this instance if no entries are removed.
+     *
+     * @param keys   the keys to filter the entries on
+     * @param retain whether to retain or to remove the entries with the given {@code keys}
+     * @return a {@link CompactMetaDataMap} containing the filtered entries
+     */
+    CompactMetaDataMap filter(Collection<?> keys, boolean retain) {
+        Object[] packed = null;
+        int length = 0;
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            boolean keep = keys.contains(keysAndValues[i]) == retain;
+            if (keep && packed != null) {
+                packed[length++] = keysAndValues[i];
+                packed[length++] = keysAndValues[i + 1];
+            } else if (!keep && packed == null) {
+                packed = new Object[keysAndValues.length - 2];
+                System.arraycopy(keysAndValues, 0, packed, 0, i);
+                length = i;
+            }
+        }
+        if (packed == null) {
+            return this;
+        }
+        return length == 0 ? EMPTY : new CompactMetaDataMap(Arrays.copyOf(packed, length));
+    }
+
+    private int indexOf(Object key) {
+        return indexOf(keysAndValues, keysAndValues.length, key);
+    }
+
+    private static int indexOf(Object[] keysAndValues, int length, Object key) {
+        for (int i = 0; i < length; i += 2) {
+            if (Objects.equals(keysAndValues[i], key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public Object get(Object key) {
+        int index = indexOf(key);
+        return index >= 0 ? keysAndValues[index + 1] : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        for (int i = 1; i < keysAndValues.length; i += 2) {
+            if (Objects.equals(keysAndValues[i], value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int size() {
+        return keysAndValues.length / 2;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return keysAndValues.length == 0;
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super String, ? super Object> action) {
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            action.accept((String) keysAndValues[i], keysAndValues[i + 1]);
+        }
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return Collections.unmodifiableSet(super.keySet());
+    }
+
+    @Override
+    public Collection<Object> values() {
+        return Collections.unmodifiableCollection(super.values());
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return Collections.unmodifiableSet(new AbstractSet<Entry<String, Object>>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                return new Iterator<Entry<String, Object>>() {
+                    private int index;
+
+                    @Override
+                    public boolean hasNext() {
+                        return index < keysAndValues.length;
+                    }
+
+                    @Override
+                    public Entry<String, Object> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        Entry<String, Object> entry =
+                                new SimpleImmutableEntry<>((String) keysAndValues[index], keysAndValues[index + 1]);
+                        index += 2;
+                        return entry;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return CompactMetaDataMap.this.size();
+            }
+        });
+    }
+
+    @Override
+    public int hashCode() {
+        int hashCode = 0;
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            hashCode += Objects.hashCode(keysAndValues[i]) ^ Objects.hashCode(keysAndValues[i + 1]);
+        }
+        return hashCode;
+    }
+}
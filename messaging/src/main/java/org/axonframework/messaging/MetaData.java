@@ -16,7 +16,10 @@
 
 package org.axonframework.messaging;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -34,6 +37,10 @@
 /**
  * Represents MetaData that is passed along with a payload in a Message. Typically, the MetaData contains information
  * about the message payload that isn't "domain-specific". Examples are originating IP-address or executing User ID.
+ * <p>
+ * MetaData with a small number of entries keeps its keys and values in a compact array-backed structure. Operations
+ * creating a modified copy of such an instance only copy that structure, sharing the keys and values themselves. Larger
+ * MetaData instances are backed by a hashed map.
  *
  * @author Allard Buijze
  * @since 2.0
@@ -47,7 +54,7 @@ public class MetaData implements Map<String, Object>, Serializable {
     private final Map<String, Object> values;
 
     private MetaData() {
-        values = Collections.emptyMap();
+        values = CompactMetaDataMap.EMPTY;
     }
 
     /**
@@ -58,7 +65,12 @@ private MetaData() {
      * @param items the items to populate the MetaData with
      */
     public MetaData(@Nonnull Map<String, ?> items) {
-        values = Collections.unmodifiableMap(new HashMap<>(items));
+        CompactMetaDataMap compactItems = CompactMetaDataMap.copyOf(items);
+        values = compactItems != null ? compactItems : Collections.unmodifiableMap(new HashMap<>(items));
+    }
+
+    private MetaData(CompactMetaDataMap values) {
+        this.values = values;
     }
 
     /**
@@ -95,7 +107,7 @@ public static MetaData from(@Nullable Map<String, ?> metaDataEntries) {
      * @return a MetaData instance with a single entry
      */
     public static MetaData with(@Nonnull String key, @Nullable Object value) {
-        return MetaData.from(Collections.singletonMap(key, value));
+        return new MetaData(CompactMetaDataMap.EMPTY.with(key, value));
     }
 
     /**
@@ -109,6 +121,12 @@ public static MetaData with(@Nonnull String key, @Nullable Object value) {
      * @return a MetaData instance with an additional entry
      */
     public MetaData and(@Nonnull String key, @Nullable Object value) {
+        if (values instanceof CompactMetaDataMap) {
+            CompactMetaDataMap newCompactValues = ((CompactMetaDataMap) values).with(key, value);
+            if (newCompactValues != null) {
+                return newCompactValues == values ? this : new MetaData(newCompactValues);
+            }
+        }
         HashMap<String, Object> newValues = new HashMap<>(values);
         newValues.put(key, value);
         return new MetaData(newValues);
@@ -243,6 +261,12 @@ public MetaData mergedWith(@Nonnull Map<String, ?> additionalEntries) {
         if (isEmpty()) {
             return MetaData.from(additionalEntries);
         }
+        if (values instanceof CompactMetaDataMap) {
+            CompactMetaDataMap merged = ((CompactMetaDataMap) values).withAll(additionalEntries);
+            if (merged != null) {
+                return new MetaData(merged);
+            }
+        }
         Map<String, Object> merged = new HashMap<>(values);
         merged.putAll(additionalEntries);
         return new MetaData(merged);
@@ -260,6 +284,10 @@ public MetaData withoutKeys(@Nonnull Set<String> keys) {
         if (keys.isEmpty()) {
             return this;
         }
+        if (values instanceof CompactMetaDataMap) {
+            CompactMetaDataMap modified = ((CompactMetaDataMap) values).filter(keys, false);
+            return modified == values ? this : MetaData.from(modified);
+        }
         Map<String, ?> modified = new HashMap<>(values);
         keys.forEach(modified::remove);
         return new MetaData(modified);
@@ -273,9 +301,26 @@ public MetaData withoutKeys(@Nonnull Set<String> keys) {
      * @return a MetaData instance containing the given {@code keys} if these were already present
      */
     public MetaData subset(String... keys) {
+        if (values instanceof CompactMetaDataMap) {
+            CompactMetaDataMap subset = ((CompactMetaDataMap) values).filter(Arrays.asList(keys), true);
+            return subset == values ? this : MetaData.from(subset);
+        }
         return MetaData.from(Stream.of(keys).filter(this::containsKey).collect(new MetaDataCollector(this::get)));
     }
 
+    /**
+     * Java Serialization specification method that writes the entries of this MetaData as a hashed map, regardless of
+     * the representation used in memory. This keeps the serialized form identical to that of earlier versions.
+     *
+     * @param out the stream to write this MetaData to
+     * @throws IOException if writing to the stream fails
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("values", Collections.unmodifiableMap(new HashMap<>(values)));
+        out.writeFields();
+    }
+
     /**
      * Java Serialization specification method that will ensure that deserialization will maintain a single instance of
      * empty MetaData.
@@ -17,10 +17,12 @@
 package org.axonframework.messaging;
 
 import org.axonframework.common.stream.BlockingStream;
+import org.axonframework.eventhandling.Segment;
 import org.axonframework.eventhandling.TrackingToken;
 
 import java.time.Duration;
 import java.time.Instant;
+import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 /**
@@ -41,6 +43,27 @@
      */
     BlockingStream<M> openStream(@Nullable TrackingToken trackingToken);
 
+    /**
+     * Open a stream containing the messages since given tracking token, for a consumer that only handles the messages
+     * of the given {@code segment}. A message belongs to a segment if the hash code of the identifier of the aggregate
+     * that published it, or the message identifier if there is no such aggregate, {@link Segment#matches(Object)
+     * matches} the segment. This corresponds to a {@link org.axonframework.eventhandling.async.SequentialPerAggregatePolicy}.
+     * <p>
+     * Implementations may leave messages of other segments out of the returned stream, allowing them to avoid reading
+     * those messages in full. Consumers should not rely on this, as they may still receive messages of other segments.
+     * <p>
+     * By default this method ignores the given {@code segment} and returns the result of {@link
+     * #openStream(TrackingToken)}.
+     *
+     * @param trackingToken object containing the position in the stream or {@code null} to open a stream containing all
+     *                      messages
+     * @param segment       the segment of the messages the consumer of the stream handles
+     * @return a stream of messages since the given trackingToken, of which messages of other segments may be left out
+     */
+    default BlockingStream<M> openStream(@Nullable TrackingToken trackingToken, @Nonnull Segment segment) {
+        return openStream(trackingToken);
+    }
+
     /**
      * Creates the token at the beginning of an event stream. The beginning of an event stream in this context means the
      * token of very first event in the stream.
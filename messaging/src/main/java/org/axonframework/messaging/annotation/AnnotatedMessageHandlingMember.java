@@ -37,6 +37,9 @@
 
 /**
  * Implementation of a {@link MessageHandlingMember} that is used to invoke message handler methods on the target type.
+ * <p>
+ * Handlers are invoked through a {@link java.lang.invoke.MethodHandle} that is created once per handler, avoiding the
+ * overhead of reflective invocation. If no such handle can be created, the handler is invoked reflectively instead.
  *
  * @param <T> the target type
  * @author Allard Buijze
@@ -52,6 +55,7 @@
     private final Executable executable;
     private final Class<? extends Message<?>> messageType;
     private final HandlerAttributes attributes;
+    private final MethodHandleInvoker invoker;
 
     /**
      * Initializes a new instance that will invoke the given {@code executable} (method) on a target to handle a message
@@ -92,6 +96,7 @@ public AnnotatedMessageHandlingMember(Executable executable,
         }
         this.payloadType = supportedPayloadType;
         this.attributes = new AnnotatedHandlerAttributes(executable);
+        this.invoker = MethodHandleInvoker.forExecutable(executable, parameterResolvers);
     }
 
     @Override
@@ -148,6 +153,9 @@ protected boolean parametersMatch(Message<?> message) {
 
     @Override
     public Object handle(@Nonnull Message<?> message, T target) throws Exception {
+        if (invoker != null) {
+            return invoker.invoke(target, message);
+        }
         try {
             if (executable instanceof Method) {
                 return ((Method) executable).invoke(target, resolveParameterValues(message));
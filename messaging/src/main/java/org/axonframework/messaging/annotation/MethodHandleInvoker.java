@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2010-2022. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.messaging.annotation;
+
+import org.axonframework.messaging.Message;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Invokes a message handling {@link Executable} through a {@link MethodHandle} that is created once per handler. The
+ * handle is adapted to a generic signature, so that handlers with up to two parameters are invoked without creating an
+ * array for the parameter values. Handlers with more parameters are invoked through a spreading handle.
+ * <p>
+ * Use {@link #forExecutable(Executable, ParameterResolver[])} to create an instance. When no handle can be created for
+ * an executable, the {@link AnnotatedMessageHandlingMember} falls back to reflective invocation.
+ *
+ * @since 4.7.0
+ */
+final class MethodHandleInvoker {
+
+    private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private static final int MAX_FAST_PATH_PARAMETERS = 2;
+
+    private final MethodHandle handle;
+    private final ParameterResolver<?>[] parameterResolvers;
+
+    private MethodHandleInvoker(MethodHandle handle, ParameterResolver<?>[] parameterResolvers) {
+        this.handle = handle;
+        this.parameterResolvers = parameterResolvers;
+    }
+
+    /**
+     * Creates a {@link MethodHandleInvoker} for the given {@code executable}, resolving the parameter values through
+     * the given {@code parameterResolvers}. Returns {@code null} if no {@link MethodHandle} could be created for the
+     * executable, in which case the caller should use reflection instead.
+     *
+     * @param executable         the method or constructor to invoke, which is expected to be made accessible already
+     * @param parameterResolvers the resolvers for each of the parameters of the {@code executable}
+     * @return a {@link MethodHandleInvoker} for the given {@code executable}, or {@code null} if none could be created
+     */
+    static MethodHandleInvoker forExecutable(Executable executable, ParameterResolver<?>[] parameterResolvers) {
+        int parameterCount = parameterResolvers.length;
+        try {
+            MethodHandle handle;
+            if (executable instanceof Method) {
+                handle = MethodHandles.lookup().unreflect((Method) executable).asFixedArity();
+                if (Modifier.isStatic(executable.getModifiers())) {
+                    handle = MethodHandles.dropArguments(handle, 0, Object.class);
+                }
+            } else if (executable instanceof Constructor) {
+                handle = MethodHandles.lookup().unreflectConstructor((Constructor<?>) executable).asFixedArity();
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            } else {
+                return null;
+            }
+            handle = handle.asType(MethodType.genericMethodType(parameterCount + 1));
+            if (parameterCount > MAX_FAST_PATH_PARAMETERS) {
+                handle = handle.asSpreader(Object[].class, parameterCount);
+            }
+            return new MethodHandleInvoker(handle, parameterResolvers);
+        } catch (IllegalAccessException | RuntimeException e) {
+            logger.debug("Unable to create a MethodHandle for [{}]. Falling back to reflective invocation.",
+                         executable, e);
+            return null;
+        }
+    }
+
+    /**
+     * Invokes the handler on the given {@code target}, with parameter values resolved from the given {@code message}.
+     * For constructors, the {@code target} is ignored. Exceptions thrown by the handler are rethrown as is.
+     *
+     * @param target  the instance to invoke the handler on
+     * @param message the message to resolve the parameter values from
+     * @return the result of the invocation, or {@code null} if the handler does not return a value
+     * @throws Exception any exception thrown by the handler
+     */
+    Object invoke(Object target, Message<?> message) throws Exception {
+        try {
+            switch (parameterResolvers.length) {
+                case 0:
+                    return (Object) handle.invokeExact(target);
+                case 1:
+                    return (Object) handle.invokeExact(target,
+                                                       parameterResolvers[0].resolveParameterValue(message));
+                case 2:
+                    return (Object) handle.invokeExact(target,
+                                                       parameterResolvers[0].resolveParameterValue(message),
+                                                       parameterResolvers[1].resolveParameterValue(message));
+                default:
+                    Object[] params = new Object[parameterResolvers.length];
+                    for (int i = 0; i < params.length; i++) {
+                        params[i] = parameterResolvers[i].resolveParameterValue(message);
+                    }
+                    return (Object) handle.invokeExact(target, params);
+            }
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new MessageHandlerInvocationException(
+                    String.format("Error handling an object of type [%s]", message.getPayloadType()), t);
+        }
+    }
+}
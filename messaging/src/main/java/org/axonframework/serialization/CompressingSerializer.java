@@ -0,0 +1,378 @@
+/*
+ * Copyright (c) 2010-2023. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.serialization;
+
+import org.axonframework.common.AxonConfigurationException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import javax.annotation.Nonnull;
+
+import static org.axonframework.common.BuilderUtils.assertNonNull;
+import static org.axonframework.common.BuilderUtils.assertThat;
+
+/**
+ * {@link Serializer} wrapper that compresses the {@code byte[]} data produced by a delegate {@code Serializer}, using
+ * the Deflate algorithm. Compressed data starts with a header that marks it as such, which is followed by the length
+ * of the uncompressed data and the compressed data itself. Data without this header is passed on to the delegate as
+ * is, so that compressed and uncompressed data can be read side by side. This allows an existing event store, token
+ * store or dead letter queue to start using this serializer without migrating the data it already contains.
+ * <p>
+ * Data is only compressed when it is serialized to a {@code byte[]} or an {@link InputStream}, and when it is at least
+ * as large as the configured {@link Builder#compressionThreshold(int) compressionThreshold}. Other representations,
+ * like a {@code String}, cannot hold compressed data and are produced by the delegate directly.
+ * <p>
+ * The {@link Converter} of this serializer decompresses data before converting it, allowing upcasters to operate on
+ * compressed data.
+ *
+ * @since 4.7
+ */
+public class CompressingSerializer implements Serializer {
+
+    private static final byte[] HEADER = {0, 'A', 'X', 'Z'};
+    private static final int HEADER_LENGTH = HEADER.length + Integer.BYTES;
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Serializer delegate;
+    private final int compressionThreshold;
+    private final int compressionLevel;
+    private final Converter converter;
+
+    /**
+     * Instantiate a {@link CompressingSerializer} based on the fields contained in the {@link Builder}.
+     * <p>
+     * Will assert that the delegate {@link Serializer} is not {@code null} and will throw an {@link
+     * AxonConfigurationException} if this is the case.
+     *
+     * @param builder the {@link Builder} used to instantiate a {@link CompressingSerializer} instance
+     */
+    protected CompressingSerializer(Builder builder) {
+        builder.validate();
+        this.delegate = builder.delegate;
+        this.compressionThreshold = builder.compressionThreshold;
+        this.compressionLevel = builder.compressionLevel;
+        this.converter = new DecompressingConverter(delegate.getConverter());
+    }
+
+    /**
+     * Instantiate a Builder to be able to create a {@link CompressingSerializer}.
+     * <p>
+     * The {@code compressionThreshold} defaults to {@code 512} bytes and the {@code compressionLevel} to {@link
+     * Deflater#BEST_SPEED}. The delegate {@link Serializer} is a <b>hard requirement</b> and as such should be
+     * provided.
+     *
+     * @return a Builder to be able to create a {@link CompressingSerializer}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Indicates whether the given {@code data} starts with the header marking compressed data.
+     *
+     * @param data the serialized data to verify
+     * @return {@code true} if the given {@code data} is compressed by a {@link CompressingSerializer}, {@code false}
+     * otherwise
+     */
+    public static boolean isCompressed(byte[] data) {
+        if (data == null || data.length < HEADER_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < HEADER.length; i++) {
+            if (data[i] != HEADER[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public <T> SerializedObject<T> serialize(Object object, @Nonnull Class<T> expectedRepresentation) {
+        if (!byte[].class.equals(expectedRepresentation) && !InputStream.class.equals(expectedRepresentation)) {
+            return delegate.serialize(object, expectedRepresentation);
+        }
+        SerializedObject<byte[]> serialized = delegate.serialize(object, byte[].class);
+        byte[] data = serialized.getData();
+        if (data == null || data.length < compressionThreshold) {
+            return delegate.getConverter().convert(serialized, expectedRepresentation);
+        }
+        return delegate.getConverter().convert(
+                new SimpleSerializedObject<>(compress(data), byte[].class, serialized.getType()),
+                expectedRepresentation
+        );
+    }
+
+    @Override
+    public <T> boolean canSerializeTo(@Nonnull Class<T> expectedRepresentation) {
+        return delegate.canSerializeTo(expectedRepresentation);
+    }
+
+    @Override
+    public <S, T> T deserialize(@Nonnull SerializedObject<S> serializedObject) {
+        Object data = decompressIfCompressed(serializedObject.getData());
+        return data == serializedObject.getData()
+                ? delegate.deserialize(serializedObject)
+                : delegate.deserialize(withData(serializedObject, data));
+    }
+
+    @Override
+    public Class classForType(@Nonnull SerializedType type) {
+        return delegate.classForType(type);
+    }
+
+    @Override
+    public SerializedType typeForClass(Class type) {
+        return delegate.typeForClass(type);
+    }
+
+    @Override
+    public Converter getConverter() {
+        return converter;
+    }
+
+    private byte[] compress(byte[] data) {
+        Deflater deflater = new Deflater(compressionLevel);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(HEADER_LENGTH + data.length / 2);
+            out.write(HEADER, 0, HEADER.length);
+            out.write(ByteBuffer.allocate(Integer.BYTES).putInt(data.length).array(), 0, Integer.BYTES);
+            byte[] buffer = new byte[Math.min(data.length, BUFFER_SIZE)];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Returns the decompressed {@code byte[]} of the given {@code data} if it is compressed. An {@link InputStream} is
+     * peeked for the header marking compressed data, and returned as an equivalent stream if it is not compressed.
+     * Other data is returned as is.
+     */
+    private static Object decompressIfCompressed(Object data) {
+        if (data instanceof byte[]) {
+            return isCompressed((byte[]) data) ? decompress((byte[]) data) : data;
+        }
+        if (data instanceof InputStream) {
+            return decompressIfCompressed((InputStream) data);
+        }
+        return data;
+    }
+
+    private static Object decompressIfCompressed(InputStream data) {
+        PushbackInputStream in = new PushbackInputStream(data, HEADER_LENGTH);
+        try {
+            byte[] header = new byte[HEADER_LENGTH];
+            int read = 0;
+            int count;
+            while (read < HEADER_LENGTH && (count = in.read(header, read, HEADER_LENGTH - read)) >= 0) {
+                read += count;
+            }
+            if (read == HEADER_LENGTH && isCompressed(header)) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                out.write(header, 0, HEADER_LENGTH);
+                byte[] buffer = new byte[BUFFER_SIZE];
+                while ((count = in.read(buffer)) >= 0) {
+                    out.write(buffer, 0, count);
+                }
+                return decompress(out.toByteArray());
+            }
+            in.unread(header, 0, read);
+            return in;
+        } catch (IOException e) {
+            throw new SerializationException("Unable to read the serialized data", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static SerializedObject<?> withData(SerializedObject<?> original, Object data) {
+        Class<Object> contentType = (Class<Object>) (data instanceof byte[] ? byte[].class : InputStream.class);
+        return new SimpleSerializedObject<>(data, contentType, original.getType());
+    }
+
+    /**
+     * Inflates the given compressed {@code data}. The length in the header is only verified against the inflated data,
+     * and never used to allocate memory up front, as corrupt data could declare any length.
+     */
+    private static byte[] decompress(byte[] data) {
+        int length = ByteBuffer.wrap(data, HEADER.length, Integer.BYTES).getInt();
+        if (length < 0) {
+            throw new SerializationException("Compressed data declares a negative length");
+        }
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data, HEADER_LENGTH, data.length - HEADER_LENGTH);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.min(length, BUFFER_SIZE));
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!inflater.finished() && out.size() <= length) {
+                int inflated = inflater.inflate(buffer);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                out.write(buffer, 0, inflated);
+            }
+            if (!inflater.finished() || out.size() != length) {
+                throw new SerializationException("Compressed data is truncated or corrupt");
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new SerializationException("Compressed data is corrupt", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        CompressingSerializer that = (CompressingSerializer) o;
+        return compressionThreshold == that.compressionThreshold
+                && compressionLevel == that.compressionLevel
+                && delegate.equals(that.delegate);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(delegate, compressionThreshold, compressionLevel);
+    }
+
+    /**
+     * {@link Converter} wrapper that decompresses {@code byte[]} and {@link InputStream} data compressed by a {@link
+     * CompressingSerializer} before handing it to the delegate {@code Converter}.
+     */
+    private static class DecompressingConverter implements Converter {
+
+        private final Converter delegate;
+
+        private DecompressingConverter(Converter delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public boolean canConvert(Class<?> sourceType, Class<?> targetType) {
+            return delegate.canConvert(sourceType, targetType);
+        }
+
+        @Override
+        public <T> T convert(Object original, Class<?> sourceType, Class<T> targetType) {
+            Object data = decompressIfCompressed(original);
+            return data == original
+                    ? delegate.convert(original, sourceType, targetType)
+                    : delegate.convert(data, data instanceof byte[] ? byte[].class : InputStream.class, targetType);
+        }
+
+        @Override
+        public <T> SerializedObject<T> convert(SerializedObject<?> original, Class<T> targetType) {
+            Object data = decompressIfCompressed(original.getData());
+            return data == original.getData()
+                    ? delegate.convert(original, targetType)
+                    : delegate.convert(withData(original, data), targetType);
+        }
+    }
+
+    /**
+     * Builder class to instantiate a {@link CompressingSerializer}.
+     * <p>
+     * The {@code compressionThreshold} defaults to {@code 512} bytes and the {@code compressionLevel} to {@link
+     * Deflater#BEST_SPEED}. The delegate {@link Serializer} is a <b>hard requirement</b> and as such should be
+     * provided.
+     */
+    public static class Builder {
+
+        private Serializer delegate;
+        private int compressionThreshold = 512;
+        private int compressionLevel = Deflater.BEST_SPEED;
+
+        /**
+         * Sets the {@link Serializer} which serializes and deserializes the objects, before their data is compressed
+         * and after it is decompressed respectively.
+         *
+         * @param delegate the {@link Serializer} to delegate serialization to
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder delegate(Serializer delegate) {
+            assertNonNull(delegate, "The delegate Serializer may not be null");
+            this.delegate = delegate;
+            return this;
+        }
+
+        /**
+         * Sets the minimum size in bytes of serialized data for it to be compressed. Smaller data is stored as
+         * produced by the delegate, as compressing it would save little or even increase its size. Defaults to {@code
+         * 512}.
+         *
+         * @param compressionThreshold the minimum size in bytes of serialized data for it to be compressed
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder compressionThreshold(int compressionThreshold) {
+            assertThat(compressionThreshold, threshold -> threshold >= 0,
+                       "The compressionThreshold must not be negative");
+            this.compressionThreshold = compressionThreshold;
+            return this;
+        }
+
+        /**
+         * Sets the level of compression, ranging from {@link Deflater#BEST_SPEED} ({@code 1}) to {@link
+         * Deflater#BEST_COMPRESSION} ({@code 9}). Defaults to {@link Deflater#BEST_SPEED}.
+         *
+         * @param compressionLevel the Deflate compression level to use
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder compressionLevel(int compressionLevel) {
+            assertThat(compressionLevel,
+                       level -> level >= Deflater.BEST_SPEED && level <= Deflater.BEST_COMPRESSION,
+                       "The compressionLevel must be between 1 and 9");
+            this.compressionLevel = compressionLevel;
+            return this;
+        }
+
+        /**
+         * Initializes a {@link CompressingSerializer} as specified through this Builder.
+         *
+         * @return a {@link CompressingSerializer} as specified through this Builder
+         */
+        public CompressingSerializer build() {
+            return new CompressingSerializer(this);
+        }
+
+        /**
+         * Validates whether the fields contained in this Builder are set accordingly.
+         *
+         * @throws AxonConfigurationException if one field is asserted to be incorrect according to the Builder's
+         *                                    specifications
+         */
+        protected void validate() throws AxonConfigurationException {
+            assertNonNull(delegate, "The delegate Serializer is a hard requirement and should be provided");
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2010-2022. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.commandhandling.distributed;
+
+import org.axonframework.commandhandling.CommandMessage;
+import org.axonframework.commandhandling.distributed.commandfilter.AcceptAll;
+import org.axonframework.commandhandling.distributed.commandfilter.CommandNameFilter;
+
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.axonframework.commandhandling.GenericCommandMessage.asCommandMessage;
+
+/**
+ * Benchmark comparing the routing and membership change performance of the {@link ConsistentHash} and the
+ * {@link PrimitiveConsistentHash}, side by side.
+ */
+public class ConsistentHashBenchmark {
+
+    private static final int MEMBER_COUNT = 20;
+    private static final int LOAD_FACTOR = 100;
+    private static final int KEY_COUNT = 10_000;
+    private static final int LOOKUP_COUNT = 1000 * 1000;
+    private static final int MEMBERSHIP_CHANGE_COUNT = 200;
+    private static final int ROUNDS = 3;
+
+    public static void main(String[] args) {
+        String[] routingKeys = new String[KEY_COUNT];
+        for (int i = 0; i < KEY_COUNT; i++) {
+            routingKeys[i] = UUID.randomUUID().toString();
+        }
+        Member[] members = new Member[MEMBER_COUNT];
+        for (int i = 0; i < MEMBER_COUNT; i++) {
+            members[i] = new SimpleMember<>("member-" + i, "", false, null);
+        }
+        CommandMessage<?> command = asCommandMessage("benchmark");
+
+        ConsistentHash consistentHash = new ConsistentHash();
+        PrimitiveConsistentHash primitiveConsistentHash = new PrimitiveConsistentHash();
+        for (Member member : members) {
+            consistentHash = consistentHash.with(member, LOAD_FACTOR, AcceptAll.INSTANCE);
+            primitiveConsistentHash = primitiveConsistentHash.with(member, LOAD_FACTOR, AcceptAll.INSTANCE);
+        }
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            System.out.println("Round " + round + " of " + ROUNDS);
+            ConsistentHash ring = consistentHash;
+            PrimitiveConsistentHash primitiveRing = primitiveConsistentHash;
+            measureLookups("ConsistentHash", routingKeys, key -> ring.getMember(key, command));
+            measureLookups("PrimitiveConsistentHash", routingKeys, key -> primitiveRing.getMember(key, command));
+            measureMembershipChanges("ConsistentHash", members, consistentHash,
+                                     (hash, member) -> hash.without(member),
+                                     (hash, member) -> hash.with(member, LOAD_FACTOR,
+                                                                 new CommandNameFilter("benchmark")));
+            measureMembershipChanges("PrimitiveConsistentHash", members, primitiveConsistentHash,
+                                     (hash, member) -> hash.without(member),
+                                     (hash, member) -> hash.with(member, LOAD_FACTOR,
+                                                                 new CommandNameFilter("benchmark")));
+        }
+    }
+
+    private static void measureLookups(String name, String[] routingKeys, Function<String, Object> lookup) {
+        int found = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < LOOKUP_COUNT; i++) {
+            if (lookup.apply(routingKeys[i % routingKeys.length]) != null) {
+                found++;
+            }
+        }
+        long end = System.nanoTime();
+        System.out.println(name + " did " + (LOOKUP_COUNT * 1_000_000_000L / (end - start))
+                                   + " lookups per second (" + found + " routed)");
+    }
+
+    private static <H> void measureMembershipChanges(String name, Member[] members, H initial,
+                                                     MembershipChange<H> remove, MembershipChange<H> add) {
+        H hash = initial;
+        long start = System.nanoTime();
+        for (int i = 0; i < MEMBERSHIP_CHANGE_COUNT; i++) {
+            Member member = members[i % members.length];
+            hash = add.apply(remove.apply(hash, member), member);
+        }
+        long end = System.nanoTime();
+        System.out.println(name + " did " + (MEMBERSHIP_CHANGE_COUNT * 2 * 1_000_000_000L / (end - start))
+                                   + " membership changes per second (" + hash.hashCode() + ")");
+    }
+
+    @FunctionalInterface
+    private interface MembershipChange<H> {
+
+        H apply(H hash, Member member);
+    }
+}
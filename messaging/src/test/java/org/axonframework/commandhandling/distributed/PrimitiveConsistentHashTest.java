@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2010-2022. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.commandhandling.distributed;
+
+import org.axonframework.commandhandling.CommandMessage;
+import org.axonframework.commandhandling.GenericCommandMessage;
+import org.axonframework.commandhandling.distributed.commandfilter.AcceptAll;
+import org.axonframework.commandhandling.distributed.commandfilter.CommandNameFilter;
+import org.axonframework.messaging.GenericMessage;
+import org.junit.jupiter.api.*;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrimitiveConsistentHashTest {
+
+    private static final Map<String, Long> HASHES = new HashMap<>();
+
+    static {
+        HASHES.put("routingKey", 500L);
+        HASHES.put("someOtherKey", 150L);
+        HASHES.put("member3 #0", 100L);
+        HASHES.put("member3 #1", 200L);
+        HASHES.put("member2 #0", 300L);
+        HASHES.put("member1 #0", 600L);
+        HASHES.put("member1 #1", 700L);
+        HASHES.put("member2 #1", 800L);
+    }
+
+    private PrimitiveConsistentHash testSubject;
+    private Member member1;
+    private Member member2;
+
+    @BeforeEach
+    void setUp() {
+        member1 = new SimpleMember<>("member1", "", false, null);
+        member2 = new SimpleMember<>("member2", "", false, null);
+        Member member3 = new SimpleMember<>("member3", "", false, null);
+        testSubject = new PrimitiveConsistentHash(HASHES::get).with(member1, 2, new CommandNameFilter("name1"))
+                                                              .with(member2, 2, new CommandNameFilter("name1"))
+                                                              .with(member3, 2, new CommandNameFilter("name3"));
+    }
+
+    @Test
+    void testToString() {
+        assertEquals("PrimitiveConsistentHash [member1(2),member2(2),member3(2)]", testSubject.toString());
+    }
+
+    @Test
+    void membersExposeTheirPositionsOnTheRing() {
+        ConsistentHash.ConsistentHashMember member = testSubject.getMembers()
+                                                                .stream()
+                                                                .filter(m -> m.name().equals("member2"))
+                                                                .map(ConsistentHash.ConsistentHashMember.class::cast)
+                                                                .findFirst()
+                                                                .orElseThrow(IllegalStateException::new);
+
+        assertArrayEquals(new long[]{300L, 800L}, member.positions());
+        assertEquals(new HashSet<>(asList("000000000000012c", "0000000000000320")), member.hashes());
+    }
+
+    @Test
+    void consistentHashChangesVersionWhenModified() {
+        assertEquals(3, testSubject.version());
+        assertEquals(4, testSubject.without(member1).version());
+        assertEquals(4, testSubject.without(member1).without(member1).version());
+        assertEquals(3, testSubject.with(member1, 2, new CommandNameFilter("name1")).version());
+        assertEquals(4, testSubject.with(member1, 1, new CommandNameFilter("name1")).version());
+    }
+
+    @Test
+    void messageRoutedToFirstEligibleMember() {
+        Optional<Member> actual = testSubject.getMember("routingKey", command("name1"));
+        assertTrue(actual.isPresent());
+        assertEquals("member1", actual.get().name());
+    }
+
+    @Test
+    void messageRoutedToNextEligibleMemberIfFirstChoiceIsRemoved() {
+        Optional<Member> actual = testSubject.without(member1).getMember("routingKey", command("name1"));
+        assertTrue(actual.isPresent());
+        assertEquals("member2", actual.get().name());
+    }
+
+    @Test
+    void lookupWrapsAroundTheRing() {
+        Optional<Member> actual = testSubject.without(member2).getMember("someOtherKey", command("name3"));
+        assertTrue(actual.isPresent());
+        assertEquals("member3", actual.get().name());
+
+        HASHES.put("beyondTheLastPosition", 900L);
+        try {
+            assertEquals("member3", testSubject.getMember("beyondTheLastPosition", command("name3"))
+                                               .map(Member::name).orElse(null));
+        } finally {
+            HASHES.remove("beyondTheLastPosition");
+        }
+    }
+
+    @Test
+    void noMemberReturnedWhenNoEligibleMembers() {
+        assertFalse(testSubject.getMember("routingKey", command("unknown")).isPresent());
+        assertFalse(new PrimitiveConsistentHash().getMember("routingKey", command("name1")).isPresent());
+    }
+
+    @Test
+    void eligibleMembersCorrectlyOrdered() {
+        assertEquals(asList("member1", "member2", "member3"),
+                     testSubject.getEligibleMembers("routingKey").stream().map(Member::name)
+                                .collect(Collectors.toList()));
+        assertEquals(asList("member3", "member2", "member1"),
+                     testSubject.getEligibleMembers("someOtherKey").stream().map(Member::name)
+                                .collect(Collectors.toList()));
+    }
+
+    @Test
+    void ringIsIndependentOfTheOrderInWhichMembersAreAdded() {
+        Member member3 = new SimpleMember<>("member3", "", false, null);
+        PrimitiveConsistentHash reversed =
+                new PrimitiveConsistentHash(HASHES::get).with(member3, 2, new CommandNameFilter("name3"))
+                                                        .with(member2, 2, new CommandNameFilter("name1"))
+                                                        .with(member1, 2, new CommandNameFilter("name1"));
+
+        assertEquals(testSubject, reversed);
+        assertEquals(testSubject.hashCode(), reversed.hashCode());
+        assertNotEquals(testSubject, testSubject.without(member2));
+        assertEquals(testSubject, testSubject.without(member2).with(member2, 2, new CommandNameFilter("name1")));
+    }
+
+    @Test
+    void routingMatchesASortedMapOfThePositions() {
+        PrimitiveConsistentHash ring = new PrimitiveConsistentHash();
+        TreeMap<Long, String> expectedRing = new TreeMap<>();
+        for (int m = 0; m < 10; m++) {
+            Member member = new SimpleMember<>("node-" + m, "", false, null);
+            ring = ring.with(member, 50, AcceptAll.INSTANCE);
+            for (int i = 0; i < 50; i++) {
+                expectedRing.put(PrimitiveConsistentHash.position(member.name() + " #" + i), member.name());
+            }
+        }
+        ring = ring.with(new SimpleMember<>("node-3", "", false, null), 10, AcceptAll.INSTANCE);
+        expectedRing.values().removeIf("node-3"::equals);
+        for (int i = 0; i < 10; i++) {
+            expectedRing.put(PrimitiveConsistentHash.position("node-3 #" + i), "node-3");
+        }
+
+        CommandMessage<?> command = command("name1");
+        for (int i = 0; i < 1000; i++) {
+            long hash = PrimitiveConsistentHash.position("key-" + i);
+            Map.Entry<Long, String> expected = expectedRing.ceilingEntry(hash);
+            String expectedName = expected == null ? expectedRing.firstEntry().getValue() : expected.getValue();
+            assertEquals(expectedName, ring.getMember("key-" + i, command).map(Member::name).orElse(null));
+        }
+    }
+
+    @Test
+    void ringIsUsableWhereverAConsistentHashIsExpected() {
+        AtomicReference<ConsistentHash> notified = new AtomicReference<>();
+        ConsistentHashChangeListener listener = notified::set;
+        ConsistentHash ring = new PrimitiveConsistentHash(HASHES::get);
+
+        ring = ring.with(member1, 2, new CommandNameFilter("name1"));
+        listener.onConsistentHashChanged(ring);
+
+        assertTrue(notified.get() instanceof PrimitiveConsistentHash);
+        assertEquals(1, notified.get().version());
+        assertEquals(Optional.of(member1.name()),
+                     notified.get().getMember("routingKey", command("name1")).map(Member::name));
+        assertTrue(ring.without(member1) instanceof PrimitiveConsistentHash);
+    }
+
+    private static CommandMessage<?> command(String commandName) {
+        return new GenericCommandMessage<>(new GenericMessage<>("test"), commandName);
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2010-2022. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.common;
+
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class validating the {@link ThreadPerTaskScheduledExecutor}.
+ */
+class ThreadPerTaskScheduledExecutorTest {
+
+    private ThreadPerTaskScheduledExecutor testSubject;
+
+    @BeforeEach
+    void setUp() {
+        testSubject = new ThreadPerTaskScheduledExecutor(new AxonThreadFactory("test"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        testSubject.shutdownNow();
+    }
+
+    @Test
+    void submittedTasksRunConcurrentlyOnThreadsOfTheirOwn() throws Exception {
+        int taskCount = 10;
+        CountDownLatch allTasksStarted = new CountDownLatch(taskCount);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < taskCount; i++) {
+            results.add(testSubject.submit(() -> {
+                allTasksStarted.countDown();
+                // Only completes if every task runs at the same time
+                assertTrue(allTasksStarted.await(5, TimeUnit.SECONDS));
+                return Thread.currentThread().getName();
+            }));
+        }
+
+        List<String> threadNames = new ArrayList<>();
+        for (Future<String> result : results) {
+            threadNames.add(result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(taskCount, threadNames.stream().distinct().count());
+    }
+
+    @Test
+    void scheduledTasksRunAfterTheirDelay() throws Exception {
+        long start = System.nanoTime();
+
+        ScheduledFuture<Long> result = testSubject.schedule(System::nanoTime, 50, TimeUnit.MILLISECONDS);
+
+        assertTrue(result.get(5, TimeUnit.SECONDS) - start >= TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    @Test
+    void shutdownRejectsNewTasksAndAwaitsRunningTasks() throws Exception {
+        CountDownLatch taskStarted = new CountDownLatch(1);
+        CountDownLatch releaseTask = new CountDownLatch(1);
+        testSubject.submit(() -> {
+            taskStarted.countDown();
+            releaseTask.await();
+            return null;
+        });
+        assertTrue(taskStarted.await(5, TimeUnit.SECONDS));
+
+        testSubject.shutdown();
+
+        assertThrows(RejectedExecutionException.class, () -> testSubject.submit(() -> { }));
+        assertThrows(RejectedExecutionException.class,
+                     () -> testSubject.schedule(() -> { }, 1, TimeUnit.MILLISECONDS));
+        assertFalse(testSubject.isTerminated());
+        releaseTask.countDown();
+        assertTrue(testSubject.awaitTermination(5, TimeUnit.SECONDS));
+        assertTrue(testSubject.isTerminated());
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2010-2022. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.common;
+
+import org.junit.jupiter.api.*;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Test class validating the {@link VirtualThreadFactory}.
+ */
+class VirtualThreadFactoryTest {
+
+    @Test
+    void createsNamedVirtualThreads() throws Exception {
+        assumeTrue(VirtualThreadFactory.isSupported(), "Virtual threads require Java 21 or higher");
+        VirtualThreadFactory testSubject = new VirtualThreadFactory("test");
+
+        CompletableFuture<String> executingThread = new CompletableFuture<>();
+        Thread t1 = testSubject.newThread(() -> executingThread.complete(Thread.currentThread().getName()));
+        Thread t2 = testSubject.newThread(() -> {
+        });
+        t1.start();
+
+        assertEquals("test-0", t1.getName());
+        assertEquals("test-1", t2.getName());
+        assertEquals("test-0", executingThread.get());
+        assertTrue((Boolean) Thread.class.getMethod("isVirtual").invoke(t1));
+    }
+
+    @Test
+    void constructingOnJvmWithoutVirtualThreadsThrowsAxonConfigurationException() {
+        assumeFalse(VirtualThreadFactory.isSupported(), "Virtual threads are supported by this JVM");
+
+        assertThrows(AxonConfigurationException.class, () -> new VirtualThreadFactory("test"));
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2010-2022. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.common.caching;
+
+import org.axonframework.common.AxonConfigurationException;
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class validating the {@link BoundedCache}.
+ */
+class BoundedCacheTest {
+
+    private BoundedCache testSubject;
+    private Cache.EntryListener mockListener;
+
+    @BeforeEach
+    void setUp() {
+        mockListener = mock(Cache.EntryListener.class);
+        testSubject = BoundedCache.builder().maximumSize(100).build();
+        testSubject.registerCacheEntryListener(mockListener);
+    }
+
+    @Test
+    void entriesAreStoredUpdatedAndRemoved() {
+        Object value = new Object();
+        Object updatedValue = new Object();
+
+        testSubject.put("key", value);
+        assertSame(value, testSubject.get("key"));
+        assertFalse(testSubject.putIfAbsent("key", updatedValue));
+        testSubject.put("key", updatedValue);
+        assertSame(updatedValue, testSubject.get("key"));
+        assertTrue(testSubject.remove("key"));
+        assertFalse(testSubject.remove("key"));
+        assertNull(testSubject.get("key"));
+        assertTrue(testSubject.putIfAbsent("key", value));
+
+        verify(mockListener, times(2)).onEntryCreated("key", value);
+        verify(mockListener).onEntryUpdated("key", updatedValue);
+        verify(mockListener).onEntryRead("key", value);
+        verify(mockListener).onEntryRead("key", updatedValue);
+        verify(mockListener).onEntryRemoved("key");
+        assertEquals(2, testSubject.hitCount());
+        assertEquals(1, testSubject.missCount());
+    }
+
+    @Test
+    void computeIfPresentUpdatesExistingEntriesOnly() {
+        testSubject.put("key", 1);
+
+        testSubject.<Integer>computeIfPresent("key", value -> value + 1);
+        testSubject.<Integer>computeIfPresent("other", value -> value + 1);
+
+        assertEquals(2, (int) testSubject.get("key"));
+        assertFalse(testSubject.containsKey("other"));
+        verify(mockListener).onEntryUpdated("key", 2);
+    }
+
+    @Test
+    void computeIfAbsentLoadsMissingEntriesOnce() {
+        AtomicInteger invocations = new AtomicInteger();
+
+        assertEquals("value0", testSubject.computeIfAbsent("key", () -> "value" + invocations.getAndIncrement()));
+        assertEquals("value0", testSubject.get("key"));
+        assertEquals("value0", testSubject.computeIfAbsent("key", () -> "value" + invocations.getAndIncrement()));
+
+        assertEquals(1, invocations.get());
+        verify(mockListener).onEntryCreated("key", "value0");
+    }
+
+    @Test
+    void removeAllRemovesEveryEntry() {
+        testSubject.put("key1", "value1");
+        testSubject.put("key2", "value2");
+
+        testSubject.removeAll();
+
+        assertEquals(0, testSubject.size());
+        verify(mockListener).onEntryRemoved("key1");
+        verify(mockListener).onEntryRemoved("key2");
+    }
+
+    @Test
+    void sizeIsBoundedByEvictingEntries() {
+        for (int i = 0; i < 1000; i++) {
+            testSubject.put("key" + i, i);
+        }
+
+        assertEquals(100, testSubject.size());
+        assertEquals(900, testSubject.evictionCount());
+        verify(mockListener, times(900)).onEntryExpired(any());
+    }
+
+    @Test
+    void frequentlyReadEntriesSurviveAScanOfOneOffEntries() {
+        for (int i = 0; i < 50; i++) {
+            testSubject.put("popular" + i, i);
+        }
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 50; i++) {
+                testSubject.get("popular" + i);
+            }
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            testSubject.put("scan" + i, i);
+        }
+
+        long retained = IntStream.range(0, 50).filter(i -> testSubject.containsKey("popular" + i)).count();
+        assertTrue(retained >= 45, "Expected most popular entries to be retained, but only " + retained + " were");
+        assertEquals(100, testSubject.size());
+    }
+
+    @Test
+    void totalWeightIsBoundedWhenAWeigherIsConfigured() {
+        BoundedCache weighedCache = BoundedCache.builder()
+                                                .maximumSize(100)
+                                                .weigher((key, value) -> ((String) value).length())
+                                                .build();
+
+        for (int i = 0; i < 50; i++) {
+            weighedCache.put("key" + i, "0123456789");
+        }
+
+        assertEquals(10, weighedCache.size());
+        assertEquals(40, weighedCache.evictionCount());
+    }
+
+    @Test
+    void concurrentAccessKeepsTheCacheWithinBounds() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> results =
+                    IntStream.range(0, 8)
+                             .mapToObj(t -> executor.submit(() -> {
+                                 start.await();
+                                 for (int i = 0; i < 20_000; i++) {
+                                     String key = "key" + ThreadLocalRandom.current().nextInt(500);
+                                     if (testSubject.get(key) == null) {
+                                         testSubject.putIfAbsent(key, key);
+                                     } else if (i % 10 == 0) {
+                                         testSubject.remove(key);
+                                     }
+                                 }
+                                 return null;
+                             }))
+                             .collect(Collectors.toList());
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(testSubject.size() <= 100);
+        testSubject.removeAll();
+        assertEquals(0, testSubject.size());
+    }
+
+    @Test
+    void buildingWithoutMaximumSizeThrowsAxonConfigurationException() {
+        BoundedCache.Builder builder = BoundedCache.builder();
+
+        assertThrows(AxonConfigurationException.class, builder::build);
+    }
+
+    @Test
+    void buildingWithNonPositiveMaximumSizeThrowsAxonConfigurationException() {
+        BoundedCache.Builder builder = BoundedCache.builder();
+
+        assertThrows(AxonConfigurationException.class, () -> builder.maximumSize(0));
+    }
+}
@@ -22,7 +22,9 @@
 import javax.cache.CacheException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.Mockito.mock;
@@ -45,4 +47,15 @@ void cacheDoesNothing() throws CacheException {
         assertFalse(cache.remove(new Object()));
         registration.cancel();
     }
+
+    @Test
+    void computeIfAbsentAlwaysInvokesSupplier() {
+        AtomicInteger invocations = new AtomicInteger();
+
+        NoCache.INSTANCE.computeIfAbsent("key", invocations::incrementAndGet);
+        NoCache.INSTANCE.computeIfAbsent("key", invocations::incrementAndGet);
+
+        assertEquals(2, invocations.get());
+        assertFalse(NoCache.INSTANCE.containsKey("key"));
+    }
 }
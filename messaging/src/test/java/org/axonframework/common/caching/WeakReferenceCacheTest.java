@@ -19,9 +19,18 @@
 import org.axonframework.common.Registration;
 import org.junit.jupiter.api.*;
 
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static java.util.Collections.singleton;
 import static org.junit.jupiter.api.Assertions.*;
@@ -162,4 +171,89 @@ void computeIfPresentUpdatesExistingEntry() {
 
         assertTrue(invoked.get());
     }
+
+    @Test
+    void computeIfAbsentReturnsExistingEntryWithoutInvokingSupplier() {
+        Object value = new Object();
+        testSubject.put("some-key", value);
+
+        Object result = testSubject.computeIfAbsent("some-key", () -> fail("Supplier should not be invoked"));
+
+        assertSame(value, result);
+    }
+
+    @Test
+    void computeIfAbsentStoresSuppliedValue() {
+        Object value = new Object();
+
+        assertSame(value, testSubject.computeIfAbsent("some-key", () -> value));
+
+        assertSame(value, testSubject.get("some-key"));
+        verify(mockListener).onEntryCreated("some-key", value);
+    }
+
+    @Test
+    void computeIfAbsentDoesNotStoreNullValue() {
+        assertNull(testSubject.computeIfAbsent("some-key", () -> null));
+
+        assertFalse(testSubject.containsKey("some-key"));
+    }
+
+    @Test
+    void computeIfAbsentPropagatesExceptionOfSupplier() {
+        IllegalStateException expected = new IllegalStateException("load failed");
+
+        IllegalStateException actual = assertThrows(
+                IllegalStateException.class, () -> testSubject.computeIfAbsent("some-key", () -> {
+                    throw expected;
+                })
+        );
+
+        assertSame(expected, actual);
+        assertFalse(testSubject.containsKey("some-key"));
+    }
+
+    @Test
+    void concurrentComputeIfAbsentInvokesSupplierOnce() throws Exception {
+        int threadCount = 8;
+        Object value = new Object();
+        AtomicInteger invocations = new AtomicInteger();
+        CountDownLatch supplierStarted = new CountDownLatch(1);
+        CountDownLatch releaseSupplier = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            Future<Object> first = executor.submit(() -> testSubject.computeIfAbsent("some-key", () -> {
+                invocations.incrementAndGet();
+                supplierStarted.countDown();
+                awaitUninterruptibly(releaseSupplier);
+                return value;
+            }));
+            assertTrue(supplierStarted.await(5, TimeUnit.SECONDS));
+            List<Future<Object>> others =
+                    IntStream.range(1, threadCount)
+                             .mapToObj(i -> executor.submit(() -> testSubject.computeIfAbsent("some-key", () -> {
+                                 invocations.incrementAndGet();
+                                 return new Object();
+                             })))
+                             .collect(Collectors.toList());
+            releaseSupplier.countDown();
+
+            assertSame(value, first.get(5, TimeUnit.SECONDS));
+            for (Future<Object> other : others) {
+                assertSame(value, other.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, invocations.get());
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 }
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2010-2022. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventhandling;
+
+import org.axonframework.common.AxonConfigurationException;
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class validating the {@link AdaptiveBatchSizePolicy}.
+ */
+class AdaptiveBatchSizePolicyTest {
+
+    private AdaptiveBatchSizePolicy.Controller testSubject;
+
+    @BeforeEach
+    void setUp() {
+        testSubject = AdaptiveBatchSizePolicy.builder()
+                                             .minBatchSize(2)
+                                             .maxBatchSize(100)
+                                             .latencyTarget(100)
+                                             .build()
+                                             .createController();
+    }
+
+    @Test
+    void batchSizeStartsAtTheMinimum() {
+        assertEquals(2, testSubject.batchSize());
+    }
+
+    @Test
+    void batchSizeGrowsUpToTheMaximumWhileFullBatchesAreFastAndEventsArePending() {
+        testSubject.onBatchProcessed(2, 10, true);
+        assertEquals(4, testSubject.batchSize());
+        testSubject.onBatchProcessed(4, 10, true);
+        assertEquals(8, testSubject.batchSize());
+
+        for (int i = 0; i < 10; i++) {
+            testSubject.onBatchProcessed(testSubject.batchSize(), 0, true);
+        }
+        assertEquals(100, testSubject.batchSize());
+    }
+
+    @Test
+    void batchSizeGrowsTowardsTheLatencyTarget() {
+        growTo(64);
+
+        testSubject.onBatchProcessed(64, 80, true);
+
+        assertEquals(80, testSubject.batchSize());
+    }
+
+    @Test
+    void batchSizeDoesNotGrowForPartialBatches() {
+        growTo(16);
+
+        testSubject.onBatchProcessed(10, 10, true);
+
+        assertEquals(16, testSubject.batchSize());
+    }
+
+    @Test
+    void batchSizeShrinksProportionallyWhenExceedingTheLatencyTarget() {
+        growTo(64);
+
+        testSubject.onBatchProcessed(64, 125, true);
+        assertEquals(51, testSubject.batchSize());
+
+        testSubject.onBatchProcessed(51, 10_000, true);
+        assertEquals(25, testSubject.batchSize());
+    }
+
+    @Test
+    void batchSizeShrinksToTheMinimumWhenNoEventsArePending() {
+        growTo(64);
+
+        for (int i = 0; i < 10; i++) {
+            testSubject.onBatchProcessed(1, 0, false);
+        }
+
+        assertEquals(2, testSubject.batchSize());
+    }
+
+    @Test
+    void buildingWithMinimumExceedingMaximumThrowsAxonConfigurationException() {
+        AdaptiveBatchSizePolicy.Builder builder = AdaptiveBatchSizePolicy.builder()
+                                                                         .minBatchSize(10)
+                                                                         .maxBatchSize(5);
+
+        assertThrows(AxonConfigurationException.class, builder::build);
+    }
+
+    @Test
+    void buildingWithNonPositiveValuesThrowsAxonConfigurationException() {
+        AdaptiveBatchSizePolicy.Builder builder = AdaptiveBatchSizePolicy.builder();
+
+        assertThrows(AxonConfigurationException.class, () -> builder.minBatchSize(0));
+        assertThrows(AxonConfigurationException.class, () -> builder.maxBatchSize(0));
+        assertThrows(AxonConfigurationException.class, () -> builder.latencyTarget(0));
+    }
+
+    private void growTo(int batchSize) {
+        while (testSubject.batchSize() < batchSize) {
+            testSubject.onBatchProcessed(testSubject.batchSize(), 0, true);
+        }
+        assertEquals(batchSize, testSubject.batchSize());
+    }
+}
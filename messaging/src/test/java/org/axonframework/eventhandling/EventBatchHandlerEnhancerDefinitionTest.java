@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2010-2022. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventhandling;
+
+import org.axonframework.messaging.unitofwork.BatchingUnitOfWork;
+import org.axonframework.messaging.unitofwork.RollbackConfigurationType;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static java.util.Collections.singletonList;
+import static org.axonframework.eventhandling.GenericEventMessage.asEventMessage;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class validating event handlers with an {@link EventBatch} annotated parameter, as enhanced by the
+ * {@link EventBatchHandlerEnhancerDefinition}.
+ */
+class EventBatchHandlerEnhancerDefinitionTest {
+
+    private BatchHandler handler;
+    private AnnotationEventHandlerAdapter testSubject;
+
+    @BeforeEach
+    void setUp() {
+        handler = new BatchHandler();
+        testSubject = new AnnotationEventHandlerAdapter(handler);
+    }
+
+    @Test
+    void batchHandlerIsInvokedOncePerBatchWhenTheUnitOfWorkCommits() {
+        List<EventMessage<?>> events = Arrays.asList(asEventMessage("a"), asEventMessage(1L),
+                                                     asEventMessage("b"), asEventMessage("c"));
+        BatchingUnitOfWork<EventMessage<?>> unitOfWork = new BatchingUnitOfWork<>(events);
+
+        unitOfWork.executeWithResult(() -> {
+            testSubject.handle(unitOfWork.getMessage());
+            assertTrue(handler.stringBatches.isEmpty());
+            return null;
+        });
+
+        assertEquals(singletonList(Arrays.asList("a", "b", "c")), handler.stringBatches);
+        assertEquals(1, handler.longBatches.size());
+        assertEquals(singletonList(1L), payloadsOf(handler.longBatches.get(0)));
+    }
+
+    @Test
+    void batchHandlerIsInvokedPerEventWithoutUnitOfWork() throws Exception {
+        testSubject.handle(asEventMessage("a"));
+        testSubject.handle(asEventMessage("b"));
+
+        assertEquals(Arrays.asList(singletonList("a"), singletonList("b")), handler.stringBatches);
+    }
+
+    @Test
+    void replayedEventsAreExcludedFromTheBatchOfHandlersDisallowingReplay() {
+        ReplayToken replayToken = new ReplayToken(new GlobalSequenceTrackingToken(10), new GlobalSequenceTrackingToken(2));
+        List<EventMessage<?>> events = Arrays.asList(
+                new GenericTrackedEventMessage<>(new GlobalSequenceTrackingToken(1), asEventMessage(1L)),
+                new GenericTrackedEventMessage<>(replayToken, asEventMessage(2L)),
+                new GenericTrackedEventMessage<>(replayToken, asEventMessage("a"))
+        );
+        BatchingUnitOfWork<EventMessage<?>> unitOfWork = new BatchingUnitOfWork<>(events);
+
+        unitOfWork.executeWithResult(() -> testSubject.handle(unitOfWork.getMessage()));
+
+        assertEquals(singletonList(1L), payloadsOf(handler.longBatches.get(0)));
+        assertEquals(singletonList(singletonList("a")), handler.stringBatches);
+    }
+
+    @Test
+    void exceptionFromBatchHandlerRollsBackTheUnitOfWork() {
+        handler.failure = new IllegalStateException("bulk write failed");
+        BatchingUnitOfWork<EventMessage<?>> unitOfWork =
+                new BatchingUnitOfWork<>(Arrays.asList(asEventMessage("a"), asEventMessage("b")));
+
+        unitOfWork.executeWithResult(() -> testSubject.handle(unitOfWork.getMessage()),
+                                     RollbackConfigurationType.ANY_THROWABLE);
+
+        assertTrue(unitOfWork.isRolledBack());
+        assertSame(handler.failure, unitOfWork.getExecutionResult().getExceptionResult());
+    }
+
+    private static List<Object> payloadsOf(List<EventMessage<?>> events) {
+        return events.stream().map(EventMessage::getPayload).collect(Collectors.toList());
+    }
+
+    @SuppressWarnings("unused")
+    private static class BatchHandler {
+
+        private final List<List<String>> stringBatches = new ArrayList<>();
+        private final List<List<EventMessage<?>>> longBatches = new ArrayList<>();
+        private RuntimeException failure;
+
+        @EventHandler
+        public void on(@EventBatch List<String> events) {
+            if (failure != null) {
+                throw failure;
+            }
+            stringBatches.add(events);
+        }
+
+        @DisallowReplay
+        @EventHandler
+        public void onLongs(@EventBatch List<EventMessage<Long>> events) {
+            longBatches.add(new ArrayList<>(events));
+        }
+    }
+}
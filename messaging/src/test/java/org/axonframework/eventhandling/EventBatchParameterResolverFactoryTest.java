@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2010-2022. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventhandling;
+
+import org.axonframework.commandhandling.GenericCommandMessage;
+import org.axonframework.messaging.annotation.ParameterResolver;
+import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
+import org.axonframework.messaging.unitofwork.DefaultUnitOfWork;
+import org.junit.jupiter.api.*;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+
+import static java.util.Collections.singletonList;
+import static org.axonframework.eventhandling.EventBatchParameterResolverFactory.CURRENT_BATCH_RESOURCE;
+import static org.axonframework.eventhandling.GenericEventMessage.asEventMessage;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class validating the {@link EventBatchParameterResolverFactory}.
+ */
+class EventBatchParameterResolverFactoryTest {
+
+    private final EventBatchParameterResolverFactory testSubject = new EventBatchParameterResolverFactory();
+
+    @Test
+    void payloadTypeIsResolvedFromTheElementTypeOfTheParameter() throws Exception {
+        assertEquals(String.class, resolverFor("handlePayloads", List.class).supportedPayloadType());
+        assertEquals(Long.class, resolverFor("handleMessages", List.class).supportedPayloadType());
+        assertEquals(Object.class, resolverFor("handleAnyMessages", List.class).supportedPayloadType());
+    }
+
+    @Test
+    void noResolverIsCreatedForParametersWithoutAnnotationOrOfNonListType() throws Exception {
+        assertNull(resolverFor("handleUnannotated", List.class));
+        assertNull(resolverFor("handleArray", String[].class));
+    }
+
+    @Test
+    void matchesEventMessagesOfTheSupportedPayloadTypeOnly() throws Exception {
+        ParameterResolver<?> resolver = resolverFor("handlePayloads", List.class);
+
+        assertTrue(resolver.matches(asEventMessage("event")));
+        assertFalse(resolver.matches(asEventMessage(1L)));
+        assertFalse(resolver.matches(new GenericCommandMessage<>("command")));
+    }
+
+    @Test
+    void resolvesToTheGivenMessageWithoutRegisteredBatch() throws Exception {
+        EventMessage<Object> event = asEventMessage("event");
+
+        assertEquals(singletonList("event"), resolverFor("handlePayloads", List.class).resolveParameterValue(event));
+        assertEquals(singletonList(event), resolverFor("handleMessages", List.class).resolveParameterValue(event));
+    }
+
+    @Test
+    void resolvesToTheBatchRegisteredWithTheUnitOfWork() throws Exception {
+        List<EventMessage<?>> batch = Arrays.asList(asEventMessage("a"), asEventMessage("b"));
+        ParameterResolver<?> resolver = resolverFor("handlePayloads", List.class);
+
+        DefaultUnitOfWork.startAndGet(batch.get(1)).execute(() -> {
+            CurrentUnitOfWork.get().resources().put(CURRENT_BATCH_RESOURCE, batch);
+            assertEquals(Arrays.asList("a", "b"), resolver.resolveParameterValue(batch.get(1)));
+        });
+    }
+
+    private ParameterResolver<?> resolverFor(String methodName, Class<?> parameterType) throws Exception {
+        Method method = getClass().getDeclaredMethod(methodName, parameterType);
+        return testSubject.createInstance(method, method.getParameters(), 0);
+    }
+
+    @SuppressWarnings("unused")
+    private void handlePayloads(@EventBatch List<String> events) {
+    }
+
+    @SuppressWarnings("unused")
+    private void handleMessages(@EventBatch List<? extends EventMessage<Long>> events) {
+    }
+
+    @SuppressWarnings("unused")
+    private void handleAnyMessages(@EventBatch List<EventMessage<?>> events) {
+    }
+
+    @SuppressWarnings("unused")
+    private void handleUnannotated(List<String> events) {
+    }
+
+    @SuppressWarnings("unused")
+    private void handleArray(@EventBatch String[] events) {
+    }
+}
@@ -122,4 +122,9 @@ void trackerAdded() {
     void trackerRemoved() {
         assertFalse(thisStatus.trackerRemoved());
     }
+
+    @Test
+    void batchSizeIsNotReportedByDefault() {
+        assertFalse(thisStatus.getBatchSize().isPresent());
+    }
 }
\ No newline at end of file
@@ -1,14 +1,21 @@
 package org.axonframework.eventhandling;
 
+import org.axonframework.serialization.SerializedObject;
+import org.axonframework.serialization.SimpleSerializedObject;
 import org.axonframework.serialization.TestSerializer;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.util.Base64;
 import java.util.Collection;
+import java.util.TreeSet;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Tests serialization capabilities of {@link GapAwareTrackingToken}.
@@ -34,4 +41,58 @@ void tokenWithoutGapsShouldBeSerializable(TestSerializer serializer) {
         GapAwareTrackingToken subject = GapAwareTrackingToken.newInstance(0, emptyList());
         assertEquals(subject, serializer.serializeDeserialize(subject));
     }
-}
\ No newline at end of file
+
+    @MethodSource("serializers")
+    @ParameterizedTest
+    void tokenWithRangesOfGapsShouldBeSerializable(TestSerializer serializer) {
+        GapAwareTrackingToken subject = GapAwareTrackingToken.newInstance(10, emptyList())
+                                                             .advanceTo(1_000_000, Integer.MAX_VALUE)
+                                                             .advanceTo(500_000, Integer.MAX_VALUE);
+        assertEquals(subject, serializer.serializeDeserialize(subject));
+    }
+
+    @Test
+    void jacksonSerializedFormContainsGapRanges() {
+        GapAwareTrackingToken subject = GapAwareTrackingToken.newInstance(10_000, emptyList())
+                                                             .advanceTo(20_000, Integer.MAX_VALUE);
+        String serialized = new String(TestSerializer.JACKSON.getSerializer()
+                                                             .serialize(subject, byte[].class)
+                                                             .getData());
+        assertEquals("{\"index\":20000,\"gapRanges\":[10001,19999]}", serialized);
+    }
+
+    @Test
+    void jacksonDeserializationOfIndividualGaps() {
+        String serialized = "{\"index\":10,\"gaps\":[1,2,3,7]}";
+        SerializedObject<String> serializedToken = new SimpleSerializedObject<>(
+                serialized, String.class, GapAwareTrackingToken.class.getName(), null
+        );
+
+        GapAwareTrackingToken result = TestSerializer.JACKSON.getSerializer().deserialize(serializedToken);
+
+        assertEquals(GapAwareTrackingToken.newInstance(10, asList(1L, 2L, 3L, 7L)), result);
+    }
+
+    @Test
+    void javaDeserializationOfIndividualGaps() {
+        // A token with index 10 and gaps [1, 2, 7], serialized when gaps were stored in a ConcurrentSkipListSet
+        String serialized = "rO0ABXNyADVvcmcuYXhvbmZyYW1ld29yay5ldmVudGhhbmRsaW5nLkdhcEF3YXJlVHJhY2tpbmdUb2tlbtO5dt+nNtz/AgAC"
+                + "SgAFaW5kZXhMAARnYXBzdAAVTGphdmEvdXRpbC9Tb3J0ZWRTZXQ7eHAAAAAAAAAACnNyACpqYXZhLnV0aWwuY29uY3VycmVu"
+                + "dC5Db25jdXJyZW50U2tpcExpc3RTZXTdmFB5vc/xWwIAAUwAAW10AC1MamF2YS91dGlsL2NvbmN1cnJlbnQvQ29uY3VycmVu"
+                + "dE5hdmlnYWJsZU1hcDt4cHNyACpqYXZhLnV0aWwuY29uY3VycmVudC5Db25jdXJyZW50U2tpcExpc3RNYXCIRnWuBhFGpwMA"
+                + "AUwACmNvbXBhcmF0b3J0ABZMamF2YS91dGlsL0NvbXBhcmF0b3I7eHBwc3IADmphdmEubGFuZy5Mb25nO4vkkMyPI98CAAFK"
+                + "AAV2YWx1ZXhyABBqYXZhLmxhbmcuTnVtYmVyhqyVHQuU4IsCAAB4cAAAAAAAAAABc3IAEWphdmEubGFuZy5Cb29sZWFuzSBy"
+                + "gNWc+u4CAAFaAAV2YWx1ZXhwAXNxAH4ACQAAAAAAAAACcQB+AA1zcQB+AAkAAAAAAAAAB3EAfgANcHg=";
+        SerializedObject<byte[]> serializedToken = new SimpleSerializedObject<>(
+                Base64.getDecoder().decode(serialized), byte[].class, GapAwareTrackingToken.class.getName(), null
+        );
+
+        GapAwareTrackingToken result = TestSerializer.JAVA.getSerializer().deserialize(serializedToken);
+
+        assertEquals(GapAwareTrackingToken.newInstance(10, asList(1L, 2L, 7L)), result);
+        assertEquals(new TreeSet<>(asList(1L, 2L, 7L)), result.getGaps());
+        assertTrue(result.covers(GapAwareTrackingToken.newInstance(10, asList(1L, 2L, 7L))));
+        assertFalse(result.getGaps().contains(3L));
+        assertEquals(result, result.advanceTo(11, Integer.MAX_VALUE).lowerBound(result));
+    }
+}
@@ -26,6 +26,7 @@
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
 import static java.util.Arrays.asList;
@@ -34,6 +35,7 @@
 import static java.util.Collections.emptySortedSet;
 import static java.util.Collections.singleton;
 import static java.util.Collections.singletonList;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -233,6 +235,92 @@ void position() {
         assertEquals(15L, token.position().getAsLong());
     }
 
+    @Test
+    void largeRangesOfGapsAreRepresentedCompactly() {
+        GapAwareTrackingToken token = GapAwareTrackingToken.newInstance(0, emptyList())
+                                                           .advanceTo(10_000_001, Integer.MAX_VALUE)
+                                                           .advanceTo(5_000_000, Integer.MAX_VALUE);
+
+        assertEquals(10_000_001L, token.getIndex());
+        assertEquals(9_999_999, token.getGaps().size());
+        assertEquals(1L, token.getGaps().first());
+        assertEquals(10_000_000L, token.getGaps().last());
+        assertTrue(token.getGaps().contains(4_999_999L));
+        assertFalse(token.getGaps().contains(5_000_000L));
+        assertTrue(token.getGaps().contains(5_000_001L));
+        assertEquals(2, ((GapRanges) token.getGaps()).rangeCount());
+    }
+
+    @Test
+    void lowerBoundSkipsRangeOfGapsBelowIndex() {
+        GapAwareTrackingToken token1 = GapAwareTrackingToken.newInstance(1_000, emptyList())
+                                                            .advanceTo(2_000, Integer.MAX_VALUE);
+        GapAwareTrackingToken token2 = GapAwareTrackingToken.newInstance(1_500, emptyList());
+
+        GapAwareTrackingToken lowerBound = token1.lowerBound(token2);
+
+        assertEquals(1_000L, lowerBound.getIndex());
+        assertFalse(lowerBound.hasGaps());
+    }
+
+    @Test
+    void upperBoundKeepsSharedRangesOfGaps() {
+        GapAwareTrackingToken token1 = GapAwareTrackingToken.newInstance(100, asList(10L, 11L, 12L, 50L));
+        GapAwareTrackingToken token2 = GapAwareTrackingToken.newInstance(200, asList(11L, 12L, 13L, 150L));
+
+        GapAwareTrackingToken upperBound = (GapAwareTrackingToken) token1.upperBound(token2);
+
+        assertEquals(200L, upperBound.getIndex());
+        assertEquals(asTreeSet(11L, 12L, 150L), upperBound.getGaps());
+    }
+
+    @Test
+    void hashCodeOfGapsEqualsThatOfASetWithTheSameValues() {
+        long lowWordBoundary = 1L << 32;
+        long[][] rangeArrays = {
+                {0, 0},
+                {1, 2, 5, 100, 200, 1_000},
+                {lowWordBoundary - 3, lowWordBoundary + 3},
+                {3 * lowWordBoundary - 2, 3 * lowWordBoundary + 1, 7 * lowWordBoundary + 5, 7 * lowWordBoundary + 9},
+                {-10, 10},
+                {Long.MAX_VALUE - 4, Long.MAX_VALUE}
+        };
+        for (long[] rangeArray : rangeArrays) {
+            TreeSet<Long> values = new TreeSet<>();
+            for (int i = 0; i < rangeArray.length; i += 2) {
+                LongStream.rangeClosed(rangeArray[i], rangeArray[i + 1]).forEach(values::add);
+            }
+            GapRanges gaps = GapRanges.fromRangeArray(rangeArray);
+
+            assertEquals(values, gaps);
+            assertEquals(values.hashCode(), gaps.hashCode(), () -> "Hash code mismatch for " + values);
+        }
+        // too large to enumerate, so compared to the sum of the hash codes of its parts
+        int hashCodeOfParts = GapRanges.range(5, lowWordBoundary).hashCode()
+                + GapRanges.range(lowWordBoundary, 2 * lowWordBoundary).hashCode()
+                + GapRanges.range(2 * lowWordBoundary, 3 * lowWordBoundary).hashCode()
+                + GapRanges.range(3 * lowWordBoundary, 3 * lowWordBoundary + 7).hashCode();
+        assertEquals(hashCodeOfParts, GapRanges.range(5, 3 * lowWordBoundary + 7).hashCode());
+    }
+
+    @Test
+    void gapRangesAreOrderedAndCoalescedWhenCreatedFromRangeArray() {
+        GapRanges gaps = GapRanges.fromRangeArray(new long[]{20, 25, 1, 3, 4, 6, 22, 30, 10, 10});
+
+        assertArrayEquals(new long[]{1, 6, 10, 10, 20, 30}, gaps.toRangeArray());
+        assertThrows(IllegalArgumentException.class, () -> GapRanges.fromRangeArray(new long[]{5, 4}));
+        assertThrows(IllegalArgumentException.class, () -> GapRanges.fromRangeArray(new long[]{5}));
+    }
+
+    @Test
+    void gapsCannotBeModified() {
+        GapAwareTrackingToken token = GapAwareTrackingToken.newInstance(15, asList(14L, 9L, 8L));
+
+        assertThrows(UnsupportedOperationException.class, () -> token.getGaps().add(3L));
+        assertThrows(UnsupportedOperationException.class, () -> token.getGaps().remove(9L));
+        assertThrows(UnsupportedOperationException.class, () -> token.getGaps().clear());
+    }
+
     private TreeSet<Long> asTreeSet(Long... elements) {
         return new TreeSet<>(asList(elements));
     }
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2010-2022. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventhandling;
+
+import org.axonframework.common.AxonConfigurationException;
+import org.junit.jupiter.api.*;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class validating the {@link ParallelDeserializationStage}.
+ */
+class ParallelDeserializationStageTest {
+
+    @Test
+    void payloadAndMetaDataAreDeserializedOnTheExecutor() {
+        Executor executor = spy(new DirectExecutor());
+        EventMessage<?> event = mock(EventMessage.class);
+        ParallelDeserializationStage testSubject = new ParallelDeserializationStage(executor);
+
+        testSubject.deserialize(event);
+
+        verify(executor).execute(any());
+        verify(event).getPayload();
+        verify(event).getMetaData();
+    }
+
+    @Test
+    void deserializationFailuresAreLeftForTheHandlingThread() {
+        EventMessage<?> event = mock(EventMessage.class);
+        when(event.getPayload()).thenThrow(new IllegalStateException("unknown payload type"));
+        ParallelDeserializationStage testSubject = new ParallelDeserializationStage(new DirectExecutor());
+
+        assertDoesNotThrow(() -> testSubject.deserialize(event));
+    }
+
+    @Test
+    void rejectedDeserializationIsLeftForTheHandlingThread() {
+        EventMessage<?> event = mock(EventMessage.class);
+        ParallelDeserializationStage testSubject = new ParallelDeserializationStage(task -> {
+            throw new RejectedExecutionException();
+        });
+
+        assertDoesNotThrow(() -> testSubject.deserialize(event));
+        verify(event, never()).getPayload();
+    }
+
+    @Test
+    void buildingWithoutExecutorThrowsAxonConfigurationException() {
+        assertThrows(AxonConfigurationException.class, () -> new ParallelDeserializationStage(null));
+    }
+
+    private static class DirectExecutor implements Executor {
+
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    }
+}
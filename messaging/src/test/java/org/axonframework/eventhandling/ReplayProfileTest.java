@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2010-2022. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventhandling;
+
+import org.axonframework.common.AxonConfigurationException;
+import org.junit.jupiter.api.*;
+
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class validating the {@link ReplayProfile}.
+ */
+class ReplayProfileTest {
+
+    @Test
+    void defaultReplayProfile() {
+        ReplayProfile testSubject = ReplayProfile.builder().build();
+
+        assertEquals(1024, testSubject.batchSize());
+        assertEquals(5000, testSubject.tokenStoreInterval());
+        assertEquals(10000, testSubject.maxUnstoredEvents());
+        assertEquals(8192, testSubject.readAhead());
+        assertEquals(1, testSubject.laneCount());
+        assertNull(testSubject.laneExecutor());
+    }
+
+    @Test
+    void configuredReplayProfile() {
+        ExecutorService laneExecutor = mock(ExecutorService.class);
+
+        ReplayProfile testSubject = ReplayProfile.builder()
+                                                 .batchSize(500)
+                                                 .coalescedTokenStorage(2000, 4000)
+                                                 .readAhead(2048)
+                                                 .parallelLanes(4, laneExecutor)
+                                                 .build();
+
+        assertEquals(500, testSubject.batchSize());
+        assertEquals(2000, testSubject.tokenStoreInterval());
+        assertEquals(4000, testSubject.maxUnstoredEvents());
+        assertEquals(2048, testSubject.readAhead());
+        assertEquals(4, testSubject.laneCount());
+        assertSame(laneExecutor, testSubject.laneExecutor());
+    }
+
+    @Test
+    void buildingWithInvalidValuesThrowsAxonConfigurationException() {
+        ReplayProfile.Builder builder = ReplayProfile.builder();
+
+        assertThrows(AxonConfigurationException.class, () -> builder.batchSize(0));
+        assertThrows(AxonConfigurationException.class, () -> builder.coalescedTokenStorage(0, 100));
+        assertThrows(AxonConfigurationException.class, () -> builder.coalescedTokenStorage(100, 0));
+        assertThrows(AxonConfigurationException.class, () -> builder.readAhead(0));
+        assertThrows(AxonConfigurationException.class, () -> builder.parallelLanes(0, mock(ExecutorService.class)));
+        assertThrows(AxonConfigurationException.class, () -> builder.parallelLanes(2, null));
+    }
+}
@@ -0,0 +1,288 @@
+/*
+ * Copyright (c) 2010-2022. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventhandling;
+
+import org.axonframework.common.AxonConfigurationException;
+import org.axonframework.common.stream.BlockingStream;
+import org.axonframework.messaging.StreamableMessageSource;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.axonframework.utils.AssertUtils.assertWithin;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class validating the {@link SharedStreamableMessageSource}.
+ */
+class SharedStreamableMessageSourceTest {
+
+    private StubMessageSource delegate;
+    private SharedStreamableMessageSource testSubject;
+    private final List<BlockingStream<TrackedEventMessage<?>>> openedStreams = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        delegate = new StubMessageSource();
+        testSubject = SharedStreamableMessageSource.builder().delegate(delegate).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        openedStreams.forEach(BlockingStream::close);
+    }
+
+    @Test
+    void streamsAtTheHeadShareASingleStreamOnTheDelegate() throws InterruptedException {
+        publish(5);
+        BlockingStream<TrackedEventMessage<?>> first = open(delegate.createHeadToken());
+        BlockingStream<TrackedEventMessage<?>> second = open(delegate.createHeadToken());
+        publish(3);
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(first.hasNextAvailable(1, TimeUnit.SECONDS));
+            assertTrue(second.hasNextAvailable(1, TimeUnit.SECONDS));
+            TrackedEventMessage<?> event = first.nextAvailable();
+            assertSame(event, second.nextAvailable());
+            assertEquals(5 + i, event.getPayload());
+        }
+        assertFalse(first.hasNextAvailable(10, TimeUnit.MILLISECONDS));
+        // only the reader of the shared stream opened a stream on the delegate
+        assertEquals(1, delegate.openedStreams.get());
+    }
+
+    @Test
+    void streamBehindTheSharedStreamReadsPrivatelyAndAttachesOnceCaughtUp() throws InterruptedException {
+        publish(10);
+        BlockingStream<TrackedEventMessage<?>> attached = open(delegate.createHeadToken());
+        BlockingStream<TrackedEventMessage<?>> replaying = open(null);
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(replaying.hasNextAvailable(1, TimeUnit.SECONDS));
+            assertEquals(i, replaying.nextAvailable().getPayload());
+        }
+        assertWithin(1, TimeUnit.SECONDS, () -> assertEquals(2, delegate.openedStreams.get()));
+        publish(1);
+
+        assertTrue(replaying.hasNextAvailable(1, TimeUnit.SECONDS));
+        assertTrue(attached.hasNextAvailable(1, TimeUnit.SECONDS));
+        assertSame(attached.nextAvailable(), replaying.nextAvailable());
+        assertEquals(1, delegate.closedStreams.get(), "Expected the private stream to be closed once attached");
+    }
+
+    @Test
+    void streamFallingBehindTheCacheDetachesOntoAPrivateStream() throws InterruptedException {
+        testSubject = SharedStreamableMessageSource.builder().delegate(delegate).cachedEvents(2).build();
+        BlockingStream<TrackedEventMessage<?>> fast = open(delegate.createHeadToken());
+        BlockingStream<TrackedEventMessage<?>> slow = open(delegate.createHeadToken());
+        for (int i = 0; i < 5; i++) {
+            publish(1);
+            assertTrue(fast.hasNextAvailable(1, TimeUnit.SECONDS));
+            assertEquals(i, fast.nextAvailable().getPayload());
+        }
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(slow.hasNextAvailable(1, TimeUnit.SECONDS));
+            assertEquals(i, slow.nextAvailable().getPayload());
+        }
+        assertEquals(2, delegate.openedStreams.get());
+
+        // having caught up, the slow stream attaches to the shared stream again
+        publish(1);
+        assertTrue(slow.hasNextAvailable(1, TimeUnit.SECONDS));
+        assertTrue(fast.hasNextAvailable(1, TimeUnit.SECONDS));
+        assertSame(fast.nextAvailable(), slow.nextAvailable());
+        assertEquals(1, delegate.closedStreams.get());
+    }
+
+    @Test
+    void streamWithAGapAwareTokenAttachesWhenItCoversTheTokenOfTheSharedStream() throws InterruptedException {
+        delegate = new StubMessageSource(true);
+        testSubject = SharedStreamableMessageSource.builder().delegate(delegate).build();
+        publish(5);
+        delegate.skipPosition();
+        publish(2);
+        BlockingStream<TrackedEventMessage<?>> attached = open(delegate.createHeadToken());
+        // unlike the shared stream, this stream has no gap at position 5, so its token differs at the same position
+        TrackingToken coveringToken = GapAwareTrackingToken.newInstance(7, Collections.emptySet());
+        assertNotEquals(delegate.createHeadToken(), coveringToken);
+        BlockingStream<TrackedEventMessage<?>> covering = open(coveringToken);
+        publish(1);
+
+        assertTrue(covering.hasNextAvailable(1, TimeUnit.SECONDS));
+        assertTrue(attached.hasNextAvailable(1, TimeUnit.SECONDS));
+        assertEquals(attached.nextAvailable().getIdentifier(), covering.nextAvailable().getIdentifier());
+        assertEquals(1, delegate.openedStreams.get());
+    }
+
+    @Test
+    void attachedStreamSkipsEventsFillingGapsItsTokenCoversAndKeepsThoseGapsClosed() throws InterruptedException {
+        delegate = new StubMessageSource(true);
+        testSubject = SharedStreamableMessageSource.builder().delegate(delegate).build();
+        publish(5);
+        delegate.skipPosition();
+        publish(2);
+        BlockingStream<TrackedEventMessage<?>> attached = open(delegate.createHeadToken());
+        // this stream has already seen the event at position 5, which the shared stream receives later
+        BlockingStream<TrackedEventMessage<?>> covering =
+                open(GapAwareTrackingToken.newInstance(7, Collections.emptySet()));
+        publish(1);
+        delegate.fillGap();
+        publish(1);
+
+        assertTrue(attached.hasNextAvailable(1, TimeUnit.SECONDS));
+        assertEquals(8, attached.nextAvailable().getPayload());
+        assertEquals(5, attached.nextAvailable().getPayload());
+        assertEquals(9, attached.nextAvailable().getPayload());
+
+        assertTrue(covering.hasNextAvailable(1, TimeUnit.SECONDS));
+        TrackedEventMessage<?> first = covering.nextAvailable();
+        assertEquals(8, first.getPayload());
+        assertEquals(GapAwareTrackingToken.newInstance(8, Collections.emptySet()), first.trackingToken());
+        TrackedEventMessage<?> second = covering.nextAvailable();
+        assertEquals(9, second.getPayload());
+        assertEquals(GapAwareTrackingToken.newInstance(9, Collections.emptySet()), second.trackingToken());
+        assertFalse(covering.hasNextAvailable(100, TimeUnit.MILLISECONDS));
+        assertEquals(1, delegate.openedStreams.get());
+    }
+
+    @Test
+    void sharedStreamIsClosedOnceAllStreamsAreClosed() {
+        BlockingStream<TrackedEventMessage<?>> first = testSubject.openStream(null);
+        BlockingStream<TrackedEventMessage<?>> second = testSubject.openStream(null);
+        assertWithin(1, TimeUnit.SECONDS, () -> assertEquals(1, delegate.openedStreams.get()));
+
+        first.close();
+        assertEquals(0, delegate.closedStreams.get());
+        second.close();
+
+        assertWithin(2, TimeUnit.SECONDS, () -> assertEquals(1, delegate.closedStreams.get()));
+    }
+
+    @Test
+    void buildingWithInvalidValuesThrowsAxonConfigurationException() {
+        SharedStreamableMessageSource.Builder builder = SharedStreamableMessageSource.builder();
+
+        assertThrows(AxonConfigurationException.class, () -> builder.delegate(null));
+        assertThrows(AxonConfigurationException.class, () -> builder.cachedEvents(0));
+        assertThrows(AxonConfigurationException.class, () -> builder.threadFactory(null));
+        assertThrows(AxonConfigurationException.class, builder::build);
+    }
+
+    private BlockingStream<TrackedEventMessage<?>> open(TrackingToken token) {
+        BlockingStream<TrackedEventMessage<?>> stream = testSubject.openStream(token);
+        openedStreams.add(stream);
+        return stream;
+    }
+
+    private void publish(int count) {
+        IntStream.range(0, count).forEach(i -> delegate.publish());
+    }
+
+    private static class StubMessageSource implements StreamableMessageSource<TrackedEventMessage<?>> {
+
+        private final List<TrackedEventMessage<?>> events = new CopyOnWriteArrayList<>();
+        private final AtomicInteger openedStreams = new AtomicInteger();
+        private final AtomicInteger closedStreams = new AtomicInteger();
+        private final boolean gapAware;
+        private final List<Long> gaps = new ArrayList<>();
+        private long nextPosition;
+
+        private StubMessageSource() {
+            this(false);
+        }
+
+        private StubMessageSource(boolean gapAware) {
+            this.gapAware = gapAware;
+        }
+
+        private void publish() {
+            long position = nextPosition++;
+            TrackingToken token = gapAware
+                    ? GapAwareTrackingToken.newInstance(position, gaps)
+                    : new GlobalSequenceTrackingToken(position);
+            events.add(new GenericTrackedEventMessage<>(token, GenericEventMessage.asEventMessage((int) position)));
+        }
+
+        private void skipPosition() {
+            gaps.add(nextPosition++);
+        }
+
+        private void fillGap() {
+            long position = gaps.remove(0);
+            TrackingToken token = GapAwareTrackingToken.newInstance(nextPosition - 1, gaps);
+            events.add(new GenericTrackedEventMessage<>(token, GenericEventMessage.asEventMessage((int) position)));
+        }
+
+        @Override
+        public BlockingStream<TrackedEventMessage<?>> openStream(TrackingToken trackingToken) {
+            openedStreams.incrementAndGet();
+            long startPosition = trackingToken == null ? 0 : trackingToken.position().orElse(-1) + 1;
+            int start = (int) events.stream()
+                                    .filter(event -> event.trackingToken().position().orElse(-1) < startPosition)
+                                    .count();
+            return new BlockingStream<TrackedEventMessage<?>>() {
+
+                private int next = start;
+
+                @Override
+                public Optional<TrackedEventMessage<?>> peek() {
+                    return next < events.size() ? Optional.of(events.get(next)) : Optional.empty();
+                }
+
+                @Override
+                public boolean hasNextAvailable(int timeout, TimeUnit unit) throws InterruptedException {
+                    long deadline = System.currentTimeMillis() + unit.toMillis(timeout);
+                    while (!peek().isPresent() && System.currentTimeMillis() < deadline) {
+                        Thread.sleep(5);
+                    }
+                    return peek().isPresent();
+                }
+
+                @Override
+                public TrackedEventMessage<?> nextAvailable() throws InterruptedException {
+                    while (!hasNextAvailable(100, TimeUnit.MILLISECONDS)) {
+                        // wait for the next event
+                    }
+                    return events.get(next++);
+                }
+
+                @Override
+                public void close() {
+                    closedStreams.incrementAndGet();
+                }
+            };
+        }
+
+        @Override
+        public TrackingToken createTailToken() {
+            return null;
+        }
+
+        @Override
+        public TrackingToken createHeadToken() {
+            return events.isEmpty() ? null : events.get(events.size() - 1).trackingToken();
+        }
+    }
+}
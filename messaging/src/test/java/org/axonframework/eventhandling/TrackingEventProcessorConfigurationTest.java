@@ -16,10 +16,14 @@
 
 package org.axonframework.eventhandling;
 
+import org.axonframework.common.AxonConfigurationException;
 import org.junit.jupiter.api.*;
 
 import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -44,4 +48,74 @@ void configuredEventTrackerStatusChangeListener() {
         assertEquals(expectedChangeListener, resultChangeListener);
         resultChangeListener.onEventTrackerStatusChange(expectedTrackerStatus);
     }
-}
\ No newline at end of file
+
+    @Test
+    void tokenStorageIsNotCoalescedByDefault() {
+        TrackingEventProcessorConfiguration testSubject =
+                TrackingEventProcessorConfiguration.forSingleThreadedProcessing();
+
+        assertEquals(0, testSubject.getTokenStoreInterval());
+    }
+
+    @Test
+    void configuredCoalescedTokenStorage() {
+        TrackingEventProcessorConfiguration testSubject =
+                TrackingEventProcessorConfiguration.forSingleThreadedProcessing()
+                                                   .andCoalescedTokenStorage(2, TimeUnit.SECONDS, 500);
+
+        assertEquals(2000, testSubject.getTokenStoreInterval());
+        assertEquals(500, testSubject.getMaxUnstoredEvents());
+    }
+
+    @Test
+    void coalescedTokenStorageRejectsNonPositiveBounds() {
+        TrackingEventProcessorConfiguration testSubject =
+                TrackingEventProcessorConfiguration.forSingleThreadedProcessing();
+
+        assertThrows(AxonConfigurationException.class,
+                     () -> testSubject.andCoalescedTokenStorage(0, TimeUnit.SECONDS, 500));
+        assertThrows(AxonConfigurationException.class,
+                     () -> testSubject.andCoalescedTokenStorage(2, TimeUnit.SECONDS, 0));
+    }
+
+    @Test
+    void configuredAdaptiveBatchSizePolicy() {
+        AdaptiveBatchSizePolicy expectedPolicy = AdaptiveBatchSizePolicy.builder().build();
+        TrackingEventProcessorConfiguration testSubject =
+                TrackingEventProcessorConfiguration.forSingleThreadedProcessing();
+
+        assertNull(testSubject.getAdaptiveBatchSizePolicy());
+        testSubject.andAdaptiveBatchSize(expectedPolicy);
+
+        assertSame(expectedPolicy, testSubject.getAdaptiveBatchSizePolicy());
+    }
+
+    @Test
+    void configuredReplayProfile() {
+        ReplayProfile expectedProfile = ReplayProfile.builder().build();
+        TrackingEventProcessorConfiguration testSubject =
+                TrackingEventProcessorConfiguration.forSingleThreadedProcessing();
+
+        assertNull(testSubject.getReplayProfile());
+        testSubject.andReplayProfile(expectedProfile);
+
+        assertSame(expectedProfile, testSubject.getReplayProfile());
+    }
+
+    @Test
+    void configuredDeserializationExecutor() {
+        ExecutorService expectedExecutor = Executors.newSingleThreadExecutor();
+        TrackingEventProcessorConfiguration testSubject =
+                TrackingEventProcessorConfiguration.forSingleThreadedProcessing();
+
+        try {
+            assertNull(testSubject.getDeserializationExecutor());
+            testSubject.andDeserializationExecutor(expectedExecutor);
+
+            assertSame(expectedExecutor, testSubject.getDeserializationExecutor());
+            assertThrows(AxonConfigurationException.class, () -> testSubject.andDeserializationExecutor(null));
+        } finally {
+            expectedExecutor.shutdown();
+        }
+    }
+}
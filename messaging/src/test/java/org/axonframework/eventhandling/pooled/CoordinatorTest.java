@@ -75,6 +75,7 @@ class CoordinatorTest {
 
     @BeforeEach
     void setUp() {
+        doCallRealMethod().when(tokenStore).fetchTokens(any(), any());
         testSubject = Coordinator.builder()
                                  .name(PROCESSOR_NAME)
                                  .messageSource(messageSource)
@@ -184,6 +185,74 @@ void ifCoordinationTaskSchedulesEventsWithTheSameTokenTogether() throws Interrup
         verify(workPackage, times(0)).scheduleEvent(any());
     }
 
+    @Test
+    void idleWorkPackagesHaveTheirClaimsExtendedAndTokensStoredInOneTransaction() {
+        TrackingToken testToken = new GlobalSequenceTrackingToken(0);
+        TrackingToken consumedToken = new GlobalSequenceTrackingToken(5);
+        mockIdleWorkPackage(testToken);
+        when(workPackage.reserveForClaimExtension()).thenReturn(true);
+        when(workPackage.hasUnstoredToken()).thenReturn(true);
+        when(workPackage.lastConsumedToken()).thenReturn(consumedToken);
+
+        testSubject.start();
+
+        assertWithin(500, TimeUnit.MILLISECONDS, () -> {
+            verify(tokenStore, atLeastOnce())
+                    .storeTokens(Collections.singletonMap(SEGMENT_ID, consumedToken), PROCESSOR_NAME);
+            verify(tokenStore, atLeastOnce()).extendClaims(PROCESSOR_NAME, Collections.emptyList());
+            verify(workPackage, atLeastOnce()).endClaimExtensionReservation(true);
+        });
+        verify(workPackage, never()).endClaimExtensionReservation(false);
+        verify(tokenStore, never()).extendClaim(any(), anyInt());
+    }
+
+    @Test
+    void workPackagesExtendTheirOwnClaimsWhenTheCombinedClaimExtensionFails() {
+        TrackingToken testToken = new GlobalSequenceTrackingToken(0);
+        mockIdleWorkPackage(testToken);
+        when(workPackage.reserveForClaimExtension()).thenReturn(true);
+        when(workPackage.hasUnstoredToken()).thenReturn(false);
+        doThrow(new RuntimeException("claim lost")).when(tokenStore)
+                                                   .extendClaims(PROCESSOR_NAME, Collections.singletonList(SEGMENT_ID));
+
+        testSubject.start();
+
+        assertWithin(500, TimeUnit.MILLISECONDS,
+                     () -> verify(workPackage, atLeastOnce()).endClaimExtensionReservation(false));
+        verify(workPackage, never()).endClaimExtensionReservation(true);
+    }
+
+    @Test
+    void workPackagesThatAreNotReservedAreLeftOutOfTheCombinedClaimExtension() {
+        TrackingToken testToken = new GlobalSequenceTrackingToken(0);
+        mockIdleWorkPackage(testToken);
+        when(workPackage.reserveForClaimExtension()).thenReturn(false);
+
+        testSubject.start();
+
+        assertWithin(500, TimeUnit.MILLISECONDS, () -> verify(workPackage, atLeastOnce()).reserveForClaimExtension());
+        verify(tokenStore, never()).storeTokens(any(), any());
+        verify(tokenStore, never()).extendClaims(any(), any());
+        verify(workPackage, never()).endClaimExtensionReservation(anyBoolean());
+    }
+
+    private void mockIdleWorkPackage(TrackingToken testToken) {
+        //noinspection unchecked
+        BlockingStream<TrackedEventMessage<?>> testStream = mock(BlockingStream.class);
+        when(testStream.setOnAvailableCallback(any())).thenReturn(false);
+        when(testStream.hasNextAvailable()).thenReturn(false);
+        when(testStream.peek()).thenReturn(Optional.empty());
+
+        when(workPackage.segment()).thenReturn(SEGMENT_ONE);
+        when(workPackage.hasRemainingCapacity()).thenReturn(true);
+        when(workPackage.isAbortTriggered()).thenReturn(false);
+        when(executorService.submit(any(Runnable.class))).thenAnswer(runTaskAsync());
+        when(tokenStore.fetchSegments(PROCESSOR_NAME)).thenReturn(SEGMENT_IDS);
+        when(tokenStore.fetchAvailableSegments(PROCESSOR_NAME)).thenReturn(Collections.singletonList(SEGMENT_ONE));
+        when(tokenStore.fetchToken(PROCESSOR_NAME, SEGMENT_ONE)).thenReturn(testToken);
+        when(messageSource.openStream(testToken)).thenReturn(testStream);
+    }
+
     private Answer<Future<Void>> runTaskSync() {
         return invocationOnMock -> {
             final Runnable runnable = invocationOnMock.getArgument(0);
@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2010-2022. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventhandling.pooled;
+
+import org.axonframework.common.AxonConfigurationException;
+import org.axonframework.eventhandling.StreamingEventProcessor;
+import org.junit.jupiter.api.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class validating the {@link LagBasedSegmentBalancer}.
+ */
+class LagBasedSegmentBalancerTest {
+
+    private static final String LOCAL = "local";
+    private static final String OTHER = "other";
+
+    private StreamingEventProcessor processor;
+
+    @BeforeEach
+    void setUp() {
+        processor = mock(StreamingEventProcessor.class);
+        when(processor.getName()).thenReturn("test");
+        when(processor.splitSegment(anyInt())).thenReturn(CompletableFuture.completedFuture(true));
+    }
+
+    @Test
+    void leastLaggingSegmentIsReleasedOnceOverloadedForTheStabilizationRounds() {
+        LagBasedSegmentBalancer testSubject = LagBasedSegmentBalancer.builder()
+                                                                     .stabilizationRounds(3)
+                                                                     .releaseDuration(500)
+                                                                     .discoveryRounds(0)
+                                                                     .build();
+        SegmentClaims claims = claims(4, owners(LOCAL, LOCAL, LOCAL, OTHER), lag(5L, 1L, 9L));
+
+        testSubject.balance(claims, processor);
+        testSubject.balance(claims, processor);
+        verify(processor, never()).releaseSegment(anyInt(), anyLong(), any());
+
+        testSubject.balance(claims, processor);
+        verify(processor).releaseSegment(1, 500, MILLISECONDS);
+    }
+
+    @Test
+    void noSegmentIsReleasedDuringTheCooldownRounds() {
+        LagBasedSegmentBalancer testSubject = LagBasedSegmentBalancer.builder()
+                                                                     .stabilizationRounds(1)
+                                                                     .cooldownRounds(2)
+                                                                     .discoveryRounds(0)
+                                                                     .build();
+        SegmentClaims claims = claims(4, owners(LOCAL, LOCAL, LOCAL, OTHER), lag(0L, 0L, 0L));
+
+        IntStream.range(0, 3).forEach(i -> testSubject.balance(claims, processor));
+        verify(processor, times(1)).releaseSegment(anyInt(), anyLong(), any());
+
+        testSubject.balance(claims, processor);
+        verify(processor, times(2)).releaseSegment(anyInt(), anyLong(), any());
+    }
+
+    @Test
+    void evenlyDistributedSegmentsAreNotReleased() {
+        LagBasedSegmentBalancer testSubject = LagBasedSegmentBalancer.builder()
+                                                                     .stabilizationRounds(1)
+                                                                     .discoveryRounds(0)
+                                                                     .build();
+        SegmentClaims claims = claims(3, owners(LOCAL, LOCAL, OTHER), lag(0L, 0L));
+
+        IntStream.range(0, 10).forEach(i -> testSubject.balance(claims, processor));
+
+        verify(processor, never()).releaseSegment(anyInt(), anyLong(), any());
+    }
+
+    @Test
+    void segmentsAreNotReleasedWhileOtherSegmentsAreUnclaimed() {
+        LagBasedSegmentBalancer testSubject = LagBasedSegmentBalancer.builder()
+                                                                     .stabilizationRounds(1)
+                                                                     .discoveryRounds(0)
+                                                                     .build();
+        SegmentClaims claims = claims(5, owners(LOCAL, LOCAL, LOCAL, OTHER), lag(0L, 0L, 0L));
+
+        IntStream.range(0, 10).forEach(i -> testSubject.balance(claims, processor));
+
+        verify(processor, never()).releaseSegment(anyInt(), anyLong(), any());
+    }
+
+    @Test
+    void mostLaggingSegmentIsSplitOnceLaggingForTheStabilizationRounds() {
+        LagBasedSegmentBalancer testSubject = LagBasedSegmentBalancer.builder()
+                                                                     .stabilizationRounds(3)
+                                                                     .splitLagThreshold(10_000)
+                                                                     .discoveryRounds(0)
+                                                                     .build();
+        SegmentClaims claims = claims(4, owners(LOCAL, LOCAL, OTHER, OTHER), lag(20_000L, 50_000L));
+
+        testSubject.balance(claims, processor);
+        testSubject.balance(claims, processor);
+        verify(processor, never()).splitSegment(anyInt());
+
+        testSubject.balance(claims, processor);
+        verify(processor).splitSegment(1);
+    }
+
+    @Test
+    void segmentsAreNotSplitBeyondTheMaxSegmentCount() {
+        LagBasedSegmentBalancer testSubject = LagBasedSegmentBalancer.builder()
+                                                                     .stabilizationRounds(1)
+                                                                     .splitLagThreshold(10_000)
+                                                                     .maxSegmentCount(4)
+                                                                     .discoveryRounds(0)
+                                                                     .build();
+        SegmentClaims claims = claims(4, owners(LOCAL, LOCAL, OTHER, OTHER), lag(20_000L, 50_000L));
+
+        IntStream.range(0, 10).forEach(i -> testSubject.balance(claims, processor));
+
+        verify(processor, never()).splitSegment(anyInt());
+    }
+
+    @Test
+    void splittingStopsWhenTheProcessorDoesNotSupportIt() {
+        CompletableFuture<Boolean> unsupported = new CompletableFuture<>();
+        unsupported.completeExceptionally(new UnsupportedOperationException());
+        when(processor.splitSegment(anyInt())).thenReturn(unsupported);
+        LagBasedSegmentBalancer testSubject = LagBasedSegmentBalancer.builder()
+                                                                     .stabilizationRounds(1)
+                                                                     .cooldownRounds(0)
+                                                                     .splitLagThreshold(10_000)
+                                                                     .discoveryRounds(0)
+                                                                     .build();
+        SegmentClaims claims = claims(2, owners(LOCAL, OTHER), lag(20_000L));
+
+        IntStream.range(0, 10).forEach(i -> testSubject.balance(claims, processor));
+
+        verify(processor, times(1)).splitSegment(anyInt());
+    }
+
+    @Test
+    void segmentIsReleasedPeriodicallyToDiscoverIdleNodes() {
+        LagBasedSegmentBalancer testSubject = LagBasedSegmentBalancer.builder()
+                                                                     .cooldownRounds(0)
+                                                                     .discoveryRounds(2)
+                                                                     .expectedNodeCount(2)
+                                                                     .build();
+        SegmentClaims claims = claims(4, owners(LOCAL, LOCAL, LOCAL, LOCAL), lag(0L, 0L, 0L, 0L));
+
+        IntStream.range(0, 4).forEach(i -> testSubject.balance(claims, processor));
+        verify(processor, times(2)).releaseSegment(anyInt(), anyLong(), any());
+
+        // without new nodes claiming segments, the period between releases doubles
+        IntStream.range(0, 3).forEach(i -> testSubject.balance(claims, processor));
+        verify(processor, times(2)).releaseSegment(anyInt(), anyLong(), any());
+        testSubject.balance(claims, processor);
+        verify(processor, times(3)).releaseSegment(anyInt(), anyLong(), any());
+    }
+
+    @Test
+    void loneNodeNeverReleasesASegmentToDiscoverIdleNodes() {
+        LagBasedSegmentBalancer testSubject = LagBasedSegmentBalancer.builder()
+                                                                     .cooldownRounds(0)
+                                                                     .discoveryRounds(1)
+                                                                     .build();
+        SegmentClaims claims = claims(4, owners(LOCAL, LOCAL, LOCAL, LOCAL), lag(0L, 0L, 0L, 0L));
+
+        IntStream.range(0, 100).forEach(i -> testSubject.balance(claims, processor));
+
+        verify(processor, never()).releaseSegment(anyInt(), anyLong(), any());
+    }
+
+    @Test
+    void noSegmentIsReleasedToDiscoverIdleNodesOnceTheExpectedNodesClaimSegments() {
+        LagBasedSegmentBalancer testSubject = LagBasedSegmentBalancer.builder()
+                                                                     .cooldownRounds(0)
+                                                                     .discoveryRounds(1)
+                                                                     .expectedNodeCount(2)
+                                                                     .build();
+        SegmentClaims claims = claims(4, owners(LOCAL, LOCAL, OTHER, OTHER), lag(0L, 0L));
+
+        IntStream.range(0, 100).forEach(i -> testSubject.balance(claims, processor));
+
+        verify(processor, never()).releaseSegment(anyInt(), anyLong(), any());
+    }
+
+    @Test
+    void onlyTheFirstOfTheNodesClaimingTheMostSegmentsReleasesOneToDiscoverIdleNodes() {
+        LagBasedSegmentBalancer testSubject = LagBasedSegmentBalancer.builder()
+                                                                     .discoveryRounds(1)
+                                                                     .expectedNodeCount(3)
+                                                                     .build();
+        // "other" precedes "zulu", which this instance uses to claim segments
+        SegmentClaims claims = claims(4, owners("zulu", "zulu", OTHER, OTHER), lag(0L, 0L));
+
+        IntStream.range(0, 10).forEach(i -> testSubject.balance(claims, processor));
+
+        verify(processor, never()).releaseSegment(anyInt(), anyLong(), any());
+    }
+
+    @Test
+    void noActionIsTakenWithoutKnownSegmentOwners() {
+        LagBasedSegmentBalancer testSubject = LagBasedSegmentBalancer.builder()
+                                                                     .stabilizationRounds(1)
+                                                                     .discoveryRounds(1)
+                                                                     .build();
+        SegmentClaims claims = claims(4, new HashMap<>(), lag(50_000L, 50_000L, 50_000L));
+
+        IntStream.range(0, 10).forEach(i -> testSubject.balance(claims, processor));
+
+        verifyNoMoreInteractions(ignoreStubs(processor));
+    }
+
+    @Test
+    void buildingWithInvalidValuesThrowsAxonConfigurationException() {
+        LagBasedSegmentBalancer.Builder builder = LagBasedSegmentBalancer.builder();
+
+        assertThrows(AxonConfigurationException.class, () -> builder.stabilizationRounds(0));
+        assertThrows(AxonConfigurationException.class, () -> builder.cooldownRounds(-1));
+        assertThrows(AxonConfigurationException.class, () -> builder.releaseDuration(0));
+        assertThrows(AxonConfigurationException.class, () -> builder.splitLagThreshold(0));
+        assertThrows(AxonConfigurationException.class, () -> builder.maxSegmentCount(0));
+        assertThrows(AxonConfigurationException.class, () -> builder.discoveryRounds(-1));
+        assertThrows(AxonConfigurationException.class, () -> builder.expectedNodeCount(0));
+    }
+
+    private static SegmentClaims claims(int segmentCount, Map<Integer, String> owners, Map<Integer, Long> localLag) {
+        return new SegmentClaims(IntStream.range(0, segmentCount).toArray(), owners, localLag);
+    }
+
+    private static Map<Integer, String> owners(String... owners) {
+        Map<Integer, String> result = new HashMap<>();
+        for (int segment = 0; segment < owners.length; segment++) {
+            result.put(segment, owners[segment]);
+        }
+        return result;
+    }
+
+    private static Map<Integer, Long> lag(Long... lag) {
+        Map<Integer, Long> result = new HashMap<>();
+        for (int segment = 0; segment < lag.length; segment++) {
+            result.put(segment, lag[segment]);
+        }
+        return result;
+    }
+}
@@ -18,45 +18,68 @@
 
 import org.axonframework.common.AxonConfigurationException;
 import org.axonframework.common.transaction.NoTransactionManager;
+import org.axonframework.eventhandling.AdaptiveBatchSizePolicy;
+import org.axonframework.eventhandling.EventBatch;
+import org.axonframework.eventhandling.EventHandler;
 import org.axonframework.eventhandling.EventHandlerInvoker;
 import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.EventTrackerStatus;
 import org.axonframework.eventhandling.GenericEventMessage;
 import org.axonframework.eventhandling.GlobalSequenceTrackingToken;
 import org.axonframework.eventhandling.PropagatingErrorHandler;
+import org.axonframework.eventhandling.ReplayProfile;
 import org.axonframework.eventhandling.ReplayToken;
 import org.axonframework.eventhandling.Segment;
+import org.axonframework.eventhandling.SimpleEventHandlerInvoker;
 import org.axonframework.eventhandling.TrackedEventMessage;
 import org.axonframework.eventhandling.TrackingToken;
 import org.axonframework.eventhandling.tokenstore.TokenStore;
 import org.axonframework.eventhandling.tokenstore.inmemory.InMemoryTokenStore;
+import org.axonframework.eventhandling.tokenstore.jdbc.GenericTokenTableFactory;
+import org.axonframework.eventhandling.tokenstore.jdbc.JdbcTokenStore;
 import org.axonframework.messaging.Message;
 import org.axonframework.messaging.StreamableMessageSource;
 import org.axonframework.messaging.unitofwork.RollbackConfigurationType;
+import org.axonframework.serialization.TestSerializer;
 import org.axonframework.tracing.TestSpanFactory;
 import org.axonframework.utils.InMemoryStreamableEventSource;
 import org.axonframework.utils.MockException;
+import org.hsqldb.jdbc.JDBCDataSource;
 import org.junit.jupiter.api.*;
 import org.mockito.*;
 
+import java.sql.Connection;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
+import javax.sql.DataSource;
 
 import static org.axonframework.utils.AssertUtils.assertWithin;
 import static org.junit.jupiter.api.Assertions.*;
@@ -308,6 +331,333 @@ private long tokenPosition(TrackingToken token) {
         return token == null ? 0 : token.position().orElseThrow(IllegalArgumentException::new);
     }
 
+    @Test
+    void adaptiveBatchSizeIsReportedThroughTheProcessingStatus() {
+        AdaptiveBatchSizePolicy policy = AdaptiveBatchSizePolicy.builder()
+                                                                .minBatchSize(1)
+                                                                .maxBatchSize(64)
+                                                                .build();
+        setTestSubject(createTestSubject(builder -> builder.initialSegmentCount(1).adaptiveBatchSize(policy)));
+        IntStream.range(0, 100)
+                 .mapToObj(GenericEventMessage::new)
+                 .forEach(stubMessageSource::publishMessage);
+
+        testSubject.start();
+
+        assertWithin(2, TimeUnit.SECONDS, () -> {
+            EventTrackerStatus status = testSubject.processingStatus().get(0);
+            assertNotNull(status);
+            assertEquals(100, status.getCurrentPosition().orElse(0));
+            assertTrue(status.getBatchSize().isPresent());
+            int batchSize = status.getBatchSize().getAsInt();
+            assertTrue(batchSize >= 1 && batchSize <= 64, "Unexpected batch size " + batchSize);
+        });
+    }
+
+    @Test
+    void segmentBalancerEvensOutSegmentsOverInstancesSharingATokenStore() throws SQLException {
+        JDBCDataSource dataSource = new JDBCDataSource();
+        dataSource.setUrl("jdbc:hsqldb:mem:segmentBalancing");
+        dataSource.setUser("sa");
+        dataSource.setPassword("");
+        try (Connection connection = dataSource.getConnection()) {
+            connection.prepareStatement("DROP TABLE IF EXISTS TokenEntry").executeUpdate();
+        }
+        JdbcTokenStore firstTokenStore = jdbcTokenStore(dataSource, "first");
+        JdbcTokenStore secondTokenStore = jdbcTokenStore(dataSource, "second");
+        firstTokenStore.createSchema(GenericTokenTableFactory.INSTANCE);
+
+        setTestSubject(createTestSubject(builder -> builder.tokenStore(firstTokenStore)
+                                                           .tokenClaimInterval(100)
+                                                           .segmentBalancer(balancer(), 50)));
+        PooledStreamingEventProcessor secondProcessor =
+                createTestSubject(builder -> builder.tokenStore(secondTokenStore)
+                                                    .tokenClaimInterval(100)
+                                                    .segmentBalancer(balancer(), 50));
+        try {
+            testSubject.start();
+            assertWithin(1, TimeUnit.SECONDS, () -> assertEquals(8, testSubject.processingStatus().size()));
+
+            secondProcessor.start();
+
+            assertWithin(10, TimeUnit.SECONDS, () -> {
+                assertEquals(4, testSubject.processingStatus().size());
+                assertEquals(4, secondProcessor.processingStatus().size());
+            });
+            Map<Integer, String> owners = firstTokenStore.fetchSegmentOwners(PROCESSOR_NAME);
+            assertEquals(4, owners.values().stream().filter("first"::equals).count());
+            assertEquals(4, owners.values().stream().filter("second"::equals).count());
+        } finally {
+            secondProcessor.shutDown();
+        }
+    }
+
+    private static JdbcTokenStore jdbcTokenStore(DataSource dataSource, String nodeId) {
+        return JdbcTokenStore.builder()
+                             .connectionProvider(dataSource::getConnection)
+                             .serializer(TestSerializer.XSTREAM.getSerializer())
+                             .nodeId(nodeId)
+                             .build();
+    }
+
+    private static LagBasedSegmentBalancer balancer() {
+        // the second processor starts without segments, which the first discovers by releasing one
+        return LagBasedSegmentBalancer.builder()
+                                      .stabilizationRounds(2)
+                                      .cooldownRounds(2)
+                                      .releaseDuration(1000)
+                                      .discoveryRounds(5)
+                                      .expectedNodeCount(2)
+                                      .build();
+    }
+
+    @Test
+    void parallelLanesProcessEventsInOrderPerSequence() throws InterruptedException {
+        ExecutorService laneExecutor = Executors.newFixedThreadPool(3);
+        SequenceRecordingHandler handler = new SequenceRecordingHandler();
+        SimpleEventHandlerInvoker eventHandlerInvoker =
+                SimpleEventHandlerInvoker.builder()
+                                         .eventHandlers(handler)
+                                         .sequencingPolicy(event -> (Integer) event.getPayload() % 4)
+                                         .build();
+        setTestSubject(createTestSubject(builder -> builder.eventHandlerInvoker(eventHandlerInvoker)
+                                                           .initialSegmentCount(1)
+                                                           .batchSize(20)
+                                                           .parallelLanes(4, laneExecutor)));
+        IntStream.range(0, 100)
+                 .mapToObj(GenericEventMessage::new)
+                 .forEach(stubMessageSource::publishMessage);
+
+        try {
+            testSubject.start();
+
+            assertWithin(2, TimeUnit.SECONDS, () -> {
+                EventTrackerStatus status = testSubject.processingStatus().get(0);
+                assertNotNull(status);
+                assertEquals(100, status.getCurrentPosition().orElse(0));
+                assertEquals(OptionalLong.of(100), tokenStore.fetchToken(PROCESSOR_NAME, 0).position());
+            });
+            assertEquals(4, handler.handledPerSequence.size());
+            handler.handledPerSequence.forEach((sequence, handled) -> {
+                assertEquals(25, handled.size());
+                List<Integer> ordered = new ArrayList<>(handled);
+                Collections.sort(ordered);
+                assertEquals(ordered, handled, "Events of sequence " + sequence + " were handled out of order");
+            });
+            assertTrue(handler.handlingThreads.size() > 1, "Expected the lanes to be processed by several threads");
+        } finally {
+            laneExecutor.shutdown();
+        }
+    }
+
+    @Test
+    void rolledBackLaneIsRedeliveredRatherThanSkipped() {
+        ExecutorService laneExecutor = Executors.newFixedThreadPool(3);
+        FailingOnceHandler handler = new FailingOnceHandler(42);
+        InMemoryStreamableEventSource messageSource = spy(stubMessageSource);
+        SimpleEventHandlerInvoker eventHandlerInvoker =
+                SimpleEventHandlerInvoker.builder()
+                                         .eventHandlers(handler)
+                                         .listenerInvocationErrorHandler(PropagatingErrorHandler.instance())
+                                         .sequencingPolicy(event -> (Integer) event.getPayload() % 4)
+                                         .build();
+        // the error handler ignores the failure, so the lane is rolled back without failing
+        setTestSubject(createTestSubject(builder -> builder.eventHandlerInvoker(eventHandlerInvoker)
+                                                           .messageSource(messageSource)
+                                                           .errorHandler(errorContext -> {
+                                                           })
+                                                           .initialSegmentCount(1)
+                                                           .tokenClaimInterval(100)
+                                                           .batchSize(20)
+                                                           .parallelLanes(4, laneExecutor)));
+        IntStream.range(0, 100)
+                 .mapToObj(GenericEventMessage::new)
+                 .forEach(messageSource::publishMessage);
+
+        try {
+            testSubject.start();
+
+            // closing the stream after the abort clears the source, so the events are published again
+            assertWithin(5, TimeUnit.SECONDS, () -> verify(messageSource, times(2)).openStream(any()));
+            assertTrue(handler.failed.get());
+            IntStream.range(0, 100)
+                     .mapToObj(GenericEventMessage::new)
+                     .forEach(messageSource::publishMessage);
+
+            assertWithin(5, TimeUnit.SECONDS, () -> {
+                assertTrue(handler.handled.contains(42), "The event of the rolled back lane was skipped");
+                EventTrackerStatus status = testSubject.processingStatus().get(0);
+                assertNotNull(status);
+                assertEquals(100, status.getCurrentPosition().orElse(0));
+                assertEquals(OptionalLong.of(100), tokenStore.fetchToken(PROCESSOR_NAME, 0).position());
+            });
+        } finally {
+            laneExecutor.shutdown();
+        }
+    }
+
+    @Test
+    void eventsAreDeserializedOnTheDeserializationExecutorAheadOfHandling() {
+        AtomicInteger submittedEvents = new AtomicInteger();
+        ExecutorService deserializationExecutor = new ThreadPoolExecutor(
+                2, 2, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>()
+        ) {
+            @Override
+            public void execute(Runnable command) {
+                submittedEvents.incrementAndGet();
+                super.execute(command);
+            }
+        };
+        List<Integer> handledEvents = new CopyOnWriteArrayList<>();
+        Object handler = new Object() {
+            @EventHandler
+            public void on(Integer value) {
+                handledEvents.add(value);
+            }
+        };
+        SimpleEventHandlerInvoker eventHandlerInvoker = SimpleEventHandlerInvoker.builder()
+                                                                                 .eventHandlers(handler)
+                                                                                 .build();
+        setTestSubject(createTestSubject(builder -> builder.eventHandlerInvoker(eventHandlerInvoker)
+                                                           .initialSegmentCount(1)
+                                                           .batchSize(10)
+                                                           .deserializationExecutor(deserializationExecutor)));
+        IntStream.range(0, 30)
+                 .mapToObj(GenericEventMessage::new)
+                 .forEach(stubMessageSource::publishMessage);
+
+        try {
+            testSubject.start();
+
+            assertWithin(2, TimeUnit.SECONDS, () -> assertEquals(
+                    IntStream.range(0, 30).boxed().collect(Collectors.toList()), handledEvents
+            ));
+            assertEquals(30, submittedEvents.get());
+        } finally {
+            deserializationExecutor.shutdown();
+        }
+    }
+
+    @Test
+    void eventBatchHandlerIsInvokedOncePerProcessedBatch() {
+        List<List<Integer>> handledBatches = new CopyOnWriteArrayList<>();
+        Object handler = new Object() {
+            @EventHandler
+            public void on(@EventBatch List<Integer> values) {
+                handledBatches.add(values);
+            }
+        };
+        SimpleEventHandlerInvoker eventHandlerInvoker = SimpleEventHandlerInvoker.builder()
+                                                                                 .eventHandlers(handler)
+                                                                                 .build();
+        setTestSubject(createTestSubject(builder -> builder.eventHandlerInvoker(eventHandlerInvoker)
+                                                           .initialSegmentCount(1)
+                                                           .batchSize(10)));
+        IntStream.range(0, 30)
+                 .mapToObj(GenericEventMessage::new)
+                 .forEach(stubMessageSource::publishMessage);
+
+        testSubject.start();
+
+        assertWithin(2, TimeUnit.SECONDS, () -> assertEquals(
+                IntStream.range(0, 30).boxed().collect(Collectors.toList()),
+                handledBatches.stream().flatMap(List::stream).collect(Collectors.toList())
+        ));
+        assertTrue(handledBatches.size() < 30, "Expected events to be handled in batches");
+    }
+
+    @Test
+    void replayProfileAppliesWhileReplayingAndRegularSettingsOnceCaughtUp() {
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        Object handler = new Object() {
+            @EventHandler
+            public void on(@EventBatch List<Integer> values) {
+                batchSizes.add(values.size());
+            }
+        };
+        SimpleEventHandlerInvoker eventHandlerInvoker = SimpleEventHandlerInvoker.builder()
+                                                                                 .eventHandlers(handler)
+                                                                                 .build();
+        setTestSubject(createTestSubject(builder -> builder.eventHandlerInvoker(eventHandlerInvoker)
+                                                           .initialSegmentCount(1)
+                                                           .batchSize(1)
+                                                           .replayProfile(ReplayProfile.builder()
+                                                                                       .batchSize(100)
+                                                                                       .build())));
+        IntStream.range(0, 10)
+                 .mapToObj(GenericEventMessage::new)
+                 .forEach(stubMessageSource::publishMessage);
+        testSubject.start();
+        assertWithin(2, TimeUnit.SECONDS, () -> assertEquals(10, batchSizes.size()));
+        testSubject.shutDown();
+        testSubject.resetTokens(StreamableMessageSource::createTailToken);
+        batchSizes.clear();
+
+        testSubject.start();
+        // the stub source clears its events when the stream is closed, hence these are published again
+        IntStream.range(0, 10)
+                 .mapToObj(GenericEventMessage::new)
+                 .forEach(stubMessageSource::publishMessage);
+
+        assertWithin(2, TimeUnit.SECONDS, () -> assertEquals(
+                10, batchSizes.stream().mapToInt(Integer::intValue).sum()
+        ));
+        assertTrue(batchSizes.stream().anyMatch(size -> size > 1), "Expected replayed events to be batched");
+
+        // the first event past the reset position ends the replay
+        stubMessageSource.publishMessage(GenericEventMessage.asEventMessage(10));
+        assertWithin(2, TimeUnit.SECONDS, () -> {
+            EventTrackerStatus status = testSubject.processingStatus().get(0);
+            assertNotNull(status);
+            assertFalse(status.isReplaying());
+            assertEquals(OptionalInt.of(1), status.getBatchSize());
+        });
+        assertWithin(2, TimeUnit.SECONDS, () -> assertEquals(
+                11, batchSizes.stream().mapToInt(Integer::intValue).sum()
+        ));
+
+        batchSizes.clear();
+        IntStream.range(11, 14)
+                 .mapToObj(GenericEventMessage::new)
+                 .forEach(stubMessageSource::publishMessage);
+        assertWithin(2, TimeUnit.SECONDS, () -> assertEquals(Arrays.asList(1, 1, 1), batchSizes));
+    }
+
+    @Test
+    void buildWithParallelLanesWithoutSingleSequencingPolicyThrowsAxonConfigurationException() {
+        ExecutorService laneExecutor = Executors.newSingleThreadExecutor();
+        try {
+            assertThrows(AxonConfigurationException.class,
+                         () -> createTestSubject(builder -> builder.parallelLanes(4, laneExecutor)));
+        } finally {
+            laneExecutor.shutdown();
+        }
+    }
+
+    @Test
+    void coalescedTokenStorageDefersStoringTokensUntilShutdown() {
+        setTestSubject(createTestSubject(builder -> builder.initialSegmentCount(1)
+                                                           .claimExtensionThreshold(60_000)
+                                                           .coalescedTokenStorage(60_000, 1000)));
+        IntStream.range(0, 100)
+                 .mapToObj(GenericEventMessage::new)
+                 .forEach(stubMessageSource::publishMessage);
+
+        testSubject.start();
+
+        assertWithin(2, TimeUnit.SECONDS, () -> {
+            EventTrackerStatus status = testSubject.processingStatus().get(0);
+            assertNotNull(status);
+            assertEquals(100, status.getCurrentPosition().orElse(0));
+        });
+        verify(tokenStore, never()).storeToken(any(), any(), anyInt());
+
+        testSubject.shutDown();
+
+        verify(tokenStore).storeToken(any(), eq(PROCESSOR_NAME), eq(0));
+        assertEquals(100, tokenPosition(tokenStore.fetchToken(PROCESSOR_NAME, 0)));
+    }
+
     @Test
     void exceptionWhileHandlingEventAbortsWorker() throws Exception {
         List<EventMessage<Integer>> events = Stream.of(1, 2, 2, 4, 5)
@@ -1101,6 +1451,22 @@ void buildWithZeroOrNegativeBatchSizeThrowsAxonConfigurationException() {
         assertThrows(AxonConfigurationException.class, () -> builderTestSubject.batchSize(-1));
     }
 
+    @Test
+    void buildWithZeroOrNegativeCoalescedTokenStorageBoundsThrowsAxonConfigurationException() {
+        PooledStreamingEventProcessor.Builder builderTestSubject = PooledStreamingEventProcessor.builder();
+
+        assertThrows(AxonConfigurationException.class, () -> builderTestSubject.coalescedTokenStorage(0, 100));
+        assertThrows(AxonConfigurationException.class, () -> builderTestSubject.coalescedTokenStorage(1000, -1));
+    }
+
+    @Test
+    void buildWithZeroOrNegativeLaneCountThrowsAxonConfigurationException() {
+        PooledStreamingEventProcessor.Builder builderTestSubject = PooledStreamingEventProcessor.builder();
+
+        assertThrows(AxonConfigurationException.class, () -> builderTestSubject.parallelLanes(0, workerExecutor));
+        assertThrows(AxonConfigurationException.class, () -> builderTestSubject.parallelLanes(4, null));
+    }
+
     @Test
     void isReplaying() {
         mockEventHandlerInvoker();
@@ -1138,4 +1504,36 @@ void isReplaying() {
                 }
         );
     }
+
+    private static class FailingOnceHandler {
+
+        private final int failingValue;
+        private final AtomicBoolean failed = new AtomicBoolean();
+        private final Set<Integer> handled = ConcurrentHashMap.newKeySet();
+
+        private FailingOnceHandler(int failingValue) {
+            this.failingValue = failingValue;
+        }
+
+        @EventHandler
+        public void on(Integer value) {
+            if (value == failingValue && failed.compareAndSet(false, true)) {
+                throw new MockException("Simulating a failure of a lane");
+            }
+            handled.add(value);
+        }
+    }
+
+    private static class SequenceRecordingHandler {
+
+        private final Map<Integer, List<Integer>> handledPerSequence = new ConcurrentHashMap<>();
+        private final Set<String> handlingThreads = ConcurrentHashMap.newKeySet();
+
+        @EventHandler
+        public void on(Integer value) throws InterruptedException {
+            handlingThreads.add(Thread.currentThread().getName());
+            handledPerSequence.computeIfAbsent(value % 4, sequence -> new CopyOnWriteArrayList<>()).add(value);
+            Thread.sleep(2);
+        }
+    }
 }
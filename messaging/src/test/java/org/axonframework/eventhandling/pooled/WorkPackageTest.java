@@ -33,6 +33,8 @@
 import org.junit.jupiter.api.*;
 import org.mockito.*;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -524,6 +526,41 @@ public List<EventMessage<?>> getValidatedEvents() {
         }
     }
 
+    @Test
+    void reserveForClaimExtensionIsRefusedWhileTheClaimExtensionIsNotDue() {
+        assertFalse(testSubject.reserveForClaimExtension());
+    }
+
+    @Test
+    void reservedWorkPackageIsNotScheduledUntilItsReservationEnds() {
+        WorkPackage testSubjectDueForClaimExtension =
+                testSubjectBuilder.clock(Clock.offset(Clock.systemUTC(), Duration.ofSeconds(10)))
+                                  .build();
+
+        assertTrue(testSubjectDueForClaimExtension.reserveForClaimExtension());
+        assertFalse(testSubjectDueForClaimExtension.reserveForClaimExtension());
+
+        testSubjectDueForClaimExtension.scheduleWorker();
+        verifyNoInteractions(executorService);
+
+        testSubjectDueForClaimExtension.endClaimExtensionReservation(true);
+        assertFalse(testSubjectDueForClaimExtension.hasUnstoredToken());
+        // The claim counts as extended, so it is not due again until the threshold passes
+        assertFalse(testSubjectDueForClaimExtension.reserveForClaimExtension());
+    }
+
+    @Test
+    void workPackageRemainsDueForClaimExtensionWhenTheReservationEndsWithoutExtendingTheClaim() {
+        WorkPackage testSubjectDueForClaimExtension =
+                testSubjectBuilder.clock(Clock.offset(Clock.systemUTC(), Duration.ofSeconds(10)))
+                                  .build();
+
+        assertTrue(testSubjectDueForClaimExtension.reserveForClaimExtension());
+        testSubjectDueForClaimExtension.endClaimExtensionReservation(false);
+
+        assertTrue(testSubjectDueForClaimExtension.reserveForClaimExtension());
+    }
+
     private class TestBatchProcessor implements WorkPackage.BatchProcessor {
 
         private final List<EventMessage<?>> processedEvents = new ArrayList<>();
@@ -41,20 +41,28 @@
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.support.DefaultTransactionDefinition;
 
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.time.Clock;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 import javax.inject.Named;
 import javax.sql.DataSource;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.Mockito.*;
 
 @ContextConfiguration
 @ExtendWith(SpringExtension.class)
@@ -257,6 +265,23 @@ void queryAvailableSegments() {
         });
     }
 
+    @Test
+    void fetchSegmentOwnersReturnsTheOwnersOfClaimedSegments() {
+        transactionManager.executeInTransaction(() -> tokenStore.initializeTokenSegments("proc", 3));
+        transactionManager.executeInTransaction(() -> tokenStore.fetchToken("proc", 0));
+        transactionManager.executeInTransaction(() -> concurrentTokenStore.fetchToken("proc", 1));
+
+        transactionManager.executeInTransaction(() -> {
+            Map<Integer, String> owners = tokenStore.fetchSegmentOwners("proc");
+            assertEquals(2, owners.size());
+            assertNotNull(owners.get(0));
+            assertNotEquals("concurrent", owners.get(0));
+            assertEquals("concurrent", owners.get(1));
+            // claims are considered expired by the stealing token store
+            assertTrue(stealingTokenStore.fetchSegmentOwners("proc").isEmpty());
+        });
+    }
+
     private void prepareTokenStore() {
         transactionManager.executeInTransaction(() -> {
             tokenStore.initializeTokenSegments("test", 1);
@@ -338,6 +363,123 @@ void stealToken() {
                 () -> stealingTokenStore.storeToken(new GlobalSequenceTrackingToken(1), "stealing", 0));
     }
 
+    @Test
+    void fetchTokensClaimsEverySegmentThatIsAvailable() {
+        int[] segmentIds = {0, 1, 2, 3};
+        List<Segment> segments = Arrays.stream(segmentIds)
+                                       .mapToObj(segmentId -> Segment.computeSegment(segmentId, segmentIds))
+                                       .collect(Collectors.toList());
+        transactionManager.executeInTransaction(() -> tokenStore.initializeTokenSegments("batch", 4));
+        transactionManager.executeInTransaction(() -> concurrentTokenStore.fetchToken("batch", 1));
+
+        Map<Segment, TrackingToken> result =
+                transactionManager.fetchInTransaction(() -> tokenStore.fetchTokens("batch", segments));
+
+        assertEquals(Arrays.asList(segments.get(0), segments.get(2), segments.get(3)),
+                     new ArrayList<>(result.keySet()));
+        assertThrows(UnableToClaimTokenException.class, () -> transactionManager.executeInTransaction(
+                () -> concurrentTokenStore.fetchToken("batch", 3)
+        ));
+    }
+
+    @Test
+    void fetchTokensSkipsSegmentsThatHaveBeenSplitOrMerged() {
+        transactionManager.executeInTransaction(() -> tokenStore.initializeTokenSegments("batch", 4));
+        //Create a segment as if there would be only two segments in total, which have since been split
+        Segment segmentToFetch = Segment.computeSegment(1, 0, 1);
+
+        Map<Segment, TrackingToken> result = transactionManager.fetchInTransaction(
+                () -> tokenStore.fetchTokens("batch", Collections.singletonList(segmentToFetch))
+        );
+
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void extendClaimsOfOwnedTokens() {
+        transactionManager.executeInTransaction(() -> tokenStore.initializeTokenSegments("batch", 2));
+        transactionManager.executeInTransaction(() -> {
+            tokenStore.fetchToken("batch", 0);
+            tokenStore.fetchToken("batch", 1);
+        });
+
+        transactionManager.executeInTransaction(() -> tokenStore.extendClaims("batch", Arrays.asList(0, 1)));
+        assertThrows(UnableToClaimTokenException.class, () -> transactionManager.executeInTransaction(
+                () -> concurrentTokenStore.extendClaims("batch", Arrays.asList(0, 1))
+        ));
+    }
+
+    @Test
+    void extendClaimsClaimsTokensWhoseClaimHasExpired() {
+        transactionManager.executeInTransaction(() -> tokenStore.initializeTokenSegments("batch", 1));
+        transactionManager.executeInTransaction(() -> tokenStore.fetchToken("batch", 0));
+
+        transactionManager.executeInTransaction(() -> stealingTokenStore.extendClaims("batch", Arrays.asList(0)));
+        assertThrows(UnableToClaimTokenException.class, () -> transactionManager.executeInTransaction(
+                () -> tokenStore.extendClaims("batch", Arrays.asList(0))
+        ));
+    }
+
+    @Test
+    void storeTokensStoresEveryTokenWhenTheDriverReportsNoUpdateCounts() {
+        JdbcTokenStore testSubject = new JdbcTokenStore(
+                JdbcTokenStore.builder()
+                              .connectionProvider(dataSource::getConnection)
+                              .serializer(TestSerializer.XSTREAM.getSerializer())
+        ) {
+            @Override
+            protected PreparedStatement storeUpdates(Connection connection,
+                                                     List<Map.Entry<Integer, TrackingToken>> tokens,
+                                                     String processorName) throws SQLException {
+                PreparedStatement statement = super.storeUpdates(connection, tokens, processorName);
+                PreparedStatement noUpdateCountsStatement = mock(PreparedStatement.class, delegatesTo(statement));
+                doAnswer(invocation -> {
+                    int[] updateCounts = statement.executeBatch();
+                    Arrays.fill(updateCounts, Statement.SUCCESS_NO_INFO);
+                    return updateCounts;
+                }).when(noUpdateCountsStatement).executeBatch();
+                return noUpdateCountsStatement;
+            }
+        };
+        TrackingToken tokenZero = new GlobalSequenceTrackingToken(1L);
+        TrackingToken tokenOne = new GlobalSequenceTrackingToken(2L);
+        Map<Integer, TrackingToken> tokens = new HashMap<>();
+        tokens.put(0, tokenZero);
+        tokens.put(1, tokenOne);
+        transactionManager.executeInTransaction(() -> testSubject.initializeTokenSegments("batch", 2));
+        transactionManager.executeInTransaction(() -> testSubject.fetchToken("batch", 0));
+
+        // segment 1 is not claimed yet, so it is not stored by the batch update
+        transactionManager.executeInTransaction(() -> testSubject.storeTokens(tokens, "batch"));
+
+        transactionManager.executeInTransaction(() -> {
+            assertEquals(tokenZero, testSubject.fetchToken("batch", 0));
+            assertEquals(tokenOne, testSubject.fetchToken("batch", 1));
+        });
+    }
+
+    @Test
+    void storeTokensStoresEveryToken() {
+        TrackingToken tokenZero = new GlobalSequenceTrackingToken(1L);
+        TrackingToken tokenOne = new GlobalSequenceTrackingToken(2L);
+        Map<Integer, TrackingToken> tokens = new HashMap<>();
+        tokens.put(0, tokenZero);
+        tokens.put(1, tokenOne);
+        transactionManager.executeInTransaction(() -> tokenStore.initializeTokenSegments("batch", 2));
+        transactionManager.executeInTransaction(() -> tokenStore.fetchToken("batch", 0));
+
+        // segment 1 is not claimed yet, and is claimed as part of storing its token
+        transactionManager.executeInTransaction(() -> tokenStore.storeTokens(tokens, "batch"));
+
+        transactionManager.executeInTransaction(() -> {
+            assertEquals(tokenZero, tokenStore.fetchToken("batch", 0));
+            assertEquals(tokenOne, tokenStore.fetchToken("batch", 1));
+        });
+        assertThrows(UnableToClaimTokenException.class, () -> transactionManager.executeInTransaction(
+                () -> concurrentTokenStore.storeTokens(tokens, "batch")
+        ));
+    }
+
     @Test
     void storeAndLoadAcrossTransactions() {
         transactionManager.executeInTransaction(() -> tokenStore.initializeTokenSegments("multi", 1));
@@ -28,11 +28,15 @@
 
 import java.time.Duration;
 import java.time.temporal.TemporalAmount;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
@@ -220,6 +224,21 @@ void claimAndUpdateToken() {
         assertNull(token.getOwner());
     }
 
+    @Test
+    void fetchSegmentOwnersReturnsTheOwnersOfClaimedSegments() {
+        jpaTokenStore.initializeTokenSegments("test", 3);
+        jpaTokenStore.fetchToken("test", 0);
+        concurrentJpaTokenStore.fetchToken("test", 1);
+
+        Map<Integer, String> owners = jpaTokenStore.fetchSegmentOwners("test");
+
+        assertEquals(2, owners.size());
+        assertEquals("local", owners.get(0));
+        assertEquals("concurrent", owners.get(1));
+        // claims are considered expired by the stealing token store
+        assertTrue(stealingJpaTokenStore.fetchSegmentOwners("test").isEmpty());
+    }
+
     @Test
     void fetchTokenBySegment() {
         jpaTokenStore.initializeTokenSegments("test", 2);
@@ -385,6 +404,61 @@ void extendingLostClaimFails() {
         }
     }
 
+    @Test
+    void fetchTokensClaimsEverySegmentThatIsAvailable() {
+        int[] segmentIds = {0, 1, 2, 3};
+        List<Segment> segments = Arrays.stream(segmentIds)
+                                       .mapToObj(segmentId -> Segment.computeSegment(segmentId, segmentIds))
+                                       .collect(Collectors.toList());
+        jpaTokenStore.initializeTokenSegments("batch", 4);
+        concurrentJpaTokenStore.fetchToken("batch", 1);
+
+        Map<Segment, TrackingToken> result = jpaTokenStore.fetchTokens("batch", segments);
+
+        assertEquals(Arrays.asList(segments.get(0), segments.get(2), segments.get(3)),
+                     new ArrayList<>(result.keySet()));
+        assertThrows(UnableToClaimTokenException.class, () -> concurrentJpaTokenStore.fetchToken("batch", 3));
+    }
+
+    @Test
+    void fetchTokensSkipsSegmentsThatHaveBeenSplitOrMerged() {
+        jpaTokenStore.initializeTokenSegments("batch", 4);
+        //Create a segment as if there would be only two segments in total, which have since been split
+        Segment segmentToFetch = Segment.computeSegment(1, 0, 1);
+
+        assertTrue(jpaTokenStore.fetchTokens("batch", Collections.singletonList(segmentToFetch)).isEmpty());
+    }
+
+    @Test
+    void extendClaimsOfOwnedTokens() {
+        jpaTokenStore.initializeTokenSegments("batch", 2);
+        jpaTokenStore.fetchToken("batch", 0);
+        jpaTokenStore.fetchToken("batch", 1);
+        newTransAction();
+
+        jpaTokenStore.extendClaims("batch", Arrays.asList(0, 1));
+        assertThrows(UnableToClaimTokenException.class,
+                     () -> stealingJpaTokenStore.extendClaims("batch", Arrays.asList(0, 1)));
+    }
+
+    @Test
+    void storeTokensStoresEveryToken() {
+        TrackingToken tokenZero = new GlobalSequenceTrackingToken(1L);
+        TrackingToken tokenOne = new GlobalSequenceTrackingToken(2L);
+        Map<Integer, TrackingToken> tokens = new HashMap<>();
+        tokens.put(0, tokenZero);
+        tokens.put(1, tokenOne);
+        jpaTokenStore.initializeTokenSegments("batch", 2);
+        jpaTokenStore.fetchToken("batch", 0);
+
+        jpaTokenStore.storeTokens(tokens, "batch");
+        newTransAction();
+
+        assertEquals(tokenZero, jpaTokenStore.fetchToken("batch", 0));
+        assertEquals(tokenOne, jpaTokenStore.fetchToken("batch", 1));
+        assertThrows(UnableToClaimTokenException.class, () -> concurrentJpaTokenStore.storeTokens(tokens, "batch"));
+    }
+
     @Test
     void storeAndLoadAcrossTransactions() {
 
@@ -76,7 +76,7 @@ void messageSerialization() {
         SerializedObject<String> serializedMetaData = message.serializeMetaData(jacksonSerializer, String.class);
 
         assertEquals("\"payload\"", serializedPayload.getData());
-        assertEquals("{\"key\":\"value\",\"foo\":\"bar\"}", serializedMetaData.getData());
+        assertEquals("{\"foo\":\"bar\",\"key\":\"value\"}", serializedMetaData.getData());
     }
 
     @Test
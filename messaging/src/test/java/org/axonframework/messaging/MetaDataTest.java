@@ -18,8 +18,15 @@
 
 import org.junit.jupiter.api.Test;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNull;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 class MetaDataTest {
 
@@ -32,4 +39,47 @@ void addNullValueToMetaData() {
         assertNull(metaData.get("nullkey"));
         assertEquals("value", metaData.get("otherkey"));
     }
+
+    @Test
+    void modificationsBeyondTheCompactCapacityRetainAllEntries() {
+        MetaData metaData = MetaData.emptyInstance();
+        Map<String, Object> expected = new HashMap<>();
+        for (int i = 0; i < 12; i++) {
+            metaData = metaData.and("key" + i, i);
+            expected.put("key" + i, i);
+            assertEquals(expected, metaData);
+            assertEquals(expected.hashCode(), metaData.hashCode());
+        }
+
+        MetaData reduced = metaData.withoutKeys(expected.keySet()).and("key0", "other");
+        assertEquals(Collections.singletonMap("key0", "other"), reduced);
+        assertEquals(metaData, reduced.mergedWith(expected));
+    }
+
+    @Test
+    void modificationsReturnTheSameInstanceWhenNothingChanges() {
+        MetaData metaData = MetaData.with("key1", "value1").and("key2", "value2");
+
+        assertSame(metaData, metaData.and("key1", "value1"));
+        assertSame(metaData, metaData.withoutKeys(Collections.singleton("unknown")));
+        assertSame(metaData, metaData.subset("key1", "key2"));
+        assertSame(MetaData.emptyInstance(), metaData.withoutKeys(metaData.keySet()));
+    }
+
+    @Test
+    void javaSerializationRestoresEqualMetaData() throws Exception {
+        MetaData metaData = MetaData.with("key1", "value1").and("key2", null);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(metaData);
+            out.writeObject(MetaData.emptyInstance());
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            MetaData restored = (MetaData) in.readObject();
+            assertEquals(metaData, restored);
+            assertEquals(metaData, restored.and("key1", "value1"));
+            assertSame(MetaData.emptyInstance(), in.readObject());
+        }
+    }
 }
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2010-2022. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.messaging.annotation;
+
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.GenericEventMessage;
+import org.axonframework.messaging.MetaData;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+/**
+ * Benchmark comparing the {@link MethodHandle} based invocation of the {@link AnnotatedMessageHandlingMember} with
+ * reflective invocation of the same handlers, side by side.
+ */
+public class AnnotatedMessageHandlingMemberBenchmark {
+
+    private static final int INVOCATION_COUNT = 50 * 1000 * 1000;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws Exception {
+        ParameterResolverFactory parameterResolverFactory =
+                ClasspathParameterResolverFactory.forClass(BenchmarkHandler.class);
+        EventMessage<String> event = GenericEventMessage.<String>asEventMessage("payload")
+                                                        .withMetaData(MetaData.with("key", "value"));
+        BenchmarkHandler target = new BenchmarkHandler();
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            System.out.println("Round " + round + " of " + ROUNDS);
+            for (String methodName : new String[]{"payloadOnly", "payloadAndMetaData"}) {
+                Method method = Arrays.stream(BenchmarkHandler.class.getDeclaredMethods())
+                                      .filter(m -> m.getName().equals(methodName))
+                                      .findFirst()
+                                      .orElseThrow(IllegalArgumentException::new);
+                AnnotatedMessageHandlingMember<BenchmarkHandler> member = new AnnotatedMessageHandlingMember<>(
+                        method, EventMessage.class, String.class, parameterResolverFactory
+                );
+                ParameterResolver<?>[] resolvers = new ParameterResolver[method.getParameterCount()];
+                for (int i = 0; i < resolvers.length; i++) {
+                    resolvers[i] = parameterResolverFactory.createInstance(method, method.getParameters(), i);
+                }
+
+                long start = System.nanoTime();
+                for (int i = 0; i < INVOCATION_COUNT; i++) {
+                    member.handle(event, target);
+                }
+                report(methodName + " through MethodHandle", start);
+
+                start = System.nanoTime();
+                for (int i = 0; i < INVOCATION_COUNT; i++) {
+                    Object[] params = new Object[resolvers.length];
+                    for (int p = 0; p < params.length; p++) {
+                        params[p] = resolvers[p].resolveParameterValue(event);
+                    }
+                    method.invoke(target, params);
+                }
+                report(methodName + " through reflection", start);
+            }
+            System.out.println("Handled " + target.invocations + " events");
+        }
+    }
+
+    private static void report(String name, long start) {
+        long end = System.nanoTime();
+        System.out.println(name + " did " + (INVOCATION_COUNT * 1_000_000_000L / (end - start))
+                                   + " invocations per second");
+    }
+
+    @SuppressWarnings("unused")
+    private static class BenchmarkHandler {
+
+        private long invocations;
+
+        private void payloadOnly(String event) {
+            invocations++;
+        }
+
+        private void payloadAndMetaData(String event, @MetaDataValue("key") String value) {
+            invocations++;
+        }
+    }
+}
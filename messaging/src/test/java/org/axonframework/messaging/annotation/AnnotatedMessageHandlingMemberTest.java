@@ -4,9 +4,13 @@
 import org.axonframework.commandhandling.CommandMessage;
 import org.axonframework.eventhandling.EventHandler;
 import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.GenericEventMessage;
 import org.axonframework.messaging.HandlerAttributes;
+import org.axonframework.messaging.MetaData;
 import org.junit.jupiter.api.*;
 
+import java.lang.reflect.Method;
+import java.util.Arrays;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -54,6 +58,72 @@ void attributeReturnsNonEmptyOptionalForMatchingAttributeKey() {
         assertEquals(Object.class, resultPayloadType.get());
     }
 
+    @Test
+    void handleInvokesHandlersOfDifferentArities() throws Exception {
+        EventMessage<String> event = GenericEventMessage.<String>asEventMessage("payload")
+                                                        .withMetaData(MetaData.with("key", "value"));
+        InvokedHandler target = new InvokedHandler();
+
+        assertNull(handlerFor("noParameters").handle(event, target));
+        assertEquals("payload", handlerFor("payloadOnly").handle(event, target));
+        assertEquals("payload-value", handlerFor("payloadAndMetaData").handle(event, target));
+        assertEquals("payload-value-" + event.getIdentifier(),
+                     handlerFor("payloadMetaDataAndMessage").handle(event, target));
+        assertEquals("static-payload", handlerFor("staticHandler").handle(event, target));
+        assertEquals(1, target.noParameterInvocations);
+    }
+
+    @Test
+    void handleRethrowsExceptionsOfTheHandlerAsIs() throws Exception {
+        EventMessage<String> event = GenericEventMessage.asEventMessage("payload");
+        AnnotatedMessageHandlingMember<InvokedHandler> failingHandler = handlerFor("failingHandler");
+
+        IllegalStateException actual =
+                assertThrows(IllegalStateException.class, () -> failingHandler.handle(event, new InvokedHandler()));
+        assertEquals("payload", actual.getMessage());
+    }
+
+    private static AnnotatedMessageHandlingMember<InvokedHandler> handlerFor(String methodName) {
+        Method method = Arrays.stream(InvokedHandler.class.getDeclaredMethods())
+                              .filter(m -> m.getName().equals(methodName))
+                              .findFirst()
+                              .orElseThrow(IllegalArgumentException::new);
+        return new AnnotatedMessageHandlingMember<>(
+                method, EventMessage.class, Object.class,
+                ClasspathParameterResolverFactory.forClass(InvokedHandler.class)
+        );
+    }
+
+    @SuppressWarnings("unused")
+    private static class InvokedHandler {
+
+        private int noParameterInvocations;
+
+        private static String staticHandler(String event) {
+            return "static-" + event;
+        }
+
+        private void noParameters() {
+            noParameterInvocations++;
+        }
+
+        private String payloadOnly(String event) {
+            return event;
+        }
+
+        private String payloadAndMetaData(String event, @MetaDataValue("key") String value) {
+            return event + "-" + value;
+        }
+
+        private String payloadMetaDataAndMessage(String event, MetaData metaData, EventMessage<?> message) {
+            return event + "-" + metaData.get("key") + "-" + message.getIdentifier();
+        }
+
+        private void failingHandler(String event) {
+            throw new IllegalStateException(event);
+        }
+    }
+
     @SuppressWarnings("unused")
     private static class AnnotatedHandler {
 
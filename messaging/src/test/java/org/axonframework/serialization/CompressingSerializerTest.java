@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2010-2023. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.serialization;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.axonframework.common.AxonConfigurationException;
+import org.axonframework.serialization.json.JacksonSerializer;
+import org.junit.jupiter.api.*;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class validating the {@link CompressingSerializer}.
+ */
+class CompressingSerializerTest {
+
+    private static final String LARGE_VALUE = String.join("", Collections.nCopies(200, "compressible "));
+
+    private JacksonSerializer delegate;
+    private CompressingSerializer testSubject;
+
+    @BeforeEach
+    void setUp() {
+        delegate = JacksonSerializer.defaultSerializer();
+        testSubject = CompressingSerializer.builder()
+                                           .delegate(delegate)
+                                           .build();
+    }
+
+    @Test
+    void largeDataIsCompressedAndDeserializedAgain() {
+        SerializedObject<byte[]> serialized = testSubject.serialize(LARGE_VALUE, byte[].class);
+
+        assertTrue(CompressingSerializer.isCompressed(serialized.getData()));
+        assertTrue(serialized.getData().length < delegate.serialize(LARGE_VALUE, byte[].class).getData().length);
+        assertEquals(delegate.typeForClass(String.class), serialized.getType());
+        assertEquals(LARGE_VALUE, testSubject.deserialize(serialized));
+    }
+
+    @Test
+    void smallDataIsNotCompressed() {
+        SerializedObject<byte[]> serialized = testSubject.serialize("small", byte[].class);
+
+        assertFalse(CompressingSerializer.isCompressed(serialized.getData()));
+        assertArrayEquals(delegate.serialize("small", byte[].class).getData(), serialized.getData());
+        assertEquals("small", testSubject.deserialize(serialized));
+    }
+
+    @Test
+    void uncompressedDataOfTheDelegateIsDeserialized() {
+        SerializedObject<byte[]> serialized = delegate.serialize(LARGE_VALUE, byte[].class);
+
+        assertEquals(LARGE_VALUE, testSubject.deserialize(serialized));
+    }
+
+    @Test
+    void representationsOtherThanBytesAreNotCompressed() {
+        SerializedObject<String> serialized = testSubject.serialize(LARGE_VALUE, String.class);
+
+        assertEquals(delegate.serialize(LARGE_VALUE, String.class).getData(), serialized.getData());
+        assertEquals(LARGE_VALUE, testSubject.deserialize(serialized));
+    }
+
+    @Test
+    void inputStreamRepresentationIsCompressed() throws Exception {
+        SerializedObject<InputStream> serialized = testSubject.serialize(LARGE_VALUE, InputStream.class);
+
+        byte[] data = new byte[4];
+        assertEquals(4, serialized.getData().read(data));
+        assertEquals(0, data[0]);
+        assertEquals('A', data[1]);
+    }
+
+    @Test
+    void inputStreamRepresentationIsDeserializedAgain() {
+        SerializedObject<InputStream> compressed = testSubject.serialize(LARGE_VALUE, InputStream.class);
+        SerializedObject<InputStream> uncompressed = testSubject.serialize("small", InputStream.class);
+
+        assertEquals(LARGE_VALUE, testSubject.deserialize(compressed));
+        assertEquals("small", testSubject.deserialize(uncompressed));
+    }
+
+    @Test
+    void converterDecompressesInputStreamData() {
+        SerializedObject<InputStream> serialized = testSubject.serialize(LARGE_VALUE, InputStream.class);
+
+        JsonNode node = testSubject.getConverter().convert(serialized, JsonNode.class).getData();
+        assertEquals(LARGE_VALUE, node.asText());
+        InputStream data = testSubject.serialize(LARGE_VALUE, InputStream.class).getData();
+        assertEquals(LARGE_VALUE, testSubject.getConverter().convert(data, JsonNode.class).asText());
+    }
+
+    @Test
+    void converterDecompressesDataForUpcasters() {
+        SerializedObject<byte[]> serialized = testSubject.serialize(LARGE_VALUE, byte[].class);
+
+        JsonNode node = testSubject.getConverter().convert(serialized.getData(), JsonNode.class);
+        assertEquals(LARGE_VALUE, node.asText());
+        SerializedObject<byte[]> decompressed = testSubject.getConverter().convert(serialized, byte[].class);
+        assertFalse(CompressingSerializer.isCompressed(decompressed.getData()));
+    }
+
+    @Test
+    void compressedDataDeclaringAnExcessiveLengthIsRejected() {
+        byte[] data = testSubject.serialize(LARGE_VALUE, byte[].class).getData();
+        ByteBuffer.wrap(data).putInt(4, Integer.MAX_VALUE);
+        SerializedObject<byte[]> corrupt =
+                new SimpleSerializedObject<>(data, byte[].class, delegate.typeForClass(String.class));
+
+        assertThrows(SerializationException.class, () -> testSubject.deserialize(corrupt));
+    }
+
+    @Test
+    void compressedDataDeclaringANegativeLengthIsRejected() {
+        byte[] data = testSubject.serialize(LARGE_VALUE, byte[].class).getData();
+        ByteBuffer.wrap(data).putInt(4, -1);
+        SerializedObject<byte[]> corrupt =
+                new SimpleSerializedObject<>(data, byte[].class, delegate.typeForClass(String.class));
+
+        assertThrows(SerializationException.class, () -> testSubject.deserialize(corrupt));
+    }
+
+    @Test
+    void compressedDataDeclaringATooSmallLengthIsRejected() {
+        byte[] data = testSubject.serialize(LARGE_VALUE, byte[].class).getData();
+        ByteBuffer.wrap(data).putInt(4, 10);
+        SerializedObject<byte[]> corrupt =
+                new SimpleSerializedObject<>(data, byte[].class, delegate.typeForClass(String.class));
+
+        assertThrows(SerializationException.class, () -> testSubject.deserialize(corrupt));
+    }
+
+    @Test
+    void buildWithoutDelegateThrowsAxonConfigurationException() {
+        CompressingSerializer.Builder builder = CompressingSerializer.builder();
+
+        assertThrows(AxonConfigurationException.class, builder::build);
+    }
+
+    @Test
+    void buildWithInvalidCompressionLevelThrowsAxonConfigurationException() {
+        CompressingSerializer.Builder builder = CompressingSerializer.builder();
+
+        assertThrows(AxonConfigurationException.class, () -> builder.compressionLevel(10));
+    }
+}
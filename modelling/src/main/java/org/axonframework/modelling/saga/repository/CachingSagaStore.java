@@ -30,7 +30,8 @@
 /**
  * Saga Repository implementation that adds caching behavior to the repository it wraps. Both associations and sagas are
  * cached, making loading them faster. Commits and adds are always delegated to the wrapped repository. Loads are only
- * delegated if the cache does not contain the necessary entries.
+ * delegated if the cache does not contain the necessary entries. Concurrent loads of the same entry are delegated only
+ * once, provided the caches support this as described by {@link Cache#computeIfAbsent}.
  * <p>
  * Updating associations involves a read and write, which are performed atomically. Therefore, it is unsafe to add or
  * remove specific associations outside this instance. Obviously, clearing and evictions are safe.
@@ -76,20 +77,15 @@ public static <T> Builder<T> builder() {
     @Override
     public Set<String> findSagas(Class<? extends T> sagaType, AssociationValue associationValue) {
         final String key = cacheKey(associationValue, sagaType);
-        associationsCache.putIfAbsent(key, delegate.findSagas(sagaType, associationValue));
-        return associationsCache.get(key);
+        return associationsCache.computeIfAbsent(key, () -> delegate.findSagas(sagaType, associationValue));
     }
 
     @Override
     public <S extends T> Entry<S> loadSaga(Class<S> sagaType, String sagaIdentifier) {
-        Entry<S> saga = sagaCache.get(sagaIdentifier);
-        if (saga == null) {
-            saga = delegate.loadSaga(sagaType, sagaIdentifier);
-            if (saga != null) {
-                sagaCache.put(sagaIdentifier, new CacheEntry<T>(saga));
-            }
-        }
-        return saga;
+        return sagaCache.computeIfAbsent(sagaIdentifier, () -> {
+            Entry<S> saga = delegate.loadSaga(sagaType, sagaIdentifier);
+            return saga != null ? new CacheEntry<S>(saga) : null;
+        });
     }
 
     @Override
@@ -102,6 +102,18 @@ void associationsAddedToCacheOnLoad() {
                                               Collections.singleton("id"));
     }
 
+    @Test
+    void cachedAssociationsAreNotLoadedFromTheDelegate() {
+        AssociationValue associationValue = new AssociationValue("key", "value");
+        testSubject.insertSaga(StubSaga.class, "id", new StubSaga(), singleton(associationValue));
+        clearCaches();
+
+        assertEquals(singleton("id"), testSubject.findSagas(StubSaga.class, associationValue));
+        assertEquals(singleton("id"), testSubject.findSagas(StubSaga.class, associationValue));
+
+        verify(delegate).findSagas(StubSaga.class, associationValue);
+    }
+
     @Test
     void sagaAddedToCacheOnLoad() {
         StubSaga saga = new StubSaga();
@@ -114,7 +126,7 @@ void sagaAddedToCacheOnLoad() {
         assertSame(saga, actual.saga());
 
         verify(sagaCache).get("id");
-        verify(sagaCache).put(eq("id"), any());
+        verify(sagaCache).putIfAbsent(eq("id"), any());
         verify(associationsCache, never()).put(any(), any());
     }
 
@@ -128,6 +140,7 @@ void sagaNotAddedToCacheWhenLoadReturnsNull() {
 
         verify(sagaCache).get("id");
         verify(sagaCache, never()).put(eq("id"), any());
+        verify(sagaCache, never()).putIfAbsent(eq("id"), any());
         verify(associationsCache, never()).put(any(), any());
     }
 
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2010-2022. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.springboot;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Properties describing whether the threads of Axon components are virtual threads, which requires Java 21 or higher.
+ *
+ * @since 4.7.0
+ */
+@ConfigurationProperties("axon.virtual-threads")
+public class VirtualThreadProperties {
+
+    /**
+     * Whether the Tracking and Pooled Streaming Event Processors and the Deadline Manager run on virtual threads.
+     * Defaults to {@code false}. Enabling this on a JVM without virtual thread support fails the startup of the
+     * application.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Indicates whether Axon components run on virtual threads.
+     *
+     * @return {@code true} if Axon components run on virtual threads, {@code false} otherwise
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets whether Axon components run on virtual threads.
+     *
+     * @param enabled whether Axon components run on virtual threads
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+}
@@ -25,11 +25,16 @@
 import org.axonframework.commandhandling.gateway.CommandGateway;
 import org.axonframework.commandhandling.gateway.DefaultCommandGateway;
 import org.axonframework.common.AxonThreadFactory;
+import org.axonframework.common.ThreadPerTaskScheduledExecutor;
+import org.axonframework.common.VirtualThreadFactory;
 import org.axonframework.common.transaction.TransactionManager;
 import org.axonframework.config.Configuration;
+import org.axonframework.config.ConfigurationScopeAwareProvider;
 import org.axonframework.config.ConfigurerModule;
 import org.axonframework.config.EventProcessingConfigurer;
 import org.axonframework.config.TagsConfiguration;
+import org.axonframework.deadline.DeadlineManager;
+import org.axonframework.deadline.SimpleDeadlineManager;
 import org.axonframework.eventhandling.EventBus;
 import org.axonframework.eventhandling.EventMessage;
 import org.axonframework.eventhandling.SimpleEventBus;
@@ -70,6 +75,7 @@
 import org.axonframework.springboot.EventProcessorProperties;
 import org.axonframework.springboot.SerializerProperties;
 import org.axonframework.springboot.TagsConfigurationProperties;
+import org.axonframework.springboot.VirtualThreadProperties;
 import org.axonframework.springboot.util.ConditionalOnMissingQualifiedBean;
 import org.axonframework.tracing.SpanFactory;
 import org.springframework.beans.factory.BeanClassLoaderAware;
@@ -79,6 +85,7 @@
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
@@ -87,6 +94,7 @@
 import java.util.Map;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
 import java.util.function.Function;
 import javax.annotation.Nonnull;
 
@@ -100,13 +108,15 @@
         EventProcessorProperties.class,
         DistributedCommandBusProperties.class,
         SerializerProperties.class,
-        TagsConfigurationProperties.class
+        TagsConfigurationProperties.class,
+        VirtualThreadProperties.class
 })
 public class AxonAutoConfiguration implements BeanClassLoaderAware {
 
     private final EventProcessorProperties eventProcessorProperties;
     private final SerializerProperties serializerProperties;
     private final TagsConfigurationProperties tagsConfigurationProperties;
+    private final VirtualThreadProperties virtualThreadProperties;
     private final ApplicationContext applicationContext;
 
     private ClassLoader beanClassLoader;
@@ -114,10 +124,12 @@ public class AxonAutoConfiguration implements BeanClassLoaderAware {
     public AxonAutoConfiguration(EventProcessorProperties eventProcessorProperties,
                                  SerializerProperties serializerProperties,
                                  TagsConfigurationProperties tagsConfigurationProperties,
+                                 VirtualThreadProperties virtualThreadProperties,
                                  ApplicationContext applicationContext) {
         this.eventProcessorProperties = eventProcessorProperties;
         this.serializerProperties = serializerProperties;
         this.tagsConfigurationProperties = tagsConfigurationProperties;
+        this.virtualThreadProperties = virtualThreadProperties;
         this.applicationContext = applicationContext;
     }
 
@@ -273,6 +285,20 @@ public SpringAggregateSnapshotter aggregateSnapshotter(Configuration configurati
                                          .build();
     }
 
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(name = "axon.virtual-threads.enabled", havingValue = "true")
+    public DeadlineManager deadlineManager(Configuration configuration, TransactionManager transactionManager) {
+        ScheduledExecutorService deadlineExecutor =
+                Executors.newSingleThreadScheduledExecutor(threadFactory("deadlineManager"));
+        return SimpleDeadlineManager.builder()
+                                    .scopeAwareProvider(new ConfigurationScopeAwareProvider(configuration))
+                                    .scheduledExecutorService(deadlineExecutor)
+                                    .transactionManager(transactionManager)
+                                    .spanFactory(configuration.spanFactory())
+                                    .build();
+    }
+
     @SuppressWarnings("unchecked")
     @Autowired
     public void configureEventHandling(EventProcessingConfigurer eventProcessingConfigurer,
@@ -288,7 +314,8 @@ public void configureEventHandling(EventProcessingConfigurer eventProcessingConf
                         .andBatchSize(settings.getBatchSize())
                         .andInitialSegmentsCount(initialSegmentCount(settings, 1))
                         .andTokenClaimInterval(settings.getTokenClaimInterval(),
-                                               settings.getTokenClaimIntervalTimeUnit());
+                                               settings.getTokenClaimIntervalTimeUnit())
+                        .andThreadFactory(this::trackingThreadFactory);
                 Function<Configuration, StreamableMessageSource<TrackedEventMessage<?>>> messageSource =
                         resolveMessageSource(applicationContext, settings);
                 eventProcessingConfigurer.registerTrackingEventProcessor(name, messageSource, c -> config);
@@ -297,10 +324,16 @@ public void configureEventHandling(EventProcessingConfigurer eventProcessingConf
                         name,
                         resolveMessageSource(applicationContext, settings),
                         (config, builder) -> {
-                            ScheduledExecutorService workerExecutor = Executors.newScheduledThreadPool(
-                                    settings.getThreadCount(), new AxonThreadFactory("WorkPackage[" + name + "]")
-                            );
-                            config.onShutdown(workerExecutor::shutdown);
+                            ScheduledExecutorService workerExecutor =
+                                    workerExecutor(config, settings.getThreadCount(), "WorkPackage[" + name + "]");
+                            if (virtualThreadProperties.isEnabled()) {
+                                builder.coordinatorExecutor(processorName -> EventProcessingAutoConfiguration.shutDownWith(
+                                        config,
+                                        Executors.newSingleThreadScheduledExecutor(
+                                                new VirtualThreadFactory("Coordinator[" + processorName + "]")
+                                        )
+                                ));
+                            }
                             return builder.workerExecutor(workerExecutor)
                                           .initialSegmentCount(initialSegmentCount(settings, 16))
                                           .tokenClaimInterval(tokenClaimIntervalMillis(settings))
@@ -320,6 +353,22 @@ public void configureEventHandling(EventProcessingConfigurer eventProcessingConf
         });
     }
 
+    private ThreadFactory trackingThreadFactory(String processorName) {
+        return threadFactory("EventProcessor[" + processorName + "]");
+    }
+
+    private ScheduledExecutorService workerExecutor(Configuration config, int poolSize, String threadName) {
+        // Virtual threads are not pooled, so the pool size only applies to platform threads
+        ScheduledExecutorService executor = virtualThreadProperties.isEnabled()
+                ? new ThreadPerTaskScheduledExecutor(new VirtualThreadFactory(threadName))
+                : Executors.newScheduledThreadPool(poolSize, new AxonThreadFactory(threadName));
+        return EventProcessingAutoConfiguration.shutDownWith(config, executor);
+    }
+
+    private ThreadFactory threadFactory(String name) {
+        return virtualThreadProperties.isEnabled() ? new VirtualThreadFactory(name) : new AxonThreadFactory(name);
+    }
+
     private int initialSegmentCount(EventProcessorProperties.ProcessorSettings settings, int defaultCount) {
         return settings.getInitialSegmentCount() != null ? settings.getInitialSegmentCount() : defaultCount;
     }
@@ -16,12 +16,20 @@
 
 package org.axonframework.springboot.autoconfig;
 
+import org.axonframework.common.ThreadPerTaskScheduledExecutor;
+import org.axonframework.common.VirtualThreadFactory;
+import org.axonframework.config.Configuration;
 import org.axonframework.config.EventProcessingConfiguration;
 import org.axonframework.config.EventProcessingModule;
+import org.axonframework.eventhandling.TrackingEventProcessorConfiguration;
+import org.axonframework.springboot.VirtualThreadProperties;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Auto configuration for {@link EventProcessingModule}.
@@ -29,7 +37,7 @@
  * @author Milan Savic
  * @since 4.0
  */
-@Configuration
+@org.springframework.context.annotation.Configuration
 @AutoConfigureAfter(name = {
         "org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration",
         "org.axonframework.springboot.autoconfig.JpaAutoConfiguration",
@@ -37,11 +45,44 @@
         "org.axonframework.springboot.autoconfig.JpaEventStoreAutoConfiguration",
         "org.axonframework.springboot.autoconfig.ObjectMapperAutoConfiguration"
 })
+@EnableConfigurationProperties(VirtualThreadProperties.class)
 public class EventProcessingAutoConfiguration {
 
     @Bean
     @ConditionalOnMissingBean({EventProcessingModule.class, EventProcessingConfiguration.class})
-    public EventProcessingModule eventProcessingModule() {
-        return new EventProcessingModule();
+    public EventProcessingModule eventProcessingModule(VirtualThreadProperties virtualThreadProperties) {
+        EventProcessingModule eventProcessingModule = new EventProcessingModule();
+        if (virtualThreadProperties.isEnabled()) {
+            // Registered before the module is handed out, so default configurations registered by the application
+            // replace these rather than being replaced by them
+            eventProcessingModule.registerTrackingEventProcessorConfiguration(
+                    c -> c.getComponent(
+                            TrackingEventProcessorConfiguration.class,
+                            () -> TrackingEventProcessorConfiguration.forSingleThreadedProcessing().andThreadFactory(
+                                    name -> new VirtualThreadFactory("EventProcessor[" + name + "]")
+                            )
+                    )
+            );
+            eventProcessingModule.registerPooledStreamingEventProcessorConfiguration(
+                    (config, builder) -> builder.coordinatorExecutor(name -> shutDownWith(
+                                                        config,
+                                                        Executors.newSingleThreadScheduledExecutor(
+                                                                new VirtualThreadFactory("Coordinator[" + name + "]")
+                                                        )
+                                                ))
+                                                .workerExecutor(name -> shutDownWith(
+                                                        config,
+                                                        new ThreadPerTaskScheduledExecutor(
+                                                                new VirtualThreadFactory("WorkPackage[" + name + "]")
+                                                        )
+                                                ))
+            );
+        }
+        return eventProcessingModule;
+    }
+
+    static <E extends ExecutorService> E shutDownWith(Configuration config, E executor) {
+        config.onShutdown(executor::shutdown);
+        return executor;
     }
 }
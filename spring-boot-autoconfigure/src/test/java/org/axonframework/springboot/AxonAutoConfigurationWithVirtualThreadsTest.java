@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2010-2022. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.springboot;
+
+import org.axonframework.common.ReflectionUtils;
+import org.axonframework.common.ThreadPerTaskScheduledExecutor;
+import org.axonframework.common.VirtualThreadFactory;
+import org.axonframework.config.EventProcessingConfigurer;
+import org.axonframework.config.EventProcessingModule;
+import org.axonframework.config.ProcessingGroup;
+import org.axonframework.deadline.SimpleDeadlineManager;
+import org.axonframework.eventhandling.EventHandler;
+import org.axonframework.eventhandling.EventProcessor;
+import org.axonframework.eventhandling.pooled.PooledStreamingEventProcessor;
+import org.axonframework.eventsourcing.eventstore.EmbeddedEventStore;
+import org.axonframework.eventsourcing.eventstore.EventStore;
+import org.axonframework.eventsourcing.eventstore.inmemory.InMemoryEventStorageEngine;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jmx.JmxAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.reactive.function.client.WebClientAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableMBeanExport;
+import org.springframework.jmx.support.RegistrationPolicy;
+
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Tests whether Axon components are configured to run on virtual threads through the {@link VirtualThreadProperties}.
+ */
+class AxonAutoConfigurationWithVirtualThreadsTest {
+
+    @Test
+    void deadlineManagerIsNotConfiguredByDefault() {
+        new ApplicationContextRunner()
+                .withUserConfiguration(Context.class)
+                .run(context -> {
+                    assertNull(context.getStartupFailure());
+                    assertFalse(context.containsBean("deadlineManager"));
+                });
+    }
+
+    @Test
+    void deadlineManagerIsConfiguredWhenVirtualThreadsAreEnabled() {
+        assumeTrue(VirtualThreadFactory.isSupported(), "Virtual threads require Java 21 or higher");
+        new ApplicationContextRunner()
+                .withPropertyValues("axon.virtual-threads.enabled=true")
+                .withUserConfiguration(Context.class)
+                .run(context -> {
+                    assertNull(context.getStartupFailure());
+                    assertTrue(context.getBean("deadlineManager") instanceof SimpleDeadlineManager);
+                    assertNotNull(context.getBean(EventProcessingModule.class));
+                });
+    }
+
+    @Test
+    void pooledStreamingProcessorsRunEveryWorkPackageTaskOnAVirtualThreadOfItsOwn() {
+        assumeTrue(VirtualThreadFactory.isSupported(), "Virtual threads require Java 21 or higher");
+        new ApplicationContextRunner()
+                .withPropertyValues("axon.axonserver.enabled=false", "axon.virtual-threads.enabled=true")
+                .withUserConfiguration(Context.class, PooledStreamingContext.class)
+                .run(context -> {
+                    assertNull(context.getStartupFailure());
+                    EventProcessor processor =
+                            context.getBean(EventProcessingModule.class).eventProcessors().get("pooled");
+
+                    assertTrue(processor instanceof PooledStreamingEventProcessor);
+                    assertTrue(workerExecutor(processor) instanceof ThreadPerTaskScheduledExecutor);
+                });
+    }
+
+    @Test
+    void defaultPooledStreamingProcessorConfigurationOfTheApplicationIsNotReplaced() {
+        assumeTrue(VirtualThreadFactory.isSupported(), "Virtual threads require Java 21 or higher");
+        ScheduledExecutorService applicationExecutor = Executors.newSingleThreadScheduledExecutor();
+        try {
+            new ApplicationContextRunner()
+                    .withPropertyValues("axon.axonserver.enabled=false", "axon.virtual-threads.enabled=true")
+                    .withUserConfiguration(Context.class, PooledStreamingContext.class)
+                    .withBean("applicationExecutor", ScheduledExecutorService.class, () -> applicationExecutor)
+                    .run(context -> {
+                        assertNull(context.getStartupFailure());
+                        EventProcessor processor =
+                                context.getBean(EventProcessingModule.class).eventProcessors().get("pooled");
+
+                        assertSame(applicationExecutor, workerExecutor(processor));
+                    });
+        } finally {
+            applicationExecutor.shutdown();
+        }
+    }
+
+    private static Object workerExecutor(EventProcessor processor) throws NoSuchFieldException {
+        return ReflectionUtils.getFieldValue(
+                PooledStreamingEventProcessor.class.getDeclaredField("workerExecutor"), processor
+        );
+    }
+
+    @Test
+    void enablingVirtualThreadsWithoutJvmSupportFailsTheStartup() {
+        assumeFalse(VirtualThreadFactory.isSupported(), "Virtual threads are supported by this JVM");
+        new ApplicationContextRunner()
+                .withPropertyValues("axon.virtual-threads.enabled=true")
+                .withUserConfiguration(Context.class)
+                .run(context -> assertNotNull(context.getStartupFailure()));
+    }
+
+    @EnableAutoConfiguration(exclude = {
+            JmxAutoConfiguration.class,
+            WebClientAutoConfiguration.class,
+            HibernateJpaAutoConfiguration.class,
+            DataSourceAutoConfiguration.class
+    })
+    @EnableMBeanExport(registration = RegistrationPolicy.IGNORE_EXISTING)
+    @Configuration
+    public static class Context {
+
+    }
+
+    @Configuration
+    public static class PooledStreamingContext {
+
+        @Autowired
+        public void configureEventProcessing(EventProcessingConfigurer eventProcessingConfigurer,
+                                             Optional<ScheduledExecutorService> applicationExecutor) {
+            eventProcessingConfigurer.usingPooledStreamingEventProcessors();
+            applicationExecutor.ifPresent(executor -> eventProcessingConfigurer
+                    .registerPooledStreamingEventProcessorConfiguration(
+                            (config, builder) -> builder.workerExecutor(executor)
+                    ));
+        }
+
+        @Bean
+        public EventStore eventStore() {
+            return EmbeddedEventStore.builder().storageEngine(new InMemoryEventStorageEngine()).build();
+        }
+
+        @Bean
+        public PooledHandler pooledHandler() {
+            return new PooledHandler();
+        }
+
+        @ProcessingGroup("pooled")
+        public static class PooledHandler {
+
+            @EventHandler
+            public void handle(String event) {
+            }
+        }
+    }
+}
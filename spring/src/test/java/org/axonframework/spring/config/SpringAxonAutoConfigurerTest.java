@@ -43,6 +43,7 @@
 import org.axonframework.config.EventProcessingModule;
 import org.axonframework.config.TagsConfiguration;
 import org.axonframework.deadline.annotation.DeadlineMethodMessageHandlerDefinition;
+import org.axonframework.eventhandling.EventBatchHandlerEnhancerDefinition;
 import org.axonframework.eventhandling.EventBus;
 import org.axonframework.eventhandling.EventHandler;
 import org.axonframework.eventhandling.EventMessage;
@@ -360,6 +361,7 @@ void testHandlerDefinitionAndHandlerEnhancerBeansRegistered() {
                         MethodCommandHandlerDefinition.class,
                         MethodQueryMessageHandlerDefinition.class,
                         ReplayAwareMessageHandlerWrapper.class,
+                        EventBatchHandlerEnhancerDefinition.class,
                         DeadlineMethodMessageHandlerDefinition.class,
                         MethodCreationPolicyDefinition.class,
                         MethodCreationPolicyDefinition.class,